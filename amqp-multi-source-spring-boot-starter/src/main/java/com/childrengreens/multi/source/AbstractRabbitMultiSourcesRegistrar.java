@@ -16,8 +16,9 @@
 package com.childrengreens.multi.source;
 
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
-import org.springframework.boot.amqp.autoconfigure.RabbitProperties;
+import org.springframework.util.ClassUtils;
 
 import java.util.Objects;
 
@@ -26,7 +27,7 @@ import java.util.Objects;
  *
  * @author ChildrenGreens
  */
-public abstract class AbstractRabbitMultiSourcesRegistrar extends AbstractMultiSourcesRegistrar<RabbitProperties> {
+public abstract class AbstractRabbitMultiSourcesRegistrar extends AbstractMultiSourcesRegistrar<RabbitSourceProperties> {
 
     /**
      * Get the ConnectionFactory based on the bean name prefix.
@@ -48,9 +49,45 @@ public abstract class AbstractRabbitMultiSourcesRegistrar extends AbstractMultiS
         return connectionFactory;
     }
 
+    /**
+     * Resolve the MessageConverter the source selects with its 'conversion' properties.
+     * @param name source name
+     * @param source source properties
+     * @param beanFactory bean factory
+     * @return message converter, or null if the source uses the application's converter
+     */
+    MessageConverter getSourceMessageConverter(String name, RabbitSourceProperties source, ConfigurableListableBeanFactory beanFactory) {
+        RabbitSourceProperties.Conversion conversion = source.getConversion();
+        if (conversion.getBeanName() != null) {
+            return beanFactory.getBean(conversion.getBeanName(), MessageConverter.class);
+        }
+        String holderBeanName = generateBeanName(SourceMessageConverter.class, name);
+        return beanFactory.containsBean(holderBeanName)
+                ? beanFactory.getBean(holderBeanName, SourceMessageConverter.class).getMessageConverter() : null;
+    }
+
+    /**
+     * Create the MessageConverter the source selects with its 'conversion' type.
+     * @param name source name
+     * @param source source properties
+     * @param beanFactory bean factory
+     * @return message converter, or null if the source uses the application's converter
+     */
+    MessageConverter createSourceMessageConverter(String name, RabbitSourceProperties source, ConfigurableListableBeanFactory beanFactory) {
+        return switch (source.getConversion().getType()) {
+            case JSON -> {
+                if (!ClassUtils.isPresent(RabbitAmqpClassNames.JSON_MAPPER_TYPE, beanFactory.getBeanClassLoader())) {
+                    throw new RuntimeException("source key: " + name + ", " + "JSON message conversion requires Jackson");
+                }
+                yield JacksonMessageConverters.json(beanFactory);
+            }
+            case RAW -> new PassthroughMessageConverter();
+            case DEFAULT -> null;
+        };
+    }
 
     @Override
-    Class<? extends MultiSourcesProperties<RabbitProperties>> getMultiSourcesPropertiesClass() {
+    Class<? extends MultiSourcesProperties<RabbitSourceProperties>> getMultiSourcesPropertiesClass() {
         return RabbitMultiSourcesProperties.class;
     }
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import com.rabbitmq.client.Channel;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+import java.util.concurrent.Executor;
+
+/**
+ * {@link AsyncRabbitTemplate} using direct reply-to that completes the reply futures on an {@link Executor}
+ * instead of the RabbitMQ client's consumer thread, so dependent stages cannot hold up the delivery of other replies.
+ *
+ * @author ChildrenGreens
+ */
+public class ExecutorAsyncRabbitTemplate extends AsyncRabbitTemplate implements DisposableBean {
+
+    private final Executor completionExecutor;
+
+    private ThreadPoolTaskExecutor ownExecutor;
+
+    public ExecutorAsyncRabbitTemplate(RabbitTemplate template, Executor completionExecutor) {
+        super(template);
+        Assert.notNull(completionExecutor, "Completion executor must not be null");
+        this.completionExecutor = completionExecutor;
+    }
+
+    /**
+     * Create a template completing replies on virtual threads, or otherwise on a bounded pool of its own, shut down
+     * when the template is destroyed.
+     * @param template template of the source
+     * @param poolSize maximum number of platform threads completing replies
+     * @param virtualThreads whether to complete replies on virtual threads
+     */
+    public ExecutorAsyncRabbitTemplate(RabbitTemplate template, int poolSize, boolean virtualThreads) {
+        this(template, createCompletionExecutor(poolSize, virtualThreads));
+        if (this.completionExecutor instanceof ThreadPoolTaskExecutor executor) {
+            this.ownExecutor = executor;
+        }
+    }
+
+    private static Executor createCompletionExecutor(int poolSize, boolean virtualThreads) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("rabbit-async-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        Assert.isTrue(poolSize > 0, "Pool size must be greater than 0");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("rabbit-async-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void onMessage(@NonNull Message message, @Nullable Channel channel) {
+        completionExecutor.execute(() -> super.onMessage(message, channel));
+    }
+
+    @Override
+    public void destroy() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    public Executor getCompletionExecutor() {
+        return completionExecutor;
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.BeanFactory;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Create Jackson message converters, kept apart so Jackson stays optional.
+ *
+ * @author ChildrenGreens
+ */
+final class JacksonMessageConverters {
+
+    private JacksonMessageConverters() {
+    }
+
+    /**
+     * Create a JSON converter over the application's JsonMapper, so sources share its serializer caches and
+     * buffer pools. UTF-8 bodies are read straight from the message body, without decoding them to a String first.
+     * @param beanFactory bean factory
+     * @return message converter
+     */
+    static MessageConverter json(BeanFactory beanFactory) {
+        JsonMapper jsonMapper = beanFactory.getBeanProvider(JsonMapper.class).getIfAvailable();
+        return (jsonMapper != null) ? new JacksonJsonMessageConverter(jsonMapper) : new JacksonJsonMessageConverter();
+    }
+}
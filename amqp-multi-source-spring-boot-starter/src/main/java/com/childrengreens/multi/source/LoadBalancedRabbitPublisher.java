@@ -0,0 +1,318 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import com.rabbitmq.client.ShutdownSignalException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.NonNull;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpMessageReturnedException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionListener;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.AmqpNackReceivedException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Spread published messages over a group of equivalent RabbitMQ sources by round-robin, least outstanding confirms
+ * or weight. A source is skipped while its connection is down, as reported to a {@link ConnectionListener} on its
+ * connection factory or by a failed send, and a message whose send fails is published to the next source. Skipped
+ * sources are tried again after {@code retryInterval} and rejoin the rotation once a connection is established.
+ * <p>
+ * With correlated publisher confirms on a source, the returned future completes on the broker's confirm; otherwise
+ * it completes once the message is sent.
+ *
+ * @author ChildrenGreens
+ */
+public class LoadBalancedRabbitPublisher {
+
+    private static final Log logger = LogFactory.getLog(LoadBalancedRabbitPublisher.class);
+
+    private final List<Member> members = new ArrayList<>();
+
+    private final Strategy strategy;
+
+    private final Duration retryInterval;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Create a publisher.
+     * @param templates templates keyed by source name
+     * @param weights weights keyed by source name, for {@link Strategy#WEIGHTED}; missing sources weigh 1
+     * @param strategy selection strategy
+     * @param retryInterval time after which a source marked down is tried again
+     */
+    public LoadBalancedRabbitPublisher(Map<String, RabbitTemplate> templates, Map<String, Integer> weights,
+                                       Strategy strategy, Duration retryInterval) {
+        Assert.notEmpty(templates, "Sources must not be empty");
+        Assert.notNull(strategy, "Strategy must not be null");
+        this.strategy = strategy;
+        this.retryInterval = retryInterval;
+        templates.forEach((name, template) -> {
+            int weight = weights.getOrDefault(name, 1);
+            Assert.isTrue(weight > 0, () -> "source key: " + name + ", weight must be greater than 0");
+            Member member = new Member(name, template, weight);
+            template.getConnectionFactory().addConnectionListener(member);
+            members.add(member);
+        });
+    }
+
+    /**
+     * Convert and publish a message to one of the sources.
+     * @param exchange exchange
+     * @param routingKey routing key
+     * @param payload payload converted with the selected source's message converter
+     * @return future completed once the message is confirmed, or sent if the source does not use confirms
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Object payload) {
+        return publish(exchange, routingKey, (payload instanceof Message message) ? message : null, payload);
+    }
+
+    /**
+     * Publish a message to one of the sources.
+     * @param exchange exchange
+     * @param routingKey routing key
+     * @param message message
+     * @return future completed once the message is confirmed, or sent if the source does not use confirms
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+        return publish(exchange, routingKey, message, message);
+    }
+
+    private CompletableFuture<Void> publish(String exchange, String routingKey, Message message, Object payload) {
+        List<Member> candidates = candidates();
+        AmqpException failure = new AmqpConnectException(new IllegalStateException("No RabbitMQ source available"));
+        while (!candidates.isEmpty()) {
+            Member member = select(candidates);
+            candidates.remove(member);
+            try {
+                Message toSend = (message != null) ? message
+                        : member.template.getMessageConverter().toMessage(payload, new MessageProperties());
+                return member.send(exchange, routingKey, toSend);
+            } catch (AmqpConnectException ex) {
+                member.down(ex);
+                failure = ex;
+            }
+        }
+        return CompletableFuture.failedFuture(failure);
+    }
+
+    /**
+     * Sources to try: the ones up, and the ones down whose retry interval has passed. All of them if none qualifies.
+     * @return candidates, in source order
+     */
+    List<Member> candidates() {
+        long now = System.nanoTime();
+        List<Member> candidates = new ArrayList<>(members.size());
+        for (Member member : members) {
+            if (member.up || now - member.downSince >= retryInterval.toNanos()) {
+                candidates.add(member);
+            }
+        }
+        return candidates.isEmpty() ? new ArrayList<>(members) : candidates;
+    }
+
+    /**
+     * Select one of the candidates with the configured strategy.
+     * @param candidates candidates
+     * @return selected source
+     */
+    Member select(List<Member> candidates) {
+        int offset = (int) Math.floorMod(sequence.getAndIncrement(), (long) candidates.size());
+        return switch (strategy) {
+            case ROUND_ROBIN -> candidates.get(offset);
+            case LEAST_OUTSTANDING -> {
+                Member selected = candidates.get(offset);
+                for (int i = 1; i < candidates.size(); i++) {
+                    Member candidate = candidates.get((offset + i) % candidates.size());
+                    if (candidate.outstanding.get() < selected.outstanding.get()) {
+                        selected = candidate;
+                    }
+                }
+                yield selected;
+            }
+            case WEIGHTED -> {
+                int total = 0;
+                for (Member candidate : candidates) {
+                    total += candidate.weight;
+                }
+                int point = ThreadLocalRandom.current().nextInt(total);
+                Member selected = candidates.get(candidates.size() - 1);
+                for (Member candidate : candidates) {
+                    point -= candidate.weight;
+                    if (point < 0) {
+                        selected = candidate;
+                        break;
+                    }
+                }
+                yield selected;
+            }
+        };
+    }
+
+    public List<Member> getMembers() {
+        return List.copyOf(members);
+    }
+
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * How a source is selected for each message.
+     */
+    public enum Strategy {
+
+        /**
+         * Take the sources in turn.
+         */
+        ROUND_ROBIN,
+
+        /**
+         * Take the source with the fewest messages waiting for a confirm.
+         */
+        LEAST_OUTSTANDING,
+
+        /**
+         * Take sources at random, in proportion to their weight.
+         */
+        WEIGHTED
+    }
+
+    /**
+     * A source of the group and its connection state.
+     */
+    public static final class Member implements ConnectionListener {
+
+        private final String name;
+
+        private final RabbitTemplate template;
+
+        private final int weight;
+
+        private final AtomicInteger outstanding = new AtomicInteger();
+
+        private volatile boolean up = true;
+
+        private volatile long downSince;
+
+        private Member(String name, RabbitTemplate template, int weight) {
+            this.name = name;
+            this.template = template;
+            this.weight = weight;
+        }
+
+        private CompletableFuture<Void> send(String exchange, String routingKey, Message message) {
+            outstanding.incrementAndGet();
+            if (!template.getConnectionFactory().isPublisherConfirms()) {
+                try {
+                    template.send(exchange, routingKey, message);
+                    up();
+                    return CompletableFuture.completedFuture(null);
+                } finally {
+                    outstanding.decrementAndGet();
+                }
+            }
+
+            CorrelationData correlationData = new CorrelationData();
+            try {
+                template.send(exchange, routingKey, message, correlationData);
+            } catch (AmqpException ex) {
+                outstanding.decrementAndGet();
+                throw ex;
+            }
+            up();
+            return correlationData.getFuture().handle((confirm, ex) -> {
+                outstanding.decrementAndGet();
+                ReturnedMessage returned = correlationData.getReturned();
+                if (ex != null) {
+                    throw new AmqpException("source key: " + name + ", confirm failed", ex);
+                }
+                if (returned != null) {
+                    throw new AmqpMessageReturnedException("source key: " + name + ", message returned: " + returned.getReplyText(), returned);
+                }
+                if (!confirm.ack()) {
+                    throw new AmqpNackReceivedException("source key: " + name + ", message nacked: " + confirm.reason(), message);
+                }
+                return null;
+            });
+        }
+
+        private void up() {
+            if (!up) {
+                logger.info("source key: " + name + ", RabbitMQ source back in the publishing rotation");
+                this.up = true;
+            }
+        }
+
+        private void down(Exception cause) {
+            this.downSince = System.nanoTime();
+            if (up) {
+                logger.warn("source key: " + name + ", RabbitMQ source taken out of the publishing rotation: " + cause.getMessage());
+                this.up = false;
+            }
+        }
+
+        @Override
+        public void onCreate(@NonNull Connection connection) {
+            up();
+        }
+
+        @Override
+        public void onShutDown(@NonNull ShutdownSignalException signal) {
+            if (!signal.isInitiatedByApplication()) {
+                down(signal);
+            }
+        }
+
+        @Override
+        public void onFailed(@NonNull Exception exception) {
+            down(exception);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+
+        public int getOutstanding() {
+            return outstanding.get();
+        }
+
+        public boolean isUp() {
+            return up;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpMessageReturnedException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.AmqpNackReceivedException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Publish each message to a group of RabbitMQ sources in parallel, completing once a quorum of them has confirmed it.
+ * The payload is converted once and every source publishes the same body bytes. Each source's confirm is awaited for
+ * at most {@code timeout}; the result fails as soon as too many sources failed for the quorum to be reached.
+ * <p>
+ * The connection factories of the sources must use {@code publisher-confirm-type=correlated}.
+ *
+ * @author ChildrenGreens
+ */
+public class MultiSourceRabbitPublisher implements DisposableBean {
+
+    private final Map<String, RabbitTemplate> templates;
+
+    private final int quorum;
+
+    private final Duration timeout;
+
+    private final Executor executor;
+
+    private ThreadPoolTaskExecutor ownExecutor;
+
+    private final Map<String, SourceStatistics> statistics = new LinkedHashMap<>();
+
+    /**
+     * Create a publisher.
+     * @param templates templates keyed by source name
+     * @param quorum number of sources that must confirm a message
+     * @param timeout time to wait for the confirm of each source
+     * @param executor executor publishing to the sources in parallel
+     */
+    public MultiSourceRabbitPublisher(Map<String, RabbitTemplate> templates, int quorum, Duration timeout, Executor executor) {
+        Assert.notEmpty(templates, "Sources must not be empty");
+        Assert.isTrue(quorum > 0 && quorum <= templates.size(), "Quorum must be between 1 and " + templates.size() + ", got " + quorum);
+        Assert.notNull(executor, "Executor must not be null");
+        templates.forEach((name, template) -> Assert.state(template.getConnectionFactory().isPublisherConfirms(),
+                () -> "source key: " + name + ", fan-out publishing needs publisher-confirm-type=correlated"));
+        this.templates = new LinkedHashMap<>(templates);
+        this.quorum = quorum;
+        this.timeout = timeout;
+        this.executor = executor;
+        templates.keySet().forEach((name) -> statistics.put(name, new SourceStatistics()));
+    }
+
+    /**
+     * Create a publisher publishing on virtual threads, or otherwise from a pool of its own with one thread per
+     * source, shut down when the publisher is destroyed.
+     * @param templates templates keyed by source name
+     * @param quorum number of sources that must confirm a message
+     * @param timeout time to wait for the confirm of each source
+     * @param virtualThreads whether to publish on virtual threads
+     */
+    public MultiSourceRabbitPublisher(Map<String, RabbitTemplate> templates, int quorum, Duration timeout, boolean virtualThreads) {
+        this(templates, quorum, timeout, createExecutor(templates.size(), virtualThreads));
+        if (this.executor instanceof ThreadPoolTaskExecutor executor) {
+            this.ownExecutor = executor;
+        }
+    }
+
+    private static Executor createExecutor(int poolSize, boolean virtualThreads) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("rabbit-fanout-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("rabbit-fanout-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Majority of a group of sources.
+     * @param sources number of sources
+     * @return smallest number of sources that is more than half of them
+     */
+    public static int majority(int sources) {
+        return sources / 2 + 1;
+    }
+
+    /**
+     * Convert a payload once and publish it to every source.
+     * @param exchange exchange
+     * @param routingKey routing key
+     * @param payload payload converted with the first source's message converter
+     * @return future completed once a quorum of sources confirmed the message
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Object payload) {
+        Message message = (payload instanceof Message raw) ? raw
+                : templates.values().iterator().next().getMessageConverter().toMessage(payload, new MessageProperties());
+        return publish(exchange, routingKey, message);
+    }
+
+    /**
+     * Publish a message to every source.
+     * @param exchange exchange
+     * @param routingKey routing key
+     * @param message message
+     * @return future completed once a quorum of sources confirmed the message, or exceptionally once it cannot be reached
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+        Quorum result = new Quorum(quorum, templates.size());
+        templates.forEach((name, template) -> {
+            // share the body bytes, but give every source its own properties since sending updates them
+            Message copy = MessageBuilder.withBody(message.getBody()).copyProperties(message.getMessageProperties()).build();
+            send(name, template, exchange, routingKey, copy).whenComplete((ignored, ex) -> result.record(name, ex));
+        });
+        return result.future;
+    }
+
+    private CompletableFuture<Void> send(String name, RabbitTemplate template, String exchange, String routingKey, Message message) {
+        SourceStatistics sourceStatistics = statistics.get(name);
+        long start = System.nanoTime();
+        CorrelationData correlationData = new CorrelationData();
+        return CompletableFuture.runAsync(() -> template.send(exchange, routingKey, message, correlationData), executor)
+                .thenCompose((ignored) -> correlationData.getFuture())
+                .thenAccept((confirm) -> {
+                    ReturnedMessage returned = correlationData.getReturned();
+                    if (returned != null) {
+                        throw new AmqpMessageReturnedException("source key: " + name + ", message returned: " + returned.getReplyText(), returned);
+                    }
+                    if (!confirm.ack()) {
+                        throw new AmqpNackReceivedException("source key: " + name + ", message nacked: " + confirm.reason(), message);
+                    }
+                })
+                .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .whenComplete((ignored, ex) -> sourceStatistics.record(System.nanoTime() - start, ex));
+    }
+
+    @Override
+    public void destroy() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    public Map<String, SourceStatistics> getStatistics() {
+        return statistics;
+    }
+
+    public int getQuorum() {
+        return quorum;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    /**
+     * Outcomes and confirm latency of one source.
+     */
+    public static final class SourceStatistics {
+
+        private final LongAdder confirmed = new LongAdder();
+
+        private final LongAdder failed = new LongAdder();
+
+        private final LongAdder timedOut = new LongAdder();
+
+        private final LongAdder latencyNanos = new LongAdder();
+
+        private void record(long nanos, Throwable ex) {
+            latencyNanos.add(nanos);
+            Throwable cause = (ex instanceof CompletionException) ? ex.getCause() : ex;
+            if (cause == null) {
+                confirmed.increment();
+            } else if (cause instanceof TimeoutException) {
+                timedOut.increment();
+            } else {
+                failed.increment();
+            }
+        }
+
+        public long getConfirmed() {
+            return confirmed.sum();
+        }
+
+        public long getFailed() {
+            return failed.sum();
+        }
+
+        public long getTimedOut() {
+            return timedOut.sum();
+        }
+
+        public long getCount() {
+            return getConfirmed() + getFailed() + getTimedOut();
+        }
+
+        /**
+         * Total time from publishing to the confirm, failure or timeout of every message.
+         * @return nanoseconds
+         */
+        public long getLatencyNanos() {
+            return latencyNanos.sum();
+        }
+    }
+
+    /**
+     * Confirms and failures of one message across the sources.
+     */
+    private static final class Quorum {
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+
+        private final int required;
+
+        private final int tolerated;
+
+        private final AtomicInteger confirmed = new AtomicInteger();
+
+        private final AtomicInteger failed = new AtomicInteger();
+
+        private final Map<String, Throwable> failures = new ConcurrentHashMap<>();
+
+        private Quorum(int required, int sources) {
+            this.required = required;
+            this.tolerated = sources - required;
+        }
+
+        private void record(String name, Throwable ex) {
+            if (ex == null) {
+                if (confirmed.incrementAndGet() == required) {
+                    future.complete(null);
+                }
+                return;
+            }
+            Throwable cause = (ex instanceof CompletionException) ? ex.getCause() : ex;
+            failures.put(name, cause);
+            if (failed.incrementAndGet() == tolerated + 1) {
+                AmqpException failure = new AmqpException("Quorum of " + required + " sources not reached, failed sources: " + failures.keySet());
+                failures.values().forEach(failure::addSuppressed);
+                future.completeExceptionally(failure);
+            }
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Export {@link MultiSourceRabbitPublisher} statistics as Micrometer meters tagged with the source name.
+ * Only loaded when Micrometer is on the classpath.
+ *
+ * @author ChildrenGreens
+ */
+final class MultiSourceRabbitPublisherMetrics {
+
+    private MultiSourceRabbitPublisherMetrics() {
+    }
+
+    /**
+     * Bind the fan-out meters of every source to every available {@link MeterRegistry}.
+     * @param beanFactory bean factory
+     * @param publisher fan-out publisher
+     */
+    static void bindTo(BeanFactory beanFactory, MultiSourceRabbitPublisher publisher) {
+        ObjectProvider<@NonNull MeterRegistry> meterRegistries = beanFactory.getBeanProvider(MeterRegistry.class);
+        meterRegistries.orderedStream().forEach((registry) -> bindTo(registry, publisher));
+    }
+
+    static void bindTo(MeterRegistry registry, MultiSourceRabbitPublisher publisher) {
+        publisher.getStatistics().forEach((name, statistics) -> {
+            Tags tags = Tags.of("source", name);
+            publishes(registry, tags, statistics, "confirmed", MultiSourceRabbitPublisher.SourceStatistics::getConfirmed);
+            publishes(registry, tags, statistics, "failed", MultiSourceRabbitPublisher.SourceStatistics::getFailed);
+            publishes(registry, tags, statistics, "timeout", MultiSourceRabbitPublisher.SourceStatistics::getTimedOut);
+            FunctionTimer.builder("rabbitmq.fanout.confirm", statistics,
+                            MultiSourceRabbitPublisher.SourceStatistics::getCount,
+                            MultiSourceRabbitPublisher.SourceStatistics::getLatencyNanos, TimeUnit.NANOSECONDS)
+                    .description("Time from publishing a fan-out message to the source's confirm")
+                    .tags(tags)
+                    .register(registry);
+        });
+    }
+
+    private static void publishes(MeterRegistry registry, Tags tags, MultiSourceRabbitPublisher.SourceStatistics statistics,
+                                  String result, ToDoubleFunction<MultiSourceRabbitPublisher.SourceStatistics> count) {
+        FunctionCounter.builder("rabbitmq.fanout.publishes", statistics, count)
+                .description("Fan-out messages published to the source, by outcome")
+                .tags(tags.and("result", result))
+                .register(registry);
+    }
+}
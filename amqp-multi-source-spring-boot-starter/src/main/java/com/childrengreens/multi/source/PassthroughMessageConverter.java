@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * {@link MessageConverter} that passes raw payloads through. A {@code byte[]} payload, or a heap {@link ByteBuffer}
+ * spanning its whole backing array, becomes the message body without being copied, and received messages are
+ * converted to their body as is.
+ *
+ * @author ChildrenGreens
+ */
+public class PassthroughMessageConverter implements MessageConverter {
+
+    @Override
+    public @NonNull Message toMessage(@NonNull Object object, @NonNull MessageProperties messageProperties) throws MessageConversionException {
+        byte[] body;
+        if (object instanceof byte[] bytes) {
+            body = bytes;
+        } else if (object instanceof ByteBuffer buffer) {
+            body = toBytes(buffer);
+        } else {
+            throw new MessageConversionException("PassthroughMessageConverter only supports byte[] and ByteBuffer payloads, not "
+                    + object.getClass().getName());
+        }
+        messageProperties.setContentType(MessageProperties.CONTENT_TYPE_BYTES);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    private byte[] toBytes(ByteBuffer buffer) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    @Override
+    public @NonNull Object fromMessage(@NonNull Message message) throws MessageConversionException {
+        return message.getBody();
+    }
+}
@@ -20,12 +20,38 @@ package com.childrengreens.multi.source;
  */
 final class RabbitAmqpClassNames {
 
-    static final String RABBIT_ANNOTATION_DRIVEN_CONFIGURATION = "org.springframework.boot.amqp.autoconfigure.RabbitAnnotationDrivenConfiguration";
-
     static final String PROPERTIES_RABBIT_CONNECTION_DETAILS = "org.springframework.boot.amqp.autoconfigure.PropertiesRabbitConnectionDetails";
 
     static final String SSL_BUNDLE_RABBIT_CONNECTION_FACTORY_BEAN = "org.springframework.boot.amqp.autoconfigure.SslBundleRabbitConnectionFactoryBean";
 
+    static final String METER_REGISTRY_TYPE = "io.micrometer.core.instrument.MeterRegistry";
+
+    static final String JSON_MAPPER_TYPE = "tools.jackson.databind.json.JsonMapper";
+
+    static final String RABBIT_STREAM_CONFIGURATION = "org.springframework.boot.amqp.autoconfigure.RabbitStreamConfiguration";
+
+    static final String RABBIT_STREAM_TEMPLATE_CONFIGURER = "org.springframework.boot.amqp.autoconfigure.RabbitStreamTemplateConfigurer";
+
+    static final String ENVIRONMENT_BUILDER_CUSTOMIZER = "org.springframework.boot.amqp.autoconfigure.EnvironmentBuilderCustomizer";
+
+    static final String STREAM_ENVIRONMENT = "com.rabbitmq.stream.Environment";
+
+    static final String STREAM_MESSAGE = "com.rabbitmq.stream.Message";
+
+    static final String STREAM_MESSAGE_PROPERTIES = "com.rabbitmq.stream.Properties";
+
+    static final String RABBIT_STREAM_TEMPLATE = "org.springframework.rabbit.stream.producer.RabbitStreamTemplate";
+
+    static final String PRODUCER_CUSTOMIZER = "org.springframework.rabbit.stream.producer.ProducerCustomizer";
+
+    static final String STREAM_MESSAGE_CONVERTER = "org.springframework.rabbit.stream.support.converter.StreamMessageConverter";
+
+    static final String STREAM_RABBIT_LISTENER_CONTAINER_FACTORY = "org.springframework.rabbit.stream.config.StreamRabbitListenerContainerFactory";
+
+    static final String STREAM_LISTENER_CONTAINER = "org.springframework.rabbit.stream.listener.StreamListenerContainer";
+
+    static final String CONSUMER_CUSTOMIZER = "org.springframework.rabbit.stream.listener.ConsumerCustomizer";
+
     private RabbitAmqpClassNames() {
     }
 }
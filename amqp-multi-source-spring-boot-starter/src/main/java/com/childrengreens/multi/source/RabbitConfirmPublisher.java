@@ -0,0 +1,171 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpMessageReturnedException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.AmqpNackReceivedException;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Publish messages through a source's {@link RabbitTemplate} with correlated publisher confirms, returning a future
+ * per message instead of blocking on {@code waitForConfirms}. At most {@code maxOutstanding} messages wait for their
+ * confirm at a time; further publishers block until a confirm arrives, which keeps a fast producer from outrunning
+ * the broker. Nacked and returned messages are published again up to {@code retries} times.
+ * <p>
+ * The template's connection factory must use {@code publisher-confirm-type=correlated}, and returns are only seen
+ * with {@code publisher-returns=true}; both are implied by {@code confirms.enabled}. Confirms are handled on the
+ * connection's thread, and only a message published again hands off to the executor.
+ *
+ * @author ChildrenGreens
+ */
+public class RabbitConfirmPublisher {
+
+    private static final Log logger = LogFactory.getLog(RabbitConfirmPublisher.class);
+
+    private final String name;
+
+    private final RabbitTemplate template;
+
+    private final Executor executor;
+
+    private final Semaphore window;
+
+    private final int maxOutstanding;
+
+    private final int retries;
+
+    private final Duration timeout;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Create a publisher.
+     * @param name source name
+     * @param template template of the source
+     * @param confirms confirm properties
+     * @param executor executor publishing retries, off the connection's thread
+     */
+    public RabbitConfirmPublisher(String name, RabbitTemplate template, RabbitSourceProperties.Confirms confirms, Executor executor) {
+        Assert.notNull(template, "RabbitTemplate must not be null");
+        Assert.state(template.getConnectionFactory().isPublisherConfirms(),
+                () -> "source key: " + name + ", confirm publishing needs publisher-confirm-type=correlated");
+        Assert.isTrue(confirms.getMaxOutstanding() > 0, "Max outstanding must be greater than 0");
+        Assert.isTrue(confirms.getRetries() >= 0, "Retries must not be negative");
+        this.name = name;
+        this.template = template;
+        this.executor = executor;
+        this.maxOutstanding = confirms.getMaxOutstanding();
+        this.window = new Semaphore(maxOutstanding);
+        this.retries = confirms.getRetries();
+        this.timeout = confirms.getTimeout();
+    }
+
+    /**
+     * Convert and publish a message, waiting for room in the confirm window if needed.
+     * @param exchange exchange
+     * @param routingKey routing key
+     * @param payload payload converted with the template's message converter
+     * @return future completed when the broker confirms the message, or exceptionally once retries are exhausted
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Object payload) {
+        Message message = (payload instanceof Message raw) ? raw
+                : template.getMessageConverter().toMessage(payload, new MessageProperties());
+        return publish(exchange, routingKey, message);
+    }
+
+    /**
+     * Publish a message, waiting for room in the confirm window if needed.
+     * @param exchange exchange
+     * @param routingKey routing key
+     * @param message message
+     * @return future completed when the broker confirms the message, or exceptionally once retries are exhausted
+     */
+    public CompletableFuture<Void> publish(String exchange, String routingKey, Message message) {
+        try {
+            window.acquire();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(new AmqpException("Interrupted while waiting for a publisher confirm", ex));
+        }
+        CompletableFuture<Void> confirmed = send(exchange, routingKey, message, 0);
+        confirmed.whenComplete((result, ex) -> window.release());
+        return confirmed;
+    }
+
+    private CompletableFuture<Void> send(String exchange, String routingKey, Message message, int attempt) {
+        CorrelationData correlationData = new CorrelationData(name + "-" + sequence.incrementAndGet());
+        try {
+            template.send(exchange, routingKey, message, correlationData);
+        } catch (AmqpException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        return correlationData.getFuture()
+                .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .thenCompose((confirm) -> {
+                    ReturnedMessage returned = correlationData.getReturned();
+                    if (confirm.ack() && returned == null) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    AmqpException failure = (returned != null)
+                            ? new AmqpMessageReturnedException("source key: " + name + ", message returned: " + returned.getReplyText(), returned)
+                            : new AmqpNackReceivedException("source key: " + name + ", message nacked: " + confirm.reason(), message);
+                    if (attempt >= retries) {
+                        return CompletableFuture.failedFuture(failure);
+                    }
+                    if (logger.isDebugEnabled()) {
+                        logger.debug(failure.getMessage() + ", publishing again (attempt " + (attempt + 2) + ")");
+                    }
+                    return CompletableFuture.supplyAsync(() -> send(exchange, routingKey, message, attempt + 1), executor)
+                            .thenCompose(Function.identity());
+                });
+    }
+
+    /**
+     * Number of messages waiting for their confirm.
+     * @return outstanding confirms
+     */
+    public int getOutstanding() {
+        return maxOutstanding - window.availablePermits();
+    }
+
+    public int getMaxOutstanding() {
+        return maxOutstanding;
+    }
+
+    public RabbitTemplate getTemplate() {
+        return template;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
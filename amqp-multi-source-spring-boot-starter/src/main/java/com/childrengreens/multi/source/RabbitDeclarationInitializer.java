@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Open the connection of every source in parallel before the listener containers start. A {@link RabbitAdmin}
+ * declares its declarables in one pass on a single channel each time its connection is created. Opening all the
+ * connections up front makes the brokers' declaration passes overlap instead of running one after another as
+ * containers and templates first connect.
+ * <p>
+ * A source whose broker cannot be reached is logged and left to connect on first use.
+ *
+ * @author ChildrenGreens
+ */
+public class RabbitDeclarationInitializer implements SmartLifecycle {
+
+    private static final Log logger = LogFactory.getLog(RabbitDeclarationInitializer.class);
+
+    private final Map<String, ConnectionFactory> connectionFactories;
+
+    private final Duration timeout;
+
+    private final Executor executor;
+
+    private volatile boolean running;
+
+    /**
+     * Create an initializer.
+     * @param connectionFactories connection factories keyed by source name
+     * @param timeout time to wait for all sources to connect and declare
+     * @param executor executor opening the connections
+     */
+    public RabbitDeclarationInitializer(Map<String, ConnectionFactory> connectionFactories, Duration timeout, Executor executor) {
+        this.connectionFactories = connectionFactories;
+        this.timeout = timeout;
+        this.executor = executor;
+    }
+
+    @Override
+    public void start() {
+        List<CompletableFuture<Void>> declarations = new ArrayList<>(connectionFactories.size());
+        connectionFactories.forEach((name, connectionFactory) -> declarations.add(CompletableFuture.runAsync(() -> {
+            // the connection stays open in the connection factory's cache; closing the proxy only releases it
+            try (Connection connection = connectionFactory.createConnection()) {
+                if (logger.isDebugEnabled()) {
+                    logger.debug("source key: " + name + ", connected and declared on " + connection);
+                }
+            }
+        }, executor).exceptionally((ex) -> {
+            logger.warn("source key: " + name + ", failed to connect at startup, declaring on first use: " + ex.getMessage());
+            return null;
+        })));
+
+        try {
+            CompletableFuture.allOf(declarations.toArray(new CompletableFuture[0])).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            logger.warn("Sources still connecting after " + timeout + ", continuing startup");
+        } catch (ExecutionException ex) {
+            logger.warn("Failed to connect sources at startup: " + ex.getMessage());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        this.running = true;
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start just before the listener containers, which use the default phase.
+     * @return phase
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1000;
+    }
+
+    public Map<String, ConnectionFactory> getConnectionFactories() {
+        return connectionFactories;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+}
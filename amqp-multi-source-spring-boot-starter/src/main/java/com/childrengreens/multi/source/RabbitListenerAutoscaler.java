@@ -0,0 +1,282 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.AbstractMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.DirectFieldAccessor;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Adjust the consumers and prefetch of a RabbitMQ source's listener containers at runtime. Consumers are added
+ * while the queue depth read through the source's {@link AmqpAdmin} exceeds {@code backlog-per-consumer}, or while
+ * messages wait and consumers are busy; they are removed once the backlog is gone and consumers sit idle. Prefetch
+ * follows the mean listener latency, measured by {@link #getAdvice()} in the containers' advice chain. Consumers only
+ * read prefetch when they start, so a running container is restarted to apply a new prefetch; changes within a
+ * quarter of the current value are ignored to keep restarts rare.
+ *
+ * @author ChildrenGreens
+ */
+public class RabbitListenerAutoscaler implements SmartLifecycle {
+
+    private static final Log logger = LogFactory.getLog(RabbitListenerAutoscaler.class);
+
+    private final String name;
+
+    private final ConnectionFactory connectionFactory;
+
+    private final AmqpAdmin amqpAdmin;
+
+    private final RabbitSourceProperties.Autoscaling autoscaling;
+
+    private final Supplier<Collection<MessageListenerContainer>> containers;
+
+    private final boolean virtualThreads;
+
+    private final LongAdder busyNanos = new LongAdder();
+
+    private final LongAdder processed = new LongAdder();
+
+    private final MethodInterceptor advice = (invocation) -> {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            busyNanos.add(System.nanoTime() - start);
+            processed.increment();
+        }
+    };
+
+    private final Map<AbstractMessageListenerContainer, ContainerState> states = new ConcurrentHashMap<>();
+
+    private volatile long lastEvaluation = System.nanoTime();
+
+    private volatile SimpleAsyncTaskScheduler scheduler;
+
+    private volatile boolean running;
+
+    public RabbitListenerAutoscaler(String name, ConnectionFactory connectionFactory, AmqpAdmin amqpAdmin,
+                                    RabbitSourceProperties.Autoscaling autoscaling,
+                                    Supplier<Collection<MessageListenerContainer>> containers, boolean virtualThreads) {
+        this.name = name;
+        this.connectionFactory = connectionFactory;
+        this.amqpAdmin = amqpAdmin;
+        this.autoscaling = autoscaling;
+        this.containers = containers;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Advice timing listener invocations; add it to the advice chain of the source's container factories.
+     * @return advice
+     */
+    public MethodInterceptor getAdvice() {
+        return advice;
+    }
+
+    @Override
+    public void start() {
+        SimpleAsyncTaskScheduler taskScheduler = new SimpleAsyncTaskScheduler();
+        taskScheduler.setThreadNamePrefix("rabbit-autoscaler-");
+        taskScheduler.setVirtualThreads(virtualThreads);
+        taskScheduler.scheduleWithFixedDelay(this::adjust, autoscaling.getInterval());
+        this.scheduler = taskScheduler;
+        this.running = true;
+    }
+
+    @Override
+    public void stop() {
+        SimpleAsyncTaskScheduler taskScheduler = this.scheduler;
+        if (taskScheduler != null) {
+            taskScheduler.close();
+            this.scheduler = null;
+        }
+        this.running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Evaluate every listener container of the source once.
+     */
+    void adjust() {
+        long now = System.nanoTime();
+        long elapsed = now - lastEvaluation;
+        this.lastEvaluation = now;
+        long busy = busyNanos.sumThenReset();
+        long count = processed.sumThenReset();
+
+        List<AbstractMessageListenerContainer> sourceContainers = getContainers();
+        states.keySet().retainAll(sourceContainers);
+        long consumers = 0;
+        for (AbstractMessageListenerContainer container : sourceContainers) {
+            consumers += state(container, now).consumers;
+        }
+        double utilization = (consumers > 0 && elapsed > 0) ? (double) busy / ((double) elapsed * consumers) : 0;
+        Duration latency = (count > 0) ? Duration.ofNanos(busy / count) : null;
+
+        for (AbstractMessageListenerContainer container : sourceContainers) {
+            try {
+                adjust(container, getQueueDepth(container), utilization, latency, now);
+            } catch (AmqpException ex) {
+                logger.warn("source key: " + name + ", failed to autoscale listener container " + container.getListenerId() + ": " + ex.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Grow or shrink the consumers of one container and align its prefetch with the listener latency.
+     * @param container listener container
+     * @param depth messages ready in the container's queues
+     * @param utilization share of time the source's consumers spent in listeners
+     * @param latency mean listener latency, or {@code null} if nothing was processed
+     * @param now current {@link System#nanoTime()}
+     */
+    void adjust(AbstractMessageListenerContainer container, long depth, double utilization, Duration latency, long now) {
+        ContainerState state = state(container, now);
+        int consumers = state.consumers;
+        int backlogPerConsumer = autoscaling.getBacklogPerConsumer();
+
+        int target = consumers;
+        if (depth > (long) consumers * backlogPerConsumer || (depth > 0 && utilization >= autoscaling.getHighUtilization())) {
+            target = consumers + autoscaling.getStep();
+        } else if (depth <= (long) (consumers - 1) * backlogPerConsumer && utilization < autoscaling.getLowUtilization()) {
+            target = consumers - autoscaling.getStep();
+        }
+        target = Math.max(autoscaling.getMinConsumers(), Math.min(target, autoscaling.getMaxConsumers()));
+
+        int prefetch = state.prefetch;
+        if (latency != null) {
+            long window = autoscaling.getPrefetchWindow().toNanos() / Math.max(latency.toNanos(), 1);
+            int aligned = (int) Math.max(autoscaling.getMinPrefetch(), Math.min(window, autoscaling.getMaxPrefetch()));
+            // changing prefetch restarts the consumers, so ignore changes within a quarter of the current value
+            if (Math.abs(aligned - prefetch) * 4L > prefetch) {
+                prefetch = aligned;
+            }
+        }
+
+        if ((target == consumers && prefetch == state.prefetch) || now - state.lastChange < autoscaling.getCooldown().toNanos()) {
+            return;
+        }
+
+        // consumers read prefetch when they start, so restart running ones to apply a new value
+        boolean restart = prefetch != state.prefetch && container.isRunning();
+        if (restart) {
+            container.stop();
+        }
+        container.setPrefetchCount(prefetch);
+        if (container instanceof SimpleMessageListenerContainer simple) {
+            if (target > consumers) {
+                simple.setMaxConcurrentConsumers(target);
+                simple.setConcurrentConsumers(target);
+            } else {
+                simple.setConcurrentConsumers(target);
+                simple.setMaxConcurrentConsumers(target);
+            }
+        } else if (container instanceof DirectMessageListenerContainer direct) {
+            direct.setConsumersPerQueue(target);
+        }
+        if (restart) {
+            container.start();
+        }
+        if (target != consumers || restart) {
+            logger.info("source key: " + name + ", listener container " + container.getListenerId()
+                    + " consumers " + consumers + " -> " + target + ", prefetch " + prefetch + ", queue depth " + depth);
+        }
+        state.consumers = target;
+        state.prefetch = prefetch;
+        state.lastChange = now;
+    }
+
+    /**
+     * Resolve the listener containers consuming from the source, skipping exclusive ones.
+     * @return containers
+     */
+    List<AbstractMessageListenerContainer> getContainers() {
+        return containers.get().stream()
+                .filter((container) -> container instanceof SimpleMessageListenerContainer || container instanceof DirectMessageListenerContainer)
+                .map(AbstractMessageListenerContainer.class::cast)
+                .filter((container) -> container.getConnectionFactory() == connectionFactory)
+                .filter((container) -> !Boolean.TRUE.equals(new DirectFieldAccessor(container).getPropertyValue("exclusive")))
+                .toList();
+    }
+
+    private long getQueueDepth(AbstractMessageListenerContainer container) {
+        long depth = 0;
+        for (String queueName : container.getQueueNames()) {
+            QueueInformation queueInfo = amqpAdmin.getQueueInfo(queueName);
+            if (queueInfo != null) {
+                depth += queueInfo.getMessageCount();
+            }
+        }
+        return depth;
+    }
+
+    private ContainerState state(AbstractMessageListenerContainer container, long now) {
+        return states.computeIfAbsent(container, (key) -> {
+            DirectFieldAccessor accessor = new DirectFieldAccessor(key);
+            Object consumers = (key instanceof SimpleMessageListenerContainer)
+                    ? accessor.getPropertyValue("concurrentConsumers") : accessor.getPropertyValue("consumersPerQueue");
+            Object prefetch = accessor.getPropertyValue("prefetchCount");
+            return new ContainerState(consumers instanceof Integer count ? count : autoscaling.getMinConsumers(),
+                    prefetch instanceof Integer count ? count : autoscaling.getMinPrefetch(),
+                    now - autoscaling.getCooldown().toNanos());
+        });
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Consumers and prefetch last applied to a container.
+     */
+    private static final class ContainerState {
+
+        private int consumers;
+
+        private int prefetch;
+
+        private long lastChange;
+
+        private ContainerState(int consumers, int prefetch, long lastChange) {
+            this.consumers = consumers;
+            this.prefetch = prefetch;
+            this.lastChange = lastChange;
+        }
+    }
+}
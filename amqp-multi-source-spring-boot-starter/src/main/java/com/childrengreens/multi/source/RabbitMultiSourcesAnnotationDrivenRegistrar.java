@@ -15,26 +15,40 @@
  */
 package com.childrengreens.multi.source;
 
+import org.aopalliance.aop.Advice;
 import org.jspecify.annotations.NonNull;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.batch.BatchingStrategy;
+import org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.config.ContainerCustomizer;
 import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.RetryInterceptorBuilder;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.rabbit.retry.RejectAndDontRequeueRecoverer;
+import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.boot.amqp.autoconfigure.DirectRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.amqp.autoconfigure.RabbitListenerRetrySettingsCustomizer;
 import org.springframework.boot.amqp.autoconfigure.RabbitProperties;
 import org.springframework.boot.amqp.autoconfigure.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.retry.RetryPolicySettings;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.ResolvableType;
 import org.springframework.core.task.VirtualThreadTaskExecutor;
-import org.springframework.util.ClassUtils;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * RabbitMQ multi-data-source annotation-driven BeanDefinition registrar.
@@ -44,108 +58,207 @@ import java.lang.reflect.Method;
 public class RabbitMultiSourcesAnnotationDrivenRegistrar extends AbstractRabbitMultiSourcesRegistrar {
 
     @Override
-    void registerBeanDefinitionsForSource(String name, RabbitProperties source, BeanDefinitionRegistry registry, Boolean isPrimary) {
+    void registerBeanDefinitionsForSource(String name, RabbitSourceProperties source, BeanDefinitionRegistry registry, Boolean isPrimary) {
 
 
         if (registry instanceof ConfigurableListableBeanFactory beanFactory) {
-            try {
-                Class<?> clazz = ClassUtils.forName(RabbitAmqpClassNames.RABBIT_ANNOTATION_DRIVEN_CONFIGURATION, ClassUtils.getDefaultClassLoader());
-                Method simpleListenerConfigurer = clazz.getDeclaredMethod("simpleListenerConfigurer");
-                Method directListenerConfigurer = clazz.getDeclaredMethod("directListenerConfigurer");
-                RabbitProperties.ContainerType type = source.getListener().getType();
-
-                switch (type) {
-                    case SIMPLE -> {
-
-                        String simpleConfigurerBeanName = generateBeanName(SimpleRabbitListenerContainerFactoryConfigurer.class, name);
-                        // register SimpleRabbitListenerContainerFactoryConfigurer
-                        registerBeanDefinition(registry,
-                                SimpleRabbitListenerContainerFactoryConfigurer.class,
-                                simpleConfigurerBeanName,
-                                isPrimary,
-                                ()-> {
-                                    Object bean = beanFactory.getBean(clazz);
-
-                                    simpleListenerConfigurer.setAccessible(true);
-                                    try {
-                                        SimpleRabbitListenerContainerFactoryConfigurer configurer = (SimpleRabbitListenerContainerFactoryConfigurer) simpleListenerConfigurer.invoke(bean);
-                                        if (isVirtualThreads()) {
-                                            configurer.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-simple-"));
-                                        }
-                                        return configurer;
-                                    } catch (IllegalAccessException | InvocationTargetException e) {
-                                        throw new RuntimeException(e);
-                                    }
-                                });
-
-
-                        // register SimpleRabbitListenerContainerFactory
-                        registerBeanDefinition(registry,
-                                SimpleRabbitListenerContainerFactory.class,
-                                generateBeanName(SimpleRabbitListenerContainerFactory.class, name),
-                                isPrimary,
-                                ()-> {
-                                    SimpleRabbitListenerContainerFactoryConfigurer configurer = beanFactory.getBean(simpleConfigurerBeanName, SimpleRabbitListenerContainerFactoryConfigurer.class);
-                                    ResolvableType resolvableType = ResolvableType.forType(new ParameterizedTypeReference<@NonNull ContainerCustomizer<@NonNull SimpleMessageListenerContainer>>() {
-                                    });
-                                    ObjectProvider<@NonNull ContainerCustomizer<@NonNull SimpleMessageListenerContainer>> simpleContainerCustomizer = beanFactory.getBeanProvider(resolvableType);
-                                    ConnectionFactory connectionFactory = getConnectionFactoryBean(name, beanFactory);
-
-                                    SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
-                                    configurer.configure(factory, connectionFactory);
-                                    simpleContainerCustomizer.ifUnique(factory::setContainerCustomizer);
-                                    return factory;
-                                });
-
-
-                    }
-                    case DIRECT -> {
-
-                        String directConfigurerBeanName = generateBeanName(DirectRabbitListenerContainerFactoryConfigurer.class, name);
-                        // register DirectRabbitListenerContainerFactoryConfigurer
-                        registerBeanDefinition(registry,
-                                DirectRabbitListenerContainerFactoryConfigurer.class,
-                                directConfigurerBeanName,
-                                isPrimary,
-                                ()-> {
-                                    Object bean = beanFactory.getBean(clazz);
-
-                                    directListenerConfigurer.setAccessible(true);
-                                    try {
-                                        DirectRabbitListenerContainerFactoryConfigurer configurer = (DirectRabbitListenerContainerFactoryConfigurer) directListenerConfigurer.invoke(bean);
-                                        if (isVirtualThreads()) {
-                                            configurer.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-direct-"));
-                                        }
-                                        return configurer;
-                                    } catch (IllegalAccessException | InvocationTargetException e) {
-                                        throw new RuntimeException(e);
-                                    }
-                                });
-
-                        // register DirectRabbitListenerContainerFactory
-                        registerBeanDefinition(registry,
-                                DirectRabbitListenerContainerFactory.class,
-                                generateBeanName(DirectRabbitListenerContainerFactory.class, name),
-                                isPrimary,
-                                ()-> {
-                                    DirectRabbitListenerContainerFactoryConfigurer configurer = beanFactory.getBean(directConfigurerBeanName, DirectRabbitListenerContainerFactoryConfigurer.class);
-                                    ResolvableType resolvableType = ResolvableType.forType(new ParameterizedTypeReference<@NonNull ContainerCustomizer<@NonNull DirectMessageListenerContainer>>() {
-                                    });
-                                    ObjectProvider<@NonNull ContainerCustomizer<@NonNull DirectMessageListenerContainer>> directContainerCustomizer = beanFactory.getBeanProvider(resolvableType);
-                                    ConnectionFactory connectionFactory = getConnectionFactoryBean(name, beanFactory);
-
-                                    DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
-                                    configurer.configure(factory, connectionFactory);
-                                    directContainerCustomizer.ifUnique(factory::setContainerCustomizer);
-                                    return factory;
-                                });
-
-
-                    }
-                }
-            } catch (ClassNotFoundException | NoSuchMethodException e) {
-                throw new RuntimeException(e);
+            RabbitSourceProperties.Batching batching = source.getBatching();
+            // configurers stay primary for Boot's own factory; only the factory selected by listener.type is primary
+            RabbitProperties.ContainerType type = source.getListener().getType();
+            boolean isSimplePrimary = isPrimary && type == RabbitProperties.ContainerType.SIMPLE;
+            boolean isDirectPrimary = isPrimary && type == RabbitProperties.ContainerType.DIRECT;
+
+            // register both container models, each configured from the source's own listener properties
+            String simpleConfigurerBeanName = generateBeanName(SimpleRabbitListenerContainerFactoryConfigurer.class, name);
+            // register SimpleRabbitListenerContainerFactoryConfigurer
+            registerBeanDefinition(registry,
+                    SimpleRabbitListenerContainerFactoryConfigurer.class,
+                    simpleConfigurerBeanName,
+                    isPrimary,
+                    ()-> createSimpleListenerConfigurer(source));
+
+
+            // register SimpleRabbitListenerContainerFactory
+            registerBeanDefinition(registry,
+                    SimpleRabbitListenerContainerFactory.class,
+                    generateBeanName(SimpleRabbitListenerContainerFactory.class, name),
+                    isSimplePrimary,
+                    ()-> {
+                        SimpleRabbitListenerContainerFactoryConfigurer configurer = beanFactory.getBean(simpleConfigurerBeanName, SimpleRabbitListenerContainerFactoryConfigurer.class);
+                        ResolvableType resolvableType = ResolvableType.forType(new ParameterizedTypeReference<@NonNull ContainerCustomizer<@NonNull SimpleMessageListenerContainer>>() {
+                        });
+                        ObjectProvider<@NonNull ContainerCustomizer<@NonNull SimpleMessageListenerContainer>> simpleContainerCustomizer = beanFactory.getBeanProvider(resolvableType);
+                        ConnectionFactory connectionFactory = getConnectionFactoryBean(name, beanFactory);
+
+                        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+                        configurer.configure(factory, connectionFactory);
+                        setMessageConverter(name, source, beanFactory, factory);
+                        setRetryAdvice(source.getListener().getSimple().getRetry(), beanFactory, factory);
+                        if (source.getListener().getSimple().isConsumerBatchEnabled()) {
+                            // consumer batching already switches the factory to batch listeners
+                            factory.setBatchReceiveTimeout(batching.getReceiveTimeout().toMillis());
+                        }
+                        simpleContainerCustomizer.ifUnique(factory::setContainerCustomizer);
+                        addAutoscalerAdvice(name, source, beanFactory, factory);
+                        return factory;
+                    });
+
+
+            String directConfigurerBeanName = generateBeanName(DirectRabbitListenerContainerFactoryConfigurer.class, name);
+            // register DirectRabbitListenerContainerFactoryConfigurer
+            registerBeanDefinition(registry,
+                    DirectRabbitListenerContainerFactoryConfigurer.class,
+                    directConfigurerBeanName,
+                    isPrimary,
+                    ()-> {
+                        DirectRabbitListenerContainerFactoryConfigurer configurer = new DirectRabbitListenerContainerFactoryConfigurer(source);
+                        if (isVirtualThreads()) {
+                            configurer.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-direct-"));
+                        }
+                        return configurer;
+                    });
+
+            // register DirectRabbitListenerContainerFactory
+            registerBeanDefinition(registry,
+                    DirectRabbitListenerContainerFactory.class,
+                    generateBeanName(DirectRabbitListenerContainerFactory.class, name),
+                    isDirectPrimary,
+                    ()-> {
+                        DirectRabbitListenerContainerFactoryConfigurer configurer = beanFactory.getBean(directConfigurerBeanName, DirectRabbitListenerContainerFactoryConfigurer.class);
+                        ResolvableType resolvableType = ResolvableType.forType(new ParameterizedTypeReference<@NonNull ContainerCustomizer<@NonNull DirectMessageListenerContainer>>() {
+                        });
+                        ObjectProvider<@NonNull ContainerCustomizer<@NonNull DirectMessageListenerContainer>> directContainerCustomizer = beanFactory.getBeanProvider(resolvableType);
+                        ConnectionFactory connectionFactory = getConnectionFactoryBean(name, beanFactory);
+
+                        DirectRabbitListenerContainerFactory factory = new DirectRabbitListenerContainerFactory();
+                        configurer.configure(factory, connectionFactory);
+                        setMessageConverter(name, source, beanFactory, factory);
+                        setRetryAdvice(source.getListener().getDirect().getRetry(), beanFactory, factory);
+                        directContainerCustomizer.ifUnique(factory::setContainerCustomizer);
+                        addAutoscalerAdvice(name, source, beanFactory, factory);
+                        return factory;
+                    });
+
+            // register a batch listener SimpleRabbitListenerContainerFactory for the BatchingRabbitTemplate's batches
+            if (batching.isEnabled()) {
+                registerBeanDefinition(registry,
+                        SimpleRabbitListenerContainerFactory.class,
+                        name + "Batch" + RabbitListenerContainerFactory.class.getSimpleName(),
+                        false,
+                        () -> {
+                            SimpleRabbitListenerContainerFactoryConfigurer configurer = beanFactory.getBean(simpleConfigurerBeanName, SimpleRabbitListenerContainerFactoryConfigurer.class);
+                            ConnectionFactory connectionFactory = getConnectionFactoryBean(name, beanFactory);
+
+                            SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+                            configurer.configure(factory, connectionFactory);
+                            setMessageConverter(name, source, beanFactory, factory);
+                            setRetryAdvice(source.getListener().getSimple().getRetry(), beanFactory, factory);
+                            factory.setBatchingStrategy(beanFactory.getBean(generateBeanName(BatchingStrategy.class, name), BatchingStrategy.class));
+                            factory.setBatchListener(true);
+                            factory.setConsumerBatchEnabled(true);
+                            factory.setBatchSize(batching.getSize());
+                            factory.setBatchReceiveTimeout(batching.getReceiveTimeout().toMillis());
+                            addAutoscalerAdvice(name, source, beanFactory, factory);
+                            return factory;
+                        });
             }
+
+            // register RabbitListenerAutoscaler
+            if (source.getAutoscaling().isEnabled()) {
+                registerBeanDefinition(registry,
+                        RabbitListenerAutoscaler.class,
+                        generateBeanName(RabbitListenerAutoscaler.class, name),
+                        isPrimary,
+                        () -> {
+                            ConnectionFactory connectionFactory = getConnectionFactoryBean(name, beanFactory);
+                            String amqpAdminBeanName = generateBeanName(AmqpAdmin.class, name);
+                            AmqpAdmin amqpAdmin = beanFactory.containsBean(amqpAdminBeanName)
+                                    ? beanFactory.getBean(amqpAdminBeanName, AmqpAdmin.class) : new RabbitAdmin(connectionFactory);
+                            return new RabbitListenerAutoscaler(name, connectionFactory, amqpAdmin, source.getAutoscaling(), () -> {
+                                List<MessageListenerContainer> containers = new ArrayList<>(
+                                        beanFactory.getBeansOfType(MessageListenerContainer.class, false, false).values());
+                                beanFactory.getBeanProvider(RabbitListenerEndpointRegistry.class)
+                                        .ifAvailable((endpointRegistry) -> containers.addAll(endpointRegistry.getListenerContainers()));
+                                return containers;
+                            }, isVirtualThreads());
+                        });
+            }
+        }
+    }
+
+    /**
+     * Set the message converter the source selects on a container factory, falling back to the application's unique
+     * MessageConverter bean.
+     * @param name source name
+     * @param source source properties
+     * @param beanFactory bean factory
+     * @param factory container factory
+     */
+    private void setMessageConverter(String name, RabbitSourceProperties source, ConfigurableListableBeanFactory beanFactory,
+                                     AbstractRabbitListenerContainerFactory<?> factory) {
+        MessageConverter messageConverter = getSourceMessageConverter(name, source, beanFactory);
+        if (messageConverter == null) {
+            messageConverter = beanFactory.getBeanProvider(MessageConverter.class).getIfUnique();
+        }
+        if (messageConverter != null) {
+            factory.setMessageConverter(messageConverter);
+        }
+    }
+
+    /**
+     * Replace the retry advice a configurer builds from the source's listener retry properties with one that uses the
+     * application's MessageRecoverer and RabbitListenerRetrySettingsCustomizer beans.
+     * @param retry source listener retry properties
+     * @param beanFactory bean factory
+     * @param factory container factory
+     */
+    private void setRetryAdvice(RabbitProperties.ListenerRetry retry, ConfigurableListableBeanFactory beanFactory,
+                                AbstractRabbitListenerContainerFactory<?> factory) {
+        if (!retry.isEnabled()) {
+            return;
+        }
+        RetryPolicySettings settings = new RetryPolicySettings();
+        settings.setMaxRetries(retry.getMaxRetries());
+        settings.setDelay(retry.getInitialInterval());
+        settings.setMultiplier(retry.getMultiplier());
+        settings.setMaxDelay(retry.getMaxInterval());
+        beanFactory.getBeanProvider(RabbitListenerRetrySettingsCustomizer.class).orderedStream()
+                .forEach((customizer) -> customizer.customize(settings));
+
+        RetryInterceptorBuilder<?, ?> builder = retry.isStateless() ? RetryInterceptorBuilder.stateless() : RetryInterceptorBuilder.stateful();
+        builder.retryPolicy(settings.createRetryPolicy());
+        builder.recoverer(beanFactory.getBeanProvider(MessageRecoverer.class).getIfUnique(RejectAndDontRequeueRecoverer::new));
+        factory.setAdviceChain(builder.build());
+    }
+
+    /**
+     * Append the advice of the source's RabbitListenerAutoscaler to a container factory, so it can measure listener latency.
+     * @param name source name
+     * @param source source properties
+     * @param beanFactory bean factory
+     * @param factory container factory
+     */
+    private void addAutoscalerAdvice(String name, RabbitSourceProperties source, ConfigurableListableBeanFactory beanFactory,
+                                     AbstractRabbitListenerContainerFactory<?> factory) {
+        if (source.getAutoscaling().isEnabled()) {
+            RabbitListenerAutoscaler autoscaler = beanFactory.getBean(generateBeanName(RabbitListenerAutoscaler.class, name), RabbitListenerAutoscaler.class);
+            Advice[] adviceChain = factory.getAdviceChain();
+            List<Advice> advices = new ArrayList<>((adviceChain != null) ? Arrays.asList(adviceChain) : List.of());
+            advices.add(autoscaler.getAdvice());
+            factory.setAdviceChain(advices.toArray(new Advice[0]));
+        }
+    }
+
+    /**
+     * Create a SimpleRabbitListenerContainerFactoryConfigurer bound to the source's listener properties.
+     * @param source source properties
+     * @return configurer
+     */
+    private SimpleRabbitListenerContainerFactoryConfigurer createSimpleListenerConfigurer(RabbitSourceProperties source) {
+        SimpleRabbitListenerContainerFactoryConfigurer configurer = new SimpleRabbitListenerContainerFactoryConfigurer(source);
+        if (isVirtualThreads()) {
+            configurer.setTaskExecutor(new VirtualThreadTaskExecutor("rabbit-simple-"));
         }
+        return configurer;
     }
 }
@@ -28,6 +28,8 @@ import org.springframework.context.annotation.Import;
  */
 @AutoConfiguration(before = RabbitAutoConfiguration.class)
 @ImportRuntimeHints(RabbitMultiSourcesRuntimeHints.class)
-@Import({RabbitMultiSourcesConnectionFactoryRegistrar.class, RabbitMultiSourcesTemplateRegistrar.class, RabbitMultiSourcesAnnotationDrivenRegistrar.class})
+@Import({RabbitMultiSourcesConnectionFactoryRegistrar.class, RabbitMultiSourcesTemplateRegistrar.class, RabbitMultiSourcesAnnotationDrivenRegistrar.class,
+        RabbitMultiSourcesStreamRegistrar.class, RabbitMultiSourcesPublisherRegistrar.class, RabbitMultiSourcesDeclarationRegistrar.class,
+        SourceDeclarableBeanPostProcessor.class})
 public class RabbitMultiSourcesAutoConfiguration {
 }
@@ -39,7 +39,7 @@ public class RabbitMultiSourcesConnectionFactoryRegistrar extends AbstractRabbit
     private ResourceLoader resourceLoader;
 
     @Override
-    void registerBeanDefinitionsForSource(String name, RabbitProperties source, BeanDefinitionRegistry registry, Boolean isPrimary) {
+    void registerBeanDefinitionsForSource(String name, RabbitSourceProperties source, BeanDefinitionRegistry registry, Boolean isPrimary) {
 
         if (registry instanceof ConfigurableListableBeanFactory beanFactory) {
             // register PropertiesRabbitConnectionDetails
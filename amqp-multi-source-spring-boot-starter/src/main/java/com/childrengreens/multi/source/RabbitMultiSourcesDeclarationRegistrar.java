@@ -0,0 +1,79 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * RabbitMQ multi-data-source BeanDefinition registrar for the declaration of declarables across sources.
+ *
+ * @author ChildrenGreens
+ */
+public class RabbitMultiSourcesDeclarationRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void registerBeanDefinitions(@NonNull AnnotationMetadata importingClassMetadata, @NonNull BeanDefinitionRegistry registry) {
+        String prefix = RabbitMultiSourcesProperties.class.getAnnotation(ConfigurationProperties.class).prefix();
+        RabbitMultiSourcesProperties properties = Binder.get(environment).bind(prefix, RabbitMultiSourcesProperties.class).orElse(null);
+        if (properties == null || CollectionUtils.isEmpty(properties.getSources())
+                || !(registry instanceof ConfigurableListableBeanFactory beanFactory)) {
+            return;
+        }
+
+        // register RabbitDeclarationInitializer over the sources declaring through their own AmqpAdmin
+        RabbitMultiSourcesProperties.Declaration declaration = properties.getDeclaration();
+        if (declaration.isParallelStartup()) {
+            registry.registerBeanDefinition(StringUtils.uncapitalize(RabbitDeclarationInitializer.class.getSimpleName()),
+                    BeanDefinitionBuilder.genericBeanDefinition(RabbitDeclarationInitializer.class, () -> {
+                        Map<String, ConnectionFactory> connectionFactories = new LinkedHashMap<>();
+                        for (String name : properties.getSources().keySet()) {
+                            if (beanFactory.containsBean(name + AmqpAdmin.class.getSimpleName())) {
+                                connectionFactories.put(name, beanFactory.getBean(name + CachingConnectionFactory.class.getSimpleName(), ConnectionFactory.class));
+                            }
+                        }
+                        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("rabbit-declare-");
+                        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+                        return new RabbitDeclarationInitializer(connectionFactories, declaration.getStartupTimeout(), executor);
+                    }).getBeanDefinition());
+        }
+    }
+
+    @Override
+    public void setEnvironment(@NonNull Environment environment) {
+        this.environment = environment;
+    }
+}
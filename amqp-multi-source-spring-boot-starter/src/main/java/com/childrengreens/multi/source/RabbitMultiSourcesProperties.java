@@ -15,14 +15,173 @@
  */
 package com.childrengreens.multi.source;
 
-import org.springframework.boot.amqp.autoconfigure.RabbitProperties;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Configuration properties for multi data source RabbitMQ.
  *
  * @author ChildrenGreens
  */
 @ConfigurationProperties(prefix = "spring.multi-sources.rabbitmq")
-public class RabbitMultiSourcesProperties extends MultiSourcesProperties<RabbitProperties> {
+public class RabbitMultiSourcesProperties extends MultiSourcesProperties<RabbitSourceProperties> {
+
+    private final FanOut fanOut = new FanOut();
+
+    private final LoadBalancing loadBalancing = new LoadBalancing();
+
+    private final Declaration declaration = new Declaration();
+
+    public FanOut getFanOut() {
+        return fanOut;
+    }
+
+    public LoadBalancing getLoadBalancing() {
+        return loadBalancing;
+    }
+
+    public Declaration getDeclaration() {
+        return declaration;
+    }
+
+    /**
+     * Properties of the MultiSourceRabbitPublisher.
+     */
+    public static class FanOut {
+
+        /**
+         * Sources every message is published to in parallel.
+         */
+        private List<String> sources = new ArrayList<>();
+
+        /**
+         * Number of sources that must confirm a message. Defaults to a majority of the sources.
+         */
+        private Integer quorum;
+
+        /**
+         * Time to wait for the confirm of each source.
+         */
+        private Duration timeout = Duration.ofSeconds(5);
+
+        public List<String> getSources() {
+            return sources;
+        }
+
+        public void setSources(List<String> sources) {
+            this.sources = sources;
+        }
+
+        public Integer getQuorum() {
+            return quorum;
+        }
+
+        public void setQuorum(Integer quorum) {
+            this.quorum = quorum;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * Properties of the LoadBalancedRabbitPublisher.
+     */
+    public static class LoadBalancing {
+
+        /**
+         * Equivalent sources messages are spread over.
+         */
+        private List<String> sources = new ArrayList<>();
+
+        /**
+         * How a source is selected for each message.
+         */
+        private LoadBalancedRabbitPublisher.Strategy strategy = LoadBalancedRabbitPublisher.Strategy.ROUND_ROBIN;
+
+        /**
+         * Weights of the sources for the weighted strategy. Sources without a weight weigh 1.
+         */
+        private Map<String, Integer> weights = new LinkedHashMap<>();
+
+        /**
+         * Time after which a source whose connection is down is tried again.
+         */
+        private Duration retryInterval = Duration.ofSeconds(5);
+
+        public List<String> getSources() {
+            return sources;
+        }
+
+        public void setSources(List<String> sources) {
+            this.sources = sources;
+        }
+
+        public LoadBalancedRabbitPublisher.Strategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(LoadBalancedRabbitPublisher.Strategy strategy) {
+            this.strategy = strategy;
+        }
+
+        public Map<String, Integer> getWeights() {
+            return weights;
+        }
+
+        public void setWeights(Map<String, Integer> weights) {
+            this.weights = weights;
+        }
+
+        public Duration getRetryInterval() {
+            return retryInterval;
+        }
+
+        public void setRetryInterval(Duration retryInterval) {
+            this.retryInterval = retryInterval;
+        }
+    }
+
+    /**
+     * Properties of the declaration of queues, exchanges and bindings on the sources.
+     */
+    public static class Declaration {
+
+        /**
+         * Whether to connect every source in parallel at startup, so each source's AmqpAdmin declares before the
+         * listener containers start.
+         */
+        private boolean parallelStartup;
+
+        /**
+         * Time to wait at startup for the sources to connect and declare.
+         */
+        private Duration startupTimeout = Duration.ofSeconds(60);
+
+        public boolean isParallelStartup() {
+            return parallelStartup;
+        }
+
+        public void setParallelStartup(boolean parallelStartup) {
+            this.parallelStartup = parallelStartup;
+        }
+
+        public Duration getStartupTimeout() {
+            return startupTimeout;
+        }
+
+        public void setStartupTimeout(Duration startupTimeout) {
+            this.startupTimeout = startupTimeout;
+        }
+    }
 }
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.CollectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * RabbitMQ multi-data-source BeanDefinition registrar for publishers spanning several sources.
+ *
+ * @author ChildrenGreens
+ */
+public class RabbitMultiSourcesPublisherRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void registerBeanDefinitions(@NonNull AnnotationMetadata importingClassMetadata, @NonNull BeanDefinitionRegistry registry) {
+        String prefix = RabbitMultiSourcesProperties.class.getAnnotation(ConfigurationProperties.class).prefix();
+        RabbitMultiSourcesProperties properties = Binder.get(environment).bind(prefix, RabbitMultiSourcesProperties.class).orElse(null);
+        if (properties == null || CollectionUtils.isEmpty(properties.getSources())
+                || !(registry instanceof ConfigurableListableBeanFactory beanFactory)) {
+            return;
+        }
+
+        // register MultiSourceRabbitPublisher over the templates of the fan-out sources
+        RabbitMultiSourcesProperties.FanOut fanOut = properties.getFanOut();
+        List<String> sources = fanOut.getSources();
+        if (!sources.isEmpty()) {
+            for (String name : sources) {
+                if (!properties.getSources().containsKey(name)) {
+                    throw new RuntimeException("source key: " + name + ", " + "fan-out source not found");
+                }
+            }
+            int quorum = (fanOut.getQuorum() != null) ? fanOut.getQuorum() : MultiSourceRabbitPublisher.majority(sources.size());
+            registry.registerBeanDefinition(StringUtils.uncapitalize(MultiSourceRabbitPublisher.class.getSimpleName()),
+                    BeanDefinitionBuilder.genericBeanDefinition(MultiSourceRabbitPublisher.class, () -> {
+                        Map<String, RabbitTemplate> templates = new LinkedHashMap<>();
+                        for (String name : sources) {
+                            templates.put(name, beanFactory.getBean(name + RabbitTemplate.class.getSimpleName(), RabbitTemplate.class));
+                        }
+                        MultiSourceRabbitPublisher publisher = new MultiSourceRabbitPublisher(templates, quorum, fanOut.getTimeout(),
+                                Threading.VIRTUAL.isActive(environment));
+                        if (ClassUtils.isPresent(RabbitAmqpClassNames.METER_REGISTRY_TYPE, beanFactory.getBeanClassLoader())) {
+                            MultiSourceRabbitPublisherMetrics.bindTo(beanFactory, publisher);
+                        }
+                        return publisher;
+                    }).getBeanDefinition());
+        }
+
+        // register LoadBalancedRabbitPublisher over the templates of the load-balanced sources
+        RabbitMultiSourcesProperties.LoadBalancing loadBalancing = properties.getLoadBalancing();
+        List<String> balancedSources = loadBalancing.getSources();
+        if (!balancedSources.isEmpty()) {
+            for (String name : balancedSources) {
+                if (!properties.getSources().containsKey(name)) {
+                    throw new RuntimeException("source key: " + name + ", " + "load-balancing source not found");
+                }
+            }
+            registry.registerBeanDefinition(StringUtils.uncapitalize(LoadBalancedRabbitPublisher.class.getSimpleName()),
+                    BeanDefinitionBuilder.genericBeanDefinition(LoadBalancedRabbitPublisher.class, () -> {
+                        Map<String, RabbitTemplate> templates = new LinkedHashMap<>();
+                        for (String name : balancedSources) {
+                            templates.put(name, beanFactory.getBean(name + RabbitTemplate.class.getSimpleName(), RabbitTemplate.class));
+                        }
+                        return new LoadBalancedRabbitPublisher(templates, loadBalancing.getWeights(),
+                                loadBalancing.getStrategy(), loadBalancing.getRetryInterval());
+                    }).getBeanDefinition());
+        }
+    }
+
+    @Override
+    public void setEnvironment(@NonNull Environment environment) {
+        this.environment = environment;
+    }
+}
@@ -17,14 +17,16 @@ package com.childrengreens.multi.source;
 
 import org.jspecify.annotations.NonNull;
 import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
 import org.springframework.aot.hint.RuntimeHints;
 import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.amqp.autoconfigure.RabbitConnectionDetails;
 import org.springframework.boot.amqp.autoconfigure.RabbitProperties;
 import org.springframework.boot.ssl.SslBundles;
 import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
 
 /**
  * Runtime hints for reflective RabbitMQ infrastructure access.
@@ -37,7 +39,9 @@ public class RabbitMultiSourcesRuntimeHints implements RuntimeHintsRegistrar {
     public void registerHints(@NonNull RuntimeHints hints, ClassLoader classLoader) {
         registerConnectionDetails(hints, classLoader);
         registerSslBundleConnectionFactoryBean(hints, classLoader);
-        registerAnnotationDrivenConfiguration(hints, classLoader);
+        if (ClassUtils.isPresent(RabbitAmqpClassNames.STREAM_RABBIT_LISTENER_CONTAINER_FACTORY, classLoader)) {
+            registerStreamConfiguration(hints, classLoader);
+        }
     }
 
     private void registerConnectionDetails(RuntimeHints hints, ClassLoader classLoader) {
@@ -60,15 +64,25 @@ public class RabbitMultiSourcesRuntimeHints implements RuntimeHintsRegistrar {
         }
     }
 
-    private void registerAnnotationDrivenConfiguration(RuntimeHints hints, ClassLoader classLoader) {
+    private void registerStreamConfiguration(RuntimeHints hints, ClassLoader classLoader) {
         try {
-            Class<?> annotationDrivenConfiguration = resolveClass(RabbitAmqpClassNames.RABBIT_ANNOTATION_DRIVEN_CONFIGURATION, classLoader);
-            Method simpleConfigurer = annotationDrivenConfiguration.getDeclaredMethod("simpleListenerConfigurer");
-            Method directConfigurer = annotationDrivenConfiguration.getDeclaredMethod("directListenerConfigurer");
-            hints.reflection().registerMethod(simpleConfigurer, ExecutableMode.INVOKE);
-            hints.reflection().registerMethod(directConfigurer, ExecutableMode.INVOKE);
+            Class<?> streamConfiguration = resolveClass(RabbitAmqpClassNames.RABBIT_STREAM_CONFIGURATION, classLoader);
+            Class<?> environment = resolveClass(RabbitAmqpClassNames.STREAM_ENVIRONMENT, classLoader);
+            hints.reflection().registerConstructor(streamConfiguration.getDeclaredConstructor(), ExecutableMode.INVOKE);
+            hints.reflection().registerMethod(streamConfiguration.getDeclaredMethod("rabbitStreamEnvironment",
+                    RabbitProperties.class, RabbitConnectionDetails.class, ObjectProvider.class), ExecutableMode.INVOKE);
+            hints.reflection().registerMethod(streamConfiguration.getDeclaredMethod("rabbitStreamTemplateConfigurer",
+                    RabbitProperties.class, ObjectProvider.class, ObjectProvider.class, ObjectProvider.class), ExecutableMode.INVOKE);
+            hints.reflection().registerMethod(streamConfiguration.getDeclaredMethod("streamRabbitListenerContainerFactory",
+                    environment, RabbitProperties.class, ObjectProvider.class, ObjectProvider.class), ExecutableMode.INVOKE);
+            for (String className : new String[]{RabbitAmqpClassNames.RABBIT_STREAM_TEMPLATE, RabbitAmqpClassNames.RABBIT_STREAM_TEMPLATE_CONFIGURER,
+                    RabbitAmqpClassNames.STREAM_RABBIT_LISTENER_CONTAINER_FACTORY, RabbitAmqpClassNames.STREAM_LISTENER_CONTAINER,
+                    RabbitAmqpClassNames.STREAM_MESSAGE, RabbitAmqpClassNames.STREAM_MESSAGE_PROPERTIES}) {
+                hints.reflection().registerType(resolveClass(className, classLoader),
+                        MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS, MemberCategory.INVOKE_PUBLIC_METHODS);
+            }
         } catch (NoSuchMethodException ex) {
-            throw new IllegalStateException("Failed to register Rabbit listener configuration hints", ex);
+            throw new IllegalStateException("Failed to register Rabbit stream configuration hints", ex);
         }
     }
 
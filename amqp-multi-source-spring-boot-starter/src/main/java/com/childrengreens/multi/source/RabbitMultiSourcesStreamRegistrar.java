@@ -0,0 +1,171 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.amqp.autoconfigure.RabbitConnectionDetails;
+import org.springframework.boot.amqp.autoconfigure.RabbitProperties;
+import org.springframework.core.ResolvableType;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.function.Function;
+
+/**
+ * RabbitMQ multi-data-source stream BeanDefinition registrar. When {@code spring-rabbit-stream} is on the classpath,
+ * registers a stream {@code Environment}, {@code RabbitStreamTemplate} and {@code StreamRabbitListenerContainerFactory}
+ * per source through Spring Boot's stream configuration.
+ *
+ * @author ChildrenGreens
+ */
+public class RabbitMultiSourcesStreamRegistrar extends AbstractRabbitMultiSourcesRegistrar {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    void registerBeanDefinitionsForSource(String name, RabbitSourceProperties source, BeanDefinitionRegistry registry, Boolean isPrimary) {
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        if (!ClassUtils.isPresent(RabbitAmqpClassNames.STREAM_RABBIT_LISTENER_CONTAINER_FACTORY, classLoader) || !isStreamSource(source)) {
+            return;
+        }
+
+        if (registry instanceof ConfigurableListableBeanFactory beanFactory) {
+            try {
+                Class<?> configurationClass = ClassUtils.forName(RabbitAmqpClassNames.RABBIT_STREAM_CONFIGURATION, classLoader);
+                Class<Object> environmentClass = (Class<Object>) ClassUtils.forName(RabbitAmqpClassNames.STREAM_ENVIRONMENT, classLoader);
+                Class<Object> templateClass = (Class<Object>) ClassUtils.forName(RabbitAmqpClassNames.RABBIT_STREAM_TEMPLATE, classLoader);
+                Class<Object> factoryClass = (Class<Object>) ClassUtils.forName(RabbitAmqpClassNames.STREAM_RABBIT_LISTENER_CONTAINER_FACTORY, classLoader);
+                Class<?> containerClass = ClassUtils.forName(RabbitAmqpClassNames.STREAM_LISTENER_CONTAINER, classLoader);
+                Class<?> templateConfigurerClass = ClassUtils.forName(RabbitAmqpClassNames.RABBIT_STREAM_TEMPLATE_CONFIGURER, classLoader);
+                Class<?> environmentBuilderCustomizerClass = ClassUtils.forName(RabbitAmqpClassNames.ENVIRONMENT_BUILDER_CUSTOMIZER, classLoader);
+                Class<?> streamMessageConverterClass = ClassUtils.forName(RabbitAmqpClassNames.STREAM_MESSAGE_CONVERTER, classLoader);
+                Class<?> producerCustomizerClass = ClassUtils.forName(RabbitAmqpClassNames.PRODUCER_CUSTOMIZER, classLoader);
+                Class<?> consumerCustomizerClass = ClassUtils.forName(RabbitAmqpClassNames.CONSUMER_CUSTOMIZER, classLoader);
+
+                Method environmentMethod = configurationClass.getDeclaredMethod("rabbitStreamEnvironment",
+                        RabbitProperties.class, RabbitConnectionDetails.class, ObjectProvider.class);
+                Method templateConfigurerMethod = configurationClass.getDeclaredMethod("rabbitStreamTemplateConfigurer",
+                        RabbitProperties.class, ObjectProvider.class, ObjectProvider.class, ObjectProvider.class);
+                Method factoryMethod = configurationClass.getDeclaredMethod("streamRabbitListenerContainerFactory",
+                        environmentClass, RabbitProperties.class, ObjectProvider.class, ObjectProvider.class);
+                Method configureTemplate = templateConfigurerClass.getMethod("configure", templateClass);
+                Method superStreamRouting = templateClass.getMethod("setSuperStreamRouting", Function.class);
+                Method setMessageConverter = templateClass.getMethod("setMessageConverter", MessageConverter.class);
+                Method containerCustomizerSetter = ReflectionUtils.findMethod(factoryClass, "setContainerCustomizer", ContainerCustomizer.class);
+                Method superStreamConsumer = containerClass.getMethod("superStream", String.class, String.class, int.class);
+                ReflectionUtils.makeAccessible(environmentMethod);
+                ReflectionUtils.makeAccessible(templateConfigurerMethod);
+                ReflectionUtils.makeAccessible(factoryMethod);
+
+                Object configuration = newInstance(RabbitAmqpClassNames.RABBIT_STREAM_CONFIGURATION, null);
+                RabbitSourceProperties.SuperStream superStream = source.getSuperStream();
+
+                // register Environment
+                String environmentBeanName = name + "RabbitStream" + environmentClass.getSimpleName();
+                registerBeanDefinition(registry,
+                        environmentClass,
+                        environmentBeanName,
+                        isPrimary,
+                        () -> {
+                            RabbitConnectionDetails connectionDetails = beanFactory.getBean(generateBeanName(RabbitAmqpClassNames.PROPERTIES_RABBIT_CONNECTION_DETAILS, name), RabbitConnectionDetails.class);
+                            return ReflectionUtils.invokeMethod(environmentMethod, configuration, source, connectionDetails,
+                                    beanFactory.getBeanProvider(environmentBuilderCustomizerClass));
+                        });
+
+                // register RabbitStreamTemplate, converting with the source's MessageConverter and routing super stream
+                // messages to partitions by message id
+                String streamName = (superStream.getName() != null) ? superStream.getName() : source.getStream().getName();
+                if (streamName != null) {
+                    Function<Object, String> routing = createMessageIdRouting(classLoader);
+                    registerBeanDefinition(registry,
+                            templateClass,
+                            generateBeanName(templateClass, name),
+                            isPrimary,
+                            () -> {
+                                Object configurer = ReflectionUtils.invokeMethod(templateConfigurerMethod, configuration, source,
+                                        beanFactory.getBeanProvider(MessageConverter.class),
+                                        beanFactory.getBeanProvider(streamMessageConverterClass),
+                                        beanFactory.getBeanProvider(producerCustomizerClass));
+                                Object template = newInstance(RabbitAmqpClassNames.RABBIT_STREAM_TEMPLATE,
+                                        new Class<?>[]{environmentClass, String.class}, beanFactory.getBean(environmentBeanName), streamName);
+                                ReflectionUtils.invokeMethod(configureTemplate, configurer, template);
+                                MessageConverter sourceMessageConverter = getSourceMessageConverter(name, source, beanFactory);
+                                if (sourceMessageConverter != null) {
+                                    ReflectionUtils.invokeMethod(setMessageConverter, template, sourceMessageConverter);
+                                }
+                                if (superStream.getName() != null) {
+                                    ReflectionUtils.invokeMethod(superStreamRouting, template, routing);
+                                }
+                                return template;
+                            });
+                }
+
+                // register StreamRabbitListenerContainerFactory, with single active consumers on super streams
+                registerBeanDefinition(registry,
+                        factoryClass,
+                        generateBeanName(factoryClass, name),
+                        isPrimary && source.getListener().getType() == RabbitProperties.ContainerType.STREAM,
+                        () -> {
+                            ObjectProvider<ContainerCustomizer<MessageListenerContainer>> containerCustomizer = beanFactory.getBeanProvider(
+                                    ResolvableType.forClassWithGenerics(ContainerCustomizer.class, containerClass));
+                            Object factory = ReflectionUtils.invokeMethod(factoryMethod, configuration, beanFactory.getBean(environmentBeanName), source,
+                                    beanFactory.getBeanProvider(consumerCustomizerClass), containerCustomizer);
+                            if (superStream.getName() != null && containerCustomizerSetter != null) {
+                                String consumerName = (superStream.getConsumerName() != null) ? superStream.getConsumerName() : name;
+                                ContainerCustomizer<MessageListenerContainer> superStreamCustomizer = (container) -> {
+                                    ReflectionUtils.invokeMethod(superStreamConsumer, container, superStream.getName(), consumerName, superStream.getConsumers());
+                                    containerCustomizer.ifUnique((customizer) -> customizer.configure(container));
+                                };
+                                ReflectionUtils.invokeMethod(containerCustomizerSetter, factory, superStreamCustomizer);
+                            }
+                            return factory;
+                        });
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Whether the source names a stream or super stream, or listens to streams.
+     * @param source source properties
+     * @return true to register the stream beans
+     */
+    boolean isStreamSource(RabbitSourceProperties source) {
+        return source.getStream().getName() != null
+                || source.getSuperStream().getName() != null
+                || source.getListener().getType() == RabbitProperties.ContainerType.STREAM;
+    }
+
+    /**
+     * Create the super stream routing function, using the message id of the stream message as routing key.
+     * @param classLoader class loader
+     * @return routing function
+     */
+    private Function<Object, String> createMessageIdRouting(ClassLoader classLoader) throws ClassNotFoundException, NoSuchMethodException {
+        Method properties = ClassUtils.forName(RabbitAmqpClassNames.STREAM_MESSAGE, classLoader).getMethod("getProperties");
+        Method messageId = ClassUtils.forName(RabbitAmqpClassNames.STREAM_MESSAGE_PROPERTIES, classLoader).getMethod("getMessageIdAsString");
+        return (message) -> {
+            Object messageProperties = ReflectionUtils.invokeMethod(properties, message);
+            return (messageProperties != null) ? (String) ReflectionUtils.invokeMethod(messageId, messageProperties) : null;
+        };
+    }
+}
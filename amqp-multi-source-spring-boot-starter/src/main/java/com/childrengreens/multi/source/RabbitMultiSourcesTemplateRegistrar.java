@@ -17,7 +17,11 @@ package com.childrengreens.multi.source;
 
 import org.jspecify.annotations.NonNull;
 import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.batch.BatchingStrategy;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
 import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitMessagingTemplate;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
@@ -25,21 +29,33 @@ import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
-import org.springframework.boot.amqp.autoconfigure.RabbitProperties;
 import org.springframework.boot.amqp.autoconfigure.RabbitTemplateRetrySettingsCustomizer;
 import org.springframework.boot.amqp.autoconfigure.RabbitTemplateConfigurer;
 import org.springframework.boot.amqp.autoconfigure.RabbitTemplateCustomizer;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 
 /**
- * RabbitMQ multi-data-source template BeanDefinition registrar.
+ * RabbitMQ multi-data-source template BeanDefinition registrar, including an {@link AsyncRabbitTemplate} using
+ * direct reply-to, and a {@link BatchingRabbitTemplate} and a {@link RabbitConfirmPublisher} when enabled for the source.
  *
  * @author ChildrenGreens
  */
 public class RabbitMultiSourcesTemplateRegistrar extends AbstractRabbitMultiSourcesRegistrar {
     @Override
-    void registerBeanDefinitionsForSource(String name, RabbitProperties source, BeanDefinitionRegistry registry, Boolean isPrimary) {
+    void registerBeanDefinitionsForSource(String name, RabbitSourceProperties source, BeanDefinitionRegistry registry, Boolean isPrimary) {
         if (registry instanceof ConfigurableListableBeanFactory beanFactory) {
 
+            // register the source's own MessageConverter, held so that it is not found by type
+            RabbitSourceProperties.Conversion conversion = source.getConversion();
+            if (conversion.getBeanName() == null && conversion.getType() != RabbitSourceProperties.Conversion.Type.DEFAULT) {
+                registerBeanDefinition(registry,
+                        SourceMessageConverter.class,
+                        generateBeanName(SourceMessageConverter.class, name),
+                        false,
+                        () -> new SourceMessageConverter(createSourceMessageConverter(name, source, beanFactory)));
+            }
+
             // register RabbitTemplateConfigurer
             String rabbitTemplateConfigurerBeanName = generateBeanName(RabbitTemplateConfigurer.class, name);
 
@@ -52,7 +68,8 @@ public class RabbitMultiSourcesTemplateRegistrar extends AbstractRabbitMultiSour
                         ObjectProvider<@NonNull RabbitTemplateRetrySettingsCustomizer> retryTemplateCustomizers = beanFactory.getBeanProvider(RabbitTemplateRetrySettingsCustomizer.class);
 
                         RabbitTemplateConfigurer configurer = new RabbitTemplateConfigurer(source);
-                        configurer.setMessageConverter(messageConverter.getIfAvailable());
+                        MessageConverter sourceMessageConverter = getSourceMessageConverter(name, source, beanFactory);
+                        configurer.setMessageConverter((sourceMessageConverter != null) ? sourceMessageConverter : messageConverter.getIfAvailable());
                         configurer.setRetrySettingsCustomizers(retryTemplateCustomizers.orderedStream().toList());
                         return configurer;
                     });
@@ -75,6 +92,77 @@ public class RabbitMultiSourcesTemplateRegistrar extends AbstractRabbitMultiSour
                         return template;
                     });
 
+            // register BatchingStrategy and BatchingRabbitTemplate
+            RabbitSourceProperties.Batching batching = source.getBatching();
+            if (batching.isEnabled()) {
+                String batchingStrategyBeanName = generateBeanName(BatchingStrategy.class, name);
+                registerBeanDefinition(registry,
+                        BatchingStrategy.class,
+                        batchingStrategyBeanName,
+                        isPrimary,
+                        () -> new SimpleBatchingStrategy(batching.getSize(), (int) batching.getBufferLimit().toBytes(), batching.getTimeout().toMillis()));
+
+                // not primary, so RabbitTemplate injection points keep getting the plain template
+                registerBeanDefinition(registry,
+                        BatchingRabbitTemplate.class,
+                        generateBeanName(BatchingRabbitTemplate.class, name),
+                        false,
+                        () -> {
+                            RabbitTemplateConfigurer configurer = beanFactory.getBean(rabbitTemplateConfigurerBeanName, RabbitTemplateConfigurer.class);
+                            ConnectionFactory connectionFactory = getConnectionFactoryBean(name, beanFactory);
+                            ObjectProvider<@NonNull RabbitTemplateCustomizer> customizers = beanFactory.getBeanProvider(RabbitTemplateCustomizer.class);
+
+                            ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+                            scheduler.setThreadNamePrefix("rabbit-batching-" + name + "-");
+                            scheduler.setDaemon(true);
+                            scheduler.initialize();
+
+                            // the scheduler belongs to the template, so it is shut down with it
+                            BatchingRabbitTemplate template = new BatchingRabbitTemplate(
+                                    beanFactory.getBean(batchingStrategyBeanName, BatchingStrategy.class), scheduler) {
+
+                                @Override
+                                public void destroy() {
+                                    try {
+                                        super.destroy();
+                                    } finally {
+                                        scheduler.shutdown();
+                                    }
+                                }
+                            };
+                            configurer.configure(template, connectionFactory);
+                            customizers.orderedStream().forEach((customizer) -> customizer.customize(template));
+                            return template;
+                        });
+            }
+
+            // register RabbitConfirmPublisher
+            if (source.getConfirms().isEnabled()) {
+                registerBeanDefinition(registry,
+                        RabbitConfirmPublisher.class,
+                        generateBeanName(RabbitConfirmPublisher.class, name),
+                        isPrimary,
+                        () -> {
+                            RabbitTemplate rabbitTemplate = beanFactory.getBean(rabbitTemplateBeanName, RabbitTemplate.class);
+                            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("rabbit-confirm-");
+                            executor.setVirtualThreads(isVirtualThreads());
+                            return new RabbitConfirmPublisher(name, rabbitTemplate, source.getConfirms(), executor);
+                        });
+            }
+
+            // register AsyncRabbitTemplate, sharing the source's RabbitTemplate and replying through direct reply-to
+            registerBeanDefinition(registry,
+                    AsyncRabbitTemplate.class,
+                    generateBeanName(AsyncRabbitTemplate.class, name),
+                    isPrimary,
+                    () -> {
+                        RabbitTemplate rabbitTemplate = beanFactory.getBean(rabbitTemplateBeanName, RabbitTemplate.class);
+                        ExecutorAsyncRabbitTemplate template = new ExecutorAsyncRabbitTemplate(rabbitTemplate,
+                                Runtime.getRuntime().availableProcessors(), isVirtualThreads());
+                        template.setReceiveTimeout(source.getAsync().getReceiveTimeout().toMillis());
+                        return template;
+                    });
+
             // register RabbitMessagingTemplate
             registerBeanDefinition(registry,
                     RabbitMessagingTemplate.class,
@@ -103,6 +191,4 @@ public class RabbitMultiSourcesTemplateRegistrar extends AbstractRabbitMultiSour
 
         }
     }
-
-
 }
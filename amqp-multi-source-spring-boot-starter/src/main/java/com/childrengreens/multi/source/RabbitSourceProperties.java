@@ -0,0 +1,492 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.boot.amqp.autoconfigure.RabbitProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for a single RabbitMQ source, extending {@link RabbitProperties} with multi-source options.
+ *
+ * @author ChildrenGreens
+ */
+public class RabbitSourceProperties extends RabbitProperties {
+
+    private final Batching batching = new Batching();
+
+    private final Confirms confirms = new Confirms();
+
+    private final SuperStream superStream = new SuperStream();
+
+    private final Autoscaling autoscaling = new Autoscaling();
+
+    private final Async async = new Async();
+
+    private final Conversion conversion = new Conversion();
+
+    public Batching getBatching() {
+        return batching;
+    }
+
+    public Confirms getConfirms() {
+        return confirms;
+    }
+
+    public SuperStream getSuperStream() {
+        return superStream;
+    }
+
+    public Autoscaling getAutoscaling() {
+        return autoscaling;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Conversion getConversion() {
+        return conversion;
+    }
+
+    /**
+     * Use correlated publisher confirms when the confirm publisher is enabled and no confirm type is set.
+     */
+    @Override
+    public CachingConnectionFactory.ConfirmType getPublisherConfirmType() {
+        CachingConnectionFactory.ConfirmType confirmType = super.getPublisherConfirmType();
+        return (confirmType == null && confirms.isEnabled()) ? CachingConnectionFactory.ConfirmType.CORRELATED : confirmType;
+    }
+
+    /**
+     * Enable publisher returns when the confirm publisher is enabled, so unroutable messages are retried.
+     */
+    @Override
+    public boolean isPublisherReturns() {
+        return super.isPublisherReturns() || confirms.isEnabled();
+    }
+
+    /**
+     * Properties of the source's BatchingRabbitTemplate and batch listener container factory.
+     */
+    public static class Batching {
+
+        /**
+         * Whether to register a BatchingRabbitTemplate and a batch listener container factory.
+         */
+        private boolean enabled;
+
+        /**
+         * Maximum number of messages sent in one batch.
+         */
+        private int size = 100;
+
+        /**
+         * Maximum size of one batch; a message that does not fit is sent in the next one.
+         */
+        private DataSize bufferLimit = DataSize.ofKilobytes(64);
+
+        /**
+         * Time after which a partial batch is sent.
+         */
+        private Duration timeout = Duration.ofMillis(100);
+
+        /**
+         * Time batch listeners wait to fill a batch before delivering a partial one. Also applies to the simple
+         * listener container factory when 'listener.simple.consumer-batch-enabled' is set.
+         */
+        private Duration receiveTimeout = Duration.ofMillis(100);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public DataSize getBufferLimit() {
+            return bufferLimit;
+        }
+
+        public void setBufferLimit(DataSize bufferLimit) {
+            this.bufferLimit = bufferLimit;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Duration getReceiveTimeout() {
+            return receiveTimeout;
+        }
+
+        public void setReceiveTimeout(Duration receiveTimeout) {
+            this.receiveTimeout = receiveTimeout;
+        }
+    }
+
+    /**
+     * Properties of the source's RabbitConfirmPublisher.
+     */
+    public static class Confirms {
+
+        /**
+         * Whether to register a RabbitConfirmPublisher over the source's RabbitTemplate.
+         */
+        private boolean enabled;
+
+        /**
+         * Maximum number of messages waiting for their confirm before publishers block.
+         */
+        private int maxOutstanding = 1000;
+
+        /**
+         * Number of times a nacked or returned message is published again.
+         */
+        private int retries = 3;
+
+        /**
+         * Time to wait for the confirm of one attempt.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxOutstanding() {
+            return maxOutstanding;
+        }
+
+        public void setMaxOutstanding(int maxOutstanding) {
+            this.maxOutstanding = maxOutstanding;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+    }
+
+    /**
+     * Properties of the source's super stream, a stream partitioned over several streams.
+     */
+    public static class SuperStream {
+
+        /**
+         * Name of the super stream the source's RabbitStreamTemplate and stream listener containers use instead of 'stream.name'.
+         */
+        private String name;
+
+        /**
+         * Name shared by the consumers of the super stream; only one consumer with this name is active per partition.
+         */
+        private String consumerName;
+
+        /**
+         * Number of consumers each stream listener container starts on the super stream.
+         */
+        private int consumers = 1;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getConsumerName() {
+            return consumerName;
+        }
+
+        public void setConsumerName(String consumerName) {
+            this.consumerName = consumerName;
+        }
+
+        public int getConsumers() {
+            return consumers;
+        }
+
+        public void setConsumers(int consumers) {
+            this.consumers = consumers;
+        }
+    }
+
+    /**
+     * Properties of the source's RabbitListenerAutoscaler.
+     */
+    public static class Autoscaling {
+
+        /**
+         * Whether to adjust the consumers and prefetch of the source's listener containers at runtime.
+         */
+        private boolean enabled;
+
+        /**
+         * Minimum number of consumers of a listener container; per queue for direct containers.
+         */
+        private int minConsumers = 1;
+
+        /**
+         * Maximum number of consumers of a listener container; per queue for direct containers.
+         */
+        private int maxConsumers = 10;
+
+        /**
+         * Number of consumers added or removed in one adjustment.
+         */
+        private int step = 1;
+
+        /**
+         * Queue depth each consumer may have behind it before consumers are added.
+         */
+        private int backlogPerConsumer = 1000;
+
+        /**
+         * Share of time consumers spend in listeners above which consumers are added while messages are waiting.
+         */
+        private double highUtilization = 0.8;
+
+        /**
+         * Share of time consumers spend in listeners below which consumers are removed.
+         */
+        private double lowUtilization = 0.3;
+
+        /**
+         * Minimum prefetch count.
+         */
+        private int minPrefetch = 1;
+
+        /**
+         * Maximum prefetch count.
+         */
+        private int maxPrefetch = 500;
+
+        /**
+         * Processing time each consumer should have buffered; prefetch is this window divided by the mean listener latency.
+         */
+        private Duration prefetchWindow = Duration.ofSeconds(1);
+
+        /**
+         * Interval between two evaluations.
+         */
+        private Duration interval = Duration.ofSeconds(10);
+
+        /**
+         * Minimum time between two adjustments of the same listener container.
+         */
+        private Duration cooldown = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinConsumers() {
+            return minConsumers;
+        }
+
+        public void setMinConsumers(int minConsumers) {
+            this.minConsumers = minConsumers;
+        }
+
+        public int getMaxConsumers() {
+            return maxConsumers;
+        }
+
+        public void setMaxConsumers(int maxConsumers) {
+            this.maxConsumers = maxConsumers;
+        }
+
+        public int getStep() {
+            return step;
+        }
+
+        public void setStep(int step) {
+            this.step = step;
+        }
+
+        public int getBacklogPerConsumer() {
+            return backlogPerConsumer;
+        }
+
+        public void setBacklogPerConsumer(int backlogPerConsumer) {
+            this.backlogPerConsumer = backlogPerConsumer;
+        }
+
+        public double getHighUtilization() {
+            return highUtilization;
+        }
+
+        public void setHighUtilization(double highUtilization) {
+            this.highUtilization = highUtilization;
+        }
+
+        public double getLowUtilization() {
+            return lowUtilization;
+        }
+
+        public void setLowUtilization(double lowUtilization) {
+            this.lowUtilization = lowUtilization;
+        }
+
+        public int getMinPrefetch() {
+            return minPrefetch;
+        }
+
+        public void setMinPrefetch(int minPrefetch) {
+            this.minPrefetch = minPrefetch;
+        }
+
+        public int getMaxPrefetch() {
+            return maxPrefetch;
+        }
+
+        public void setMaxPrefetch(int maxPrefetch) {
+            this.maxPrefetch = maxPrefetch;
+        }
+
+        public Duration getPrefetchWindow() {
+            return prefetchWindow;
+        }
+
+        public void setPrefetchWindow(Duration prefetchWindow) {
+            this.prefetchWindow = prefetchWindow;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getCooldown() {
+            return cooldown;
+        }
+
+        public void setCooldown(Duration cooldown) {
+            this.cooldown = cooldown;
+        }
+    }
+
+    /**
+     * Properties of the source's AsyncRabbitTemplate.
+     */
+    public static class Async {
+
+        /**
+         * Time to wait for a reply before the returned future fails.
+         */
+        private Duration receiveTimeout = Duration.ofSeconds(30);
+
+        public Duration getReceiveTimeout() {
+            return receiveTimeout;
+        }
+
+        public void setReceiveTimeout(Duration receiveTimeout) {
+            this.receiveTimeout = receiveTimeout;
+        }
+    }
+
+    /**
+     * Properties of the MessageConverter used by the source's templates and listener container factories.
+     */
+    public static class Conversion {
+
+        /**
+         * Message converter of the source.
+         */
+        private Type type = Type.DEFAULT;
+
+        /**
+         * Name of a MessageConverter bean to use instead, for example for a binary format. Takes precedence over 'type'.
+         */
+        private String beanName;
+
+        public Type getType() {
+            return type;
+        }
+
+        public void setType(Type type) {
+            this.type = type;
+        }
+
+        public String getBeanName() {
+            return beanName;
+        }
+
+        public void setBeanName(String beanName) {
+            this.beanName = beanName;
+        }
+
+        /**
+         * Message converters a source can select.
+         */
+        public enum Type {
+
+            /**
+             * The application's MessageConverter bean, or Spring AMQP's SimpleMessageConverter.
+             */
+            DEFAULT,
+
+            /**
+             * JSON with Jackson, using the application's JsonMapper when there is one.
+             */
+            JSON,
+
+            /**
+             * Send byte[] and ByteBuffer payloads as they are and receive the message body as is.
+             */
+            RAW
+        }
+    }
+}
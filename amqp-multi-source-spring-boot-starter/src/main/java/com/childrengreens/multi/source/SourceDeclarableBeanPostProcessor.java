@@ -0,0 +1,68 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+
+/**
+ * Restrict beans annotated with {@link SourceDeclarable} to the {@code AmqpAdmin} of their sources.
+ *
+ * @author ChildrenGreens
+ */
+public class SourceDeclarableBeanPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+    private ConfigurableListableBeanFactory beanFactory;
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) throws BeansException {
+        if (!(bean instanceof Declarable || bean instanceof Declarables) || !beanFactory.containsBeanDefinition(beanName)) {
+            return bean;
+        }
+        SourceDeclarable annotation = beanFactory.findAnnotationOnBean(beanName, SourceDeclarable.class);
+        if (annotation == null) {
+            return bean;
+        }
+
+        Object[] admins = new Object[annotation.value().length];
+        for (int i = 0; i < admins.length; i++) {
+            String source = annotation.value()[i];
+            if (!beanFactory.containsBean(source + CachingConnectionFactory.class.getSimpleName())) {
+                throw new RuntimeException("source key: " + source + ", " + "declarable source not found");
+            }
+            admins[i] = source + AmqpAdmin.class.getSimpleName();
+        }
+        if (bean instanceof Declarables declarables) {
+            declarables.getDeclarables().forEach((declarable) -> declarable.setAdminsThatShouldDeclare(admins));
+        } else {
+            ((Declarable) bean).setAdminsThatShouldDeclare(admins);
+        }
+        return bean;
+    }
+
+    @Override
+    public void setBeanFactory(@NonNull BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = (ConfigurableListableBeanFactory) beanFactory;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Hold the MessageConverter a source selects with its 'conversion' type, so its templates and container factories
+ * share one instance. The holder is not a MessageConverter itself, so the application's converter is still the
+ * only one found by type.
+ *
+ * @author ChildrenGreens
+ */
+final class SourceMessageConverter {
+
+    private final MessageConverter messageConverter;
+
+    SourceMessageConverter(MessageConverter messageConverter) {
+        this.messageConverter = messageConverter;
+    }
+
+    MessageConverter getMessageConverter() {
+        return messageConverter;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link LoadBalancedRabbitPublisher}.
+ */
+class LoadBalancedRabbitPublisherTests {
+
+    private final Map<String, RabbitTemplate> templates = new LinkedHashMap<>();
+
+    private final List<String> sent = new ArrayList<>();
+
+    private final Map<String, CorrelationData> confirms = new LinkedHashMap<>();
+
+    @Test
+    void spreadsMessagesRoundRobin() {
+        LoadBalancedRabbitPublisher publisher = publisher(LoadBalancedRabbitPublisher.Strategy.ROUND_ROBIN, Map.of(), false, "eu", "us", "ap");
+
+        for (int i = 0; i < 6; i++) {
+            assertThat(publisher.publish("events", "created", "event-" + i)).isCompleted();
+        }
+
+        assertThat(sent).containsExactly("eu", "us", "ap", "eu", "us", "ap");
+        publisher.getMembers().forEach((member) -> verify(templates.get(member.getName()).getConnectionFactory()).addConnectionListener(member));
+    }
+
+    @Test
+    void failsOverAndSkipsSourceUntilItsConnectionIsBack() {
+        LoadBalancedRabbitPublisher publisher = publisher(LoadBalancedRabbitPublisher.Strategy.ROUND_ROBIN, Map.of(), false, "eu", "us");
+        willAnswer((call) -> {
+            throw new AmqpConnectException(new ConnectException("Connection refused"));
+        }).given(templates.get("eu")).send(eq("events"), eq("created"), any(Message.class));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(publisher.publish("events", "created", "event-" + i)).isCompleted();
+        }
+        assertThat(sent).containsExactly("us", "us", "us");
+        assertThat(publisher.getMembers().get(0).isUp()).isFalse();
+
+        LoadBalancedRabbitPublisher.Member eu = publisher.getMembers().get(0);
+        eu.onCreate(mock(Connection.class));
+        assertThat(eu.isUp()).isTrue();
+        assertThat(publisher.candidates()).extracting(LoadBalancedRabbitPublisher.Member::getName).containsExactly("eu", "us");
+    }
+
+    @Test
+    void failsWhenEverySourceIsDown() {
+        LoadBalancedRabbitPublisher publisher = publisher(LoadBalancedRabbitPublisher.Strategy.ROUND_ROBIN, Map.of(), false, "eu", "us");
+        publisher.getMembers().forEach((member) -> member.onFailed(new ConnectException("Connection refused")));
+        templates.values().forEach((template) -> willAnswer((call) -> {
+            throw new AmqpConnectException(new ConnectException("Connection refused"));
+        }).given(template).send(eq("events"), eq("created"), any(Message.class)));
+
+        CompletableFuture<Void> published = publisher.publish("events", "created", "event-1");
+
+        assertThat(published).isCompletedExceptionally();
+        assertThat(published).failsWithin(Duration.ZERO).withThrowableThat().withCauseInstanceOf(AmqpConnectException.class);
+    }
+
+    @Test
+    void selectsSourceWithLeastOutstandingConfirms() {
+        LoadBalancedRabbitPublisher publisher = publisher(LoadBalancedRabbitPublisher.Strategy.LEAST_OUTSTANDING, Map.of(), true, "eu", "us");
+
+        CompletableFuture<Void> first = publisher.publish("events", "created", "event-1");
+        confirms.get("eu").getFuture().complete(new CorrelationData.Confirm(true, null));
+        publisher.publish("events", "created", "event-2");
+        publisher.publish("events", "created", "event-3");
+
+        assertThat(first).isCompleted();
+        assertThat(sent).containsExactly("eu", "us", "eu");
+        assertThat(publisher.getMembers()).extracting(LoadBalancedRabbitPublisher.Member::getOutstanding).containsExactly(1, 1);
+
+        confirms.get("us").getFuture().complete(new CorrelationData.Confirm(false, "overloaded"));
+        publisher.publish("events", "created", "event-4");
+        assertThat(sent).endsWith("us");
+    }
+
+    @Test
+    void selectsSourcesInProportionToTheirWeight() {
+        LoadBalancedRabbitPublisher publisher = publisher(LoadBalancedRabbitPublisher.Strategy.WEIGHTED, Map.of("eu", 3), false, "eu", "us");
+
+        for (int i = 0; i < 2000; i++) {
+            publisher.publish("events", "created", "event-" + i);
+        }
+
+        assertThat(sent.stream().filter("eu"::equals).count()).isBetween(1350L, 1650L);
+    }
+
+    private LoadBalancedRabbitPublisher publisher(LoadBalancedRabbitPublisher.Strategy strategy, Map<String, Integer> weights,
+                                                  boolean publisherConfirms, String... names) {
+        for (String name : names) {
+            templates.put(name, template(name, publisherConfirms));
+        }
+        return new LoadBalancedRabbitPublisher(templates, weights, strategy, Duration.ofMinutes(1));
+    }
+
+    private RabbitTemplate template(String name, boolean publisherConfirms) {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        given(connectionFactory.isPublisherConfirms()).willReturn(publisherConfirms);
+        RabbitTemplate template = mock(RabbitTemplate.class);
+        given(template.getConnectionFactory()).willReturn(connectionFactory);
+        given(template.getMessageConverter()).willReturn(new SimpleMessageConverter());
+        willAnswer((call) -> {
+            sent.add(name);
+            return null;
+        }).given(template).send(eq("events"), eq("created"), any(Message.class));
+        willAnswer((call) -> {
+            sent.add(name);
+            confirms.put(name, call.getArgument(3));
+            return null;
+        }).given(template).send(eq("events"), eq("created"), any(Message.class), any(CorrelationData.class));
+        return template;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link MultiSourceRabbitPublisher}.
+ */
+class MultiSourceRabbitPublisherTests {
+
+    private final Map<String, RabbitTemplate> templates = new LinkedHashMap<>();
+
+    private final Map<String, CorrelationData> confirms = new ConcurrentHashMap<>();
+
+    private final Map<String, Message> messages = new ConcurrentHashMap<>();
+
+    MultiSourceRabbitPublisherTests() {
+        for (String name : new String[]{"eu", "us", "ap"}) {
+            templates.put(name, template(name, true));
+        }
+    }
+
+    @Test
+    void completesOnceQuorumConfirmedWithSharedBody() {
+        MultiSourceRabbitPublisher publisher = publisher(2, Duration.ofSeconds(5));
+
+        CompletableFuture<Void> published = publisher.publish("events", "created", "event-1");
+        await().atMost(Duration.ofSeconds(5)).until(() -> confirms.size() == 3);
+        ack("eu");
+        assertThat(published).isNotDone();
+        ack("ap");
+
+        assertThat(published).succeedsWithin(Duration.ofSeconds(5));
+        byte[] body = messages.get("eu").getBody();
+        assertThat(messages.values()).allSatisfy((message) -> assertThat(message.getBody()).isSameAs(body));
+        assertThat(messages.get("eu").getMessageProperties()).isNotSameAs(messages.get("us").getMessageProperties());
+    }
+
+    @Test
+    void failsOnceQuorumCannotBeReached() {
+        MultiSourceRabbitPublisher publisher = publisher(2, Duration.ofSeconds(5));
+
+        CompletableFuture<Void> published = publisher.publish("events", "created", "event-1");
+        await().atMost(Duration.ofSeconds(5)).until(() -> confirms.size() == 3);
+        ack("eu");
+        nack("us");
+        assertThat(published).isNotDone();
+        nack("ap");
+
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> published.get())
+                .withCauseInstanceOf(AmqpException.class)
+                .satisfies((ex) -> assertThat(ex.getCause().getSuppressed()).hasSize(2));
+        assertThat(publisher.getStatistics().get("eu").getConfirmed()).isEqualTo(1);
+        assertThat(publisher.getStatistics().get("us").getFailed()).isEqualTo(1);
+    }
+
+    @Test
+    void timesOutSlowSourcesWithoutBlockingTheQuorum() {
+        MultiSourceRabbitPublisher publisher = publisher(2, Duration.ofMillis(200));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MultiSourceRabbitPublisherMetrics.bindTo(registry, publisher);
+
+        CompletableFuture<Void> published = publisher.publish("events", "created", "event-1");
+        await().atMost(Duration.ofSeconds(5)).until(() -> confirms.size() == 3);
+        ack("eu");
+        ack("us");
+
+        assertThat(published).succeedsWithin(Duration.ofSeconds(5));
+        await().atMost(Duration.ofSeconds(5)).until(() -> publisher.getStatistics().get("ap").getTimedOut() == 1);
+        assertThat(registry.get("rabbitmq.fanout.publishes").tags("source", "ap", "result", "timeout").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("rabbitmq.fanout.confirm").tags("source", "eu").functionTimer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void requiresCorrelatedConfirmsOnEverySource() {
+        templates.put("sa", template("sa", false));
+
+        assertThatIllegalStateException().isThrownBy(() -> publisher(2, Duration.ofSeconds(5)))
+                .withMessageContaining("source key: sa");
+    }
+
+    @Test
+    void defaultsToMajority() {
+        assertThat(MultiSourceRabbitPublisher.majority(1)).isEqualTo(1);
+        assertThat(MultiSourceRabbitPublisher.majority(3)).isEqualTo(2);
+        assertThat(MultiSourceRabbitPublisher.majority(4)).isEqualTo(3);
+    }
+
+    private void ack(String name) {
+        confirms.get(name).getFuture().complete(new CorrelationData.Confirm(true, null));
+    }
+
+    private void nack(String name) {
+        confirms.get(name).getFuture().complete(new CorrelationData.Confirm(false, "overloaded"));
+    }
+
+    private RabbitTemplate template(String name, boolean publisherConfirms) {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        given(connectionFactory.isPublisherConfirms()).willReturn(publisherConfirms);
+        RabbitTemplate template = mock(RabbitTemplate.class);
+        given(template.getConnectionFactory()).willReturn(connectionFactory);
+        given(template.getMessageConverter()).willReturn(new SimpleMessageConverter());
+        willAnswer((call) -> {
+            messages.put(name, call.getArgument(2));
+            confirms.put(name, call.getArgument(3));
+            return null;
+        }).given(template).send(eq("events"), eq("created"), any(Message.class), any(CorrelationData.class));
+        return template;
+    }
+
+    private MultiSourceRabbitPublisher publisher(int quorum, Duration timeout) {
+        return new MultiSourceRabbitPublisher(templates, quorum, timeout, new SimpleAsyncTaskExecutor());
+    }
+}
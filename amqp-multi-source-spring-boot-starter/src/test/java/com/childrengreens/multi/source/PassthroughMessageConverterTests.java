@@ -0,0 +1,81 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link PassthroughMessageConverter}.
+ */
+class PassthroughMessageConverterTests {
+
+    private final PassthroughMessageConverter converter = new PassthroughMessageConverter();
+
+    @Test
+    void usesByteArrayPayloadAsBodyWithoutCopying() {
+        byte[] payload = "event".getBytes(StandardCharsets.UTF_8);
+
+        Message message = converter.toMessage(payload, new MessageProperties());
+
+        assertThat(message.getBody()).isSameAs(payload);
+        assertThat(message.getMessageProperties().getContentLength()).isEqualTo(payload.length);
+        assertThat(message.getMessageProperties().getContentType()).isEqualTo(MessageProperties.CONTENT_TYPE_BYTES);
+        assertThat(converter.fromMessage(message)).isSameAs(payload);
+    }
+
+    @Test
+    void marksBodyAsBytes() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+
+        assertThat(converter.toMessage(new byte[0], properties).getMessageProperties().getContentType())
+                .isEqualTo(MessageProperties.CONTENT_TYPE_BYTES);
+    }
+
+    @Test
+    void usesBackingArrayOfWholeHeapBuffer() {
+        byte[] payload = "event".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(converter.toMessage(ByteBuffer.wrap(payload), new MessageProperties()).getBody()).isSameAs(payload);
+    }
+
+    @Test
+    void copiesRemainingBytesOfOtherBuffers() {
+        ByteBuffer slice = ByteBuffer.wrap("my-event".getBytes(StandardCharsets.UTF_8), 3, 5);
+        ByteBuffer direct = ByteBuffer.allocateDirect(5).put("event".getBytes(StandardCharsets.UTF_8)).flip();
+
+        assertThat(converter.toMessage(slice, new MessageProperties()).getBody()).asString(StandardCharsets.UTF_8).isEqualTo("event");
+        assertThat(converter.toMessage(direct, new MessageProperties()).getBody()).asString(StandardCharsets.UTF_8).isEqualTo("event");
+        assertThat(slice.position()).isEqualTo(3);
+        assertThat(direct.position()).isZero();
+    }
+
+    @Test
+    void rejectsOtherPayloads() {
+        assertThatExceptionOfType(MessageConversionException.class)
+                .isThrownBy(() -> converter.toMessage("event", new MessageProperties()))
+                .withMessageContaining("java.lang.String");
+    }
+}
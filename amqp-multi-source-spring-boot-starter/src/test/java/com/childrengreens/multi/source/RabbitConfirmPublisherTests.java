@@ -0,0 +1,155 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.AmqpMessageReturnedException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RabbitConfirmPublisher}.
+ */
+class RabbitConfirmPublisherTests {
+
+    private final RabbitTemplate template = mock(RabbitTemplate.class);
+
+    private final List<CorrelationData> sent = new CopyOnWriteArrayList<>();
+
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+
+    private final AtomicInteger handoffs = new AtomicInteger();
+
+    RabbitConfirmPublisherTests() {
+        given(connectionFactory.isPublisherConfirms()).willReturn(true);
+        given(template.getConnectionFactory()).willReturn(connectionFactory);
+        given(template.getMessageConverter()).willReturn(new SimpleMessageConverter());
+        willAnswer((call) -> sent.add(call.getArgument(3))).given(template)
+                .send(eq("orders"), eq("created"), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void completesOnAck() {
+        RabbitConfirmPublisher publisher = publisher(10, 3);
+
+        CompletableFuture<Void> confirmed = publisher.publish("orders", "created", "order-1");
+        assertThat(confirmed).isNotDone();
+        assertThat(publisher.getOutstanding()).isEqualTo(1);
+
+        ack(0);
+        assertThat(confirmed).isCompleted();
+        assertThat(publisher.getOutstanding()).isZero();
+        assertThat(handoffs).hasValue(0);
+    }
+
+    @Test
+    void requiresCorrelatedConfirms() {
+        given(connectionFactory.isPublisherConfirms()).willReturn(false);
+
+        assertThatIllegalStateException().isThrownBy(() -> publisher(10, 3))
+                .withMessageContaining("publisher-confirm-type=correlated");
+    }
+
+    @Test
+    void publishesNackedMessagesAgain() {
+        RabbitConfirmPublisher publisher = publisher(10, 3);
+
+        CompletableFuture<Void> confirmed = publisher.publish("orders", "created", "order-1");
+        sent.get(0).getFuture().complete(new CorrelationData.Confirm(false, "overloaded"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> sent.size() == 2);
+        ack(1);
+
+        assertThat(confirmed).succeedsWithin(Duration.ofSeconds(5));
+        assertThat(sent.get(0).getId()).isNotEqualTo(sent.get(1).getId());
+        assertThat(handoffs).hasValue(1);
+        verify(template, times(2)).send(eq("orders"), eq("created"), any(Message.class), any(CorrelationData.class));
+    }
+
+    @Test
+    void failsOnceRetriesAreExhausted() {
+        RabbitConfirmPublisher publisher = publisher(10, 1);
+
+        CompletableFuture<Void> confirmed = publisher.publish("orders", "created", "order-1");
+        for (int attempt = 0; attempt < 2; attempt++) {
+            int index = attempt;
+            await().atMost(Duration.ofSeconds(5)).until(() -> sent.size() > index);
+            CorrelationData correlationData = sent.get(index);
+            correlationData.setReturned(new ReturnedMessage(new Message(new byte[0], new MessageProperties()), 312, "NO_ROUTE", "orders", "created"));
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+        }
+
+        assertThatExceptionOfType(ExecutionException.class).isThrownBy(() -> confirmed.get())
+                .withCauseInstanceOf(AmqpMessageReturnedException.class);
+        assertThat(sent).hasSize(2);
+        assertThat(publisher.getOutstanding()).isZero();
+    }
+
+    @Test
+    void blocksPublishersWhileWindowIsFull() {
+        RabbitConfirmPublisher publisher = publisher(1, 0);
+        publisher.publish("orders", "created", "order-1");
+
+        CompletableFuture<CompletableFuture<Void>> second = CompletableFuture.supplyAsync(() -> publisher.publish("orders", "created", "order-2"));
+        assertThat(second).failsWithin(Duration.ofMillis(200));
+        assertThat(sent).hasSize(1);
+
+        ack(0);
+        await().atMost(Duration.ofSeconds(5)).until(() -> sent.size() == 2);
+        ack(1);
+        assertThat(second.join()).succeedsWithin(Duration.ofSeconds(5));
+    }
+
+    private void ack(int index) {
+        sent.get(index).getFuture().complete(new CorrelationData.Confirm(true, null));
+    }
+
+    private RabbitConfirmPublisher publisher(int maxOutstanding, int retries) {
+        RabbitSourceProperties.Confirms confirms = new RabbitSourceProperties.Confirms();
+        confirms.setEnabled(true);
+        confirms.setMaxOutstanding(maxOutstanding);
+        confirms.setRetries(retries);
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+        return new RabbitConfirmPublisher("alpha", template, confirms, (task) -> {
+            handoffs.incrementAndGet();
+            executor.execute(task);
+        });
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.rabbit.connection.Connection;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RabbitDeclarationInitializer}.
+ */
+class RabbitDeclarationInitializerTests {
+
+    private final Map<String, ConnectionFactory> connectionFactories = new LinkedHashMap<>();
+
+    @Test
+    void connectsSourcesInParallel() throws Exception {
+        CountDownLatch connecting = new CountDownLatch(3);
+        for (String name : new String[]{"eu", "us", "ap"}) {
+            ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+            Connection connection = mock(Connection.class);
+            willAnswer((call) -> {
+                // declaring on one source only completes once every source is connecting
+                connecting.countDown();
+                assertThat(connecting.await(5, TimeUnit.SECONDS)).isTrue();
+                return connection;
+            }).given(connectionFactory).createConnection();
+            connectionFactories.put(name, connectionFactory);
+        }
+        RabbitDeclarationInitializer initializer = initializer(Duration.ofSeconds(10));
+
+        initializer.start();
+
+        assertThat(initializer.isRunning()).isTrue();
+        for (ConnectionFactory connectionFactory : connectionFactories.values()) {
+            verify(connectionFactory).createConnection();
+        }
+    }
+
+    @Test
+    void continuesStartupWhenSourceCannotConnect() {
+        ConnectionFactory down = mock(ConnectionFactory.class);
+        given(down.createConnection()).willThrow(new AmqpConnectException(new ConnectException("Connection refused")));
+        ConnectionFactory up = mock(ConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        given(up.createConnection()).willReturn(connection);
+        connectionFactories.put("eu", down);
+        connectionFactories.put("us", up);
+
+        initializer(Duration.ofSeconds(10)).start();
+
+        verify(connection).close();
+    }
+
+    @Test
+    void stopsWaitingAfterTimeout() {
+        ConnectionFactory slow = mock(ConnectionFactory.class);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer((call) -> {
+            release.await();
+            return mock(Connection.class);
+        }).given(slow).createConnection();
+        connectionFactories.put("eu", slow);
+        RabbitDeclarationInitializer initializer = initializer(Duration.ofMillis(100));
+
+        long start = System.nanoTime();
+        initializer.start();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(initializer.isRunning()).isTrue();
+        release.countDown();
+    }
+
+    private RabbitDeclarationInitializer initializer(Duration timeout) {
+        return new RabbitDeclarationInitializer(connectionFactories, timeout, new SimpleAsyncTaskExecutor());
+    }
+}
@@ -0,0 +1,176 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RabbitListenerAutoscaler}.
+ */
+class RabbitListenerAutoscalerTests {
+
+    private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+
+    private final AmqpAdmin amqpAdmin = mock(AmqpAdmin.class);
+
+    private final RabbitSourceProperties.Autoscaling autoscaling = new RabbitSourceProperties.Autoscaling();
+
+    RabbitListenerAutoscalerTests() {
+        autoscaling.setEnabled(true);
+        autoscaling.setMaxConsumers(5);
+        autoscaling.setBacklogPerConsumer(100);
+        autoscaling.setCooldown(Duration.ofSeconds(30));
+    }
+
+    @Test
+    void addsConsumersWhileBacklogExceedsLimit() {
+        SimpleMessageListenerContainer container = simpleContainer(2);
+        RabbitListenerAutoscaler autoscaler = autoscaler(List.of(container));
+
+        autoscaler.adjust(container, 500, 0.1, null, 0);
+
+        assertThat(container).hasFieldOrPropertyWithValue("concurrentConsumers", 3)
+                .hasFieldOrPropertyWithValue("maxConcurrentConsumers", 3);
+    }
+
+    @Test
+    void addsConsumersWhileBusyAndMessagesWait() {
+        SimpleMessageListenerContainer container = simpleContainer(2);
+        RabbitListenerAutoscaler autoscaler = autoscaler(List.of(container));
+
+        autoscaler.adjust(container, 10, 0.9, null, 0);
+
+        assertThat(container).hasFieldOrPropertyWithValue("concurrentConsumers", 3);
+    }
+
+    @Test
+    void removesIdleConsumersWithinBounds() {
+        SimpleMessageListenerContainer container = simpleContainer(2);
+        RabbitListenerAutoscaler autoscaler = autoscaler(List.of(container));
+        long cooldown = autoscaling.getCooldown().toNanos();
+
+        autoscaler.adjust(container, 0, 0.0, null, 0);
+        assertThat(container).hasFieldOrPropertyWithValue("concurrentConsumers", 1);
+
+        autoscaler.adjust(container, 0, 0.0, null, cooldown);
+        assertThat(container).hasFieldOrPropertyWithValue("concurrentConsumers", 1);
+    }
+
+    @Test
+    void waitsForCooldownBetweenAdjustments() {
+        SimpleMessageListenerContainer container = simpleContainer(1);
+        RabbitListenerAutoscaler autoscaler = autoscaler(List.of(container));
+        long cooldown = autoscaling.getCooldown().toNanos();
+
+        autoscaler.adjust(container, 1_000, 0.5, null, 0);
+        autoscaler.adjust(container, 1_000, 0.5, null, cooldown - 1);
+        assertThat(container).hasFieldOrPropertyWithValue("concurrentConsumers", 2);
+
+        autoscaler.adjust(container, 1_000, 0.5, null, cooldown);
+        assertThat(container).hasFieldOrPropertyWithValue("concurrentConsumers", 3);
+    }
+
+    @Test
+    void alignsPrefetchWithListenerLatency() {
+        DirectMessageListenerContainer container = new DirectMessageListenerContainer(connectionFactory);
+        container.setConsumersPerQueue(2);
+        RabbitListenerAutoscaler autoscaler = autoscaler(List.of(container));
+
+        autoscaler.adjust(container, 150, 0.5, Duration.ofMillis(10), 0);
+
+        assertThat(container).hasFieldOrPropertyWithValue("consumersPerQueue", 2)
+                .hasFieldOrPropertyWithValue("prefetchCount", 100);
+    }
+
+    @Test
+    void restartsRunningConsumersToApplyPrefetch() {
+        DirectMessageListenerContainer container = spy(new DirectMessageListenerContainer(connectionFactory));
+        container.setConsumersPerQueue(2);
+        willReturn(true).given(container).isRunning();
+        willDoNothing().given(container).stop();
+        willDoNothing().given(container).start();
+        RabbitListenerAutoscaler autoscaler = autoscaler(List.of(container));
+        long cooldown = autoscaling.getCooldown().toNanos();
+
+        autoscaler.adjust(container, 150, 0.5, Duration.ofMillis(10), 0);
+
+        InOrder ordered = inOrder(container);
+        ordered.verify(container).stop();
+        ordered.verify(container).setPrefetchCount(100);
+        ordered.verify(container).start();
+
+        // within a quarter of the current prefetch: no restart
+        autoscaler.adjust(container, 150, 0.5, Duration.ofMillis(11), cooldown);
+        verify(container, times(1)).stop();
+        assertThat(container).hasFieldOrPropertyWithValue("prefetchCount", 100);
+
+        // consumers change alone: no restart
+        autoscaler.adjust(container, 1_000, 0.5, Duration.ofMillis(10), cooldown);
+        verify(container, times(1)).stop();
+        assertThat(container).hasFieldOrPropertyWithValue("consumersPerQueue", 3);
+
+        autoscaler.adjust(container, 150, 0.5, Duration.ofMillis(40), 2 * cooldown);
+        verify(container, times(2)).stop();
+        verify(container, times(2)).start();
+        assertThat(container).hasFieldOrPropertyWithValue("prefetchCount", 25);
+    }
+
+    @Test
+    void evaluatesOnlyContainersOfTheSource() {
+        SimpleMessageListenerContainer container = simpleContainer(1);
+        container.setQueueNames("orders");
+        SimpleMessageListenerContainer other = new SimpleMessageListenerContainer(mock(ConnectionFactory.class));
+        other.setQueueNames("orders");
+        given(amqpAdmin.getQueueInfo("orders")).willReturn(new QueueInformation("orders", 1_000, 1));
+        RabbitListenerAutoscaler autoscaler = autoscaler(List.of(container, other));
+
+        assertThat(autoscaler.getContainers()).containsExactly(container);
+        autoscaler.adjust();
+
+        assertThat(container).hasFieldOrPropertyWithValue("concurrentConsumers", 2);
+        assertThat(other).hasFieldOrPropertyWithValue("concurrentConsumers", 1);
+    }
+
+    private SimpleMessageListenerContainer simpleContainer(int consumers) {
+        SimpleMessageListenerContainer container = new SimpleMessageListenerContainer(connectionFactory);
+        container.setConcurrentConsumers(consumers);
+        return container;
+    }
+
+    private RabbitListenerAutoscaler autoscaler(List<MessageListenerContainer> containers) {
+        return new RabbitListenerAutoscaler("alpha", connectionFactory, amqpAdmin, autoscaling, () -> containers, false);
+    }
+}
@@ -15,17 +15,26 @@
  */
 package com.childrengreens.multi.source;
 
+import org.aopalliance.aop.Advice;
 import org.jspecify.annotations.NonNull;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledForJreRange;
 import org.junit.jupiter.api.condition.JRE;
+import org.springframework.amqp.rabbit.config.AbstractRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.config.ContainerCustomizer;
 import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.StatefulRetryOperationsInterceptor;
 import org.springframework.amqp.rabbit.listener.DirectMessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.rabbit.retry.MessageRecoverer;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
 import org.springframework.boot.amqp.autoconfigure.RabbitAutoConfiguration;
+import org.springframework.boot.amqp.autoconfigure.RabbitListenerRetrySettingsCustomizer;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.retry.RetryPolicySettings;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -33,6 +42,9 @@ import org.springframework.core.task.TaskExecutor;
 import org.springframework.core.task.VirtualThreadTaskExecutor;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
 
 /**
  * Tests for {@link RabbitMultiSourcesAnnotationDrivenRegistrar}.
@@ -77,6 +89,104 @@ class RabbitMultiSourcesAnnotationDrivenRegistrarTests {
         });
     }
 
+    @Test
+    void registersBothContainerModelsWithPerSourceSettings() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.rabbitmq.listener.simple.prefetch=7",
+                        "spring.multi-sources.rabbitmq.sources.alpha.listener.simple.prefetch=500",
+                        "spring.multi-sources.rabbitmq.sources.alpha.listener.simple.concurrency=4",
+                        "spring.multi-sources.rabbitmq.sources.alpha.listener.simple.consumer-batch-enabled=true",
+                        "spring.multi-sources.rabbitmq.sources.alpha.listener.simple.batch-size=50",
+                        "spring.multi-sources.rabbitmq.sources.alpha.batching.receive-timeout=250ms",
+                        "spring.multi-sources.rabbitmq.sources.alpha.listener.direct.prefetch=1",
+                        "spring.multi-sources.rabbitmq.sources.alpha.listener.direct.consumers-per-queue=3",
+                        "spring.multi-sources.rabbitmq.sources.beta.listener.simple.prefetch=20")
+                .run((context) -> {
+                    assertThat(context).hasBean("alphaDirectRabbitListenerContainerFactory");
+                    assertThat(context).hasBean("betaSimpleRabbitListenerContainerFactory");
+                    assertThat(context.getBean(SimpleRabbitListenerContainerFactory.class))
+                            .isSameAs(context.getBean("alphaSimpleRabbitListenerContainerFactory"));
+
+                    SimpleRabbitListenerContainerFactory alphaSimple = context.getBean("alphaSimpleRabbitListenerContainerFactory", SimpleRabbitListenerContainerFactory.class);
+                    assertThat(alphaSimple)
+                            .hasFieldOrPropertyWithValue("prefetchCount", 500)
+                            .hasFieldOrPropertyWithValue("concurrentConsumers", 4)
+                            .hasFieldOrPropertyWithValue("batchListener", true)
+                            .hasFieldOrPropertyWithValue("consumerBatchEnabled", true)
+                            .hasFieldOrPropertyWithValue("batchSize", 50)
+                            .hasFieldOrPropertyWithValue("batchReceiveTimeout", 250L);
+                    assertThat(context.getBean("alphaDirectRabbitListenerContainerFactory", DirectRabbitListenerContainerFactory.class))
+                            .hasFieldOrPropertyWithValue("prefetchCount", 1)
+                            .hasFieldOrPropertyWithValue("consumersPerQueue", 3);
+                    assertThat(context.getBean("betaSimpleRabbitListenerContainerFactory", SimpleRabbitListenerContainerFactory.class))
+                            .hasFieldOrPropertyWithValue("prefetchCount", 20)
+                            .hasFieldOrPropertyWithValue("batchListener", false);
+                });
+    }
+
+    @Test
+    void marksOnlyTheListenerTypeFactoryOfThePrimarySourcePrimary() {
+        this.contextRunner.run((context) -> {
+            assertThat(context.getBean(RabbitListenerContainerFactory.class))
+                    .isSameAs(context.getBean("alphaSimpleRabbitListenerContainerFactory"));
+            assertThat(context.getBean(AbstractRabbitListenerContainerFactory.class))
+                    .isSameAs(context.getBean("alphaSimpleRabbitListenerContainerFactory"));
+            assertThat(context.getBeanFactory().getBeanDefinition("alphaDirectRabbitListenerContainerFactory").isPrimary()).isFalse();
+        });
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.primary-key=beta")
+                .run((context) -> {
+                    assertThat(context.getBean(RabbitListenerContainerFactory.class))
+                            .isSameAs(context.getBean("betaDirectRabbitListenerContainerFactory"));
+                    assertThat(context.getBean(DirectRabbitListenerContainerFactory.class))
+                            .isSameAs(context.getBean("betaDirectRabbitListenerContainerFactory"));
+                    assertThat(context.getBeanFactory().getBeanDefinition("betaSimpleRabbitListenerContainerFactory").isPrimary()).isFalse();
+                });
+    }
+
+    @Test
+    void registersAutoscalerAndAddsItsAdviceToContainerFactories() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.sources.alpha.autoscaling.enabled=true",
+                        "spring.multi-sources.rabbitmq.sources.alpha.autoscaling.max-consumers=20")
+                .run((context) -> {
+                    RabbitListenerAutoscaler autoscaler = context.getBean("alphaRabbitListenerAutoscaler", RabbitListenerAutoscaler.class);
+                    assertThat(autoscaler.isRunning()).isTrue();
+                    assertThat(context).doesNotHaveBean("betaRabbitListenerAutoscaler");
+                    assertThat(context.getBean("alphaSimpleRabbitListenerContainerFactory", SimpleRabbitListenerContainerFactory.class).getAdviceChain())
+                            .contains(autoscaler.getAdvice());
+                    assertThat(context.getBean("alphaDirectRabbitListenerContainerFactory", DirectRabbitListenerContainerFactory.class).getAdviceChain())
+                            .contains(autoscaler.getAdvice());
+                    assertThat(context.getBean("betaSimpleRabbitListenerContainerFactory", SimpleRabbitListenerContainerFactory.class).getAdviceChain())
+                            .isNullOrEmpty();
+                });
+    }
+
+    @Test
+    void appliesApplicationConverterRecovererAndRetryCustomizersToSourceFactories() {
+        this.contextRunner
+                .withUserConfiguration(ListenerCollaboratorsConfiguration.class)
+                .withPropertyValues("spring.rabbitmq.listener.simple.retry.enabled=false",
+                        "spring.multi-sources.rabbitmq.sources.alpha.listener.simple.retry.enabled=true",
+                        "spring.multi-sources.rabbitmq.sources.alpha.listener.simple.retry.stateless=false")
+                .run((context) -> {
+                    MessageConverter messageConverter = context.getBean(MessageConverter.class);
+                    assertThat(context.getBean("alphaSimpleRabbitListenerContainerFactory", SimpleRabbitListenerContainerFactory.class))
+                            .hasFieldOrPropertyWithValue("messageConverter", messageConverter);
+                    assertThat(context.getBean("betaDirectRabbitListenerContainerFactory", DirectRabbitListenerContainerFactory.class))
+                            .hasFieldOrPropertyWithValue("messageConverter", messageConverter);
+
+                    Advice[] adviceChain = context.getBean("alphaSimpleRabbitListenerContainerFactory", SimpleRabbitListenerContainerFactory.class).getAdviceChain();
+                    assertThat(adviceChain).singleElement()
+                            .isInstanceOf(StatefulRetryOperationsInterceptor.class)
+                            .hasFieldOrPropertyWithValue("messageRecoverer", context.getBean(MessageRecoverer.class));
+                    verify(context.getBean(RabbitListenerRetrySettingsCustomizer.class)).customize(any(RetryPolicySettings.class));
+                    assertThat(context.getBean("betaSimpleRabbitListenerContainerFactory", SimpleRabbitListenerContainerFactory.class).getAdviceChain())
+                            .isNullOrEmpty();
+                });
+    }
+
     @Test
     @EnabledForJreRange(min = JRE.JAVA_21)
     void usesVirtualThreadTaskExecutorWhenEnabled() {
@@ -111,6 +221,26 @@ class RabbitMultiSourcesAnnotationDrivenRegistrarTests {
         throw new IllegalStateException("Field '" + "taskExecutor" + "' not found in hierarchy of " + target);
     }
 
+    @Configuration(proxyBeanMethods = false)
+    static class ListenerCollaboratorsConfiguration {
+
+        @Bean
+        MessageConverter messageConverter() {
+            return new SimpleMessageConverter();
+        }
+
+        @Bean
+        MessageRecoverer messageRecoverer() {
+            return (message, cause) -> {
+            };
+        }
+
+        @Bean
+        RabbitListenerRetrySettingsCustomizer retrySettingsCustomizer() {
+            return mock(RabbitListenerRetrySettingsCustomizer.class);
+        }
+    }
+
     @Configuration(proxyBeanMethods = false)
     static class ContainerCustomizersConfiguration {
 
@@ -16,13 +16,39 @@
 package com.childrengreens.multi.source;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
 import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.Declarables;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.AsyncRabbitTemplate;
+import org.springframework.amqp.rabbit.config.DirectRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.BatchingRabbitTemplate;
 import org.springframework.amqp.rabbit.core.RabbitMessagingTemplate;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.JacksonJsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SimpleMessageConverter;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.amqp.autoconfigure.RabbitAutoConfiguration;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.test.context.FilteredClassLoader;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -71,5 +97,247 @@ class RabbitMultiSourcesAutoConfigurationTests {
                     .containsKeys("alphaAmqpAdmin", "betaAmqpAdmin");
         });
     }
-}
 
+    @Test
+    void registersBatchingTemplateAndBatchListenerFactoryWhenEnabled() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.sources.alpha.batching.enabled=true",
+                        "spring.multi-sources.rabbitmq.sources.alpha.batching.size=50",
+                        "spring.multi-sources.rabbitmq.sources.alpha.batching.receive-timeout=250ms")
+                .run((context) -> {
+                    assertThat(context).hasBean("alphaBatchingStrategy");
+                    assertThat(context).hasBean("alphaBatchingRabbitTemplate");
+                    assertThat(context).doesNotHaveBean("betaBatchingRabbitTemplate");
+                    assertThat(context.getBean(RabbitTemplate.class)).isSameAs(context.getBean("alphaRabbitTemplate"));
+                    assertThat(context.getBean("alphaBatchingRabbitTemplate", BatchingRabbitTemplate.class).getConnectionFactory())
+                            .isSameAs(context.getBean("alphaCachingConnectionFactory"));
+
+                    SimpleRabbitListenerContainerFactory factory = context.getBean("alphaBatchRabbitListenerContainerFactory", SimpleRabbitListenerContainerFactory.class);
+                    SimpleMessageListenerContainer container = factory.createListenerContainer();
+                    assertThat(factory).hasFieldOrPropertyWithValue("batchListener", true);
+                    assertThat(container.isConsumerBatchEnabled()).isTrue();
+                    assertThat(container).hasFieldOrPropertyWithValue("batchSize", 50)
+                            .hasFieldOrPropertyWithValue("batchReceiveTimeout", 250L)
+                            .hasFieldOrPropertyWithValue("batchingStrategy", context.getBean("alphaBatchingStrategy"));
+
+                    ThreadPoolTaskScheduler scheduler = (ThreadPoolTaskScheduler) ReflectionTestUtils.getField(
+                            context.getBean("alphaBatchingRabbitTemplate"), BatchingRabbitTemplate.class, "scheduler");
+                    assertThat(scheduler.getScheduledExecutor().isShutdown()).isFalse();
+                    context.close();
+                    assertThat(scheduler.getScheduledExecutor().isShutdown()).isTrue();
+                });
+    }
+
+    @Test
+    void registersConfirmPublisherWithCorrelatedConfirms() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.sources.beta.confirms.enabled=true",
+                        "spring.multi-sources.rabbitmq.sources.beta.confirms.max-outstanding=500")
+                .run((context) -> {
+                    assertThat(context).doesNotHaveBean("alphaRabbitConfirmPublisher");
+                    RabbitConfirmPublisher publisher = context.getBean("betaRabbitConfirmPublisher", RabbitConfirmPublisher.class);
+                    assertThat(publisher.getMaxOutstanding()).isEqualTo(500);
+                    assertThat(publisher.getTemplate()).isSameAs(context.getBean("betaRabbitTemplate"));
+
+                    CachingConnectionFactory beta = context.getBean("betaCachingConnectionFactory", CachingConnectionFactory.class);
+                    assertThat(beta.isSimplePublisherConfirms()).isFalse();
+                    assertThat(beta.isPublisherConfirms()).isTrue();
+                    assertThat(beta.isPublisherReturns()).isTrue();
+                    assertThat(context.getBean("alphaCachingConnectionFactory", CachingConnectionFactory.class).isPublisherConfirms()).isFalse();
+                });
+    }
+
+    @Test
+    void skipsStreamBeansWithoutRabbitStreamOnClasspath() {
+        this.contextRunner
+                .withClassLoader(new FilteredClassLoader("org.springframework.rabbit.stream", "com.rabbitmq.stream"))
+                .withPropertyValues("spring.multi-sources.rabbitmq.sources.alpha.stream.name=events",
+                        "spring.multi-sources.rabbitmq.sources.beta.super-stream.name=orders",
+                        "spring.multi-sources.rabbitmq.sources.beta.super-stream.consumers=3")
+                .run((context) -> {
+                    assertThat(context).hasNotFailed();
+                    assertThat(context.getBeanDefinitionNames()).noneMatch((name) -> name.contains("Stream"));
+                    RabbitSourceProperties beta = Binder.get(context.getEnvironment())
+                            .bind("spring.multi-sources.rabbitmq", RabbitMultiSourcesProperties.class).get().getSources().get("beta");
+                    assertThat(beta.getSuperStream().getName()).isEqualTo("orders");
+                    assertThat(beta.getSuperStream().getConsumers()).isEqualTo(3);
+                });
+    }
+
+    @Test
+    void registersFanOutPublisherOverFanOutSources() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.sources.alpha.publisher-confirm-type=correlated",
+                        "spring.multi-sources.rabbitmq.sources.beta.confirms.enabled=true",
+                        "spring.multi-sources.rabbitmq.fan-out.sources=alpha,beta",
+                        "spring.multi-sources.rabbitmq.fan-out.timeout=2s")
+                .run((context) -> {
+                    MultiSourceRabbitPublisher publisher = context.getBean(MultiSourceRabbitPublisher.class);
+                    assertThat(publisher.getQuorum()).isEqualTo(2);
+                    assertThat(publisher.getTimeout()).isEqualTo(Duration.ofSeconds(2));
+                    assertThat(publisher.getStatistics()).containsOnlyKeys("alpha", "beta");
+                    assertThat(ReflectionTestUtils.getField(publisher, "executor")).isInstanceOfSatisfying(ThreadPoolTaskExecutor.class, (pool) -> {
+                        assertThat(pool.getMaxPoolSize()).isEqualTo(2);
+                        context.close();
+                        assertThat(pool.getThreadPoolExecutor().isShutdown()).isTrue();
+                    });
+                });
+    }
+
+    @Test
+    void failsOnUnknownFanOutSource() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.fan-out.sources=alpha,gamma")
+                .run((context) -> assertThat(context).hasFailed()
+                        .getFailure().hasMessageContaining("source key: gamma"));
+    }
+
+    @Test
+    void registersLoadBalancedPublisherOverLoadBalancingSources() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.load-balancing.sources=alpha,beta",
+                        "spring.multi-sources.rabbitmq.load-balancing.strategy=weighted",
+                        "spring.multi-sources.rabbitmq.load-balancing.weights.alpha=3")
+                .run((context) -> {
+                    LoadBalancedRabbitPublisher publisher = context.getBean(LoadBalancedRabbitPublisher.class);
+                    assertThat(publisher.getStrategy()).isEqualTo(LoadBalancedRabbitPublisher.Strategy.WEIGHTED);
+                    assertThat(publisher.getMembers()).extracting(LoadBalancedRabbitPublisher.Member::getName).containsExactly("alpha", "beta");
+                    assertThat(publisher.getMembers()).extracting(LoadBalancedRabbitPublisher.Member::getWeight).containsExactly(3, 1);
+                });
+    }
+
+    @Test
+    void registersAsyncTemplateOverEachSourceTemplate() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.sources.beta.async.receive-timeout=2s")
+                .run((context) -> {
+                    assertThat(context.getBeansOfType(AsyncRabbitTemplate.class))
+                            .containsOnlyKeys("alphaAsyncRabbitTemplate", "betaAsyncRabbitTemplate");
+                    AsyncRabbitTemplate alpha = context.getBean(AsyncRabbitTemplate.class);
+                    AsyncRabbitTemplate beta = context.getBean("betaAsyncRabbitTemplate", AsyncRabbitTemplate.class);
+                    assertThat(alpha).isInstanceOf(ExecutorAsyncRabbitTemplate.class);
+                    assertThat(alpha.getRabbitTemplate()).isSameAs(context.getBean("alphaRabbitTemplate"));
+                    assertThat(beta.getConnectionFactory()).isSameAs(context.getBean("betaCachingConnectionFactory"));
+                    assertThat(ReflectionTestUtils.getField(alpha, "receiveTimeout")).isEqualTo(30000L);
+                    assertThat(ReflectionTestUtils.getField(beta, "receiveTimeout")).isEqualTo(2000L);
+                    assertThat(ReflectionTestUtils.getField(beta, "directReplyToContainer")).isNotNull();
+                });
+    }
+
+    @Test
+    void completesAsyncRepliesOnBoundedPoolWithoutVirtualThreads() {
+        this.contextRunner.run((context) -> {
+            Executor executor = context.getBean("alphaAsyncRabbitTemplate", ExecutorAsyncRabbitTemplate.class).getCompletionExecutor();
+            assertThat(executor).isInstanceOfSatisfying(ThreadPoolTaskExecutor.class, (pool) -> {
+                assertThat(pool.getMaxPoolSize()).isEqualTo(Runtime.getRuntime().availableProcessors());
+                context.close();
+                assertThat(pool.getThreadPoolExecutor().isShutdown()).isTrue();
+            });
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void completesAsyncRepliesOnVirtualThreadsWhenEnabled() {
+        this.contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run((context) -> {
+            Executor executor = context.getBean("alphaAsyncRabbitTemplate", ExecutorAsyncRabbitTemplate.class).getCompletionExecutor();
+            Method isVirtual = ReflectionUtils.findMethod(Thread.class, "isVirtual");
+            CompletableFuture<Object> virtual = new CompletableFuture<>();
+            executor.execute(() -> virtual.complete(ReflectionUtils.invokeMethod(isVirtual, Thread.currentThread())));
+            assertThat(virtual).succeedsWithin(Duration.ofSeconds(5)).isEqualTo(true);
+        });
+    }
+
+    @Test
+    void usesMessageConverterSelectedPerSource() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.sources.alpha.conversion.type=json",
+                        "spring.multi-sources.rabbitmq.sources.beta.conversion.type=raw")
+                .run((context) -> {
+                    MessageConverter alpha = context.getBean("alphaRabbitTemplate", RabbitTemplate.class).getMessageConverter();
+                    MessageConverter beta = context.getBean("betaRabbitTemplate", RabbitTemplate.class).getMessageConverter();
+                    assertThat(alpha).isInstanceOf(JacksonJsonMessageConverter.class);
+                    assertThat(beta).isInstanceOf(PassthroughMessageConverter.class);
+                    assertThat(ReflectionTestUtils.getField(context.getBean("alphaSimpleRabbitListenerContainerFactory"), "messageConverter"))
+                            .isSameAs(alpha);
+                    assertThat(ReflectionTestUtils.getField(context.getBean("betaDirectRabbitListenerContainerFactory", DirectRabbitListenerContainerFactory.class), "messageConverter"))
+                            .isSameAs(beta);
+                    assertThat(ReflectionTestUtils.getField(context.getBean("betaSimpleRabbitListenerContainerFactory"), "messageConverter"))
+                            .isSameAs(beta);
+                    assertThat(context.getBeanProvider(MessageConverter.class).getIfAvailable()).isNull();
+                });
+    }
+
+    @Test
+    void usesMessageConverterBeanNamedBySource() {
+        this.contextRunner
+                .withBean("binaryMessageConverter", SimpleMessageConverter.class)
+                .withPropertyValues("spring.multi-sources.rabbitmq.sources.beta.conversion.bean-name=binaryMessageConverter")
+                .run((context) -> {
+                    assertThat(context.getBean("betaRabbitTemplate", RabbitTemplate.class).getMessageConverter())
+                            .isSameAs(context.getBean("binaryMessageConverter"));
+                });
+    }
+
+    @Test
+    void scopesSourceDeclarablesToTheirSourceAdmins() {
+        this.contextRunner
+                .withUserConfiguration(DeclarablesConfiguration.class)
+                .run((context) -> {
+                    assertThat(context.getBean("betaQueue", Queue.class).getDeclaringAdmins()).singleElement().isEqualTo("betaAmqpAdmin");
+                    assertThat(context.getBean("sharedQueue", Queue.class).getDeclaringAdmins()).isEmpty();
+                    assertThat(context.getBean("alphaDeclarables", Declarables.class).getDeclarables())
+                            .allSatisfy((declarable) -> assertThat(declarable.getDeclaringAdmins()).singleElement().isEqualTo("alphaAmqpAdmin"));
+                });
+    }
+
+    @Test
+    void failsOnUnknownDeclarableSource() {
+        this.contextRunner
+                .withBean("gammaQueue", UnknownSourceQueue.class)
+                .run((context) -> assertThat(context).hasFailed()
+                        .getFailure().hasRootCauseMessage("source key: gamma, declarable source not found"));
+    }
+
+    @Test
+    void registersDeclarationInitializerForParallelStartup() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.declaration.parallel-startup=true",
+                        "spring.multi-sources.rabbitmq.declaration.startup-timeout=5s")
+                .run((context) -> {
+                    RabbitDeclarationInitializer initializer = context.getBean(RabbitDeclarationInitializer.class);
+                    assertThat(initializer.getConnectionFactories()).containsOnlyKeys("alpha", "beta");
+                    assertThat(initializer.getTimeout()).isEqualTo(Duration.ofSeconds(5));
+                    assertThat(initializer.isRunning()).isTrue();
+                });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class DeclarablesConfiguration {
+
+        @Bean
+        @SourceDeclarable("beta")
+        Queue betaQueue() {
+            return new Queue("beta.queue");
+        }
+
+        @Bean
+        Queue sharedQueue() {
+            return new Queue("shared.queue");
+        }
+
+        @Bean
+        @SourceDeclarable("alpha")
+        Declarables alphaDeclarables() {
+            return new Declarables(new Queue("alpha.queue"), new DirectExchange("alpha.exchange"));
+        }
+    }
+
+    @SourceDeclarable("gamma")
+    static class UnknownSourceQueue extends Queue {
+
+        UnknownSourceQueue() {
+            super("gamma.queue");
+        }
+    }
+}
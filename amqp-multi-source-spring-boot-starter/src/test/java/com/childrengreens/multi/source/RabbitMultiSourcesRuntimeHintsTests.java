@@ -22,7 +22,6 @@ import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
 import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
@@ -41,16 +40,6 @@ class RabbitMultiSourcesRuntimeHintsTests {
         assertThat(RuntimeHintsPredicates.reflection()
                 .onConstructorInvocation(resolveConstructor(RabbitAmqpClassNames.SSL_BUNDLE_RABBIT_CONNECTION_FACTORY_BEAN)))
                 .accepts(hints);
-
-        assertThat(RuntimeHintsPredicates.reflection()
-                .onMethodInvocation(resolveMethod(RabbitAmqpClassNames.RABBIT_ANNOTATION_DRIVEN_CONFIGURATION,
-                        "simpleListenerConfigurer")))
-                .accepts(hints);
-
-        assertThat(RuntimeHintsPredicates.reflection()
-                .onMethodInvocation(resolveMethod(RabbitAmqpClassNames.RABBIT_ANNOTATION_DRIVEN_CONFIGURATION,
-                        "directListenerConfigurer")))
-                .accepts(hints);
     }
 
     @Test
@@ -86,12 +75,4 @@ class RabbitMultiSourcesRuntimeHintsTests {
             throw new IllegalStateException("Constructor not found for: " + className, ex);
         }
     }
-
-    private Method resolveMethod(String className, String methodName, Class<?>... parameterTypes) {
-        try {
-            return resolveClass(className).getDeclaredMethod(methodName, parameterTypes);
-        } catch (NoSuchMethodException ex) {
-            throw new IllegalStateException("Method not found for: " + className + "." + methodName, ex);
-        }
-    }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import com.rabbitmq.stream.Environment;
+import com.rabbitmq.stream.Message;
+import com.rabbitmq.stream.MessageBuilder;
+import com.rabbitmq.stream.codec.WrapperMessageBuilder;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.config.ContainerCustomizer;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.RabbitListenerContainerFactory;
+import org.springframework.boot.amqp.autoconfigure.RabbitAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.rabbit.stream.config.StreamRabbitListenerContainerFactory;
+import org.springframework.rabbit.stream.listener.StreamListenerContainer;
+import org.springframework.rabbit.stream.producer.RabbitStreamTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RabbitMultiSourcesStreamRegistrar}.
+ */
+class RabbitMultiSourcesStreamRegistrarTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(RabbitAutoConfiguration.class, RabbitMultiSourcesAutoConfiguration.class))
+            .withPropertyValues(
+                    "spring.multi-sources.rabbitmq.primary-key=alpha",
+                    "spring.multi-sources.rabbitmq.sources.alpha.host=localhost",
+                    "spring.multi-sources.rabbitmq.sources.alpha.stream.name=events",
+                    "spring.multi-sources.rabbitmq.sources.beta.host=localhost",
+                    "spring.multi-sources.rabbitmq.sources.beta.port=5673",
+                    "spring.multi-sources.rabbitmq.sources.beta.conversion.type=raw",
+                    "spring.multi-sources.rabbitmq.sources.beta.super-stream.name=orders",
+                    "spring.multi-sources.rabbitmq.sources.beta.super-stream.consumer-name=billing",
+                    "spring.multi-sources.rabbitmq.sources.beta.super-stream.consumers=3");
+
+    @Test
+    void registersStreamBeansPerSource() {
+        this.contextRunner.run((context) -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context.getBean("alphaRabbitStreamEnvironment")).isInstanceOf(Environment.class);
+            assertThat(context.getBean("betaRabbitStreamEnvironment")).isInstanceOf(Environment.class)
+                    .isNotSameAs(context.getBean("alphaRabbitStreamEnvironment"));
+
+            RabbitStreamTemplate alpha = context.getBean("alphaRabbitStreamTemplate", RabbitStreamTemplate.class);
+            assertThat(ReflectionTestUtils.getField(alpha, "environment")).isSameAs(context.getBean("alphaRabbitStreamEnvironment"));
+            assertThat(ReflectionTestUtils.getField(alpha, "streamName")).isEqualTo("events");
+            assertThat(ReflectionTestUtils.getField(alpha, "superStreamRouting")).isNull();
+            assertThat(context.getBean(RabbitStreamTemplate.class)).isSameAs(alpha);
+        });
+    }
+
+    @Test
+    void routesSuperStreamByMessageIdAndConvertsPerSource() {
+        this.contextRunner.run((context) -> {
+            RabbitStreamTemplate beta = context.getBean("betaRabbitStreamTemplate", RabbitStreamTemplate.class);
+            assertThat(ReflectionTestUtils.getField(beta, "environment")).isSameAs(context.getBean("betaRabbitStreamEnvironment"));
+            assertThat(ReflectionTestUtils.getField(beta, "streamName")).isEqualTo("orders");
+            assertThat(beta.messageConverter()).isInstanceOf(PassthroughMessageConverter.class)
+                    .isSameAs(context.getBean("betaRabbitTemplate", RabbitTemplate.class).getMessageConverter());
+
+            @SuppressWarnings("unchecked")
+            Function<Message, String> routing = (Function<Message, String>) ReflectionTestUtils.getField(beta, "superStreamRouting");
+            MessageBuilder builder = new WrapperMessageBuilder();
+            Message message = builder.properties().messageId("order-42").messageBuilder().addData(new byte[0]).build();
+            assertThat(routing).isNotNull();
+            assertThat(routing.apply(message)).isEqualTo("order-42");
+        });
+    }
+
+    @Test
+    void marksStreamFactoryPrimaryOnlyForStreamListeners() {
+        this.contextRunner.run((context) -> assertThat(context.getBean(RabbitListenerContainerFactory.class))
+                .isSameAs(context.getBean("alphaSimpleRabbitListenerContainerFactory")));
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.rabbitmq.sources.alpha.listener.type=stream")
+                .run((context) -> assertThat(context.getBean(RabbitListenerContainerFactory.class))
+                        .isSameAs(context.getBean("alphaStreamRabbitListenerContainerFactory")));
+    }
+
+    @Test
+    void consumesSuperStreamWithSingleActiveConsumers() {
+        this.contextRunner.run((context) -> {
+            StreamRabbitListenerContainerFactory alpha = context.getBean("alphaStreamRabbitListenerContainerFactory",
+                    StreamRabbitListenerContainerFactory.class);
+            StreamRabbitListenerContainerFactory beta = context.getBean("betaStreamRabbitListenerContainerFactory",
+                    StreamRabbitListenerContainerFactory.class);
+            assertThat(ReflectionTestUtils.getField(alpha, "environment")).isSameAs(context.getBean("alphaRabbitStreamEnvironment"));
+            assertThat(ReflectionTestUtils.getField(beta, "environment")).isSameAs(context.getBean("betaRabbitStreamEnvironment"));
+            assertThat(ReflectionTestUtils.getField(alpha, "containerCustomizer")).isNull();
+
+            @SuppressWarnings("unchecked")
+            ContainerCustomizer<StreamListenerContainer> customizer = (ContainerCustomizer<StreamListenerContainer>)
+                    ReflectionTestUtils.getField(beta, "containerCustomizer");
+            StreamListenerContainer container = mock(StreamListenerContainer.class);
+            assertThat(customizer).isNotNull();
+            customizer.configure(container);
+            verify(container).superStream("orders", "billing", 3);
+        });
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+/**
+ * Abstract Redis multi-data-source BeanDefinition registrar.
+ *
+ * @author ChildrenGreens
+ */
+public abstract class AbstractRedisMultiSourcesRegistrar extends AbstractMultiSourcesRegistrar<RedisSourceProperties> {
+
+    /**
+     * Get the RedisConnectionFactory registered for a source, preferring its striped or instrumented factory.
+     * @param name source name
+     * @param beanFactory bean factory
+     * @return connectionFactory
+     */
+    RedisConnectionFactory getConnectionFactoryBean(String name, ConfigurableListableBeanFactory beanFactory) {
+        for (Class<?> type : new Class<?>[]{StripedLettuceConnectionFactory.class, InstrumentedRedisConnectionFactory.class,
+                LettuceConnectionFactory.class, JedisConnectionFactory.class}) {
+            String beanName = generateBeanName(type, name);
+            if (beanFactory.containsBean(beanName)) {
+                return beanFactory.getBean(beanName, RedisConnectionFactory.class);
+            }
+        }
+        throw new RuntimeException("source key: " + name + ", " + "Redis connection factory not found");
+    }
+
+    @Override
+    Class<? extends MultiSourcesProperties<RedisSourceProperties>> getMultiSourcesPropertiesClass() {
+        return RedisMultiSourcesProperties.class;
+    }
+}
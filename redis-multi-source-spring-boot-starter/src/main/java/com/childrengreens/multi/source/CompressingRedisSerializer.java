@@ -0,0 +1,231 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.Nullable;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.util.Assert;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link RedisSerializer} that DEFLATE-compresses the output of a delegate serializer once it reaches a size threshold.
+ * Compressed values start with a magic header followed by the algorithm and the uncompressed length, so values
+ * written before compression was enabled, or below the threshold, are still read through the delegate as is.
+ * Deflaters, inflaters and their output buffers are pooled.
+ *
+ * @param <T> the value type
+ * @author ChildrenGreens
+ */
+public class CompressingRedisSerializer<T> implements RedisSerializer<T> {
+
+    /**
+     * Magic header, not a valid UTF-8 prefix nor a Java serialization stream header.
+     */
+    static final byte[] MAGIC = {(byte) 0xC5, 'R', 'Z'};
+
+    static final byte DEFLATE = 1;
+
+    static final int HEADER_LENGTH = MAGIC.length + 1 + Integer.BYTES;
+
+    /**
+     * Largest uncompressed length accepted, the maximum size of a Redis string.
+     */
+    static final int MAX_LENGTH = 512 * 1024 * 1024;
+
+    /**
+     * Upper bound of the DEFLATE compression ratio.
+     */
+    private static final int MAX_RATIO = 1032;
+
+    /**
+     * Output buffers above this size are not kept in the pool.
+     */
+    private static final int MAX_POOLED_BUFFER = 1 << 20;
+
+    private final RedisSerializer<T> delegate;
+
+    private final int threshold;
+
+    private final int level;
+
+    private final BlockingQueue<Deflating> deflaters;
+
+    private final BlockingQueue<Inflater> inflaters;
+
+    public CompressingRedisSerializer(RedisSerializer<T> delegate, int threshold, int level) {
+        Assert.notNull(delegate, "Delegate must not be null");
+        Assert.isTrue(threshold >= 0, "Threshold must not be negative");
+        Assert.isTrue(level >= Deflater.BEST_SPEED && level <= Deflater.BEST_COMPRESSION, "Level must be between 1 and 9");
+        this.delegate = delegate;
+        this.threshold = threshold;
+        this.level = level;
+        int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+        this.deflaters = new ArrayBlockingQueue<>(poolSize);
+        this.inflaters = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    @Override
+    public byte @Nullable [] serialize(@Nullable T value) throws SerializationException {
+        byte[] raw = delegate.serialize(value);
+        if (raw == null || raw.length < threshold) {
+            return raw;
+        }
+
+        Deflating deflating = deflaters.poll();
+        if (deflating == null) {
+            deflating = new Deflating(level);
+        }
+        try {
+            Deflater deflater = deflating.deflater;
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = deflating.buffer(HEADER_LENGTH + maxCompressedLength(raw.length));
+            int length = HEADER_LENGTH;
+            while (!deflater.finished() && length < buffer.length) {
+                length += deflater.deflate(buffer, length, buffer.length - length);
+            }
+            if (!deflater.finished() || length >= raw.length) {
+                // incompressible, store as is
+                return raw;
+            }
+            System.arraycopy(MAGIC, 0, buffer, 0, MAGIC.length);
+            buffer[MAGIC.length] = DEFLATE;
+            writeInt(buffer, MAGIC.length + 1, raw.length);
+            return Arrays.copyOf(buffer, length);
+        } finally {
+            deflating.deflater.reset();
+            if (!deflaters.offer(deflating)) {
+                deflating.deflater.end();
+            }
+        }
+    }
+
+    @Override
+    public @Nullable T deserialize(byte @Nullable [] bytes) throws SerializationException {
+        if (!isCompressed(bytes)) {
+            return delegate.deserialize(bytes);
+        }
+
+        int length = readInt(bytes, MAGIC.length + 1);
+        if (length > MAX_LENGTH || length > (long) (bytes.length - HEADER_LENGTH) * MAX_RATIO) {
+            throw new SerializationException("Invalid compressed Redis value, " + (bytes.length - HEADER_LENGTH)
+                    + " bytes cannot inflate to " + length + " bytes");
+        }
+        Inflater inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        try {
+            inflater.setInput(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+            byte[] raw = new byte[length];
+            int inflated = 0;
+            while (inflated < length && !inflater.finished() && !inflater.needsInput()) {
+                inflated += inflater.inflate(raw, inflated, length - inflated);
+            }
+            if (inflated != length) {
+                throw new SerializationException("Truncated compressed Redis value, expected " + length + " bytes but got " + inflated);
+            }
+            return delegate.deserialize(raw);
+        } catch (DataFormatException ex) {
+            throw new SerializationException("Cannot decompress Redis value", ex);
+        } finally {
+            inflater.reset();
+            if (!inflaters.offer(inflater)) {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * Whether the bytes carry the compression header.
+     * @param bytes serialized value
+     * @return bool
+     */
+    static boolean isCompressed(byte @Nullable [] bytes) {
+        if (bytes == null || bytes.length < HEADER_LENGTH || bytes[MAGIC.length] != DEFLATE) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return readInt(bytes, MAGIC.length + 1) >= 0;
+    }
+
+    /**
+     * Upper bound of the raw DEFLATE output for the given input length, as computed by zlib's deflateBound.
+     */
+    private static int maxCompressedLength(int length) {
+        return length + (length >> 12) + (length >> 14) + (length >> 25) + 13;
+    }
+
+    private static void writeInt(byte[] bytes, int offset, int value) {
+        bytes[offset] = (byte) (value >>> 24);
+        bytes[offset + 1] = (byte) (value >>> 16);
+        bytes[offset + 2] = (byte) (value >>> 8);
+        bytes[offset + 3] = (byte) value;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return ((bytes[offset] & 0xFF) << 24) | ((bytes[offset + 1] & 0xFF) << 16)
+                | ((bytes[offset + 2] & 0xFF) << 8) | (bytes[offset + 3] & 0xFF);
+    }
+
+    @Override
+    public Class<?> getTargetType() {
+        return delegate.getTargetType();
+    }
+
+    public RedisSerializer<T> getDelegate() {
+        return delegate;
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * A pooled deflater with its reusable output buffer.
+     */
+    private static final class Deflating {
+
+        private final Deflater deflater;
+
+        private byte[] buffer = new byte[0];
+
+        Deflating(int level) {
+            this.deflater = new Deflater(level, true);
+        }
+
+        byte[] buffer(int capacity) {
+            if (capacity > MAX_POOLED_BUFFER) {
+                return new byte[capacity];
+            }
+            if (buffer.length < capacity) {
+                buffer = new byte[capacity];
+            }
+            return buffer;
+        }
+    }
+}
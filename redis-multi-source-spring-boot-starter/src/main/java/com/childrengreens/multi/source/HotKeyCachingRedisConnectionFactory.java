@@ -0,0 +1,285 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RedisConnectionFactory} serving {@code GET} of hot keys from the local cache of a {@link RedisHotKeyDetector}.
+ * Commands that can change what a {@code GET} returns, that is string writes, key writes and the commands
+ * overwriting a destination key, evict the cached values of the keys they write once they have run; reads and the
+ * writes of other data types, which fail on a string key, leave the cache alone. Scripts, {@code execute} and
+ * flushes clear the whole cache, so writes through the same factory are seen at once; writes by
+ * other clients are seen once the short cache TTL expires. A read only caches its value if no eviction of its key
+ * happened meanwhile, so it never caches a value older than a write it overlapped. Reads in a pipeline or
+ * transaction bypass the cache, and the keys of its commands are evicted again once it is executed.
+ *
+ * @author ChildrenGreens
+ */
+public class HotKeyCachingRedisConnectionFactory implements RedisConnectionFactory {
+
+    /**
+     * Commands whose keys are unknown, clearing the whole cache.
+     */
+    private static final Set<String> CLEARING_COMMANDS = Set.of("eval", "evalSha", "execute", "flushDb", "flushAll");
+
+    /**
+     * Commands running the commands of a pipeline or transaction.
+     */
+    private static final Set<String> FLUSHING_COMMANDS = Set.of("exec", "discard", "closePipeline");
+
+    /**
+     * Commands that can change the value of a string key, writing the key, key array or map keys of their first
+     * argument.
+     */
+    private static final Set<String> WRITE_COMMANDS = Set.of(
+            // string commands
+            "set", "setNX", "setEx", "pSetEx", "setGet", "mSet", "mSetNX", "getSet", "getDel", "getEx", "append",
+            "incr", "incrBy", "decr", "decrBy", "setRange", "setBit", "bitField", "pfAdd", "pfMerge",
+            // key commands
+            "del", "unlink", "expire", "pExpire", "expireAt", "pExpireAt", "move", "restore",
+            // commands overwriting their destination key whatever its type
+            "sInterStore", "sUnionStore", "sDiffStore", "zUnionStore", "zInterStore", "zDiffStore",
+            "zRangeStoreByLex", "zRangeStoreRevByLex", "zRangeStoreByScore", "zRangeStoreRevByScore", "geoSearchStore");
+
+    /**
+     * Commands writing the keys of their first two arguments.
+     */
+    private static final Set<String> RENAMING_COMMANDS = Set.of("rename", "renameNX", "copy");
+
+    private final RedisConnectionFactory delegate;
+
+    private final RedisHotKeyDetector detector;
+
+    public HotKeyCachingRedisConnectionFactory(RedisConnectionFactory delegate, RedisHotKeyDetector detector) {
+        Assert.notNull(delegate, "Delegate must not be null");
+        Assert.notNull(detector, "RedisHotKeyDetector must not be null");
+        this.delegate = delegate;
+        this.detector = detector;
+    }
+
+    public RedisConnectionFactory getDelegate() {
+        return delegate;
+    }
+
+    public RedisHotKeyDetector getDetector() {
+        return detector;
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return delegate.getConvertPipelineAndTxResults();
+    }
+
+    @Override
+    public @NonNull RedisConnection getConnection() {
+        RedisConnection connection = delegate.getConnection();
+        return proxy(RedisConnection.class, connection, connection, new ArrayList<>());
+    }
+
+    @Override
+    public @NonNull RedisClusterConnection getClusterConnection() {
+        RedisClusterConnection connection = delegate.getClusterConnection();
+        return proxy(RedisClusterConnection.class, connection, connection, new ArrayList<>());
+    }
+
+    @Override
+    public @NonNull RedisSentinelConnection getSentinelConnection() {
+        return delegate.getSentinelConnection();
+    }
+
+    @Override
+    public @Nullable DataAccessException translateExceptionIfPossible(@NonNull RuntimeException ex) {
+        return delegate.translateExceptionIfPossible(ex);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, Object target, RedisConnection connection, List<byte[]> deferred) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new CachingInvocationHandler(target, connection, deferred));
+    }
+
+    /**
+     * Serves cached reads, evicts the keys of other commands and proxies the command interfaces returned by
+     * {@code stringCommands()} and friends.
+     */
+    private final class CachingInvocationHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private final RedisConnection connection;
+
+        /**
+         * Keys written by the commands queued in the pipeline or transaction of the connection, {@code null} for a
+         * command clearing the cache, shared by its command interfaces.
+         */
+        private final List<byte[]> deferred;
+
+        private final Map<Method, Object> commands = new ConcurrentHashMap<>();
+
+        CachingInvocationHandler(Object target, RedisConnection connection, List<byte[]> deferred) {
+            this.target = target;
+            this.connection = connection;
+            this.deferred = deferred;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> invoke(method, args);
+                };
+            }
+
+            if (method.getParameterCount() == 0 && InstrumentedRedisConnectionFactory.isCommands(method.getReturnType())) {
+                Object commandsProxy = commands.get(method);
+                if (commandsProxy == null) {
+                    Object result = invoke(method, args);
+                    commandsProxy = (result != null) ? proxy(method.getReturnType(), result, connection, deferred) : null;
+                    if (commandsProxy != null) {
+                        commands.put(method, commandsProxy);
+                    }
+                }
+                return commandsProxy;
+            }
+
+            String name = method.getName();
+            if (name.equals("get") && args != null && args.length == 1 && args[0] instanceof byte[] key
+                    && !connection.isPipelined() && !connection.isQueueing()) {
+                byte[] cached = detector.getCached(key);
+                if (cached != null) {
+                    return cached;
+                }
+                long version = detector.getVersion(key);
+                Object value = invoke(method, args);
+                if (detector.record(key)) {
+                    detector.cache(key, (byte[]) value, version);
+                }
+                return value;
+            }
+            if (CLEARING_COMMANDS.contains(name)) {
+                if (connection.isPipelined() || connection.isQueueing()) {
+                    // clear again once it has run
+                    deferred.add(null);
+                }
+                try {
+                    return invoke(method, args);
+                } finally {
+                    detector.clear();
+                }
+            }
+            if (FLUSHING_COMMANDS.contains(name)) {
+                try {
+                    return invoke(method, args);
+                } finally {
+                    for (byte[] key : deferred) {
+                        if (key != null) {
+                            detector.evict(key);
+                        } else {
+                            detector.clear();
+                        }
+                    }
+                    deferred.clear();
+                }
+            }
+            List<byte[]> keys = writtenKeys(name, args);
+            if (keys.isEmpty()) {
+                return invoke(method, args);
+            }
+            if (connection.isPipelined() || connection.isQueueing()) {
+                deferred.addAll(keys);
+            }
+            // evict once the command has run, so a read overlapping it does not cache the previous value
+            try {
+                return invoke(method, args);
+            } finally {
+                keys.forEach(detector::evict);
+            }
+        }
+
+        /**
+         * Keys whose string value the command can change, empty for reads and the writes of other data types.
+         */
+        private static List<byte[]> writtenKeys(String name, Object @Nullable [] args) {
+            if (args == null || args.length == 0) {
+                return List.of();
+            }
+            if (WRITE_COMMANDS.contains(name)) {
+                return keys(args[0]);
+            }
+            if (RENAMING_COMMANDS.contains(name) && args.length > 1) {
+                List<byte[]> keys = new ArrayList<>(keys(args[0]));
+                keys.addAll(keys(args[1]));
+                return keys;
+            }
+            // BITOP operation destination keys...
+            if (name.equals("bitOp") && args.length > 1) {
+                return keys(args[1]);
+            }
+            // SORT key params storeKey
+            if (name.equals("sort") && args.length > 2) {
+                return keys(args[2]);
+            }
+            return List.of();
+        }
+
+        private static List<byte[]> keys(Object arg) {
+            if (arg instanceof byte[] key) {
+                return List.of(key);
+            }
+            if (arg instanceof byte[][] rawKeys) {
+                return Arrays.asList(rawKeys);
+            }
+            if (arg instanceof Map<?, ?> tuples) {
+                List<byte[]> keys = new ArrayList<>(tuples.size());
+                tuples.keySet().forEach((key) -> {
+                    if (key instanceof byte[] rawKey) {
+                        keys.add(rawKey);
+                    }
+                });
+                return keys;
+            }
+            return List.of();
+        }
+
+        private Object invoke(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+}
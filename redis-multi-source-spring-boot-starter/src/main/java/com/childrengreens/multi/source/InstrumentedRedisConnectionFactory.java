@@ -0,0 +1,174 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RedisConnectionFactory} that times every Redis command issued through its connections, for drivers
+ * without a native latency hook such as Jedis. Commands queued in a pipeline or transaction are not timed,
+ * since they only measure buffering. The delegate stays a bean of its own, so its lifecycle is not managed here.
+ *
+ * @author ChildrenGreens
+ */
+public class InstrumentedRedisConnectionFactory implements RedisConnectionFactory {
+
+    private final RedisConnectionFactory delegate;
+
+    private final @Nullable CommandRecorder recorder;
+
+    /**
+     * Create a new InstrumentedRedisConnectionFactory.
+     * @param delegate connection factory issuing the commands
+     * @param recorder command recorder, or {@code null} to hand out the delegate's connections as they are
+     */
+    public InstrumentedRedisConnectionFactory(RedisConnectionFactory delegate, @Nullable CommandRecorder recorder) {
+        Assert.notNull(delegate, "Delegate must not be null");
+        this.delegate = delegate;
+        this.recorder = recorder;
+    }
+
+    public RedisConnectionFactory getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return delegate.getConvertPipelineAndTxResults();
+    }
+
+    @Override
+    public @NonNull RedisConnection getConnection() {
+        RedisConnection connection = delegate.getConnection();
+        return (recorder != null) ? proxy(RedisConnection.class, connection, connection) : connection;
+    }
+
+    @Override
+    public @NonNull RedisClusterConnection getClusterConnection() {
+        RedisClusterConnection connection = delegate.getClusterConnection();
+        return (recorder != null) ? proxy(RedisClusterConnection.class, connection, connection) : connection;
+    }
+
+    @Override
+    public @NonNull RedisSentinelConnection getSentinelConnection() {
+        return delegate.getSentinelConnection();
+    }
+
+    @Override
+    public @Nullable DataAccessException translateExceptionIfPossible(@NonNull RuntimeException ex) {
+        return delegate.translateExceptionIfPossible(ex);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, Object target, RedisConnection connection) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new CommandInvocationHandler(target, connection));
+    }
+
+    /**
+     * Whether a type is one of Spring Data Redis' command interfaces.
+     */
+    static boolean isCommands(Class<?> type) {
+        return type.isInterface()
+                && type.getPackageName().equals(RedisConnection.class.getPackageName())
+                && (type.getSimpleName().endsWith("Commands") || type.getSimpleName().startsWith("Defaulted"));
+    }
+
+    /**
+     * Callback receiving the duration of each executed command.
+     */
+    @FunctionalInterface
+    public interface CommandRecorder {
+
+        /**
+         * Record one command execution. Called on the calling thread, so implementations should not block.
+         * @param command the invoked command method
+         * @param durationNanos execution time in nanoseconds
+         */
+        void record(Method command, long durationNanos);
+    }
+
+    /**
+     * Times command methods and proxies the command interfaces returned by {@code stringCommands()} and friends.
+     */
+    private final class CommandInvocationHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private final RedisConnection connection;
+
+        private final Map<Method, Object> commands = new ConcurrentHashMap<>();
+
+        CommandInvocationHandler(Object target, RedisConnection connection) {
+            this.target = target;
+            this.connection = connection;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> invoke(method, args);
+                };
+            }
+
+            if (method.getParameterCount() == 0 && isCommands(method.getReturnType())) {
+                Object commandsProxy = commands.get(method);
+                if (commandsProxy == null) {
+                    Object result = invoke(method, args);
+                    commandsProxy = (result != null) ? proxy(method.getReturnType(), result, connection) : null;
+                    if (commandsProxy != null) {
+                        commands.put(method, commandsProxy);
+                    }
+                }
+                return commandsProxy;
+            }
+
+            if (!isCommands(method.getDeclaringClass()) || connection.isPipelined() || connection.isQueueing()) {
+                return invoke(method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invoke(method, args);
+            } finally {
+                recorder.record(method, System.nanoTime() - start);
+            }
+        }
+
+        private Object invoke(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+}
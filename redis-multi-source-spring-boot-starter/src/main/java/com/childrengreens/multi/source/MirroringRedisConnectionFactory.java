@@ -0,0 +1,192 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * {@link RedisConnectionFactory} handing every data command executed on the source to a {@link RedisMirror}: writes
+ * are queued for copying to the target source, and a sample of reads outside pipelines and transactions is repeated
+ * against the target and compared. Writes issued inside {@code MULTI} are held by the connection and handed to the
+ * mirror only once {@code EXEC} has run them, so a discarded or aborted transaction is not copied. Commands are
+ * always answered by the source.
+ *
+ * @author ChildrenGreens
+ */
+public class MirroringRedisConnectionFactory implements RedisConnectionFactory {
+
+    private final RedisConnectionFactory delegate;
+
+    private final RedisMirror mirror;
+
+    public MirroringRedisConnectionFactory(RedisConnectionFactory delegate, RedisMirror mirror) {
+        Assert.notNull(delegate, "Delegate must not be null");
+        Assert.notNull(mirror, "RedisMirror must not be null");
+        this.delegate = delegate;
+        this.mirror = mirror;
+    }
+
+    public RedisConnectionFactory getDelegate() {
+        return delegate;
+    }
+
+    public RedisMirror getMirror() {
+        return mirror;
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return delegate.getConvertPipelineAndTxResults();
+    }
+
+    @Override
+    public @NonNull RedisConnection getConnection() {
+        RedisConnection connection = delegate.getConnection();
+        return proxy(RedisConnection.class, connection, connection, new ArrayList<>());
+    }
+
+    @Override
+    public @NonNull RedisClusterConnection getClusterConnection() {
+        RedisClusterConnection connection = delegate.getClusterConnection();
+        return proxy(RedisClusterConnection.class, connection, connection, new ArrayList<>());
+    }
+
+    @Override
+    public @NonNull RedisSentinelConnection getSentinelConnection() {
+        return delegate.getSentinelConnection();
+    }
+
+    @Override
+    public @Nullable DataAccessException translateExceptionIfPossible(@NonNull RuntimeException ex) {
+        return delegate.translateExceptionIfPossible(ex);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(Class<T> type, Object target, RedisConnection connection, List<RedisMirror.Write> transaction) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                new MirroringInvocationHandler(target, connection, transaction));
+    }
+
+    /**
+     * Hands data commands to the mirror once the source has executed them and proxies the command interfaces
+     * returned by {@code stringCommands()} and friends.
+     */
+    private final class MirroringInvocationHandler implements InvocationHandler {
+
+        private final Object target;
+
+        private final RedisConnection connection;
+
+        /**
+         * Writes queued in the transaction of the connection, shared by its command interfaces.
+         */
+        private final List<RedisMirror.Write> transaction;
+
+        private final Map<Method, Object> commands = new ConcurrentHashMap<>();
+
+        MirroringInvocationHandler(Object target, RedisConnection connection, List<RedisMirror.Write> transaction) {
+            this.target = target;
+            this.connection = connection;
+            this.transaction = transaction;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> invoke(method, args);
+                };
+            }
+
+            if (method.getParameterCount() == 0 && InstrumentedRedisConnectionFactory.isCommands(method.getReturnType())) {
+                Object commandsProxy = commands.get(method);
+                if (commandsProxy == null) {
+                    Object result = invoke(method, args);
+                    commandsProxy = (result != null) ? proxy(method.getReturnType(), result, connection, transaction) : null;
+                    if (commandsProxy != null) {
+                        commands.put(method, commandsProxy);
+                    }
+                }
+                return commandsProxy;
+            }
+
+            switch (method.getName()) {
+                case "exec" -> {
+                    try {
+                        Object result = invoke(method, args);
+                        // null or no results outside a pipeline: aborted by WATCH
+                        boolean aborted = !connection.isPipelined()
+                                && (result == null || (result instanceof List<?> results && results.isEmpty()));
+                        if (!aborted) {
+                            transaction.forEach((write) -> mirror.write(write.method(), write.args()));
+                        }
+                        return result;
+                    } finally {
+                        transaction.clear();
+                    }
+                }
+                case "discard", "close" -> {
+                    try {
+                        return invoke(method, args);
+                    } finally {
+                        transaction.clear();
+                    }
+                }
+                default -> {
+                }
+            }
+
+            Object result = invoke(method, args);
+            RedisMirror.Command command = RedisMirror.command(method);
+            if (command.kind() == RedisMirror.Kind.WRITE) {
+                if (connection.isQueueing()) {
+                    transaction.add(new RedisMirror.Write(command.method(), args, 0));
+                } else {
+                    mirror.write(command.method(), args);
+                }
+            } else if (command.kind() == RedisMirror.Kind.READ && !connection.isPipelined() && !connection.isQueueing()) {
+                mirror.shadowRead(command.method(), args, result);
+            }
+            return result;
+        }
+
+        private Object invoke(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+}
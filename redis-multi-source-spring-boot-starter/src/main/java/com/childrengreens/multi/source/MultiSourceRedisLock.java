@@ -0,0 +1,389 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distributed lock following the Redlock algorithm over an odd number of independent Redis sources. A lock is
+ * acquired with a random token on every source in parallel and held when a majority of them grant it within its TTL;
+ * its validity is the TTL minus the time spent acquiring it and an allowance for clock drift. When the majority is
+ * not reached, the lock is released on every source again. The acquire and release scripts are loaded on every
+ * source at startup and executed by SHA.
+ * <p>
+ * Blocking methods only wait on futures completed by the executor, so they are cheap to call from virtual threads.
+ *
+ * @author ChildrenGreens
+ */
+public class MultiSourceRedisLock implements SmartLifecycle, DisposableBean {
+
+    private static final Log logger = LogFactory.getLog(MultiSourceRedisLock.class);
+
+    static final RedisScript<Long> ACQUIRE_SCRIPT = RedisScript.of(
+            "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then return 1 end return 0", Long.class);
+
+    static final RedisScript<Long> RELEASE_SCRIPT = RedisScript.of(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) end return 0", Long.class);
+
+    private static final long CLOCK_DRIFT_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final Map<String, RedisOperations<String, String>> sources;
+
+    private final Executor executor;
+
+    private final int quorum;
+
+    private ThreadPoolTaskExecutor ownExecutor;
+
+    private double driftFactor = 0.01;
+
+    private Duration timeout = Duration.ofMillis(50);
+
+    private Duration retryDelay = Duration.ofMillis(50);
+
+    private volatile boolean running;
+
+    /**
+     * Create a lock.
+     * @param sources operations of each source, keyed by source name
+     * @param executor executor issuing the commands to the sources
+     */
+    public MultiSourceRedisLock(Map<String, ? extends RedisOperations<String, String>> sources, Executor executor) {
+        Assert.notEmpty(sources, "Sources must not be empty");
+        Assert.isTrue(sources.size() % 2 == 1, "Redlock needs an odd number of sources, got " + sources.size());
+        Assert.notNull(executor, "Executor must not be null");
+        this.sources = new LinkedHashMap<>(sources);
+        this.executor = executor;
+        this.quorum = sources.size() / 2 + 1;
+    }
+
+    /**
+     * Create a lock issuing its commands from a bounded pool of its own, shut down when the lock is destroyed.
+     * @param sources operations of each source, keyed by source name
+     * @param poolSize maximum number of threads issuing commands
+     * @param virtualThreads whether the pool threads are virtual
+     */
+    public MultiSourceRedisLock(Map<String, ? extends RedisOperations<String, String>> sources, int poolSize, boolean virtualThreads) {
+        this(sources, createExecutor(poolSize, virtualThreads));
+        this.ownExecutor = (ThreadPoolTaskExecutor) this.executor;
+    }
+
+    private static ThreadPoolTaskExecutor createExecutor(int poolSize, boolean virtualThreads) {
+        Assert.isTrue(poolSize > 0, "Pool size must be greater than 0");
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("redis-lock-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Try to acquire a lock once.
+     * @param key lock key
+     * @param ttl time the lock is held unless released
+     * @return lease, or empty if the lock is held elsewhere or not enough sources answered
+     */
+    public Optional<Lease> tryLock(String key, Duration ttl) {
+        return join(tryLockAsync(key, ttl));
+    }
+
+    /**
+     * Try to acquire a lock, retrying after a random delay until it is acquired or the wait time has elapsed.
+     * @param key lock key
+     * @param ttl time the lock is held unless released
+     * @param waitTime maximum time to wait for the lock
+     * @return lease, or empty if not acquired in time
+     */
+    public Optional<Lease> lock(String key, Duration ttl, Duration waitTime) {
+        long deadline = System.nanoTime() + waitTime.toNanos();
+        while (true) {
+            Optional<Lease> lease = tryLock(key, ttl);
+            long delay = nextRetryDelay();
+            if (lease.isPresent() || System.nanoTime() + delay - deadline > 0) {
+                return lease;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return Optional.empty();
+            }
+        }
+    }
+
+    /**
+     * Try to acquire a lock once, without blocking.
+     * @param key lock key
+     * @param ttl time the lock is held unless released
+     * @return future lease, empty if the lock is held elsewhere or not enough sources answered
+     */
+    public CompletableFuture<Optional<Lease>> tryLockAsync(String key, Duration ttl) {
+        Assert.hasText(key, "Key must not be empty");
+        Assert.isTrue(ttl.toMillis() > 0, "TTL must be at least 1ms");
+        String token = UUID.randomUUID().toString();
+        long start = System.nanoTime();
+        List<CompletableFuture<Boolean>> votes = new ArrayList<>(sources.size());
+        sources.forEach((name, operations) -> votes.add(call(name, operations, ACQUIRE_SCRIPT, key, token, String.valueOf(ttl.toMillis()))));
+
+        return CompletableFuture.allOf(votes.toArray(new CompletableFuture<?>[0])).thenCompose((ignored) -> {
+            int granted = (int) votes.stream().filter(CompletableFuture::join).count();
+            long validUntil = start + ttl.toNanos() - (long) (ttl.toNanos() * driftFactor) - CLOCK_DRIFT_NANOS;
+            if (granted >= quorum && validUntil - System.nanoTime() > 0) {
+                return CompletableFuture.completedFuture(Optional.of(new Lease(key, token, validUntil)));
+            }
+            return release(key, token).thenApply((released) -> Optional.empty());
+        });
+    }
+
+    /**
+     * Try to acquire a lock, retrying after a random delay until it is acquired or the wait time has elapsed,
+     * without blocking.
+     * @param key lock key
+     * @param ttl time the lock is held unless released
+     * @param waitTime maximum time to wait for the lock
+     * @return future lease, empty if not acquired in time
+     */
+    public CompletableFuture<Optional<Lease>> lockAsync(String key, Duration ttl, Duration waitTime) {
+        return lockAsync(key, ttl, System.nanoTime() + waitTime.toNanos());
+    }
+
+    private CompletableFuture<Optional<Lease>> lockAsync(String key, Duration ttl, long deadline) {
+        return tryLockAsync(key, ttl).thenCompose((lease) -> {
+            long delay = nextRetryDelay();
+            if (lease.isPresent() || System.nanoTime() + delay - deadline > 0) {
+                return CompletableFuture.completedFuture(lease);
+            }
+            Executor delayed = CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, executor);
+            return CompletableFuture.supplyAsync(() -> null, delayed).thenCompose((ignored) -> lockAsync(key, ttl, deadline));
+        });
+    }
+
+    private long nextRetryDelay() {
+        long delay = retryDelay.toNanos();
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay + 1);
+    }
+
+    /**
+     * Release a lock on every source, whether or not it was granted there.
+     * @param key lock key
+     * @param token lock token
+     * @return future number of sources the lock was released on
+     */
+    CompletableFuture<Integer> release(String key, String token) {
+        List<CompletableFuture<Boolean>> releases = new ArrayList<>(sources.size());
+        sources.forEach((name, operations) -> releases.add(call(name, operations, RELEASE_SCRIPT, key, token)));
+        return CompletableFuture.allOf(releases.toArray(new CompletableFuture<?>[0]))
+                .thenApply((ignored) -> (int) releases.stream().filter(CompletableFuture::join).count());
+    }
+
+    /**
+     * Run a script on one source, counting errors and late answers as a refusal. The timeout starts when the command
+     * is issued, so time spent waiting for a pool thread is not counted against the source; a lock granted after its
+     * vote was counted as a refusal is released again on that source.
+     */
+    private CompletableFuture<Boolean> call(String name, RedisOperations<String, String> operations, RedisScript<Long> script,
+                                            String key, String... args) {
+        CompletableFuture<Boolean> vote = new CompletableFuture<>();
+        executor.execute(() -> {
+            vote.completeOnTimeout(false, timeout.toNanos(), TimeUnit.NANOSECONDS);
+            try {
+                boolean granted = Long.valueOf(1).equals(operations.execute(script, List.of(key), (Object[]) args));
+                if (!vote.complete(granted) && granted && script == ACQUIRE_SCRIPT) {
+                    operations.execute(RELEASE_SCRIPT, List.of(key), args[0]);
+                }
+            } catch (RuntimeException ex) {
+                vote.completeExceptionally(ex);
+            }
+        });
+        return vote.exceptionally((ex) -> {
+            if (logger.isDebugEnabled()) {
+                logger.debug("source key: " + name + ", lock script failed for " + key + ": " + ex.getMessage());
+            }
+            return false;
+        });
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Load the lock scripts on every source.
+     * @return future completed once every source has answered
+     */
+    CompletableFuture<Void> load() {
+        List<byte[]> bodies = List.of(ACQUIRE_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8),
+                RELEASE_SCRIPT.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+        List<CompletableFuture<?>> loads = new ArrayList<>(sources.size());
+        sources.forEach((name, operations) -> loads.add(CompletableFuture.runAsync(() -> operations.execute((RedisCallback<Object>) (RedisConnection connection) -> {
+            bodies.forEach((body) -> connection.scriptingCommands().scriptLoad(body));
+            return null;
+        }), executor).exceptionally((ex) -> {
+            logger.warn("source key: " + name + ", failed to preload Redis lock scripts, they are loaded on first use: " + ex.getMessage());
+            return null;
+        })));
+        return CompletableFuture.allOf(loads.toArray(new CompletableFuture<?>[0]));
+    }
+
+    @Override
+    public void start() {
+        load();
+        this.running = true;
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void destroy() {
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    public List<String> getSourceNames() {
+        return List.copyOf(sources.keySet());
+    }
+
+    public int getQuorum() {
+        return quorum;
+    }
+
+    public double getDriftFactor() {
+        return driftFactor;
+    }
+
+    public void setDriftFactor(double driftFactor) {
+        Assert.isTrue(driftFactor >= 0 && driftFactor < 1, "Drift factor must be in [0, 1)");
+        this.driftFactor = driftFactor;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        Assert.isTrue(timeout != null && timeout.toNanos() > 0, "Timeout must be positive");
+        this.timeout = timeout;
+    }
+
+    public Duration getRetryDelay() {
+        return retryDelay;
+    }
+
+    public void setRetryDelay(Duration retryDelay) {
+        Assert.isTrue(retryDelay != null && retryDelay.toNanos() > 0, "Retry delay must be positive");
+        this.retryDelay = retryDelay;
+    }
+
+    /**
+     * A lock held on a majority of the sources. Closing it releases the lock.
+     */
+    public final class Lease implements AutoCloseable {
+
+        private final String key;
+
+        private final String token;
+
+        private final long validUntil;
+
+        Lease(String key, String token, long validUntil) {
+            this.key = key;
+            this.token = token;
+            this.validUntil = validUntil;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getToken() {
+            return token;
+        }
+
+        /**
+         * Time left before the lock may be granted to someone else.
+         * @return remaining validity, zero once expired
+         */
+        public Duration getRemaining() {
+            return Duration.ofNanos(Math.max(0, validUntil - System.nanoTime()));
+        }
+
+        public boolean isValid() {
+            return validUntil - System.nanoTime() > 0;
+        }
+
+        /**
+         * Release the lock on every source.
+         */
+        public void unlock() {
+            join(unlockAsync());
+        }
+
+        /**
+         * Release the lock on every source, without blocking.
+         * @return future completed once every source has answered
+         */
+        public CompletableFuture<Void> unlockAsync() {
+            return release(key, token).thenApply((released) -> null);
+        }
+
+        @Override
+        public void close() {
+            unlock();
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Byte trie mapping key prefixes to target indexes, compiled into arrays so a lookup walks the raw key without
+ * allocating. The longest matching prefix wins.
+ *
+ * @author ChildrenGreens
+ */
+final class PrefixRouter {
+
+    /**
+     * Sorted child labels of each node.
+     */
+    private final byte[][] labels;
+
+    /**
+     * Child node indexes of each node, aligned with {@link #labels}.
+     */
+    private final int[][] children;
+
+    /**
+     * Target index of the prefix ending at each node, or -1.
+     */
+    private final int[] targets;
+
+    /**
+     * Compile the routes.
+     * @param routes target indexes keyed by prefix, optionally ending with '*'
+     */
+    PrefixRouter(Map<String, Integer> routes) {
+        List<TreeMap<Byte, Integer>> nodes = new ArrayList<>();
+        List<Integer> nodeTargets = new ArrayList<>();
+        nodes.add(new TreeMap<>());
+        nodeTargets.add(-1);
+
+        routes.forEach((pattern, target) -> {
+            String prefix = pattern.endsWith("*") ? pattern.substring(0, pattern.length() - 1) : pattern;
+            Assert.isTrue(prefix.indexOf('*') < 0 && prefix.indexOf('?') < 0 && prefix.indexOf('[') < 0,
+                    () -> "Only key prefixes, optionally ending with '*', are supported: " + pattern);
+            int node = 0;
+            for (byte label : prefix.getBytes(StandardCharsets.UTF_8)) {
+                Integer child = nodes.get(node).get(label);
+                if (child == null) {
+                    child = nodes.size();
+                    nodes.add(new TreeMap<>());
+                    nodeTargets.add(-1);
+                    nodes.get(node).put(label, child);
+                }
+                node = child;
+            }
+            nodeTargets.set(node, target);
+        });
+
+        this.labels = new byte[nodes.size()][];
+        this.children = new int[nodes.size()][];
+        this.targets = new int[nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            TreeMap<Byte, Integer> edges = nodes.get(i);
+            labels[i] = new byte[edges.size()];
+            children[i] = new int[edges.size()];
+            int edge = 0;
+            for (Map.Entry<Byte, Integer> entry : edges.entrySet()) {
+                labels[i][edge] = entry.getKey();
+                children[i][edge++] = entry.getValue();
+            }
+            targets[i] = nodeTargets.get(i);
+        }
+    }
+
+    /**
+     * Resolve the target of a key.
+     * @param key raw key
+     * @param defaultTarget target of keys matching no prefix
+     * @return target index
+     */
+    int route(byte[] key, int defaultTarget) {
+        int node = 0;
+        int target = targets[0];
+        for (byte label : key) {
+            int edge = Arrays.binarySearch(labels[node], label);
+            if (edge < 0) {
+                break;
+            }
+            node = children[node][edge];
+            if (targets[node] >= 0) {
+                target = targets[node];
+            }
+        }
+        return target >= 0 ? target : defaultTarget;
+    }
+}
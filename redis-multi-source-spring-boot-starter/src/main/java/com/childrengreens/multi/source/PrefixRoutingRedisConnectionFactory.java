@@ -0,0 +1,391 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.util.Assert;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * {@link RedisConnectionFactory} routing each command to the source owning its first key, by longest key prefix.
+ * {@code MGET}, {@code MSET}, {@code DEL}, {@code UNLINK}, {@code EXISTS} and {@code TOUCH} are split per source and
+ * their results merged; other multi-key commands, such as {@code RENAME}, {@code SUNIONSTORE}, {@code BITOP},
+ * {@code LMOVE} or {@code EVAL}, must keep their keys on one source and are rejected otherwise. Commands without a key
+ * go to the default source. Pipelines and transactions are not supported, since they cannot span sources.
+ * <p>
+ * String values and hash values written to a source with value compression are compressed with its settings once the
+ * command has been routed, so the source is always that of the command's own key. A connection proxy serves its own
+ * command interfaces, {@code stringCommands()} and friends returning the connection itself.
+ *
+ * @author ChildrenGreens
+ */
+public class PrefixRoutingRedisConnectionFactory implements RedisConnectionFactory {
+
+    private static final Set<String> SPLIT_KEY_COMMANDS = Set.of("mGet", "del", "unlink", "exists", "touch");
+
+    /**
+     * Commands whose {@code byte[]} arguments, {@code byte[][]} elements and map keys are all keys.
+     */
+    private static final Set<String> MULTI_KEY_COMMANDS = Set.of("mSetNX", "rename", "renameNX", "copy",
+            "sUnion", "sUnionStore", "sInter", "sInterStore", "sInterCard", "sDiff", "sDiffStore",
+            "zUnion", "zUnionWithScores", "zUnionStore", "zInter", "zInterWithScores", "zInterStore",
+            "zDiff", "zDiffWithScores", "zDiffStore", "zRangeStoreByLex", "zRangeStoreRevByLex",
+            "zRangeStoreByScore", "zRangeStoreRevByScore", "bitOp", "lMove", "bLMove", "rPopLPush", "bRPopLPush",
+            "bLPop", "bRPop", "pfCount", "pfMerge");
+
+    /**
+     * Position of the value argument, or of the map of keys to values, of the commands writing string or hash values.
+     */
+    private static final Map<String, Integer> VALUE_ARGUMENTS = Map.ofEntries(Map.entry("set", 1), Map.entry("setNX", 1),
+            Map.entry("setGet", 1), Map.entry("getSet", 1), Map.entry("setEx", 2), Map.entry("pSetEx", 2),
+            Map.entry("mSet", 0), Map.entry("mSetNX", 0), Map.entry("hSet", 2), Map.entry("hSetNX", 2), Map.entry("hMSet", 1));
+
+    private static final Set<String> UNSUPPORTED_COMMANDS = Set.of("openPipeline", "closePipeline", "multi", "exec",
+            "discard", "watch", "unwatch", "select");
+
+    private final String[] names;
+
+    private final RedisConnectionFactory[] factories;
+
+    private final int defaultTarget;
+
+    private final PrefixRouter router;
+
+    /**
+     * Value serializers compressing the values written to each source, {@code null} for a source without compression.
+     */
+    private final List<@Nullable CompressingRedisSerializer<byte[]>> valueSerializers;
+
+    /**
+     * Create a routing connection factory.
+     * @param sources connection factories keyed by source name
+     * @param routes source names keyed by key prefix, optionally ending with '*'
+     * @param defaultSource source of keys matching no route
+     */
+    public PrefixRoutingRedisConnectionFactory(Map<String, ? extends RedisConnectionFactory> sources, Map<String, String> routes,
+                                               String defaultSource) {
+        this(sources, routes, defaultSource, Map.of());
+    }
+
+    /**
+     * Create a routing connection factory compressing the values written to some sources.
+     * @param sources connection factories keyed by source name
+     * @param routes source names keyed by key prefix, optionally ending with '*'
+     * @param defaultSource source of keys matching no route
+     * @param valueSerializers compressing value serializers keyed by source name
+     */
+    public PrefixRoutingRedisConnectionFactory(Map<String, ? extends RedisConnectionFactory> sources, Map<String, String> routes,
+                                               String defaultSource, Map<String, CompressingRedisSerializer<byte[]>> valueSerializers) {
+        Assert.notEmpty(sources, "Sources must not be empty");
+        Assert.isTrue(sources.containsKey(defaultSource), () -> "Unknown default source: " + defaultSource);
+        this.names = sources.keySet().toArray(new String[0]);
+        this.factories = sources.values().toArray(new RedisConnectionFactory[0]);
+        List<String> indexes = Arrays.asList(names);
+        this.defaultTarget = indexes.indexOf(defaultSource);
+
+        Map<String, Integer> targets = new LinkedHashMap<>();
+        routes.forEach((prefix, source) -> {
+            Assert.isTrue(sources.containsKey(source), () -> "Unknown source of route '" + prefix + "': " + source);
+            targets.put(prefix, indexes.indexOf(source));
+        });
+        this.router = new PrefixRouter(targets);
+
+        this.valueSerializers = new ArrayList<>(names.length);
+        for (String name : names) {
+            this.valueSerializers.add(valueSerializers.get(name));
+        }
+    }
+
+    /**
+     * Resolve the source a key is routed to.
+     * @param key raw key
+     * @return source name
+     */
+    public String getSource(byte[] key) {
+        return names[router.route(key, defaultTarget)];
+    }
+
+    /**
+     * Whether the values written to any source are compressed.
+     * @return bool
+     */
+    boolean isCompressing() {
+        return valueSerializers.stream().anyMatch(Objects::nonNull);
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return factories[defaultTarget].getConvertPipelineAndTxResults();
+    }
+
+    @Override
+    public @NonNull RedisConnection getConnection() {
+        return (RedisConnection) Proxy.newProxyInstance(RedisConnection.class.getClassLoader(),
+                new Class<?>[]{RedisConnection.class}, new RoutingInvocationHandler());
+    }
+
+    @Override
+    public @NonNull RedisClusterConnection getClusterConnection() {
+        throw new InvalidDataAccessApiUsageException("Cluster connections are not routed by key prefix");
+    }
+
+    @Override
+    public @NonNull RedisSentinelConnection getSentinelConnection() {
+        return factories[defaultTarget].getSentinelConnection();
+    }
+
+    @Override
+    public @Nullable DataAccessException translateExceptionIfPossible(@NonNull RuntimeException ex) {
+        return factories[defaultTarget].translateExceptionIfPossible(ex);
+    }
+
+    /**
+     * Routes the methods of a connection to the connections of the sources, opened on first use.
+     */
+    private final class RoutingInvocationHandler implements InvocationHandler {
+
+        private final RedisConnection[] connections = new RedisConnection[factories.length];
+
+        private volatile boolean closed;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "Prefix routing connection over " + Arrays.toString(names);
+                };
+            }
+            switch (method.getName()) {
+                case "close" -> {
+                    close();
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed;
+                }
+                case "isPipelined", "isQueueing" -> {
+                    return false;
+                }
+                case "isSubscribed" -> {
+                    return Arrays.stream(connections).anyMatch((connection) -> connection != null && connection.isSubscribed());
+                }
+                default -> {
+                    if (UNSUPPORTED_COMMANDS.contains(method.getName())) {
+                        throw new InvalidDataAccessApiUsageException(method.getName() + " is not supported across routed sources");
+                    }
+                }
+            }
+            if (method.getParameterCount() == 0 && InstrumentedRedisConnectionFactory.isCommands(method.getReturnType())) {
+                // the connection implements every command interface, and routes their methods itself
+                return proxy;
+            }
+            return route(method, args);
+        }
+
+        private Object route(Method method, Object[] args) throws Throwable {
+            if (args != null && args.length == 1) {
+                if (args[0] instanceof byte[][] keys && keys.length > 1 && SPLIT_KEY_COMMANDS.contains(method.getName())) {
+                    return splitKeys(method, keys);
+                }
+                if (args[0] instanceof Map<?, ?> tuples && tuples.size() > 1 && method.getName().equals("mSet")) {
+                    return splitTuples(method, tuples);
+                }
+            }
+            return invoke(target(method, args), method, args);
+        }
+
+        /**
+         * Resolve the target of a command. Multi-key commands must route all their keys to one source; other commands
+         * are routed by their first key: the first {@code byte[]} argument, the first element of a {@code byte[][]}
+         * argument, or the first key of a map.
+         */
+        private int target(Method method, Object[] args) {
+            if (args == null) {
+                return defaultTarget;
+            }
+            List<byte[]> keys = getKeys(method, args);
+            if (keys != null) {
+                int target = keys.isEmpty() ? defaultTarget : router.route(keys.get(0), defaultTarget);
+                for (int i = 1; i < keys.size(); i++) {
+                    int other = router.route(keys.get(i), defaultTarget);
+                    if (other != target) {
+                        throw new InvalidDataAccessApiUsageException(method.getName() + " keys must be routed to one source, but span "
+                                + names[target] + " and " + names[other]);
+                    }
+                }
+                return target;
+            }
+            for (Object arg : args) {
+                if (arg instanceof byte[] key) {
+                    return router.route(key, defaultTarget);
+                }
+                if (arg instanceof byte[][] argKeys && argKeys.length > 0) {
+                    return router.route(argKeys[0], defaultTarget);
+                }
+                if (arg instanceof Map<?, ?> map && !map.isEmpty() && map.keySet().iterator().next() instanceof byte[] key) {
+                    return router.route(key, defaultTarget);
+                }
+            }
+            return defaultTarget;
+        }
+
+        /**
+         * Collect the keys of a multi-key command; the keys of {@code EVAL} follow the script.
+         * @return keys, or {@code null} for a single-key command
+         */
+        private List<byte[]> getKeys(Method method, Object[] args) {
+            String name = method.getName();
+            if (name.startsWith("eval") && args.length == 4 && args[2] instanceof Integer numKeys) {
+                byte[][] keysAndArgs = (byte[][]) args[3];
+                return Arrays.asList(keysAndArgs).subList(0, Math.min(Math.max(numKeys, 0), keysAndArgs.length));
+            }
+            if (name.equals("sMove") && args.length == 3) {
+                return List.of((byte[]) args[0], (byte[]) args[1]);
+            }
+            if (name.equals("sort") && args.length == 3 && args[2] instanceof byte[] storeKey) {
+                return List.of((byte[]) args[0], storeKey);
+            }
+            if (!MULTI_KEY_COMMANDS.contains(name)) {
+                return null;
+            }
+            List<byte[]> keys = new ArrayList<>();
+            for (Object arg : args) {
+                if (arg instanceof byte[] key) {
+                    keys.add(key);
+                } else if (arg instanceof byte[][] argKeys) {
+                    keys.addAll(Arrays.asList(argKeys));
+                } else if (arg instanceof Map<?, ?> map) {
+                    map.keySet().forEach((key) -> keys.add((byte[]) key));
+                }
+            }
+            return keys;
+        }
+
+        private Object splitKeys(Method method, byte[][] keys) throws Throwable {
+            int[] targets = new int[keys.length];
+            boolean single = true;
+            for (int i = 0; i < keys.length; i++) {
+                targets[i] = router.route(keys[i], defaultTarget);
+                single &= targets[i] == targets[0];
+            }
+            if (single) {
+                return invoke(targets[0], method, new Object[]{keys});
+            }
+
+            boolean mget = method.getName().equals("mGet");
+            byte[][] values = mget ? new byte[keys.length][] : null;
+            long count = 0;
+            for (int target = 0; target < factories.length; target++) {
+                List<Integer> positions = new ArrayList<>();
+                for (int i = 0; i < keys.length; i++) {
+                    if (targets[i] == target) {
+                        positions.add(i);
+                    }
+                }
+                if (positions.isEmpty()) {
+                    continue;
+                }
+                byte[][] targetKeys = new byte[positions.size()][];
+                for (int i = 0; i < targetKeys.length; i++) {
+                    targetKeys[i] = keys[positions.get(i)];
+                }
+                Object result = invoke(target, method, new Object[]{targetKeys});
+                if (mget && result instanceof List<?> targetValues) {
+                    for (int i = 0; i < targetValues.size(); i++) {
+                        values[positions.get(i)] = (byte[]) targetValues.get(i);
+                    }
+                } else if (result instanceof Long targetCount) {
+                    count += targetCount;
+                }
+            }
+            return mget ? new ArrayList<>(Arrays.asList(values)) : (Object) count;
+        }
+
+        private Object splitTuples(Method method, Map<?, ?> tuples) throws Throwable {
+            Map<Integer, Map<Object, Object>> tuplesByTarget = new LinkedHashMap<>();
+            tuples.forEach((key, value) -> tuplesByTarget
+                    .computeIfAbsent(router.route((byte[]) key, defaultTarget), (target) -> new LinkedHashMap<>())
+                    .put(key, value));
+            boolean set = true;
+            for (Map.Entry<Integer, Map<Object, Object>> entry : tuplesByTarget.entrySet()) {
+                set &= Boolean.TRUE.equals(invoke(entry.getKey(), method, new Object[]{entry.getValue()}));
+            }
+            return set;
+        }
+
+        private Object invoke(int target, Method method, Object[] args) throws Throwable {
+            RedisConnection connection = connections[target];
+            if (connection == null) {
+                connection = factories[target].getConnection();
+                connections[target] = connection;
+            }
+            try {
+                return method.invoke(connection, compress(target, method, args));
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+
+        /**
+         * Compress the values written by a command with the settings of the source it is routed to.
+         */
+        private Object[] compress(int target, Method method, Object[] args) {
+            CompressingRedisSerializer<byte[]> serializer = valueSerializers.get(target);
+            Integer position = (serializer != null && args != null) ? VALUE_ARGUMENTS.get(method.getName()) : null;
+            if (position == null || position >= args.length) {
+                return args;
+            }
+            if (args[position] instanceof byte[] value) {
+                args[position] = serializer.serialize(value);
+            } else if (args[position] instanceof Map<?, ?> tuples) {
+                Map<Object, Object> compressed = new LinkedHashMap<>(tuples.size());
+                tuples.forEach((key, value) -> compressed.put(key, serializer.serialize((byte[]) value)));
+                args[position] = compressed;
+            }
+            return args;
+        }
+
+        private void close() {
+            closed = true;
+            for (int i = 0; i < connections.length; i++) {
+                if (connections[i] != null) {
+                    connections[i].close();
+                    connections[i] = null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+/**
+ * {@link StringRedisTemplate} spreading its keyspace over several Redis sources by key prefix, through a
+ * {@link PrefixRoutingRedisConnectionFactory}. Call sites keep using one template while, for example,
+ * {@code session:*} keys live on one source and {@code feed:*} keys on another.
+ * <p>
+ * Values and hash values are compressed by the connection factory with the settings of the source each command is
+ * routed to. Compressed values are read back from any source.
+ *
+ * @author ChildrenGreens
+ */
+public class PrefixRoutingRedisTemplate extends StringRedisTemplate {
+
+    public PrefixRoutingRedisTemplate(PrefixRoutingRedisConnectionFactory connectionFactory) {
+        super(connectionFactory);
+        if (connectionFactory.isCompressing()) {
+            // never compresses, the connection factory does once the command is routed
+            RedisSerializer<String> valueSerializer = new CompressingRedisSerializer<>(RedisSerializer.string(),
+                    Integer.MAX_VALUE, Deflater.BEST_SPEED);
+            setValueSerializer(valueSerializer);
+            setHashValueSerializer(valueSerializer);
+        }
+    }
+
+    /**
+     * Resolve the source a key is routed to.
+     * @param key key
+     * @return source name
+     */
+    public String getSource(String key) {
+        return ((PrefixRoutingRedisConnectionFactory) getRequiredConnectionFactory()).getSource(key.getBytes(StandardCharsets.UTF_8));
+    }
+}
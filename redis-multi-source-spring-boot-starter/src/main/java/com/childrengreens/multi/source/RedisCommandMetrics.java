@@ -0,0 +1,191 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.lettuce.core.metrics.CommandLatencyRecorder;
+import io.lettuce.core.protocol.ProtocolKeyword;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.lang.reflect.Method;
+import java.net.SocketAddress;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Record per-command latency of a source as a Micrometer {@link Timer} named {@value #METER_NAME},
+ * tagged with the source and the command. Timers are created once per command and cached, so recording
+ * does not allocate. Only loaded when Micrometer is on the classpath.
+ *
+ * @author ChildrenGreens
+ */
+final class RedisCommandMetrics {
+
+    static final String METER_NAME = "redis.command.latency";
+
+    private RedisCommandMetrics() {
+    }
+
+    /**
+     * Derive ClientResources recording the command latency of a Lettuce source. The derived resources are handed
+     * the event loops, event executors, timer and event bus of the given ones, so Lettuce treats them as shared
+     * and shutting the derived resources down leaves them running.
+     * @param clientResources shared client resources
+     * @param beanFactory bean factory
+     * @param name source name
+     * @param metrics metrics properties
+     * @return client resources holder
+     */
+    static InstrumentedClientResources instrument(ClientResources clientResources, BeanFactory beanFactory, String name,
+                                                  RedisSourceProperties.Metrics metrics) {
+        MeterRegistry registry = beanFactory.getBeanProvider(MeterRegistry.class).getIfAvailable();
+        if (registry == null) {
+            return new InstrumentedClientResources(clientResources, false);
+        }
+        // mutate() would copy the ownership of the event loops and timer, and shut them down with the derived resources
+        return new InstrumentedClientResources(DefaultClientResources.builder()
+                .eventLoopGroupProvider(clientResources.eventLoopGroupProvider())
+                .eventExecutorGroup(clientResources.eventExecutorGroup())
+                .timer(clientResources.timer())
+                .eventBus(clientResources.eventBus())
+                .addressResolverGroup(clientResources.addressResolverGroup())
+                .nettyCustomizer(clientResources.nettyCustomizer())
+                .reconnectDelay(clientResources::reconnectDelay)
+                .tracing(clientResources.tracing())
+                .commandLatencyRecorder(new LettuceCommandLatencyRecorder(registry, name, metrics.isHistogram()))
+                .socketAddressResolver(clientResources.socketAddressResolver())
+                .build(), true);
+    }
+
+    /**
+     * Wrap the connection factory of a Jedis source so every command is timed. Without a MeterRegistry the
+     * wrapper hands out the connections of the given factory as they are.
+     * @param connectionFactory connection factory
+     * @param beanFactory bean factory
+     * @param name source name
+     * @param metrics metrics properties
+     * @return connection factory
+     */
+    static InstrumentedRedisConnectionFactory instrument(RedisConnectionFactory connectionFactory, BeanFactory beanFactory, String name,
+                                                         RedisSourceProperties.Metrics metrics) {
+        MeterRegistry registry = beanFactory.getBeanProvider(MeterRegistry.class).getIfAvailable();
+        return new InstrumentedRedisConnectionFactory(connectionFactory,
+                (registry != null) ? new MethodCommandRecorder(registry, name, metrics.isHistogram()) : null);
+    }
+
+    static Timer timer(MeterRegistry registry, String name, String command, boolean histogram) {
+        return Timer.builder(METER_NAME)
+                .description("Redis command latency")
+                .tag("source", name)
+                .tag("command", command)
+                .publishPercentileHistogram(histogram)
+                .register(registry);
+    }
+
+    /**
+     * Holder of the ClientResources of a Lettuce source, shutting down the derived resources with the
+     * application context. The event loops, event executors and timer they were handed stay running.
+     */
+    static final class InstrumentedClientResources implements DisposableBean {
+
+        private final ClientResources clientResources;
+
+        private final boolean derived;
+
+        InstrumentedClientResources(ClientResources clientResources, boolean derived) {
+            this.clientResources = clientResources;
+            this.derived = derived;
+        }
+
+        ClientResources getClientResources() {
+            return clientResources;
+        }
+
+        @Override
+        public void destroy() {
+            if (derived) {
+                clientResources.shutdown();
+            }
+        }
+    }
+
+    /**
+     * {@link CommandLatencyRecorder} recording the completion latency of Lettuce commands.
+     */
+    static final class LettuceCommandLatencyRecorder implements CommandLatencyRecorder {
+
+        private final Map<ProtocolKeyword, Timer> timers = new ConcurrentHashMap<>();
+
+        private final MeterRegistry registry;
+
+        private final String name;
+
+        private final boolean histogram;
+
+        LettuceCommandLatencyRecorder(MeterRegistry registry, String name, boolean histogram) {
+            this.registry = registry;
+            this.name = name;
+            this.histogram = histogram;
+        }
+
+        @Override
+        public void recordCommandLatency(SocketAddress local, SocketAddress remote, @NonNull ProtocolKeyword commandType,
+                                         long firstResponseLatency, long completionLatency) {
+            Timer timer = timers.get(commandType);
+            if (timer == null) {
+                timer = timers.computeIfAbsent(commandType, (keyword) -> timer(registry, name, keyword.toString(), histogram));
+            }
+            timer.record(completionLatency, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * {@link InstrumentedRedisConnectionFactory.CommandRecorder} naming commands after the invoked method, e.g. {@code HGETALL}.
+     */
+    static final class MethodCommandRecorder implements InstrumentedRedisConnectionFactory.CommandRecorder {
+
+        private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+        private final MeterRegistry registry;
+
+        private final String name;
+
+        private final boolean histogram;
+
+        MethodCommandRecorder(MeterRegistry registry, String name, boolean histogram) {
+            this.registry = registry;
+            this.name = name;
+            this.histogram = histogram;
+        }
+
+        @Override
+        public void record(Method command, long durationNanos) {
+            Timer timer = timers.get(command);
+            if (timer == null) {
+                timer = timers.computeIfAbsent(command, (method) -> timer(registry, name, method.getName().toUpperCase(Locale.ROOT), histogram));
+            }
+            timer.record(durationNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
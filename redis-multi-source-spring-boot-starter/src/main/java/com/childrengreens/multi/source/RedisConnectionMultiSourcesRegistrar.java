@@ -24,6 +24,7 @@ import org.springframework.boot.data.redis.autoconfigure.*;
 import org.springframework.boot.ssl.SslBundles;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.redis.connection.*;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
 import org.springframework.util.ClassUtils;
@@ -31,18 +32,22 @@ import org.springframework.util.ClassUtils;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
- * Dynamically create multiple {@link DataRedisConnectionDetails} and {@link LettuceConnectionFactory} or {@link JedisConnectionFactory} based on Environment.
+ * Dynamically create multiple {@link DataRedisConnectionDetails} and {@link LettuceConnectionFactory} or {@link JedisConnectionFactory},
+ * plus a {@link StripedLettuceConnectionFactory} for sources with several connections and a {@link RedisPoolManager}
+ * for pooled sources, based on Environment.
  *
  * @author ChildrenGreens
  */
-public class RedisConnectionMultiSourcesRegistrar extends AbstractMultiSourcesRegistrar<DataRedisProperties> {
+public class RedisConnectionMultiSourcesRegistrar extends AbstractRedisMultiSourcesRegistrar {
 
 
     @Override
-    void registerBeanDefinitionsForSource(String name, DataRedisProperties source, BeanDefinitionRegistry registry, Boolean isPrimary) {
+    void registerBeanDefinitionsForSource(String name, RedisSourceProperties source, BeanDefinitionRegistry registry, Boolean isPrimary) {
 
         if (registry instanceof ConfigurableListableBeanFactory beanFactory) {
             // register PropertiesDataRedisConnectionDetails
@@ -62,36 +67,32 @@ public class RedisConnectionMultiSourcesRegistrar extends AbstractMultiSourcesRe
                     && ClassUtils.isPresent(RedisDataClassNames.JEDIS_TYPE, ClassUtils.getDefaultClassLoader());
             Class<? extends RedisConnectionFactory> redisConnectionFactory = isJedisConnectionFactory ? JedisConnectionFactory.class : LettuceConnectionFactory.class;
 
+            // register the ClientResources recording the command latency of a Lettuce source
+            String instrumentedClientResourcesBeanName = generateBeanName(RedisCommandMetrics.InstrumentedClientResources.class, name);
+            boolean isInstrumented = !isJedisConnectionFactory && isMetricsEnabled(source);
+            if (isInstrumented) {
+                registerBeanDefinition(registry,
+                        RedisCommandMetrics.InstrumentedClientResources.class,
+                        instrumentedClientResourcesBeanName,
+                        false,
+                        () -> RedisCommandMetrics.instrument(beanFactory.getBean(ClientResources.class), beanFactory, name, source.getMetrics()));
+            }
+
             // register RedisConnectionFactory
+            String redisConnectionFactoryBeanName = generateBeanName(redisConnectionFactory, name);
             registerBeanDefinition(registry,
                     RedisConnectionFactory.class,
-                    generateBeanName(redisConnectionFactory, name),
+                    redisConnectionFactoryBeanName,
                     isPrimary,
                     () -> {
                         // new JedisConnectionFactory or LettuceConnectionFactory
-                        DataRedisConnectionDetails connectionDetails = beanFactory.getBean(redisConnectionDetailsBeanName, DataRedisConnectionDetails.class);
-                        ObjectProvider<@NonNull RedisStandaloneConfiguration> standaloneProvider = beanFactory.getBeanProvider(RedisStandaloneConfiguration.class);
-                        ObjectProvider<@NonNull RedisSentinelConfiguration> sentinelProvider = beanFactory.getBeanProvider(RedisSentinelConfiguration.class);
-                        ObjectProvider<@NonNull RedisClusterConfiguration> clusterProvider = beanFactory.getBeanProvider(RedisClusterConfiguration.class);
-                            ObjectProvider<@NonNull RedisStaticMasterReplicaConfiguration> masterReplicaProvider = beanFactory.getBeanProvider(RedisStaticMasterReplicaConfiguration.class);
-
                         try {
-                            String connectionConfigurationClassName = isJedisConnectionFactory ? RedisDataClassNames.JEDIS_CONNECTION_CONFIGURATION : RedisDataClassNames.LETTUCE_CONNECTION_CONFIGURATION;
-                            Class<?> clazz = ClassUtils.forName(connectionConfigurationClassName, ClassUtils.getDefaultClassLoader());
-                            Constructor<?> constructor = clazz.getDeclaredConstructors()[0];
-                            constructor.setAccessible(true);
-                            Object configuration = constructor.newInstance(source,
-                                    standaloneProvider,
-                                    sentinelProvider,
-                                    clusterProvider,
-                                    masterReplicaProvider,
-                                    connectionDetails);
-
+                            Object configuration = createConnectionConfiguration(isJedisConnectionFactory, redisConnectionDetailsBeanName, source, beanFactory);
 
                             if (isJedisConnectionFactory) {
                                 ObjectProvider<@NonNull JedisClientConfigurationBuilderCustomizer> builderCustomizers = beanFactory.getBeanProvider(JedisClientConfigurationBuilderCustomizer.class);
 
-                                Method createJedisConnectionFactory = clazz.getDeclaredMethod("createJedisConnectionFactory", ObjectProvider.class);
+                                Method createJedisConnectionFactory = configuration.getClass().getDeclaredMethod("createJedisConnectionFactory", ObjectProvider.class);
                                 createJedisConnectionFactory.setAccessible(true);
                                 JedisConnectionFactory factory = (JedisConnectionFactory) createJedisConnectionFactory.invoke(configuration, builderCustomizers);
                                 if (isVirtualThreads()) {
@@ -101,34 +102,163 @@ public class RedisConnectionMultiSourcesRegistrar extends AbstractMultiSourcesRe
                                 }
                                 return factory;
                             } else {
-                                ObjectProvider<@NonNull LettuceClientConfigurationBuilderCustomizer> clientConfigurationBuilderCustomizers = beanFactory.getBeanProvider(LettuceClientConfigurationBuilderCustomizer.class);
-                                ObjectProvider<@NonNull LettuceClientOptionsBuilderCustomizer> clientOptionsBuilderCustomizers = beanFactory.getBeanProvider(LettuceClientOptionsBuilderCustomizer.class);
-                                ClientResources clientResources = beanFactory.getBean(ClientResources.class);
-
-                                Method createConnectionFactory = clazz.getDeclaredMethod("createConnectionFactory", ObjectProvider.class, ObjectProvider.class, ClientResources.class);
-                                createConnectionFactory.setAccessible(true);
-                                LettuceConnectionFactory factory = (LettuceConnectionFactory) createConnectionFactory.invoke(configuration, clientConfigurationBuilderCustomizers, clientOptionsBuilderCustomizers, clientResources);
-                                if (isVirtualThreads()) {
-                                    SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("redis-");
-                                    executor.setVirtualThreads(true);
-                                    factory.setExecutor(executor);
-                                }
-                                return factory;
+                                ClientResources clientResources = isInstrumented
+                                        ? beanFactory.getBean(instrumentedClientResourcesBeanName, RedisCommandMetrics.InstrumentedClientResources.class).getClientResources()
+                                        : beanFactory.getBean(ClientResources.class);
+                                return createLettuceConnectionFactory(configuration, source, clientResources, beanFactory);
                             }
                         } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
                                  ClassNotFoundException | NoSuchMethodException e) {
                             throw new RuntimeException(e);
                         }
                     });
+            if (isInstrumented) {
+                // shut the connection factory down before its ClientResources
+                registry.getBeanDefinition(redisConnectionFactoryBeanName).setDependsOn(instrumentedClientResourcesBeanName);
+            }
+
+            // register InstrumentedRedisConnectionFactory timing the commands of a Jedis source
+            if (isJedisConnectionFactory && isMetricsEnabled(source)) {
+                registerBeanDefinition(registry,
+                        InstrumentedRedisConnectionFactory.class,
+                        generateBeanName(InstrumentedRedisConnectionFactory.class, name),
+                        false,
+                        () -> RedisCommandMetrics.instrument(beanFactory.getBean(redisConnectionFactoryBeanName, JedisConnectionFactory.class),
+                                beanFactory, name, source.getMetrics()));
+            }
+
+            // register StripedLettuceConnectionFactory
+            String stripedConnectionFactoryBeanName = generateBeanName(StripedLettuceConnectionFactory.class, name);
+            boolean isStriped = !isJedisConnectionFactory && source.getConnections() > 1;
+            if (isStriped) {
+                registerBeanDefinition(registry,
+                        StripedLettuceConnectionFactory.class,
+                        stripedConnectionFactoryBeanName,
+                        false,
+                        () -> {
+                            // the LettuceConnectionFactory of the source is the first stripe, the others share its ClientResources
+                            LettuceConnectionFactory first = beanFactory.getBean(redisConnectionFactoryBeanName, LettuceConnectionFactory.class);
+                            List<LettuceConnectionFactory> stripes = new ArrayList<>(source.getConnections());
+                            stripes.add(first);
+                            try {
+                                Object configuration = createConnectionConfiguration(false, redisConnectionDetailsBeanName, source, beanFactory);
+                                while (stripes.size() < source.getConnections()) {
+                                    stripes.add(createLettuceConnectionFactory(configuration, source, first.getClientResources(), beanFactory));
+                                }
+                            } catch (InstantiationException | IllegalAccessException | InvocationTargetException |
+                                     ClassNotFoundException | NoSuchMethodException e) {
+                                throw new RuntimeException(e);
+                            }
+                            return new StripedLettuceConnectionFactory(stripes);
+                        });
+            }
 
+            // register RedisPoolManager
+            DataRedisProperties.Pool pool = isJedisConnectionFactory ? source.getJedis().getPool() : source.getLettuce().getPool();
+            if (isPoolEnabled(pool)) {
+                registerBeanDefinition(registry,
+                        RedisPoolManager.class,
+                        generateBeanName(RedisPoolManager.class, name),
+                        isPrimary,
+                        () -> {
+                            RedisConnectionFactory factory = beanFactory.getBean(isStriped ? stripedConnectionFactoryBeanName : redisConnectionFactoryBeanName, RedisConnectionFactory.class);
+                            RedisPoolManager poolManager = new RedisPoolManager(name, factory, pool, source.getPooling(), isVirtualThreads());
+                            if (ClassUtils.isPresent(RedisDataClassNames.METER_REGISTRY_TYPE, ClassUtils.getDefaultClassLoader())) {
+                                RedisPoolMetrics.bindTo(beanFactory, poolManager);
+                            }
+                            return poolManager;
+                        });
+            }
         }
 
 
     }
 
-    @Override
-    Class<? extends MultiSourcesProperties<DataRedisProperties>> getMultiSourcesPropertiesClass() {
-        return RedisMultiSourcesProperties.class;
+    /**
+     * Create the Spring Boot connection configuration of a source, which builds its connection factories.
+     * @param isJedisConnectionFactory whether the source uses Jedis
+     * @param redisConnectionDetailsBeanName connection details bean name
+     * @param source source properties
+     * @param beanFactory bean factory
+     * @return JedisConnectionConfiguration or LettuceConnectionConfiguration
+     */
+    private Object createConnectionConfiguration(boolean isJedisConnectionFactory, String redisConnectionDetailsBeanName,
+                                                 RedisSourceProperties source, ConfigurableListableBeanFactory beanFactory)
+            throws ClassNotFoundException, InstantiationException, IllegalAccessException, InvocationTargetException {
+        DataRedisConnectionDetails connectionDetails = beanFactory.getBean(redisConnectionDetailsBeanName, DataRedisConnectionDetails.class);
+        ObjectProvider<@NonNull RedisStandaloneConfiguration> standaloneProvider = beanFactory.getBeanProvider(RedisStandaloneConfiguration.class);
+        ObjectProvider<@NonNull RedisSentinelConfiguration> sentinelProvider = beanFactory.getBeanProvider(RedisSentinelConfiguration.class);
+        ObjectProvider<@NonNull RedisClusterConfiguration> clusterProvider = beanFactory.getBeanProvider(RedisClusterConfiguration.class);
+        ObjectProvider<@NonNull RedisStaticMasterReplicaConfiguration> masterReplicaProvider = beanFactory.getBeanProvider(RedisStaticMasterReplicaConfiguration.class);
+
+        String connectionConfigurationClassName = isJedisConnectionFactory ? RedisDataClassNames.JEDIS_CONNECTION_CONFIGURATION : RedisDataClassNames.LETTUCE_CONNECTION_CONFIGURATION;
+        Class<?> clazz = ClassUtils.forName(connectionConfigurationClassName, ClassUtils.getDefaultClassLoader());
+        Constructor<?> constructor = clazz.getDeclaredConstructors()[0];
+        constructor.setAccessible(true);
+        return constructor.newInstance(source,
+                standaloneProvider,
+                sentinelProvider,
+                clusterProvider,
+                masterReplicaProvider,
+                connectionDetails);
     }
 
+    /**
+     * Create a LettuceConnectionFactory of a source.
+     * @param configuration LettuceConnectionConfiguration
+     * @param source source properties
+     * @param clientResources client resources
+     * @param beanFactory bean factory
+     * @return connection factory
+     */
+    private LettuceConnectionFactory createLettuceConnectionFactory(Object configuration, RedisSourceProperties source,
+                                                                    ClientResources clientResources, ConfigurableListableBeanFactory beanFactory)
+            throws NoSuchMethodException, InvocationTargetException, IllegalAccessException {
+        ObjectProvider<@NonNull LettuceClientConfigurationBuilderCustomizer> clientConfigurationBuilderCustomizers = beanFactory.getBeanProvider(LettuceClientConfigurationBuilderCustomizer.class);
+        ObjectProvider<@NonNull LettuceClientOptionsBuilderCustomizer> clientOptionsBuilderCustomizers = beanFactory.getBeanProvider(LettuceClientOptionsBuilderCustomizer.class);
+
+        Method createConnectionFactory = configuration.getClass().getDeclaredMethod("createConnectionFactory", ObjectProvider.class, ObjectProvider.class, ClientResources.class);
+        createConnectionFactory.setAccessible(true);
+        LettuceConnectionFactory factory = (LettuceConnectionFactory) createConnectionFactory.invoke(configuration, clientConfigurationBuilderCustomizers, clientOptionsBuilderCustomizers, clientResources);
+        factory.setPipeliningFlushPolicy(getPipeliningFlushPolicy(source.getPipelining()));
+        if (isVirtualThreads()) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("redis-");
+            executor.setVirtualThreads(true);
+            factory.setExecutor(executor);
+        }
+        return factory;
+    }
+
+    /**
+     * Whether the connection pool is enabled, defaulting to the presence of commons-pool2 like Spring Boot does.
+     * @param pool pool properties
+     * @return bool
+     */
+    private boolean isPoolEnabled(DataRedisProperties.Pool pool) {
+        Boolean enabled = pool.getEnabled();
+        return (enabled != null) ? enabled : ClassUtils.isPresent(RedisDataClassNames.COMMONS_POOL2_TYPE, ClassUtils.getDefaultClassLoader());
+    }
+
+    /**
+     * Whether command latency metrics are enabled for a source and Micrometer is present.
+     * @param source source properties
+     * @return bool
+     */
+    private boolean isMetricsEnabled(RedisSourceProperties source) {
+        return source.getMetrics().isEnabled()
+                && ClassUtils.isPresent(RedisDataClassNames.METER_REGISTRY_TYPE, ClassUtils.getDefaultClassLoader());
+    }
+
+    /**
+     * Resolve the Lettuce pipelining flush policy of a source.
+     * @param pipelining pipelining properties
+     * @return flush policy
+     */
+    private LettuceConnection.PipeliningFlushPolicy getPipeliningFlushPolicy(RedisSourceProperties.Pipelining pipelining) {
+        return switch (pipelining.getFlushPolicy()) {
+            case FLUSH_EACH_COMMAND -> LettuceConnection.PipeliningFlushPolicy.flushEachCommand();
+            case FLUSH_ON_CLOSE -> LettuceConnection.PipeliningFlushPolicy.flushOnClose();
+            case BUFFERED -> LettuceConnection.PipeliningFlushPolicy.buffered(pipelining.getBufferSize());
+        };
+    }
 }
@@ -28,6 +28,14 @@ final class RedisDataClassNames {
 
     static final String JEDIS_TYPE = "redis.clients.jedis.Jedis";
 
+    static final String COMMONS_POOL2_TYPE = "org.apache.commons.pool2.ObjectPool";
+
+    static final String METER_REGISTRY_TYPE = "io.micrometer.core.instrument.MeterRegistry";
+
+    static final String LETTUCE_EXCEPTION_TRANSLATING_CONNECTION_PROVIDER = "org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory$ExceptionTranslatingConnectionProvider";
+
+    static final String LETTUCE_POOLING_CONNECTION_PROVIDER = "org.springframework.data.redis.connection.lettuce.LettucePoolingConnectionProvider";
+
     private RedisDataClassNames() {
     }
 }
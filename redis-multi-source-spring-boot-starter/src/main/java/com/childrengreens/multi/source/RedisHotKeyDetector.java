@@ -0,0 +1,297 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.util.Assert;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Detect the hot keys of a Redis source from a sample of its reads, counted in a count-min sketch over a sliding
+ * window, and hold their values in a small local cache for a short time. The window is approximated by the counts
+ * of the current window plus the decaying counts of the previous one.
+ *
+ * @author ChildrenGreens
+ */
+public class RedisHotKeyDetector {
+
+    private static final Log logger = LogFactory.getLog(RedisHotKeyDetector.class);
+
+    private static final int DEPTH = 4;
+
+    private static final int WIDTH = 1 << 12;
+
+    private static final int VERSION_STRIPES = 1 << 10;
+
+    private final String name;
+
+    private final RedisSourceProperties.HotKeys properties;
+
+    private final long windowNanos;
+
+    private final long cacheTtlNanos;
+
+    private final Map<ByteBuffer, Long> hotKeys = new ConcurrentHashMap<>();
+
+    private final Map<ByteBuffer, CachedValue> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+
+    /**
+     * Eviction counts per stripe of keys, and of whole-cache clears; a read caches its value only if they did not move.
+     */
+    private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+    private final AtomicLong clears = new AtomicLong();
+
+    private volatile Window current = new Window(System.nanoTime());
+
+    private volatile Window previous;
+
+    public RedisHotKeyDetector(String name, RedisSourceProperties.HotKeys properties) {
+        Assert.isTrue(properties.getSampleRate() > 0 && properties.getSampleRate() <= 1, "Sample rate must be in (0, 1]");
+        Assert.isTrue(!properties.getWindow().isNegative() && !properties.getWindow().isZero(), "Window must be positive");
+        this.name = name;
+        this.properties = properties;
+        this.windowNanos = properties.getWindow().toNanos();
+        this.cacheTtlNanos = properties.getCacheTtl().toNanos();
+    }
+
+    /**
+     * Count a read of a key, if sampled.
+     * @param key raw key
+     * @return whether the read was sampled and the key is hot
+     */
+    public boolean record(byte[] key) {
+        double sampleRate = properties.getSampleRate();
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return false;
+        }
+        long now = System.nanoTime();
+        Window window = currentWindow(now);
+        Window last = previous;
+
+        long hash = hash(key);
+        int count = Integer.MAX_VALUE;
+        int lastCount = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int index = index(hash, row);
+            count = Math.min(count, window.counters.incrementAndGet(index));
+            lastCount = (last != null) ? Math.min(lastCount, last.counters.get(index)) : 0;
+        }
+        double remaining = Math.max(0, 1 - (double) (now - window.start) / windowNanos);
+        long estimate = (long) ((count + lastCount * remaining) / sampleRate);
+        if (estimate < properties.getThreshold()) {
+            return false;
+        }
+        markHot(key, estimate);
+        return true;
+    }
+
+    /**
+     * Resolve the cached value of a hot key.
+     * @param key raw key
+     * @return value, or {@code null} if not cached or expired
+     */
+    public byte[] getCached(byte[] key) {
+        if (cache.isEmpty()) {
+            return null;
+        }
+        ByteBuffer cacheKey = ByteBuffer.wrap(key);
+        CachedValue cached = cache.get(cacheKey);
+        if (cached == null) {
+            return null;
+        }
+        if (System.nanoTime() - cached.expiresAt >= 0) {
+            cache.remove(cacheKey, cached);
+            return null;
+        }
+        cacheHits.increment();
+        return cached.value;
+    }
+
+    /**
+     * Resolve the version of a key's cache entry, to take before reading its value.
+     * @param key raw key
+     * @return version
+     */
+    public long getVersion(byte[] key) {
+        return clears.get() + versions.get(stripe(key));
+    }
+
+    /**
+     * Cache the value of a hot key for the configured TTL, unless the cache is full or the key was evicted since
+     * its version was taken, in which case the value may already be stale.
+     * @param key raw key
+     * @param value raw value
+     * @param version version taken before the value was read
+     */
+    public void cache(byte[] key, byte[] value, long version) {
+        if (value == null || cacheTtlNanos <= 0 || getVersion(key) != version) {
+            return;
+        }
+        ByteBuffer cacheKey = ByteBuffer.wrap(key);
+        if (cache.size() < properties.getCacheSize() || cache.containsKey(cacheKey)) {
+            CachedValue cached = new CachedValue(value, System.nanoTime() + cacheTtlNanos);
+            cache.put(cacheKey, cached);
+            if (getVersion(key) != version) {
+                // evicted while caching
+                cache.remove(cacheKey, cached);
+            }
+        }
+    }
+
+    /**
+     * Remove the cached value of a key, after a command that may have changed it.
+     * @param key raw key
+     */
+    public void evict(byte[] key) {
+        versions.incrementAndGet(stripe(key));
+        if (!cache.isEmpty()) {
+            cache.remove(ByteBuffer.wrap(key));
+        }
+    }
+
+    /**
+     * Remove every cached value, after a command whose keys are unknown, such as a script.
+     */
+    public void clear() {
+        clears.incrementAndGet();
+        cache.clear();
+    }
+
+    /**
+     * Hot keys of the current window, hottest first.
+     * @return hot keys
+     */
+    public List<HotKey> getHotKeys() {
+        List<HotKey> keys = new ArrayList<>(hotKeys.size());
+        hotKeys.forEach((key, estimate) -> keys.add(new HotKey(StandardCharsets.UTF_8.decode(key.duplicate()).toString(), estimate)));
+        keys.sort(Comparator.comparingLong(HotKey::estimate).reversed());
+        return keys;
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    private void markHot(byte[] key, long estimate) {
+        ByteBuffer hotKey = ByteBuffer.wrap(key);
+        if (hotKeys.replace(hotKey, estimate) != null) {
+            return;
+        }
+        synchronized (hotKeys) {
+            if (hotKeys.size() >= properties.getTopK()) {
+                Map.Entry<ByteBuffer, Long> coldest = null;
+                for (Map.Entry<ByteBuffer, Long> entry : hotKeys.entrySet()) {
+                    if (coldest == null || entry.getValue() < coldest.getValue()) {
+                        coldest = entry;
+                    }
+                }
+                if (coldest == null || coldest.getValue() >= estimate) {
+                    return;
+                }
+                hotKeys.remove(coldest.getKey());
+            }
+            if (hotKeys.put(hotKey, estimate) == null && logger.isInfoEnabled()) {
+                logger.info("source key: " + name + ", hot key detected: " + new String(key, StandardCharsets.UTF_8) + " (~" + estimate + " reads per window)");
+            }
+        }
+    }
+
+    private Window currentWindow(long now) {
+        Window window = current;
+        if (now - window.start >= windowNanos) {
+            synchronized (this) {
+                window = current;
+                if (now - window.start >= windowNanos) {
+                    previous = (now - window.start < 2 * windowNanos) ? window : null;
+                    window = new Window(now);
+                    current = window;
+                    hotKeys.clear();
+                    cache.values().removeIf((cached) -> now - cached.expiresAt >= 0);
+                }
+            }
+        }
+        return window;
+    }
+
+    private static int stripe(byte[] key) {
+        return (int) (hash(key) & (VERSION_STRIPES - 1));
+    }
+
+    private static long hash(byte[] key) {
+        // FNV-1a, then a 64-bit finalizer so both halves are well mixed
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static int index(long hash, int row) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * WIDTH + ((h1 + row * h2) & (WIDTH - 1));
+    }
+
+    /**
+     * A hot key and its estimated reads per window.
+     * @param key key
+     * @param estimate estimated reads
+     */
+    public record HotKey(String key, long estimate) {
+    }
+
+    private record CachedValue(byte[] value, long expiresAt) {
+    }
+
+    private static final class Window {
+
+        private final long start;
+
+        private final AtomicIntegerArray counters = new AtomicIntegerArray(DEPTH * WIDTH);
+
+        private Window(long start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Export {@link RedisHotKeyDetector} statistics as Micrometer meters tagged with the source name.
+ * Only loaded when Micrometer is on the classpath.
+ *
+ * @author ChildrenGreens
+ */
+final class RedisHotKeyMetrics {
+
+    private RedisHotKeyMetrics() {
+    }
+
+    /**
+     * Bind the hot-key meters of a source to every available {@link MeterRegistry}.
+     * @param beanFactory bean factory
+     * @param detector hot-key detector of the source
+     */
+    static void bindTo(BeanFactory beanFactory, RedisHotKeyDetector detector) {
+        ObjectProvider<@NonNull MeterRegistry> meterRegistries = beanFactory.getBeanProvider(MeterRegistry.class);
+        meterRegistries.orderedStream().forEach((registry) -> bindTo(registry, detector));
+    }
+
+    static void bindTo(MeterRegistry registry, RedisHotKeyDetector detector) {
+        Tags tags = Tags.of("source", detector.getName());
+        Gauge.builder("redis.hotkeys", detector, (hotKeyDetector) -> hotKeyDetector.getHotKeys().size())
+                .description("Keys currently detected as hot")
+                .baseUnit("keys")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("redis.hotkeys.max.reads", detector, (hotKeyDetector) -> hotKeyDetector.getHotKeys().stream()
+                        .mapToLong(RedisHotKeyDetector.HotKey::estimate).max().orElse(0))
+                .description("Estimated reads per window of the hottest key")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("redis.hotkeys.cache.size", detector, RedisHotKeyDetector::getCacheSize)
+                .description("Hot-key values held in the local cache")
+                .baseUnit("keys")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("redis.hotkeys.cache.hits", detector, RedisHotKeyDetector::getCacheHits)
+                .description("Reads served from the local hot-key cache")
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Subscribe a bean method to Redis pub/sub channels or patterns on the {@code RedisMessageListenerContainer}
+ * of a source. The method is invoked through a {@code MessageListenerAdapter}, so it must be public and may accept
+ * the deserialized message, optionally followed by the channel.
+ *
+ * @author ChildrenGreens
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RedisListener {
+
+    /**
+     * Source name. Empty selects the primary source.
+     * @return source name
+     */
+    String source() default "";
+
+    /**
+     * Channels to subscribe to. Supports placeholders.
+     * @return channels
+     */
+    String[] channel() default {};
+
+    /**
+     * Channel patterns to subscribe to. Supports placeholders.
+     * @return patterns
+     */
+    String[] pattern() default {};
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
+import org.springframework.util.StringUtils;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Register methods annotated with {@link RedisListener} on the {@link RedisMessageListenerContainer} of their source.
+ *
+ * @author ChildrenGreens
+ */
+public class RedisListenerAnnotationBeanPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+    private ConfigurableBeanFactory beanFactory;
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) throws BeansException {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        Map<Method, RedisListener> annotatedMethods = MethodIntrospector.selectMethods(targetClass,
+                (MethodIntrospector.MetadataLookup<RedisListener>) (method) -> AnnotatedElementUtils.findMergedAnnotation(method, RedisListener.class));
+
+        annotatedMethods.forEach((method, annotation) -> {
+            List<Topic> topics = new ArrayList<>();
+            for (String channel : annotation.channel()) {
+                topics.add(ChannelTopic.of(resolve(channel)));
+            }
+            for (String pattern : annotation.pattern()) {
+                topics.add(PatternTopic.of(resolve(pattern)));
+            }
+            if (topics.isEmpty()) {
+                throw new IllegalStateException("@RedisListener on " + method + " declares neither channel nor pattern");
+            }
+
+            MessageListenerAdapter adapter = new MessageListenerAdapter(bean, method.getName());
+            adapter.afterPropertiesSet();
+            getContainer(resolve(annotation.source())).addMessageListener(adapter, topics);
+        });
+        return bean;
+    }
+
+    private RedisMessageListenerContainer getContainer(String source) {
+        if (!StringUtils.hasText(source)) {
+            return beanFactory.getBean(RedisMessageListenerContainer.class);
+        }
+        String containerBeanName = source + RedisMessageListenerContainer.class.getSimpleName();
+        if (!beanFactory.containsBean(containerBeanName)) {
+            throw new RuntimeException("source key: " + source + ", " + "RedisMessageListenerContainer not found");
+        }
+        return beanFactory.getBean(containerBeanName, RedisMessageListenerContainer.class);
+    }
+
+    private String resolve(String value) {
+        String resolved = beanFactory.resolveEmbeddedValue(value);
+        return (resolved != null) ? resolved : value;
+    }
+
+    @Override
+    public void setBeanFactory(@NonNull BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = (ConfigurableBeanFactory) beanFactory;
+    }
+}
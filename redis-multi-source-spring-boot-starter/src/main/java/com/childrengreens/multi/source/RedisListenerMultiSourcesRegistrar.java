@@ -0,0 +1,112 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.Topic;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dynamically create a {@link RedisMessageListenerContainer} per source, subscribing the {@link MessageListener} beans
+ * declared in the source's {@code listener.subscriptions}, and a {@link StreamMessageListenerContainer} with its
+ * {@link RedisStreamAcknowledger}.
+ *
+ * @author ChildrenGreens
+ */
+public class RedisListenerMultiSourcesRegistrar extends AbstractRedisMultiSourcesRegistrar {
+
+    @Override
+    void registerBeanDefinitionsForSource(String name, RedisSourceProperties source, BeanDefinitionRegistry registry, Boolean isPrimary) {
+
+        if (registry instanceof ConfigurableListableBeanFactory beanFactory && source.getListener().isEnabled()) {
+            // register RedisMessageListenerContainer
+            registerBeanDefinition(registry,
+                    RedisMessageListenerContainer.class,
+                    generateBeanName(RedisMessageListenerContainer.class, name),
+                    isPrimary,
+                    () -> {
+                        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+                        container.setConnectionFactory(getConnectionFactoryBean(name, beanFactory));
+                        container.setAutoStartup(source.getListener().isAutoStartup());
+                        if (isVirtualThreads()) {
+                            // one virtual thread per dispatched message instead of a platform thread
+                            SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor("redis-listener-");
+                            taskExecutor.setVirtualThreads(true);
+                            container.setTaskExecutor(taskExecutor);
+                            SimpleAsyncTaskExecutor subscriptionExecutor = new SimpleAsyncTaskExecutor("redis-subscription-");
+                            subscriptionExecutor.setVirtualThreads(true);
+                            container.setSubscriptionExecutor(subscriptionExecutor);
+                        }
+
+                        source.getListener().getSubscriptions().forEach((listenerBeanName, subscription) -> {
+                            List<Topic> topics = new ArrayList<>();
+                            subscription.getChannels().forEach((channel) -> topics.add(ChannelTopic.of(channel)));
+                            subscription.getPatterns().forEach((pattern) -> topics.add(PatternTopic.of(pattern)));
+                            if (!topics.isEmpty()) {
+                                container.addMessageListener(beanFactory.getBean(listenerBeanName, MessageListener.class), topics);
+                            }
+                        });
+                        return container;
+                    });
+        }
+
+        if (registry instanceof ConfigurableListableBeanFactory beanFactory && source.getStreams().isEnabled()) {
+            RedisSourceProperties.Streams streams = source.getStreams();
+
+            // register RedisStreamAcknowledger
+            registerBeanDefinition(registry,
+                    RedisStreamAcknowledger.class,
+                    generateBeanName(RedisStreamAcknowledger.class, name),
+                    isPrimary,
+                    () -> new RedisStreamAcknowledger(name,
+                            new StringRedisTemplate(getConnectionFactoryBean(name, beanFactory)),
+                            streams.getAckBatchSize(),
+                            streams.getAckInterval(),
+                            isVirtualThreads()));
+
+            // register StreamMessageListenerContainer
+            registerBeanDefinition(registry,
+                    StreamMessageListenerContainer.class,
+                    generateBeanName(StreamMessageListenerContainer.class, name),
+                    isPrimary,
+                    () -> {
+                        StreamMessageListenerContainer.StreamMessageListenerContainerOptionsBuilder<String, MapRecord<String, String, String>> options =
+                                StreamMessageListenerContainer.StreamMessageListenerContainerOptions.builder()
+                                        .batchSize(streams.getBatchSize())
+                                        .pollTimeout(streams.getPollTimeout())
+                                        .autoStartup(streams.isAutoStartup());
+                        if (isVirtualThreads()) {
+                            // each subscription blocks in XREADGROUP, park it on a virtual thread
+                            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("redis-stream-");
+                            executor.setVirtualThreads(true);
+                            options.executor(executor);
+                        }
+                        return StreamMessageListenerContainer.create(getConnectionFactoryBean(name, beanFactory), options.build());
+                    });
+        }
+    }
+}
@@ -0,0 +1,499 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisCommands;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisGeoCommands;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisHyperLogLogCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisListCommands;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisSetCommands;
+import org.springframework.data.redis.connection.RedisStreamCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.script.DigestUtils;
+import org.springframework.util.Assert;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Copy the writes of a Redis source to a target source, and repeat a sample of its reads against the target to
+ * compare the results, while migrating from one to the other. Writes are queued in a bounded queue and copied in
+ * order by a single writer, in pipelines of at most {@code batch-size} commands, so the source's callers never wait
+ * for the target. Writes arriving while the queue is full are dropped and counted.
+ * <p>
+ * Scripts ({@code EVAL}, {@code EVALSHA}, {@code SCRIPT LOAD}) and raw {@code execute} calls are copied as writes.
+ * An {@code EVALSHA} of a script seen in an earlier {@code EVAL} or {@code SCRIPT LOAD} is copied as an {@code EVAL}
+ * of its body, so it does not depend on the target's script cache; any other fails on the target unless the script
+ * is loaded there, and is counted as failed.
+ *
+ * @author ChildrenGreens
+ */
+public class RedisMirror implements SmartLifecycle {
+
+    private static final Log logger = LogFactory.getLog(RedisMirror.class);
+
+    static final List<Class<?>> DATA_COMMANDS = List.of(RedisKeyCommands.class, RedisStringCommands.class,
+            RedisHashCommands.class, RedisListCommands.class, RedisSetCommands.class, RedisZSetCommands.class,
+            RedisHyperLogLogCommands.class, RedisGeoCommands.class, RedisStreamCommands.class, RedisScriptingCommands.class);
+
+    static final Method EXECUTE = ReflectionUtils.findMethod(RedisCommands.class, "execute", String.class, byte[][].class);
+
+    private static final Method EVAL = ReflectionUtils.findMethod(RedisScriptingCommands.class, "eval", byte[].class,
+            ReturnType.class, int.class, byte[][].class);
+
+    private static final Set<String> READS = Set.of("get", "getRange", "getBit", "mGet", "strLen", "bitCount", "bitPos",
+            "exists", "type", "keys", "dump", "hGet", "hMGet", "hExists", "hLen", "hKeys", "hVals", "hGetAll", "hStrLen",
+            "lRange", "lIndex", "lLen", "lPos", "sMembers", "sIsMember", "sMIsMember", "sCard", "sInter", "sUnion", "sDiff",
+            "zRange", "zRangeWithScores", "zRangeByScore", "zRangeByScoreWithScores", "zRangeByLex", "zRevRange",
+            "zRevRangeWithScores", "zRevRangeByScore", "zRevRangeByScoreWithScores", "zRevRangeByLex", "zScore",
+            "zMScore", "zRank", "zRevRank", "zCard", "zCount", "zLexCount", "zDiff", "zDiffWithScores", "zInter",
+            "zInterWithScores", "zUnion", "zUnionWithScores", "pfCount", "geoDist", "geoHash", "geoPos", "geoRadius",
+            "geoRadiusByMember", "geoSearch", "xRange", "xRevRange", "xRead", "xLen", "xPending");
+
+    private static final Set<String> UNCOMPARABLE_READS = Set.of("ttl", "pTtl", "hTtl", "hpTtl", "idletime", "refcount",
+            "encodingOf", "randomKey", "hRandField", "hRandFieldWithValues", "sRandMember", "zRandMember",
+            "zRandMemberWithScore", "scan", "hScan", "sScan", "zScan", "xInfo", "xInfoGroups", "xInfoConsumers",
+            "scriptExists");
+
+    /**
+     * Script management that must not reach the target.
+     */
+    private static final Set<String> UNMIRRORED = Set.of("scriptFlush", "scriptKill");
+
+    private static final Map<Method, Command> COMMANDS = new ConcurrentHashMap<>();
+
+    private static final int MAX_SHADOW_READS = 16;
+
+    private static final int MAX_SCRIPTS = 1024;
+
+    private final String name;
+
+    private final String targetName;
+
+    private final RedisConnectionFactory target;
+
+    private final RedisSourceProperties.Mirror properties;
+
+    private final Executor executor;
+
+    private final BlockingQueue<Write> queue;
+
+    private final Semaphore shadowReads = new Semaphore(MAX_SHADOW_READS);
+
+    /**
+     * Bodies of the scripts evaluated or loaded on the source, by SHA1.
+     */
+    private final Map<String, byte[]> scripts = new ConcurrentHashMap<>();
+
+    private final LongAdder copied = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder failed = new LongAdder();
+
+    private final LongAdder compared = new LongAdder();
+
+    private final LongAdder mismatches = new LongAdder();
+
+    private volatile long lagNanos;
+
+    private volatile boolean running;
+
+    private volatile Runnable stopCallback;
+
+    /**
+     * Create a mirror.
+     * @param name source name
+     * @param targetName target source name
+     * @param target connection factory of the target source
+     * @param properties mirror properties
+     * @param executor executor running the writer and the shadow reads
+     */
+    public RedisMirror(String name, String targetName, RedisConnectionFactory target, RedisSourceProperties.Mirror properties,
+                       Executor executor) {
+        Assert.notNull(target, "Target RedisConnectionFactory must not be null");
+        Assert.isTrue(properties.getQueueCapacity() > 0, "Queue capacity must be greater than 0");
+        Assert.isTrue(properties.getBatchSize() > 0, "Batch size must be greater than 0");
+        Assert.isTrue(properties.getShadowReadRate() >= 0 && properties.getShadowReadRate() <= 1, "Shadow read rate must be in [0, 1]");
+        this.name = name;
+        this.targetName = targetName;
+        this.target = target;
+        this.properties = properties;
+        this.executor = executor;
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+    }
+
+    /**
+     * Resolve how a connection method is mirrored.
+     * @param method method invoked on a connection or one of its command interfaces
+     * @return command, or {@code null} if the method is not a data command
+     */
+    static Command command(Method method) {
+        return COMMANDS.computeIfAbsent(method, (invoked) -> {
+            if (invoked.getName().equals(EXECUTE.getName()) && Arrays.equals(invoked.getParameterTypes(), EXECUTE.getParameterTypes())) {
+                return new Command(Kind.WRITE, EXECUTE);
+            }
+            for (Class<?> type : DATA_COMMANDS) {
+                Method dataMethod = ReflectionUtils.findMethod(type, invoked.getName(), invoked.getParameterTypes());
+                if (dataMethod != null) {
+                    Kind kind;
+                    if (READS.contains(invoked.getName()) && !Cursor.class.isAssignableFrom(invoked.getReturnType())) {
+                        kind = Kind.READ;
+                    } else if (READS.contains(invoked.getName()) || UNCOMPARABLE_READS.contains(invoked.getName())
+                            || UNMIRRORED.contains(invoked.getName()) || isBlocking(invoked.getName())) {
+                        kind = Kind.IGNORED;
+                    } else {
+                        kind = Kind.WRITE;
+                    }
+                    return new Command(kind, dataMethod);
+                }
+            }
+            return new Command(Kind.IGNORED, invoked);
+        });
+    }
+
+    private static boolean isBlocking(String methodName) {
+        // BLPOP, BZPOPMIN and friends would stall the writer
+        return methodName.length() > 1 && methodName.charAt(0) == 'b' && Character.isUpperCase(methodName.charAt(1));
+    }
+
+    /**
+     * Queue a write executed on the source for copying to the target.
+     * @param method data command method
+     * @param args command arguments
+     * @return whether the write was queued
+     */
+    public boolean write(Method method, Object[] args) {
+        if (method.getDeclaringClass() == RedisScriptingCommands.class) {
+            Object[] resolved = resolveScript(method, args);
+            if (resolved != null) {
+                method = EVAL;
+                args = resolved;
+            }
+        }
+        if (queue.offer(new Write(method, args, System.nanoTime()))) {
+            return true;
+        }
+        dropped.increment();
+        if (logger.isDebugEnabled()) {
+            logger.debug("source key: " + name + ", mirror queue full, dropped " + method.getName());
+        }
+        return false;
+    }
+
+    /**
+     * Remember the body of an evaluated or loaded script, and turn an {@code EVALSHA} of a known script into an
+     * {@code EVAL}.
+     * @return arguments of the {@code EVAL}, or {@code null} to copy the command as is
+     */
+    private Object @Nullable [] resolveScript(Method method, Object[] args) {
+        switch (method.getName()) {
+            case "eval", "scriptLoad" -> {
+                if (args[0] instanceof byte[] script && scripts.size() < MAX_SCRIPTS) {
+                    scripts.putIfAbsent(DigestUtils.sha1DigestAsHex(new String(script, StandardCharsets.UTF_8)), script);
+                }
+            }
+            case "evalSha" -> {
+                String sha = (args[0] instanceof byte[] bytes) ? new String(bytes, StandardCharsets.UTF_8) : (String) args[0];
+                byte[] script = scripts.get(sha);
+                if (script != null) {
+                    Object[] resolved = args.clone();
+                    resolved[0] = script;
+                    return resolved;
+                }
+            }
+            default -> {
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Repeat a read against the target in the background, if sampled, and compare its result.
+     * @param method data command method
+     * @param args command arguments
+     * @param expected result on the source
+     */
+    public void shadowRead(Method method, Object[] args, Object expected) {
+        double rate = properties.getShadowReadRate();
+        if (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate) || !shadowReads.tryAcquire()) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    compare(method, args, expected);
+                } finally {
+                    shadowReads.release();
+                }
+            });
+        } catch (RuntimeException ex) {
+            shadowReads.release();
+        }
+    }
+
+    private void compare(Method method, Object[] args, Object expected) {
+        Object actual;
+        try (RedisConnection connection = target.getConnection()) {
+            actual = invoke(connection, method, args);
+        } catch (RuntimeException ex) {
+            mismatches.increment();
+            logger.debug("source key: " + name + ", shadow read of " + method.getName() + " failed on " + targetName, ex);
+            return;
+        }
+        compared.increment();
+        if (!normalize(expected).equals(normalize(actual))) {
+            mismatches.increment();
+            if (logger.isDebugEnabled()) {
+                logger.debug("source key: " + name + ", shadow read of " + method.getName() + " differs on " + targetName);
+            }
+        }
+    }
+
+    /**
+     * Make results comparable: byte arrays by content, sets regardless of order.
+     */
+    private static Object normalize(Object result) {
+        if (result instanceof byte[] bytes) {
+            return ByteBuffer.wrap(bytes);
+        }
+        if (result instanceof Set<?> set) {
+            Set<Object> normalized = new HashSet<>();
+            set.forEach((element) -> normalized.add(normalize(element)));
+            return normalized;
+        }
+        if (result instanceof Collection<?> collection) {
+            List<Object> normalized = new ArrayList<>(collection.size());
+            collection.forEach((element) -> normalized.add(normalize(element)));
+            return normalized;
+        }
+        if (result instanceof Map<?, ?> map) {
+            Map<Object, Object> normalized = new HashMap<>();
+            map.forEach((key, value) -> normalized.put(normalize(key), normalize(value)));
+            return normalized;
+        }
+        return Optional.ofNullable(result);
+    }
+
+    @Override
+    public void start() {
+        this.running = true;
+        executor.execute(this::drain);
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+    }
+
+    @Override
+    public void stop(Runnable callback) {
+        this.stopCallback = callback;
+        this.running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Copy queued writes until stopped, then copy what is left.
+     */
+    private void drain() {
+        List<Write> batch = new ArrayList<>(properties.getBatchSize());
+        try {
+            while (running || !queue.isEmpty()) {
+                Write first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, properties.getBatchSize() - 1);
+                    flush(batch);
+                    batch.clear();
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            Runnable callback = this.stopCallback;
+            if (callback != null) {
+                callback.run();
+            }
+        }
+    }
+
+    /**
+     * Copy a batch of writes to the target, pipelined unless the target is a cluster.
+     * @param batch writes in source order
+     */
+    void flush(List<Write> batch) {
+        int failures = 0;
+        try (RedisConnection connection = target.getConnection()) {
+            boolean pipelined = !(connection instanceof RedisClusterConnection);
+            if (pipelined) {
+                connection.openPipeline();
+            }
+            try {
+                for (Write write : batch) {
+                    try {
+                        invoke(connection, write.method(), write.args());
+                    } catch (RuntimeException ex) {
+                        failures++;
+                    }
+                }
+            } finally {
+                if (pipelined) {
+                    try {
+                        connection.closePipeline();
+                    } catch (RedisPipelineException ex) {
+                        failures += (int) ex.getPipelineResult().stream().filter(Throwable.class::isInstance).count();
+                    }
+                }
+            }
+        } catch (RuntimeException ex) {
+            failures = batch.size();
+            logger.warn("source key: " + name + ", failed to mirror " + batch.size() + " writes to " + targetName + ": " + ex.getMessage());
+        }
+        copied.add(batch.size() - failures);
+        failed.add(failures);
+        lagNanos = System.nanoTime() - batch.get(0).queued();
+    }
+
+    private static Object invoke(RedisConnection connection, Method method, Object[] args) {
+        try {
+            return method.invoke(connection, args);
+        } catch (InvocationTargetException ex) {
+            if (ex.getTargetException() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(ex.getTargetException());
+        } catch (IllegalAccessException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getTargetName() {
+        return targetName;
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getCopied() {
+        return copied.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    public long getCompared() {
+        return compared.sum();
+    }
+
+    public long getMismatches() {
+        return mismatches.sum();
+    }
+
+    /**
+     * Time the oldest write of the last copied batch waited before reaching the target.
+     * @return lag in milliseconds
+     */
+    public double getLagMillis() {
+        return lagNanos / 1_000_000.0;
+    }
+
+    /**
+     * How a connection method is mirrored.
+     */
+    enum Kind {
+
+        /**
+         * Copied to the target.
+         */
+        WRITE,
+
+        /**
+         * Sampled for shadow reads.
+         */
+        READ,
+
+        /**
+         * Neither copied nor compared.
+         */
+        IGNORED
+    }
+
+    /**
+     * A connection method resolved to its data command interface method, callable on any connection.
+     * @param kind how it is mirrored
+     * @param method data command method
+     */
+    record Command(Kind kind, Method method) {
+    }
+
+    /**
+     * A write waiting to be copied.
+     * @param method data command method
+     * @param args command arguments
+     * @param queued when it was queued, in nanoseconds
+     */
+    record Write(Method method, Object[] args, long queued) {
+    }
+}
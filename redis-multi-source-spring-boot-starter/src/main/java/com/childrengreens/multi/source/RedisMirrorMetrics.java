@@ -0,0 +1,80 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Export {@link RedisMirror} statistics as Micrometer meters tagged with the source and target names.
+ * Only loaded when Micrometer is on the classpath.
+ *
+ * @author ChildrenGreens
+ */
+final class RedisMirrorMetrics {
+
+    private RedisMirrorMetrics() {
+    }
+
+    /**
+     * Bind the mirror meters of a source to every available {@link MeterRegistry}.
+     * @param beanFactory bean factory
+     * @param mirror mirror of the source
+     */
+    static void bindTo(BeanFactory beanFactory, RedisMirror mirror) {
+        ObjectProvider<@NonNull MeterRegistry> meterRegistries = beanFactory.getBeanProvider(MeterRegistry.class);
+        meterRegistries.orderedStream().forEach((registry) -> bindTo(registry, mirror));
+    }
+
+    static void bindTo(MeterRegistry registry, RedisMirror mirror) {
+        Tags tags = Tags.of("source", mirror.getName(), "target", mirror.getTargetName());
+        Gauge.builder("redis.mirror.queue.size", mirror, RedisMirror::getQueueSize)
+                .description("Writes waiting to be copied to the target")
+                .baseUnit("commands")
+                .tags(tags)
+                .register(registry);
+        Gauge.builder("redis.mirror.lag", mirror, RedisMirror::getLagMillis)
+                .description("Time the oldest write of the last copied batch waited before reaching the target")
+                .baseUnit("milliseconds")
+                .tags(tags)
+                .register(registry);
+        writes(registry, tags, mirror, "copied", RedisMirror::getCopied);
+        writes(registry, tags, mirror, "dropped", RedisMirror::getDropped);
+        writes(registry, tags, mirror, "failed", RedisMirror::getFailed);
+        FunctionCounter.builder("redis.mirror.shadow.reads", mirror, RedisMirror::getCompared)
+                .description("Reads repeated against the target and compared")
+                .tags(tags)
+                .register(registry);
+        FunctionCounter.builder("redis.mirror.shadow.mismatches", mirror, RedisMirror::getMismatches)
+                .description("Shadow reads whose result differed on the target")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static void writes(MeterRegistry registry, Tags tags, RedisMirror mirror, String result, ToDoubleFunction<RedisMirror> count) {
+        FunctionCounter.builder("redis.mirror.writes", mirror, count)
+                .description("Writes handed to the mirror, by outcome")
+                .tags(tags.and("result", result))
+                .register(registry);
+    }
+}
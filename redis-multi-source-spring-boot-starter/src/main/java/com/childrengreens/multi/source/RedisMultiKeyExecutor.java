@@ -0,0 +1,285 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.api.async.RedisAdvancedClusterAsyncCommands;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.ClusterTopology;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+
+/**
+ * Execute {@code MGET}, {@code MSET}, {@code DEL} and {@code UNLINK} for many keys on any source. On a Lettuce cluster
+ * source the keys are grouped by hash slot and node, one command per slot (of at most {@code batchSize} keys) is
+ * written to each node's connection without waiting for replies, all nodes are served concurrently and the results
+ * are reassembled in input order, instead of the per-key fallback used for cross-slot keys. Other sources run the
+ * native multi-key command.
+ *
+ * @param <K> the Redis key type
+ * @param <V> the Redis value type
+ * @author ChildrenGreens
+ */
+public class RedisMultiKeyExecutor<K, V> {
+
+    private final RedisOperations<K, V> operations;
+
+    private final int batchSize;
+
+    public RedisMultiKeyExecutor(RedisOperations<K, V> operations, int batchSize) {
+        Assert.notNull(operations, "RedisOperations must not be null");
+        Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+        this.operations = operations;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Get the values of all keys.
+     * @param keys keys
+     * @return values in key order, {@code null} for missing keys
+     */
+    public List<V> mget(Collection<? extends K> keys) {
+        if (keys.isEmpty()) {
+            return new ArrayList<>();
+        }
+        byte[][] rawKeys = rawKeys(keys);
+        List<byte[]> rawValues = operations.execute((RedisCallback<List<byte[]>>) (connection) -> {
+            RedisAdvancedClusterAsyncCommands<byte[], byte[]> cluster = getClusterCommands(connection);
+            if (cluster == null) {
+                return connection.stringCommands().mGet(rawKeys);
+            }
+            byte[][] results = new byte[rawKeys.length][];
+            executeBySlot((RedisClusterConnection) connection, cluster, rawKeys, (commands, batch) -> commands.mget(batch.keys()), (positions, keyValues) -> {
+                for (int i = 0; i < positions.length; i++) {
+                    results[positions[i]] = keyValues.get(i).getValueOrElse(null);
+                }
+            });
+            return Arrays.asList(results);
+        });
+
+        List<V> values = new ArrayList<>(rawKeys.length);
+        for (byte[] rawValue : Objects.requireNonNull(rawValues)) {
+            values.add(deserializeValue(rawValue));
+        }
+        return values;
+    }
+
+    /**
+     * Set all entries.
+     * @param entries values keyed by key
+     */
+    public void mset(Map<? extends K, ? extends V> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        byte[][] rawKeys = rawKeys(entries.keySet());
+        byte[][] rawValues = new byte[rawKeys.length][];
+        int index = 0;
+        for (V value : entries.values()) {
+            rawValues[index++] = serializeValue(value);
+        }
+        operations.execute((RedisCallback<Object>) (connection) -> {
+            RedisAdvancedClusterAsyncCommands<byte[], byte[]> cluster = getClusterCommands(connection);
+            if (cluster == null) {
+                Map<byte[], byte[]> tuples = new LinkedHashMap<>(rawKeys.length * 2);
+                for (int i = 0; i < rawKeys.length; i++) {
+                    tuples.put(rawKeys[i], rawValues[i]);
+                }
+                return connection.stringCommands().mSet(tuples);
+            }
+            executeBySlot((RedisClusterConnection) connection, cluster, rawKeys, (commands, batch) -> {
+                Map<byte[], byte[]> tuples = new LinkedHashMap<>(batch.keys().length * 2);
+                for (int i = 0; i < batch.keys().length; i++) {
+                    tuples.put(batch.keys()[i], rawValues[batch.positions()[i]]);
+                }
+                return commands.mset(tuples);
+            }, (positions, status) -> {
+            });
+            return null;
+        });
+    }
+
+    /**
+     * Delete all keys.
+     * @param keys keys
+     * @return number of keys deleted
+     */
+    public long del(Collection<? extends K> keys) {
+        return remove(keys, false);
+    }
+
+    /**
+     * Unlink all keys, reclaiming their memory in the background.
+     * @param keys keys
+     * @return number of keys unlinked
+     */
+    public long unlink(Collection<? extends K> keys) {
+        return remove(keys, true);
+    }
+
+    private long remove(Collection<? extends K> keys, boolean unlink) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        byte[][] rawKeys = rawKeys(keys);
+        Long removed = operations.execute((RedisCallback<Long>) (connection) -> {
+            RedisAdvancedClusterAsyncCommands<byte[], byte[]> cluster = getClusterCommands(connection);
+            if (cluster == null) {
+                return unlink ? connection.keyCommands().unlink(rawKeys) : connection.keyCommands().del(rawKeys);
+            }
+            AtomicLong count = new AtomicLong();
+            executeBySlot((RedisClusterConnection) connection, cluster, rawKeys, (commands, batch) -> unlink ? commands.unlink(batch.keys()) : commands.del(batch.keys()),
+                    (positions, result) -> count.addAndGet(result));
+            return count.get();
+        });
+        return removed != null ? removed : 0;
+    }
+
+    /**
+     * Group the keys by slot and node, write one command per batch to the node's connection and wait for all replies.
+     * @param connection cluster connection, providing the cached cluster topology
+     * @param cluster cluster commands
+     * @param rawKeys serialized keys
+     * @param command issues the command of one batch on its node
+     * @param consumer receives the input positions of a batch and its result
+     * @param <T> result type
+     */
+    <T> void executeBySlot(RedisClusterConnection connection, RedisAdvancedClusterAsyncCommands<byte[], byte[]> cluster,
+                           byte[][] rawKeys, BiFunction<RedisClusterAsyncCommands<byte[], byte[]>, Batch, RedisFuture<T>> command,
+                           BiConsumer<int[], T> consumer) {
+        Set<RedisClusterNode> nodes = new LinkedHashSet<>();
+        connection.clusterGetNodes().forEach(nodes::add);
+        Map<String, List<Batch>> batchesByNode = group(new ClusterTopology(nodes), rawKeys);
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        batchesByNode.forEach((nodeId, batches) -> {
+            RedisClusterAsyncCommands<byte[], byte[]> node = cluster.getConnection(nodeId);
+            for (Batch batch : batches) {
+                futures.add(command.apply(node, batch).toCompletableFuture()
+                        .thenAccept((result) -> consumer.accept(batch.positions(), result)));
+            }
+        });
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException ex) {
+            throw new RedisSystemException("Multi-key command failed: " + ex.getCause().getMessage(), ex.getCause());
+        }
+    }
+
+    /**
+     * Group serialized keys into batches of one hash slot and at most {@code batchSize} keys, keyed by the node id
+     * of the slot's master.
+     * @param topology cluster topology
+     * @param rawKeys serialized keys
+     * @return batches keyed by node id
+     */
+    Map<String, List<Batch>> group(ClusterTopology topology, byte[][] rawKeys) {
+        Map<Integer, List<Integer>> positionsBySlot = new LinkedHashMap<>();
+        for (int i = 0; i < rawKeys.length; i++) {
+            positionsBySlot.computeIfAbsent(SlotHash.getSlot(rawKeys[i]), (slot) -> new ArrayList<>()).add(i);
+        }
+
+        Map<String, List<Batch>> batchesByNode = new LinkedHashMap<>();
+        positionsBySlot.forEach((slot, positions) -> {
+            RedisClusterNode node = topology.getSlotServingNodes(slot).stream()
+                    .filter(RedisClusterNode::isMaster)
+                    .findFirst()
+                    .orElseThrow(() -> new RedisSystemException("No node serves slot " + slot, null));
+            List<Batch> batches = batchesByNode.computeIfAbsent(node.getId(), (nodeId) -> new ArrayList<>());
+            for (int from = 0; from < positions.size(); from += batchSize) {
+                int to = Math.min(from + batchSize, positions.size());
+                int[] batchPositions = new int[to - from];
+                byte[][] batchKeys = new byte[to - from][];
+                for (int i = from; i < to; i++) {
+                    batchPositions[i - from] = positions.get(i);
+                    batchKeys[i - from] = rawKeys[positions.get(i)];
+                }
+                batches.add(new Batch(batchPositions, batchKeys));
+            }
+        });
+        return batchesByNode;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisAdvancedClusterAsyncCommands<byte[], byte[]> getClusterCommands(RedisConnection connection) {
+        if (connection instanceof RedisClusterConnection
+                && connection.getNativeConnection() instanceof RedisAdvancedClusterAsyncCommands<?, ?> commands) {
+            return (RedisAdvancedClusterAsyncCommands<byte[], byte[]>) commands;
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[][] rawKeys(Collection<? extends K> keys) {
+        RedisSerializer<K> serializer = (RedisSerializer<K>) operations.getKeySerializer();
+        byte[][] rawKeys = new byte[keys.size()][];
+        int index = 0;
+        for (K key : keys) {
+            rawKeys[index++] = serializer != null ? serializer.serialize(key) : (byte[]) key;
+        }
+        return rawKeys;
+    }
+
+    @SuppressWarnings("unchecked")
+    private byte[] serializeValue(V value) {
+        RedisSerializer<V> serializer = (RedisSerializer<V>) operations.getValueSerializer();
+        return serializer != null ? serializer.serialize(value) : (byte[]) value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V deserializeValue(byte[] value) {
+        RedisSerializer<V> serializer = (RedisSerializer<V>) operations.getValueSerializer();
+        return serializer != null ? serializer.deserialize(value) : (V) value;
+    }
+
+    public RedisOperations<K, V> getOperations() {
+        return operations;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Keys of one slot sent in one command, with their positions in the input.
+     * @param positions input positions
+     * @param keys serialized keys
+     */
+    record Batch(int[] positions, byte[][] keys) {
+    }
+}
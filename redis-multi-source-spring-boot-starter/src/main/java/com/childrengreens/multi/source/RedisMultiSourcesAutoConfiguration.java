@@ -30,7 +30,9 @@ import org.springframework.context.annotation.Import;
 
 @AutoConfiguration(before = DataRedisAutoConfiguration.class)
 @ImportRuntimeHints(RedisMultiSourcesRuntimeHints.class)
-@Import({RedisConnectionMultiSourcesRegistrar.class, RedisTemplateRegistryPostProcessor.class})
+@Import({RedisConnectionMultiSourcesRegistrar.class, RedisListenerMultiSourcesRegistrar.class,
+        RedisTemplateRegistryPostProcessor.class, RedisListenerAnnotationBeanPostProcessor.class,
+        RedisStreamListenerAnnotationBeanPostProcessor.class})
 public class RedisMultiSourcesAutoConfiguration {
 
 }
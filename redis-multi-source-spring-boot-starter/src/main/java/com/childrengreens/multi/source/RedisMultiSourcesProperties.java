@@ -16,7 +16,12 @@
 package com.childrengreens.multi.source;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
-import org.springframework.boot.data.redis.autoconfigure.DataRedisProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Configuration properties for multi data source Redis.
@@ -24,7 +29,146 @@ import org.springframework.boot.data.redis.autoconfigure.DataRedisProperties;
  * @author ChildrenGreens
  */
 @ConfigurationProperties(prefix = "spring.multi-sources.redis")
-public class RedisMultiSourcesProperties extends MultiSourcesProperties<DataRedisProperties> {
+public class RedisMultiSourcesProperties extends MultiSourcesProperties<RedisSourceProperties> {
+
+    private final Routing routing = new Routing();
+
+    private final Lock lock = new Lock();
+
+    public Routing getRouting() {
+        return routing;
+    }
+
+    public Lock getLock() {
+        return lock;
+    }
+
+    /**
+     * Key-prefix routing properties of the PrefixRoutingRedisTemplate.
+     */
+    public static class Routing {
+
+        /**
+         * Whether to register a PrefixRoutingRedisTemplate routing keys to sources by prefix.
+         */
+        private boolean enabled;
+
+        /**
+         * Whether the routing template is the primary StringRedisTemplate.
+         */
+        private boolean primary;
+
+        /**
+         * Source of keys matching no route. Defaults to the primary source.
+         */
+        private String defaultSource;
+
+        /**
+         * Source names keyed by key prefix, optionally ending with '*'. The longest matching prefix wins.
+         */
+        private Map<String, String> routes = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isPrimary() {
+            return primary;
+        }
+
+        public void setPrimary(boolean primary) {
+            this.primary = primary;
+        }
+
+        public String getDefaultSource() {
+            return defaultSource;
+        }
+
+        public void setDefaultSource(String defaultSource) {
+            this.defaultSource = defaultSource;
+        }
+
+        public Map<String, String> getRoutes() {
+            return routes;
+        }
+
+        public void setRoutes(Map<String, String> routes) {
+            this.routes = routes;
+        }
+    }
+
+    /**
+     * Properties of the MultiSourceRedisLock.
+     */
+    public static class Lock {
+
+        /**
+         * Sources the lock is acquired on, an odd number of them. The lock is registered when set.
+         */
+        private List<String> sources = new ArrayList<>();
+
+        /**
+         * Fraction of the lock TTL subtracted from its validity to allow for clock drift between sources.
+         */
+        private double driftFactor = 0.01;
+
+        /**
+         * Time to wait for one source to answer, from when its command is issued, before counting it as failed.
+         */
+        private Duration timeout = Duration.ofMillis(50);
+
+        /**
+         * Mean delay between attempts when waiting for a lock.
+         */
+        private Duration retryDelay = Duration.ofMillis(50);
+
+        /**
+         * Maximum number of threads issuing lock commands to the sources.
+         */
+        private int poolSize = 16;
+
+        public List<String> getSources() {
+            return sources;
+        }
+
+        public void setSources(List<String> sources) {
+            this.sources = sources;
+        }
+
+        public double getDriftFactor() {
+            return driftFactor;
+        }
+
+        public void setDriftFactor(double driftFactor) {
+            this.driftFactor = driftFactor;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public Duration getRetryDelay() {
+            return retryDelay;
+        }
+
+        public void setRetryDelay(Duration retryDelay) {
+            this.retryDelay = retryDelay;
+        }
 
+        public int getPoolSize() {
+            return poolSize;
+        }
 
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+    }
 }
@@ -17,15 +17,22 @@ package com.childrengreens.multi.source;
 
 import io.lettuce.core.resource.ClientResources;
 import org.springframework.aot.hint.ExecutableMode;
+import org.springframework.aot.hint.MemberCategory;
 import org.springframework.aot.hint.RuntimeHints;
 import org.springframework.aot.hint.RuntimeHintsRegistrar;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.data.redis.autoconfigure.DataRedisConnectionDetails;
 import org.springframework.boot.data.redis.autoconfigure.DataRedisProperties;
 import org.springframework.boot.ssl.SslBundles;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
 
 import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 
 /**
@@ -42,6 +49,10 @@ public class RedisMultiSourcesRuntimeHints implements RuntimeHintsRegistrar {
         if (ClassUtils.isPresent(RedisDataClassNames.JEDIS_TYPE, classLoader) && ClassUtils.isPresent(RedisDataClassNames.JEDIS_CONNECTION_CONFIGURATION, classLoader)) {
             registerJedisConfiguration(hints, classLoader);
         }
+        registerConnectionProxies(hints);
+        if (ClassUtils.isPresent(RedisDataClassNames.COMMONS_POOL2_TYPE, classLoader)) {
+            registerPoolFields(hints, classLoader);
+        }
     }
 
     private void registerConnectionDetails(RuntimeHints hints, ClassLoader classLoader) {
@@ -84,6 +95,43 @@ public class RedisMultiSourcesRuntimeHints implements RuntimeHintsRegistrar {
         }
     }
 
+    /**
+     * JDK proxies created by {@link InstrumentedRedisConnectionFactory}, {@link HotKeyCachingRedisConnectionFactory},
+     * {@link MirroringRedisConnectionFactory} and {@link PrefixRoutingRedisConnectionFactory} for connections and their
+     * command interfaces, and the data commands {@link RedisMirror} replays on the target source.
+     */
+    private void registerConnectionProxies(RuntimeHints hints) {
+        for (Class<?> connectionType : new Class<?>[]{RedisConnection.class, RedisClusterConnection.class}) {
+            hints.proxies().registerJdkProxy(connectionType);
+            for (Method method : connectionType.getMethods()) {
+                Class<?> returnType = method.getReturnType();
+                if (method.getParameterCount() == 0 && returnType.isInterface() && returnType.getSimpleName().endsWith("Commands")) {
+                    hints.proxies().registerJdkProxy(returnType);
+                }
+            }
+        }
+        for (Class<?> commandsType : RedisMirror.DATA_COMMANDS) {
+            hints.reflection().registerType(commandsType, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+
+    private void registerPoolFields(RuntimeHints hints, ClassLoader classLoader) {
+        registerField(hints, LettuceConnectionFactory.class, "connectionProvider");
+        registerField(hints, resolveClass(RedisDataClassNames.LETTUCE_EXCEPTION_TRANSLATING_CONNECTION_PROVIDER, classLoader), "delegate");
+        registerField(hints, resolveClass(RedisDataClassNames.LETTUCE_POOLING_CONNECTION_PROVIDER, classLoader), "pools");
+        if (ClassUtils.isPresent(RedisDataClassNames.JEDIS_TYPE, classLoader)) {
+            registerField(hints, JedisConnectionFactory.class, "pool");
+        }
+    }
+
+    private void registerField(RuntimeHints hints, Class<?> type, String fieldName) {
+        Field field = ReflectionUtils.findField(type, fieldName);
+        if (field == null) {
+            throw new IllegalStateException("Failed to register Redis pool field hint: " + type.getName() + "." + fieldName);
+        }
+        hints.reflection().registerField(field);
+    }
+
     private Class<?> resolveClass(String className, ClassLoader classLoader) {
         try {
             return ClassUtils.forName(className, classLoader);
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.util.Assert;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Execute commands for many items through {@link RedisOperations#executePipelined(SessionCallback)},
+ * splitting them into pipelines of at most {@code batchSize} commands so the client buffers stay bounded.
+ * Works for both Lettuce and Jedis connection factories.
+ *
+ * @param <K> the Redis key type
+ * @param <V> the Redis value type
+ * @author ChildrenGreens
+ */
+public class RedisPipelineExecutor<K, V> {
+
+    private final RedisOperations<K, V> operations;
+
+    private final int batchSize;
+
+    public RedisPipelineExecutor(RedisOperations<K, V> operations, int batchSize) {
+        Assert.notNull(operations, "RedisOperations must not be null");
+        Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+        this.operations = operations;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Issue one command per item, flushing a pipeline every {@code batchSize} items.
+     * @param items items to process
+     * @param command callback issuing the command(s) for one item
+     * @param <T> item type
+     * @return the pipeline results of all batches, in submission order
+     */
+    public <T> List<Object> execute(Collection<? extends T> items, BiConsumer<RedisOperations<K, V>, ? super T> command) {
+        List<Object> results = new ArrayList<>(items.size());
+        Iterator<? extends T> iterator = items.iterator();
+        List<T> batch = new ArrayList<>(Math.min(batchSize, items.size()));
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == batchSize || !iterator.hasNext()) {
+                results.addAll(executeBatch(batch, command));
+                batch.clear();
+            }
+        }
+        return results;
+    }
+
+    private <T> List<Object> executeBatch(List<T> batch, BiConsumer<RedisOperations<K, V>, ? super T> command) {
+        return operations.executePipelined(new SessionCallback<>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <KK, VV> Object execute(@NonNull RedisOperations<KK, VV> session) throws DataAccessException {
+                RedisOperations<K, V> typed = (RedisOperations<K, V>) session;
+                for (T item : batch) {
+                    command.accept(typed, item);
+                }
+                return null;
+            }
+        });
+    }
+
+    public RedisOperations<K, V> getOperations() {
+        return operations;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+}
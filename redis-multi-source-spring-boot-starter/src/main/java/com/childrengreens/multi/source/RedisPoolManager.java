@@ -0,0 +1,272 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.springframework.boot.data.redis.autoconfigure.DataRedisProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Manage the commons-pool2 connection pools behind a Redis source's {@link RedisConnectionFactory}:
+ * pre-fill them to {@code min-idle} in parallel at startup and, optionally, grow and shrink their
+ * {@code max-active} based on borrow wait time and utilization.
+ *
+ * @author ChildrenGreens
+ */
+public class RedisPoolManager implements SmartLifecycle {
+
+    private static final Log logger = LogFactory.getLog(RedisPoolManager.class);
+
+    private final String name;
+
+    private final RedisConnectionFactory connectionFactory;
+
+    private final DataRedisProperties.Pool pool;
+
+    private final RedisSourceProperties.Pooling pooling;
+
+    private final boolean virtualThreads;
+
+    private volatile SimpleAsyncTaskScheduler scheduler;
+
+    private volatile boolean running;
+
+    public RedisPoolManager(String name, RedisConnectionFactory connectionFactory, DataRedisProperties.Pool pool,
+                            RedisSourceProperties.Pooling pooling, boolean virtualThreads) {
+        this.name = name;
+        this.connectionFactory = connectionFactory;
+        this.pool = pool;
+        this.pooling = pooling;
+        this.virtualThreads = virtualThreads;
+    }
+
+    @Override
+    public void start() {
+        if (pooling.isPrefill() && pool.getMinIdle() > 0) {
+            prefill(pool.getMinIdle());
+        }
+        RedisSourceProperties.Pooling.Adaptive adaptive = pooling.getAdaptive();
+        if (adaptive.isEnabled()) {
+            SimpleAsyncTaskScheduler taskScheduler = new SimpleAsyncTaskScheduler();
+            taskScheduler.setThreadNamePrefix("redis-pool-");
+            taskScheduler.setVirtualThreads(virtualThreads);
+            taskScheduler.scheduleWithFixedDelay(this::adjust, adaptive.getInterval());
+            this.scheduler = taskScheduler;
+        }
+        this.running = true;
+    }
+
+    @Override
+    public void stop() {
+        SimpleAsyncTaskScheduler taskScheduler = this.scheduler;
+        if (taskScheduler != null) {
+            taskScheduler.close();
+            this.scheduler = null;
+        }
+        this.running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Hold {@code count} pooled connections at the same time, then return them all so they stay idle in the pool.
+     * @param count number of connections to open
+     */
+    void prefill(int count) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("redis-pool-");
+        executor.setVirtualThreads(virtualThreads);
+
+        List<CompletableFuture<RedisConnection>> borrowed = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            borrowed.add(CompletableFuture.supplyAsync(this::borrow, executor));
+        }
+
+        int opened = 0;
+        for (CompletableFuture<RedisConnection> future : borrowed) {
+            try {
+                RedisConnection connection = future.join();
+                if (connection != null) {
+                    release(connection);
+                    opened++;
+                }
+            } catch (RuntimeException ex) {
+                logger.warn("source key: " + name + ", failed to pre-fill Redis connection pool: " + ex.getMessage());
+            }
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("source key: " + name + ", pre-filled Redis connection pool with " + opened + " connections");
+        }
+    }
+
+    private RedisConnection borrow() {
+        RedisConnection connection = connectionFactory.getConnection();
+        if (connection instanceof RedisClusterConnection) {
+            // cluster connections borrow per node on demand and do not support pipelining
+            connection.close();
+            return null;
+        }
+        // pipelining forces Lettuce to acquire a dedicated, pooled connection
+        connection.openPipeline();
+        return connection;
+    }
+
+    private void release(RedisConnection connection) {
+        try {
+            connection.closePipeline();
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * Grow or shrink {@code max-active} of every pool once.
+     */
+    void adjust() {
+        for (GenericObjectPool<?> objectPool : getPools()) {
+            adjust(objectPool);
+        }
+    }
+
+    /**
+     * Grow or shrink {@code max-active} of one pool.
+     * @param objectPool pool
+     */
+    void adjust(GenericObjectPool<?> objectPool) {
+        RedisSourceProperties.Pooling.Adaptive adaptive = pooling.getAdaptive();
+        int floor = pool.getMaxActive();
+        int ceiling = Math.max(adaptive.getMaxActive(), floor);
+
+        int maxTotal = objectPool.getMaxTotal();
+        if (maxTotal > 0) {
+            double utilization = (double) objectPool.getNumActive() / maxTotal;
+            boolean waiting = objectPool.getNumWaiters() > 0
+                    || objectPool.getMeanBorrowWaitDuration().compareTo(adaptive.getMaxBorrowWait()) > 0;
+
+            if (waiting && utilization >= adaptive.getHighUtilization() && maxTotal < ceiling) {
+                int grown = Math.min(maxTotal + adaptive.getStep(), ceiling);
+                if (objectPool.getMaxIdle() >= 0 && objectPool.getMaxIdle() < grown) {
+                    objectPool.setMaxIdle(grown);
+                }
+                objectPool.setMaxTotal(grown);
+                logger.info("source key: " + name + ", Redis pool max-active grown to " + grown);
+            } else if (!waiting && utilization < adaptive.getLowUtilization() && maxTotal > floor) {
+                int shrunk = Math.max(maxTotal - adaptive.getStep(), floor);
+                objectPool.setMaxTotal(shrunk);
+                if (objectPool.getMaxIdle() > shrunk) {
+                    objectPool.setMaxIdle(shrunk);
+                }
+                logger.info("source key: " + name + ", Redis pool max-active shrunk to " + shrunk);
+            }
+        }
+    }
+
+    /**
+     * Aggregate the statistics of every pool of the source.
+     * @return pool statistics
+     */
+    public PoolStatistics getStatistics() {
+        int active = 0;
+        int idle = 0;
+        int waiters = 0;
+        int maxActive = 0;
+        Duration meanBorrowWait = Duration.ZERO;
+        for (GenericObjectPool<?> objectPool : getPools()) {
+            active += objectPool.getNumActive();
+            idle += objectPool.getNumIdle();
+            waiters += objectPool.getNumWaiters();
+            maxActive += Math.max(objectPool.getMaxTotal(), 0);
+            Duration wait = objectPool.getMeanBorrowWaitDuration();
+            if (wait.compareTo(meanBorrowWait) > 0) {
+                meanBorrowWait = wait;
+            }
+        }
+        return new PoolStatistics(active, idle, waiters, maxActive, meanBorrowWait);
+    }
+
+    /**
+     * Resolve the commons-pool2 pools of the connection factory. Lettuce creates its pools lazily per connection type.
+     * @return pools
+     */
+    List<GenericObjectPool<?>> getPools() {
+        List<GenericObjectPool<?>> pools = new ArrayList<>();
+        RedisConnectionFactory target = connectionFactory instanceof InstrumentedRedisConnectionFactory instrumented
+                ? instrumented.getDelegate() : connectionFactory;
+        List<? extends RedisConnectionFactory> factories = target instanceof StripedLettuceConnectionFactory striped
+                ? striped.getStripes() : List.of(target);
+        for (RedisConnectionFactory factory : factories) {
+            if (factory instanceof LettuceConnectionFactory) {
+                Object provider = readField(factory, LettuceConnectionFactory.class, "connectionProvider");
+                if (provider != null && provider.getClass().getName().equals(RedisDataClassNames.LETTUCE_EXCEPTION_TRANSLATING_CONNECTION_PROVIDER)) {
+                    provider = readField(provider, provider.getClass(), "delegate");
+                }
+                if (provider != null && provider.getClass().getName().equals(RedisDataClassNames.LETTUCE_POOLING_CONNECTION_PROVIDER)
+                        && readField(provider, provider.getClass(), "pools") instanceof Map<?, ?> lettucePools) {
+                    lettucePools.values().forEach((objectPool) -> pools.add((GenericObjectPool<?>) objectPool));
+                }
+            } else if (ClassUtils.isPresent(RedisDataClassNames.JEDIS_TYPE, ClassUtils.getDefaultClassLoader())
+                    && factory instanceof JedisConnectionFactory
+                    && readField(factory, JedisConnectionFactory.class, "pool") instanceof GenericObjectPool<?> jedisPool) {
+                pools.add(jedisPool);
+            }
+        }
+        return pools;
+    }
+
+    private Object readField(Object target, Class<?> type, String fieldName) {
+        Field field = ReflectionUtils.findField(type, fieldName);
+        if (field == null) {
+            return null;
+        }
+        ReflectionUtils.makeAccessible(field);
+        return ReflectionUtils.getField(field, target);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Aggregated statistics of a source's connection pools.
+     * @param active connections currently borrowed
+     * @param idle connections idle in the pools
+     * @param waiters callers blocked waiting for a connection
+     * @param maxActive current max-active, summed over the pools
+     * @param meanBorrowWait highest mean borrow wait of the pools
+     */
+    public record PoolStatistics(int active, int idle, int waiters, int maxActive, Duration meanBorrowWait) {
+    }
+}
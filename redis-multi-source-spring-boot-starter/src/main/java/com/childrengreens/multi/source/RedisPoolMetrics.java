@@ -0,0 +1,69 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Export {@link RedisPoolManager} statistics as Micrometer gauges tagged with the source name.
+ * Only loaded when Micrometer is on the classpath.
+ *
+ * @author ChildrenGreens
+ */
+final class RedisPoolMetrics {
+
+    private RedisPoolMetrics() {
+    }
+
+    /**
+     * Bind the pool gauges of a source to every available {@link MeterRegistry}.
+     * @param beanFactory bean factory
+     * @param poolManager pool manager of the source
+     */
+    static void bindTo(BeanFactory beanFactory, RedisPoolManager poolManager) {
+        ObjectProvider<@NonNull MeterRegistry> meterRegistries = beanFactory.getBeanProvider(MeterRegistry.class);
+        meterRegistries.orderedStream().forEach((registry) -> bindTo(registry, poolManager));
+    }
+
+    static void bindTo(MeterRegistry registry, RedisPoolManager poolManager) {
+        Tags tags = Tags.of("source", poolManager.getName());
+        gauge(registry, "redis.pool.active", "Connections currently borrowed", tags, poolManager, (manager) -> manager.getStatistics().active());
+        gauge(registry, "redis.pool.idle", "Connections idle in the pool", tags, poolManager, (manager) -> manager.getStatistics().idle());
+        gauge(registry, "redis.pool.waiters", "Callers waiting for a connection", tags, poolManager, (manager) -> manager.getStatistics().waiters());
+        gauge(registry, "redis.pool.max.active", "Current maximum number of connections", tags, poolManager, (manager) -> manager.getStatistics().maxActive());
+        Gauge.builder("redis.pool.borrow.wait.mean", poolManager, (manager) -> manager.getStatistics().meanBorrowWait().toNanos() / 1_000_000_000.0)
+                .description("Mean time spent waiting to borrow a connection")
+                .baseUnit("seconds")
+                .tags(tags)
+                .register(registry);
+    }
+
+    private static void gauge(MeterRegistry registry, String name, String description, Tags tags,
+                              RedisPoolManager poolManager, ToDoubleFunction<RedisPoolManager> value) {
+        Gauge.builder(name, poolManager, value)
+                .description(description)
+                .baseUnit("connections")
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Registry of the Lua scripts available on a Redis source. At startup it loads every script with {@code SCRIPT LOAD},
+ * in one pipeline (or on every node of a cluster), asynchronously so sources are loaded in parallel. Scripts are then
+ * executed by SHA with {@code EVALSHA}, falling back to {@code EVAL}, which caches the script again, on {@code NOSCRIPT}.
+ *
+ * @author ChildrenGreens
+ */
+public class RedisScriptRegistry implements SmartLifecycle {
+
+    private static final Log logger = LogFactory.getLog(RedisScriptRegistry.class);
+
+    private final String name;
+
+    private final RedisOperations<String, String> operations;
+
+    private final Map<String, String> scripts;
+
+    private final boolean preload;
+
+    private final Executor executor;
+
+    private final Map<String, Map<Class<?>, RedisScript<?>>> typedScripts = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    /**
+     * Create a registry.
+     * @param name source name
+     * @param operations operations of the source
+     * @param scripts script bodies keyed by script name
+     * @param preload whether to load the scripts on start
+     * @param executor executor running the preload
+     */
+    public RedisScriptRegistry(String name, RedisOperations<String, String> operations, Map<String, String> scripts,
+                               boolean preload, Executor executor) {
+        Assert.notNull(operations, "RedisOperations must not be null");
+        Assert.notNull(scripts, "Scripts must not be null");
+        this.name = name;
+        this.operations = operations;
+        this.scripts = Collections.unmodifiableMap(new LinkedHashMap<>(scripts));
+        this.preload = preload;
+        this.executor = executor;
+    }
+
+    /**
+     * Execute a registered script.
+     * @param scriptName script name
+     * @param resultType script result type, {@code null} for status replies
+     * @param keys keys passed as {@code KEYS}
+     * @param args arguments passed as {@code ARGV}
+     * @param <T> result type
+     * @return script result
+     */
+    public <T> T execute(String scriptName, Class<T> resultType, List<String> keys, Object... args) {
+        return operations.execute(getScript(scriptName, resultType), keys, args);
+    }
+
+    /**
+     * Get a registered script, to execute it with another template of the source.
+     * @param scriptName script name
+     * @param resultType script result type
+     * @param <T> result type
+     * @return script
+     */
+    @SuppressWarnings("unchecked")
+    public <T> RedisScript<T> getScript(String scriptName, Class<T> resultType) {
+        Map<Class<?>, RedisScript<?>> byType = typedScripts.get(scriptName);
+        if (byType == null) {
+            String body = scripts.get(scriptName);
+            if (body == null) {
+                throw new IllegalArgumentException("source key: " + name + ", Redis script not found: " + scriptName);
+            }
+            byType = typedScripts.computeIfAbsent(scriptName, (key) -> new ConcurrentHashMap<>());
+        }
+        Class<?> type = (resultType != null) ? resultType : Void.class;
+        RedisScript<?> script = byType.get(type);
+        if (script == null) {
+            script = byType.computeIfAbsent(type, (key) -> (resultType != null)
+                    ? RedisScript.of(scripts.get(scriptName), resultType) : RedisScript.of(scripts.get(scriptName)));
+        }
+        return (RedisScript<T>) script;
+    }
+
+    public Set<String> getScriptNames() {
+        return scripts.keySet();
+    }
+
+    /**
+     * Load every script into the script cache of the source.
+     */
+    void load() {
+        if (scripts.isEmpty()) {
+            return;
+        }
+        List<byte[]> bodies = scripts.values().stream().map((body) -> body.getBytes(StandardCharsets.UTF_8)).toList();
+        operations.execute((RedisCallback<Object>) (RedisConnection connection) -> {
+            if (connection instanceof RedisClusterConnection) {
+                // cluster connections load scripts on every node and do not pipeline
+                bodies.forEach((body) -> connection.scriptingCommands().scriptLoad(body));
+            } else {
+                connection.openPipeline();
+                try {
+                    bodies.forEach((body) -> connection.scriptingCommands().scriptLoad(body));
+                } finally {
+                    connection.closePipeline();
+                }
+            }
+            return null;
+        });
+        if (logger.isDebugEnabled()) {
+            logger.debug("source key: " + name + ", loaded " + bodies.size() + " Redis scripts");
+        }
+    }
+
+    @Override
+    public void start() {
+        if (preload && !scripts.isEmpty()) {
+            CompletableFuture.runAsync(this::load, executor).exceptionally((ex) -> {
+                logger.warn("source key: " + name + ", failed to preload Redis scripts, they are loaded on first use: " + ex.getMessage());
+                return null;
+            });
+        }
+        this.running = true;
+    }
+
+    @Override
+    public void stop() {
+        this.running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,454 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RestoreArgs;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.cluster.api.async.RedisAdvancedClusterAsyncCommands;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.util.Assert;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copy the keys matching a pattern from one Lettuce Redis source to another. Keys are scanned with {@code SCAN} in
+ * batches of {@code batchSize}; the {@code DUMP} and {@code PTTL} of a batch are written to the source without
+ * waiting for replies while the {@code RESTORE} of the previous batch is still running on the target, so both sides
+ * stay busy. A cluster source is scanned node by node. The progress is saved to a {@link CheckpointStore} after each
+ * restored batch and once a node is complete, so an interrupted migration resumes where it stopped.
+ *
+ * @author ChildrenGreens
+ */
+public class RedisSourceMigrator {
+
+    private static final Log logger = LogFactory.getLog(RedisSourceMigrator.class);
+
+    private final RedisConnectionFactory source;
+
+    private final RedisConnectionFactory target;
+
+    private int batchSize = 500;
+
+    private int rateLimit;
+
+    private boolean replace;
+
+    private CheckpointStore checkpointStore = CheckpointStore.inMemory();
+
+    public RedisSourceMigrator(RedisConnectionFactory source, RedisConnectionFactory target) {
+        Assert.notNull(source, "Source RedisConnectionFactory must not be null");
+        Assert.notNull(target, "Target RedisConnectionFactory must not be null");
+        this.source = source;
+        this.target = target;
+    }
+
+    /**
+     * Migrate the keys matching a pattern, using the pattern as migration id.
+     * @param pattern SCAN MATCH pattern
+     * @return result
+     */
+    public Result migrate(String pattern) {
+        return migrate(pattern, pattern);
+    }
+
+    /**
+     * Migrate the keys matching a pattern, resuming from the checkpoint of the migration id if there is one.
+     * The checkpoint is removed once every key has been copied.
+     * @param migrationId migration id
+     * @param pattern SCAN MATCH pattern
+     * @return result
+     */
+    public Result migrate(String migrationId, String pattern) {
+        Checkpoint checkpoint = checkpointStore.load(migrationId);
+        Progress progress = new Progress(migrationId, checkpoint);
+
+        try (RedisConnection sourceConnection = source.getConnection();
+             RedisConnection targetConnection = target.getConnection()) {
+            RedisClusterAsyncCommands<byte[], byte[]> targetCommands = getCommands(targetConnection, "target");
+            ScanArgs scanArgs = ScanArgs.Builder.matches(pattern.getBytes(StandardCharsets.UTF_8)).limit(batchSize);
+
+            for (Map.Entry<String, RedisClusterAsyncCommands<byte[], byte[]>> node : getNodes(sourceConnection).entrySet()) {
+                String nodeId = node.getKey();
+                if (checkpoint != null && (nodeId.compareTo(checkpoint.node()) < 0
+                        || (nodeId.equals(checkpoint.node()) && checkpoint.isNodeCompleted()))) {
+                    continue;
+                }
+                String cursor = (checkpoint != null && nodeId.equals(checkpoint.node())) ? checkpoint.cursor() : ScanCursor.INITIAL.getCursor();
+                if (!migrateNode(nodeId, cursor, node.getValue(), targetCommands, scanArgs, progress)) {
+                    return progress.result(false);
+                }
+            }
+        }
+
+        checkpointStore.remove(migrationId);
+        if (logger.isDebugEnabled()) {
+            logger.debug("migration " + migrationId + " completed, " + progress.migrated.get() + " keys migrated");
+        }
+        return progress.result(true);
+    }
+
+    /**
+     * Migrate the keys of one source node.
+     * @return whether the node was scanned to the end
+     */
+    private boolean migrateNode(String nodeId, String cursor, RedisClusterAsyncCommands<byte[], byte[]> sourceCommands,
+                                RedisClusterAsyncCommands<byte[], byte[]> targetCommands, ScanArgs scanArgs, Progress progress) {
+        RateLimiter rateLimiter = new RateLimiter(rateLimit);
+        CompletableFuture<Void> restoring = CompletableFuture.completedFuture(null);
+        Checkpoint restoredCheckpoint = null;
+
+        KeyScanCursor<byte[]> scan;
+        do {
+            scan = await(sourceCommands.scan(ScanCursor.of(cursor), scanArgs));
+            List<byte[]> keys = scan.getKeys();
+            if (!rateLimiter.acquire(keys.size())) {
+                await(restoring);
+                save(progress, restoredCheckpoint);
+                return false;
+            }
+
+            // dump this batch on the source while the previous batch restores on the target
+            List<RedisFuture<byte[]>> dumps = new ArrayList<>(keys.size());
+            List<RedisFuture<Long>> ttls = new ArrayList<>(keys.size());
+            for (byte[] key : keys) {
+                dumps.add(sourceCommands.dump(key));
+                ttls.add(sourceCommands.pttl(key));
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                await(dumps.get(i));
+                await(ttls.get(i));
+            }
+
+            await(restoring);
+            save(progress, restoredCheckpoint);
+
+            restoring = restore(keys, dumps, ttls, targetCommands, progress);
+            cursor = scan.getCursor();
+            restoredCheckpoint = new Checkpoint(nodeId, cursor, 0, 0);
+        } while (!scan.isFinished());
+
+        // mark the node complete, so a resumed migration does not restore its last batch again
+        await(restoring);
+        save(progress, restoredCheckpoint);
+        return true;
+    }
+
+    private CompletableFuture<Void> restore(List<byte[]> keys, List<RedisFuture<byte[]>> dumps, List<RedisFuture<Long>> ttls,
+                                            RedisClusterAsyncCommands<byte[], byte[]> targetCommands, Progress progress) {
+        List<CompletableFuture<?>> restores = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] value = dumps.get(i).toCompletableFuture().join();
+            long ttl = ttls.get(i).toCompletableFuture().join();
+            if (value == null || ttl == -2) {
+                // expired or deleted since the scan
+                progress.skipped.incrementAndGet();
+                continue;
+            }
+            RestoreArgs args = RestoreArgs.Builder.ttl(Math.max(ttl, 0)).replace(replace);
+            restores.add(targetCommands.restore(keys.get(i), value, args).toCompletableFuture().handle((status, ex) -> {
+                if (ex == null) {
+                    progress.migrated.incrementAndGet();
+                } else if (isBusyKey(ex)) {
+                    progress.skipped.incrementAndGet();
+                } else {
+                    throw (ex instanceof CompletionException completionException) ? completionException : new CompletionException(ex);
+                }
+                return status;
+            }));
+        }
+        return CompletableFuture.allOf(restores.toArray(new CompletableFuture[0]));
+    }
+
+    private boolean isBusyKey(Throwable ex) {
+        Throwable cause = (ex instanceof CompletionException && ex.getCause() != null) ? ex.getCause() : ex;
+        return cause.getMessage() != null && cause.getMessage().startsWith("BUSYKEY");
+    }
+
+    private void save(Progress progress, Checkpoint checkpoint) {
+        if (checkpoint != null) {
+            checkpointStore.save(progress.migrationId,
+                    new Checkpoint(checkpoint.node(), checkpoint.cursor(), progress.migrated.get(), progress.skipped.get()));
+        }
+    }
+
+    /**
+     * Resolve the commands of each node to scan, ordered by node id. A non-cluster source is a single node with an empty id.
+     * @param connection source connection
+     * @return commands keyed by node id
+     */
+    private Map<String, RedisClusterAsyncCommands<byte[], byte[]>> getNodes(RedisConnection connection) {
+        RedisClusterAsyncCommands<byte[], byte[]> commands = getCommands(connection, "source");
+        Map<String, RedisClusterAsyncCommands<byte[], byte[]>> nodes = new LinkedHashMap<>();
+        if (connection instanceof RedisClusterConnection clusterConnection
+                && commands instanceof RedisAdvancedClusterAsyncCommands<byte[], byte[]> cluster) {
+            List<RedisClusterNode> masters = new ArrayList<>();
+            clusterConnection.clusterGetNodes().forEach((node) -> {
+                if (node.isMaster()) {
+                    masters.add(node);
+                }
+            });
+            masters.sort(Comparator.comparing(RedisClusterNode::getId));
+            masters.forEach((node) -> nodes.put(node.getId(), cluster.getConnection(node.getId())));
+        } else {
+            nodes.put("", commands);
+        }
+        return nodes;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisClusterAsyncCommands<byte[], byte[]> getCommands(RedisConnection connection, String side) {
+        if (connection.getNativeConnection() instanceof RedisClusterAsyncCommands<?, ?> commands) {
+            return (RedisClusterAsyncCommands<byte[], byte[]>) commands;
+        }
+        throw new IllegalStateException("Migration requires a Lettuce " + side + " connection");
+    }
+
+    private <T> T await(RedisFuture<T> future) {
+        return await(future.toCompletableFuture());
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            throw new RedisSystemException("Migration failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Set the number of keys scanned and copied per batch.
+     * @param batchSize batch size
+     */
+    public void setBatchSize(int batchSize) {
+        Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+        this.batchSize = batchSize;
+    }
+
+    public int getRateLimit() {
+        return rateLimit;
+    }
+
+    /**
+     * Set the maximum number of keys copied per second; each key costs one DUMP, PTTL and RESTORE. 0 means unlimited.
+     * @param rateLimit keys per second
+     */
+    public void setRateLimit(int rateLimit) {
+        Assert.isTrue(rateLimit >= 0, "Rate limit must not be negative");
+        this.rateLimit = rateLimit;
+    }
+
+    public boolean isReplace() {
+        return replace;
+    }
+
+    /**
+     * Set whether existing target keys are replaced. Otherwise they are left untouched and counted as skipped.
+     * @param replace replace
+     */
+    public void setReplace(boolean replace) {
+        this.replace = replace;
+    }
+
+    public CheckpointStore getCheckpointStore() {
+        return checkpointStore;
+    }
+
+    public void setCheckpointStore(CheckpointStore checkpointStore) {
+        Assert.notNull(checkpointStore, "CheckpointStore must not be null");
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * Progress of a migration: the last restored SCAN cursor of a source node.
+     * @param node source node id, empty for a non-cluster source
+     * @param cursor SCAN cursor to continue from, {@code 0} once every key of the node has been restored
+     * @param migrated keys migrated so far
+     * @param skipped keys skipped so far
+     */
+    public record Checkpoint(String node, String cursor, long migrated, long skipped) {
+
+        /**
+         * Whether every key of the node has been restored.
+         * @return bool
+         */
+        public boolean isNodeCompleted() {
+            return ScanCursor.FINISHED.getCursor().equals(cursor);
+        }
+    }
+
+    /**
+     * Result of a migration.
+     * @param migrated keys migrated, including those of resumed runs
+     * @param skipped keys skipped because they vanished or already existed on the target
+     * @param completed whether every key was scanned, false when the run was interrupted
+     */
+    public record Result(long migrated, long skipped, boolean completed) {
+    }
+
+    /**
+     * Store of migration checkpoints.
+     */
+    public interface CheckpointStore {
+
+        Checkpoint load(String migrationId);
+
+        void save(String migrationId, Checkpoint checkpoint);
+
+        void remove(String migrationId);
+
+        /**
+         * Keep checkpoints in memory, to resume within the same JVM.
+         * @return checkpoint store
+         */
+        static CheckpointStore inMemory() {
+            Map<String, Checkpoint> checkpoints = new ConcurrentHashMap<>();
+            return new CheckpointStore() {
+                @Override
+                public Checkpoint load(String migrationId) {
+                    return checkpoints.get(migrationId);
+                }
+
+                @Override
+                public void save(String migrationId, Checkpoint checkpoint) {
+                    checkpoints.put(migrationId, checkpoint);
+                }
+
+                @Override
+                public void remove(String migrationId) {
+                    checkpoints.remove(migrationId);
+                }
+            };
+        }
+
+        /**
+         * Keep checkpoints in a Redis hash named {@code keyPrefix + migrationId}, to resume after a restart.
+         * @param operations operations of the source holding the checkpoints
+         * @param keyPrefix key prefix
+         * @return checkpoint store
+         */
+        static CheckpointStore redis(RedisOperations<String, String> operations, String keyPrefix) {
+            return new CheckpointStore() {
+                @Override
+                public Checkpoint load(String migrationId) {
+                    Map<String, String> fields = operations.<String, String>opsForHash().entries(keyPrefix + migrationId);
+                    if (fields.isEmpty()) {
+                        return null;
+                    }
+                    return new Checkpoint(fields.get("node"), fields.get("cursor"),
+                            Long.parseLong(fields.get("migrated")), Long.parseLong(fields.get("skipped")));
+                }
+
+                @Override
+                public void save(String migrationId, Checkpoint checkpoint) {
+                    Map<String, String> fields = new HashMap<>();
+                    fields.put("node", checkpoint.node());
+                    fields.put("cursor", checkpoint.cursor());
+                    fields.put("migrated", String.valueOf(checkpoint.migrated()));
+                    fields.put("skipped", String.valueOf(checkpoint.skipped()));
+                    operations.<String, String>opsForHash().putAll(keyPrefix + migrationId, fields);
+                }
+
+                @Override
+                public void remove(String migrationId) {
+                    operations.delete(keyPrefix + migrationId);
+                }
+            };
+        }
+    }
+
+    /**
+     * Counters of a running migration.
+     */
+    private static final class Progress {
+
+        private final String migrationId;
+
+        private final AtomicLong migrated;
+
+        private final AtomicLong skipped;
+
+        private Progress(String migrationId, Checkpoint checkpoint) {
+            this.migrationId = migrationId;
+            this.migrated = new AtomicLong(checkpoint != null ? checkpoint.migrated() : 0);
+            this.skipped = new AtomicLong(checkpoint != null ? checkpoint.skipped() : 0);
+        }
+
+        private Result result(boolean completed) {
+            return new Result(migrated.get(), skipped.get(), completed);
+        }
+    }
+
+    /**
+     * Spaces batches so that no more than {@code permitsPerSecond} keys start per second.
+     */
+    private static final class RateLimiter {
+
+        private final long nanosPerPermit;
+
+        private long next = System.nanoTime();
+
+        private RateLimiter(int permitsPerSecond) {
+            this.nanosPerPermit = permitsPerSecond > 0 ? TimeUnit.SECONDS.toNanos(1) / permitsPerSecond : 0;
+        }
+
+        /**
+         * Wait until {@code permits} keys may start.
+         * @return false when the thread was interrupted
+         */
+        private boolean acquire(int permits) {
+            if (nanosPerPermit == 0 || permits == 0) {
+                return !Thread.currentThread().isInterrupted();
+            }
+            long now = System.nanoTime();
+            long wait = Math.max(next - now, 0);
+            next = Math.max(next, now) + permits * nanosPerPermit;
+            try {
+                TimeUnit.NANOSECONDS.sleep(wait);
+                return true;
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+}
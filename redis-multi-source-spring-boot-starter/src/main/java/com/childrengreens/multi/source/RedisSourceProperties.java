@@ -0,0 +1,727 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.springframework.boot.data.redis.autoconfigure.DataRedisProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Configuration properties for a single Redis source, extending {@link DataRedisProperties} with multi-source options.
+ *
+ * @author ChildrenGreens
+ */
+public class RedisSourceProperties extends DataRedisProperties {
+
+    /**
+     * Number of native Lettuce connections the source stripes commands across. Ignored for Jedis.
+     */
+    private int connections = 1;
+
+    private final Pipelining pipelining = new Pipelining();
+
+    private final Pooling pooling = new Pooling();
+
+    private final Listener listener = new Listener();
+
+    private final Streams streams = new Streams();
+
+    private final Metrics metrics = new Metrics();
+
+    private final Compression compression = new Compression();
+
+    private final Scripts scripts = new Scripts();
+
+    private final HotKeys hotKeys = new HotKeys();
+
+    private final Mirror mirror = new Mirror();
+
+    public int getConnections() {
+        return connections;
+    }
+
+    public void setConnections(int connections) {
+        this.connections = connections;
+    }
+
+    public Pipelining getPipelining() {
+        return pipelining;
+    }
+
+    public Pooling getPooling() {
+        return pooling;
+    }
+
+    public Listener getListener() {
+        return listener;
+    }
+
+    public Streams getStreams() {
+        return streams;
+    }
+
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public Scripts getScripts() {
+        return scripts;
+    }
+
+    public HotKeys getHotKeys() {
+        return hotKeys;
+    }
+
+    public Mirror getMirror() {
+        return mirror;
+    }
+
+    /**
+     * Pipelining properties.
+     */
+    public static class Pipelining {
+
+        /**
+         * Flush policy applied to pipelined executions on Lettuce connections.
+         */
+        private FlushPolicy flushPolicy = FlushPolicy.FLUSH_EACH_COMMAND;
+
+        /**
+         * Number of commands buffered before flushing when the flush policy is 'buffered'.
+         */
+        private int bufferSize = 128;
+
+        /**
+         * Maximum number of commands sent in one pipeline by the source's RedisPipelineExecutor.
+         */
+        private int batchSize = 1000;
+
+        public FlushPolicy getFlushPolicy() {
+            return flushPolicy;
+        }
+
+        public void setFlushPolicy(FlushPolicy flushPolicy) {
+            this.flushPolicy = flushPolicy;
+        }
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+    }
+
+    /**
+     * Connection pool management properties, applied when the Lettuce or Jedis pool is enabled.
+     */
+    public static class Pooling {
+
+        /**
+         * Whether to open 'min-idle' pooled connections in parallel at startup.
+         */
+        private boolean prefill = true;
+
+        private final Adaptive adaptive = new Adaptive();
+
+        public boolean isPrefill() {
+            return prefill;
+        }
+
+        public void setPrefill(boolean prefill) {
+            this.prefill = prefill;
+        }
+
+        public Adaptive getAdaptive() {
+            return adaptive;
+        }
+
+        /**
+         * Adaptive pool sizing properties. The configured 'max-active' is the lower bound.
+         */
+        public static class Adaptive {
+
+            /**
+             * Whether to grow and shrink the pool's max-active at runtime.
+             */
+            private boolean enabled;
+
+            /**
+             * Upper bound for max-active.
+             */
+            private int maxActive = 64;
+
+            /**
+             * Number of connections max-active changes by per adjustment.
+             */
+            private int step = 2;
+
+            /**
+             * Interval between adjustments.
+             */
+            private Duration interval = Duration.ofSeconds(10);
+
+            /**
+             * Mean borrow wait above which the pool may grow.
+             */
+            private Duration maxBorrowWait = Duration.ofMillis(5);
+
+            /**
+             * Active/max-active ratio above which the pool may grow.
+             */
+            private double highUtilization = 0.8;
+
+            /**
+             * Active/max-active ratio below which the pool shrinks.
+             */
+            private double lowUtilization = 0.3;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxActive() {
+                return maxActive;
+            }
+
+            public void setMaxActive(int maxActive) {
+                this.maxActive = maxActive;
+            }
+
+            public int getStep() {
+                return step;
+            }
+
+            public void setStep(int step) {
+                this.step = step;
+            }
+
+            public Duration getInterval() {
+                return interval;
+            }
+
+            public void setInterval(Duration interval) {
+                this.interval = interval;
+            }
+
+            public Duration getMaxBorrowWait() {
+                return maxBorrowWait;
+            }
+
+            public void setMaxBorrowWait(Duration maxBorrowWait) {
+                this.maxBorrowWait = maxBorrowWait;
+            }
+
+            public double getHighUtilization() {
+                return highUtilization;
+            }
+
+            public void setHighUtilization(double highUtilization) {
+                this.highUtilization = highUtilization;
+            }
+
+            public double getLowUtilization() {
+                return lowUtilization;
+            }
+
+            public void setLowUtilization(double lowUtilization) {
+                this.lowUtilization = lowUtilization;
+            }
+        }
+    }
+
+    /**
+     * Pub/sub listener container properties.
+     */
+    public static class Listener {
+
+        /**
+         * Whether to register a RedisMessageListenerContainer for the source.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Whether to start the container automatically.
+         */
+        private boolean autoStartup = true;
+
+        /**
+         * Subscriptions keyed by the bean name of the MessageListener to subscribe.
+         */
+        private Map<String, Subscription> subscriptions = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isAutoStartup() {
+            return autoStartup;
+        }
+
+        public void setAutoStartup(boolean autoStartup) {
+            this.autoStartup = autoStartup;
+        }
+
+        public Map<String, Subscription> getSubscriptions() {
+            return subscriptions;
+        }
+
+        public void setSubscriptions(Map<String, Subscription> subscriptions) {
+            this.subscriptions = subscriptions;
+        }
+
+        /**
+         * Channels and patterns a MessageListener subscribes to.
+         */
+        public static class Subscription {
+
+            /**
+             * Channels to subscribe to.
+             */
+            private List<String> channels = new ArrayList<>();
+
+            /**
+             * Channel patterns to subscribe to.
+             */
+            private List<String> patterns = new ArrayList<>();
+
+            public List<String> getChannels() {
+                return channels;
+            }
+
+            public void setChannels(List<String> channels) {
+                this.channels = channels;
+            }
+
+            public List<String> getPatterns() {
+                return patterns;
+            }
+
+            public void setPatterns(List<String> patterns) {
+                this.patterns = patterns;
+            }
+        }
+    }
+
+    /**
+     * Redis Streams consumer properties.
+     */
+    public static class Streams {
+
+        /**
+         * Whether to register a StreamMessageListenerContainer for the source.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Whether to start the container automatically.
+         */
+        private boolean autoStartup = true;
+
+        /**
+         * Maximum number of records read by one XREADGROUP.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Block timeout of XREADGROUP.
+         */
+        private Duration pollTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Number of processed records acknowledged together.
+         */
+        private int ackBatchSize = 100;
+
+        /**
+         * Maximum time a processed record waits for its acknowledgement.
+         */
+        private Duration ackInterval = Duration.ofMillis(100);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isAutoStartup() {
+            return autoStartup;
+        }
+
+        public void setAutoStartup(boolean autoStartup) {
+            this.autoStartup = autoStartup;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollTimeout() {
+            return pollTimeout;
+        }
+
+        public void setPollTimeout(Duration pollTimeout) {
+            this.pollTimeout = pollTimeout;
+        }
+
+        public int getAckBatchSize() {
+            return ackBatchSize;
+        }
+
+        public void setAckBatchSize(int ackBatchSize) {
+            this.ackBatchSize = ackBatchSize;
+        }
+
+        public Duration getAckInterval() {
+            return ackInterval;
+        }
+
+        public void setAckInterval(Duration ackInterval) {
+            this.ackInterval = ackInterval;
+        }
+    }
+
+    /**
+     * Command metrics properties, applied when Micrometer is present.
+     */
+    public static class Metrics {
+
+        /**
+         * Whether to record per-command latency of the source.
+         */
+        private boolean enabled;
+
+        /**
+         * Whether to publish a percentile histogram for the command latency timers.
+         */
+        private boolean histogram = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isHistogram() {
+            return histogram;
+        }
+
+        public void setHistogram(boolean histogram) {
+            this.histogram = histogram;
+        }
+    }
+
+    /**
+     * Value compression properties of the source's RedisTemplate and StringRedisTemplate.
+     */
+    public static class Compression {
+
+        /**
+         * Whether to compress values and hash values.
+         */
+        private boolean enabled;
+
+        /**
+         * Minimum serialized size of a value to compress it.
+         */
+        private DataSize threshold = DataSize.ofKilobytes(1);
+
+        /**
+         * DEFLATE compression level, from 1 (fastest) to 9 (smallest).
+         */
+        private int level = 1;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(DataSize threshold) {
+            this.threshold = threshold;
+        }
+
+        public int getLevel() {
+            return level;
+        }
+
+        public void setLevel(int level) {
+            this.level = level;
+        }
+    }
+
+    /**
+     * Lua script registry properties.
+     */
+    public static class Scripts {
+
+        /**
+         * Whether to register a RedisScriptRegistry for the source.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Locations of Lua scripts, named after their file name without extension.
+         */
+        private List<String> locations = new ArrayList<>(List.of("classpath*:redis/scripts/*.lua"));
+
+        /**
+         * Whether to load every script with SCRIPT LOAD at startup.
+         */
+        private boolean preload = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<String> getLocations() {
+            return locations;
+        }
+
+        public void setLocations(List<String> locations) {
+            this.locations = locations;
+        }
+
+        public boolean isPreload() {
+            return preload;
+        }
+
+        public void setPreload(boolean preload) {
+            this.preload = preload;
+        }
+    }
+
+    /**
+     * Hot-key detection and local caching properties of the source's RedisTemplate and StringRedisTemplate.
+     */
+    public static class HotKeys {
+
+        /**
+         * Whether to detect hot keys and cache their GET results locally.
+         */
+        private boolean enabled;
+
+        /**
+         * Fraction of reads counted by the detector.
+         */
+        private double sampleRate = 0.1;
+
+        /**
+         * Sliding window reads are counted over.
+         */
+        private Duration window = Duration.ofSeconds(10);
+
+        /**
+         * Estimated reads per window above which a key is hot.
+         */
+        private long threshold = 10_000;
+
+        /**
+         * Time a hot key's value is served from the local cache.
+         */
+        private Duration cacheTtl = Duration.ofMillis(500);
+
+        /**
+         * Maximum number of values in the local cache.
+         */
+        private int cacheSize = 1000;
+
+        /**
+         * Maximum number of hot keys reported.
+         */
+        private int topK = 16;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public long getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(long threshold) {
+            this.threshold = threshold;
+        }
+
+        public Duration getCacheTtl() {
+            return cacheTtl;
+        }
+
+        public void setCacheTtl(Duration cacheTtl) {
+            this.cacheTtl = cacheTtl;
+        }
+
+        public int getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(int cacheSize) {
+            this.cacheSize = cacheSize;
+        }
+
+        public int getTopK() {
+            return topK;
+        }
+
+        public void setTopK(int topK) {
+            this.topK = topK;
+        }
+    }
+
+    /**
+     * Dual-write and shadow-read properties of the source's RedisTemplate and StringRedisTemplate, used while
+     * migrating to another source.
+     */
+    public static class Mirror {
+
+        /**
+         * Source key to copy writes to. Mirroring is disabled when not set.
+         */
+        private String target;
+
+        /**
+         * Maximum number of writes waiting to be copied. Writes beyond it are dropped and counted.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Maximum number of writes copied in one pipeline.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Fraction of reads repeated against the target to compare results.
+         */
+        private double shadowReadRate;
+
+        public String getTarget() {
+            return target;
+        }
+
+        public void setTarget(String target) {
+            this.target = target;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public double getShadowReadRate() {
+            return shadowReadRate;
+        }
+
+        public void setShadowReadRate(double shadowReadRate) {
+            this.shadowReadRate = shadowReadRate;
+        }
+    }
+
+    /**
+     * Flush policy for pipelined commands.
+     */
+    public enum FlushPolicy {
+
+        /**
+         * Flush after each command (driver default).
+         */
+        FLUSH_EACH_COMMAND,
+
+        /**
+         * Flush once when the pipeline is closed.
+         */
+        FLUSH_ON_CLOSE,
+
+        /**
+         * Flush every 'buffer-size' commands and when the pipeline is closed.
+         */
+        BUFFERED
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.NonNull;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.scheduling.concurrent.SimpleAsyncTaskScheduler;
+import org.springframework.util.Assert;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collect the ids of processed stream records and acknowledge them in batches: one {@code XACK} per stream and
+ * consumer group, all sent in a single pipeline once {@code batchSize} records are pending or every {@code interval}.
+ * Records that fail to be acknowledged stay in the pending entries list of their group.
+ *
+ * @author ChildrenGreens
+ */
+public class RedisStreamAcknowledger implements SmartLifecycle {
+
+    private static final Log logger = LogFactory.getLog(RedisStreamAcknowledger.class);
+
+    private final String name;
+
+    private final RedisOperations<String, String> operations;
+
+    private final int batchSize;
+
+    private final Duration interval;
+
+    private final boolean virtualThreads;
+
+    private final Object monitor = new Object();
+
+    private Map<StreamGroup, List<RecordId>> pending = new LinkedHashMap<>();
+
+    private int pendingCount;
+
+    private volatile SimpleAsyncTaskScheduler scheduler;
+
+    public RedisStreamAcknowledger(String name, RedisOperations<String, String> operations, int batchSize,
+                                   Duration interval, boolean virtualThreads) {
+        Assert.notNull(operations, "RedisOperations must not be null");
+        Assert.isTrue(batchSize > 0, "Batch size must be greater than 0");
+        this.name = name;
+        this.operations = operations;
+        this.batchSize = batchSize;
+        this.interval = interval;
+        this.virtualThreads = virtualThreads;
+    }
+
+    /**
+     * Queue a processed record for acknowledgement.
+     * @param stream stream key
+     * @param group consumer group
+     * @param recordId record id
+     */
+    public void acknowledge(String stream, String group, RecordId recordId) {
+        Map<StreamGroup, List<RecordId>> full = null;
+        synchronized (monitor) {
+            pending.computeIfAbsent(new StreamGroup(stream, group), (key) -> new ArrayList<>()).add(recordId);
+            if (++pendingCount >= batchSize) {
+                full = drain();
+            }
+        }
+        if (full != null) {
+            acknowledge(full);
+        }
+    }
+
+    /**
+     * Acknowledge every queued record now.
+     */
+    public void flush() {
+        Map<StreamGroup, List<RecordId>> queued;
+        synchronized (monitor) {
+            queued = drain();
+        }
+        acknowledge(queued);
+    }
+
+    private Map<StreamGroup, List<RecordId>> drain() {
+        Map<StreamGroup, List<RecordId>> queued = pending;
+        pending = new LinkedHashMap<>();
+        pendingCount = 0;
+        return queued;
+    }
+
+    private void acknowledge(Map<StreamGroup, List<RecordId>> queued) {
+        if (queued.isEmpty()) {
+            return;
+        }
+        try {
+            operations.executePipelined(new SessionCallback<>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(@NonNull RedisOperations<K, V> session) throws DataAccessException {
+                    RedisOperations<String, String> typed = (RedisOperations<String, String>) session;
+                    queued.forEach((streamGroup, recordIds) -> typed.opsForStream()
+                            .acknowledge(streamGroup.stream(), streamGroup.group(), recordIds.toArray(new RecordId[0])));
+                    return null;
+                }
+            });
+        } catch (RuntimeException ex) {
+            logger.warn("source key: " + name + ", failed to acknowledge stream records: " + ex.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        SimpleAsyncTaskScheduler taskScheduler = new SimpleAsyncTaskScheduler();
+        taskScheduler.setThreadNamePrefix("redis-stream-ack-");
+        taskScheduler.setVirtualThreads(virtualThreads);
+        taskScheduler.scheduleWithFixedDelay(this::flush, interval);
+        this.scheduler = taskScheduler;
+    }
+
+    @Override
+    public void stop() {
+        SimpleAsyncTaskScheduler taskScheduler = this.scheduler;
+        if (taskScheduler != null) {
+            taskScheduler.close();
+            this.scheduler = null;
+        }
+        flush();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return scheduler != null;
+    }
+
+    /**
+     * Start before and stop after the stream listener containers, which use the default phase.
+     * @return phase
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1;
+    }
+
+    public RedisOperations<String, String> getOperations() {
+        return operations;
+    }
+
+    private record StreamGroup(String stream, String group) {
+    }
+}
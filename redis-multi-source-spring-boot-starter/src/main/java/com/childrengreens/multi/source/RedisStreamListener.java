@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Consume a Redis stream through a consumer group on the {@code StreamMessageListenerContainer} of a source.
+ * The method takes a single {@code MapRecord<String, String, String>}; records are acknowledged in batches
+ * after the method returns, and stay pending when it throws.
+ *
+ * @author ChildrenGreens
+ */
+@Target({ElementType.METHOD, ElementType.ANNOTATION_TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RedisStreamListener {
+
+    /**
+     * Source name. Empty selects the primary source.
+     * @return source name
+     */
+    String source() default "";
+
+    /**
+     * Stream key. Supports placeholders.
+     * @return stream key
+     */
+    String stream();
+
+    /**
+     * Consumer group. Supports placeholders.
+     * @return consumer group
+     */
+    String group();
+
+    /**
+     * Consumer name. Empty uses the name of the running JVM ({@code pid@host}). Supports placeholders.
+     * @return consumer name
+     */
+    String consumer() default "";
+
+    /**
+     * Whether to create the stream and the consumer group, reading from the start of the stream, when they do not exist.
+     * @return bool
+     */
+    boolean createGroup() default true;
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.NonNull;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.stream.Consumer;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.connection.stream.ReadOffset;
+import org.springframework.data.redis.connection.stream.StreamOffset;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * Register methods annotated with {@link RedisStreamListener} as consumer group subscriptions on the
+ * {@link StreamMessageListenerContainer} of their source, acknowledging through its {@link RedisStreamAcknowledger}.
+ *
+ * @author ChildrenGreens
+ */
+public class RedisStreamListenerAnnotationBeanPostProcessor implements BeanPostProcessor, BeanFactoryAware {
+
+    private static final Log logger = LogFactory.getLog(RedisStreamListenerAnnotationBeanPostProcessor.class);
+
+    private ConfigurableBeanFactory beanFactory;
+
+    @Override
+    public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) throws BeansException {
+        Class<?> targetClass = AopUtils.getTargetClass(bean);
+        Map<Method, RedisStreamListener> annotatedMethods = MethodIntrospector.selectMethods(targetClass,
+                (MethodIntrospector.MetadataLookup<RedisStreamListener>) (method) -> AnnotatedElementUtils.findMergedAnnotation(method, RedisStreamListener.class));
+
+        annotatedMethods.forEach((method, annotation) -> {
+            if (method.getParameterCount() != 1 || !method.getParameterTypes()[0].isAssignableFrom(MapRecord.class)) {
+                throw new IllegalStateException("@RedisStreamListener method " + method + " must take a single MapRecord parameter");
+            }
+            String source = resolve(annotation.source());
+            String stream = resolve(annotation.stream());
+            String group = resolve(annotation.group());
+            String consumer = StringUtils.hasText(annotation.consumer()) ? resolve(annotation.consumer())
+                    : ManagementFactory.getRuntimeMXBean().getName();
+
+            StreamMessageListenerContainer<String, MapRecord<String, String, String>> container = getContainer(source);
+            RedisStreamAcknowledger acknowledger = getBean(source, RedisStreamAcknowledger.class);
+            if (annotation.createGroup()) {
+                createGroup(source, acknowledger, stream, group);
+            }
+
+            Method invocableMethod = AopUtils.selectInvocableMethod(method, bean.getClass());
+            ReflectionUtils.makeAccessible(invocableMethod);
+            container.register(StreamMessageListenerContainer.StreamReadRequest
+                            .builder(StreamOffset.create(stream, ReadOffset.lastConsumed()))
+                            .consumer(Consumer.from(group, consumer))
+                            .autoAcknowledge(false)
+                            .cancelOnError((ex) -> false)
+                            .build(),
+                    (record) -> {
+                        ReflectionUtils.invokeMethod(invocableMethod, bean, record);
+                        acknowledger.acknowledge(stream, group, record.getId());
+                    });
+        });
+        return bean;
+    }
+
+    /**
+     * Create the stream and the consumer group, ignoring groups that already exist.
+     */
+    private void createGroup(String source, RedisStreamAcknowledger acknowledger, String stream, String group) {
+        try {
+            acknowledger.getOperations().execute((RedisCallback<Object>) (RedisConnection connection) -> connection.streamCommands()
+                    .xGroupCreate(RedisSerializer.string().serialize(stream), group, ReadOffset.from("0"), true));
+        } catch (RuntimeException ex) {
+            String message = String.valueOf(NestedExceptionUtils.getMostSpecificCause(ex).getMessage());
+            if (!message.contains("BUSYGROUP")) {
+                logger.warn("source key: " + source + ", stream: " + stream + ", failed to create consumer group " + group + ": " + message);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private StreamMessageListenerContainer<String, MapRecord<String, String, String>> getContainer(String source) {
+        return getBean(source, StreamMessageListenerContainer.class);
+    }
+
+    private <T> T getBean(String source, Class<T> type) {
+        if (!StringUtils.hasText(source)) {
+            return beanFactory.getBean(type);
+        }
+        String beanName = source + type.getSimpleName();
+        if (!beanFactory.containsBean(beanName)) {
+            throw new RuntimeException("source key: " + source + ", " + type.getSimpleName() + " not found, is streams.enabled set?");
+        }
+        return beanFactory.getBean(beanName, type);
+    }
+
+    private String resolve(String value) {
+        String resolved = beanFactory.resolveEmbeddedValue(value);
+        return (resolved != null) ? resolved : value;
+    }
+
+    @Override
+    public void setBeanFactory(@NonNull BeanFactory beanFactory) throws BeansException {
+        this.beanFactory = (ConfigurableBeanFactory) beanFactory;
+    }
+}
@@ -22,25 +22,63 @@ import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.beans.factory.support.BeanDefinitionBuilder;
 import org.springframework.beans.factory.support.BeanDefinitionRegistry;
 import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.thread.Threading;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
- * Create a corresponding {@link RedisTemplate} and {@link StringRedisTemplate} based on the {@link RedisConnectionFactory} bean.
+ * Create a corresponding {@link RedisTemplate}, {@link StringRedisTemplate}, {@link RedisPipelineExecutor},
+ * {@link RedisMultiKeyExecutor} and {@link RedisScriptRegistry}
+ * based on the {@link RedisConnectionFactory} bean, plus a {@link PrefixRoutingRedisTemplate} over all of them when routing is enabled
+ * and a {@link MultiSourceRedisLock} over the lock sources,
+ * compressing template values with {@link CompressingRedisSerializer}, caching hot keys with a {@link RedisHotKeyDetector}
+ * and copying writes to another source with a {@link RedisMirror} when enabled for the source.
  *
  * @author ChildrenGreens
  */
-public class RedisTemplateRegistryPostProcessor implements BeanDefinitionRegistryPostProcessor {
+public class RedisTemplateRegistryPostProcessor implements BeanDefinitionRegistryPostProcessor, EnvironmentAware {
+
+    private Environment environment;
+
     @Override
     public void postProcessBeanDefinitionRegistry(@NonNull BeanDefinitionRegistry registry) throws BeansException {
 
         if (registry instanceof ConfigurableListableBeanFactory beanFactory) {
             String[] beanNames = beanFactory.getBeanNamesForType(RedisConnectionFactory.class);
+            RedisMultiSourcesProperties properties = getProperties();
+            Map<String, RedisSourceProperties> sources = properties.getSources() != null ? properties.getSources() : Map.of();
+            RedisMultiSourcesProperties.Routing routing = properties.getRouting();
+            boolean routingPrimary = routing.isEnabled() && routing.isPrimary();
+            Map<String, String> connectionFactoryBeanNames = new LinkedHashMap<>();
 
             for (String beanName : beanNames) {
+                // Striped and instrumented factories are picked up through the connection factory of their source.
+                if (beanName.endsWith(StripedLettuceConnectionFactory.class.getSimpleName())
+                        || beanName.endsWith(InstrumentedRedisConnectionFactory.class.getSimpleName())) {
+                    continue;
+                }
+
                 // Whether it is Primary
                 BeanDefinition bd = beanFactory.getBeanDefinition(beanName);
                 boolean primary = bd.isPrimary();
@@ -53,11 +91,62 @@ public class RedisTemplateRegistryPostProcessor implements BeanDefinitionRegistr
                     suffix = JedisConnectionFactory.class.getSimpleName();
                 }
 
+                String name = beanName.endsWith(suffix) ? beanName.substring(0, beanName.length() - suffix.length()) : beanName;
+                RedisSourceProperties source = sources.getOrDefault(name, new RedisSourceProperties());
+                RedisSourceProperties.Compression compression = source.getCompression();
+                String stripedBeanName = name + StripedLettuceConnectionFactory.class.getSimpleName();
+                String instrumentedBeanName = name + InstrumentedRedisConnectionFactory.class.getSimpleName();
+                String connectionFactoryBeanName = registry.containsBeanDefinition(stripedBeanName) ? stripedBeanName
+                        : registry.containsBeanDefinition(instrumentedBeanName) ? instrumentedBeanName : beanName;
+                connectionFactoryBeanNames.put(name, connectionFactoryBeanName);
+
+                // Create a RedisHotKeyDetector whose cache the templates read through.
+                String hotKeyDetectorBeanName = beanName.replace(suffix, RedisHotKeyDetector.class.getSimpleName());
+                if (source.getHotKeys().isEnabled()) {
+                    BeanDefinition hotKeyDetectorBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(RedisHotKeyDetector.class, () -> {
+                        RedisHotKeyDetector detector = new RedisHotKeyDetector(name, source.getHotKeys());
+                        if (ClassUtils.isPresent(RedisDataClassNames.METER_REGISTRY_TYPE, beanFactory.getBeanClassLoader())) {
+                            RedisHotKeyMetrics.bindTo(beanFactory, detector);
+                        }
+                        return detector;
+                    }).getBeanDefinition();
+
+                    hotKeyDetectorBeanDefinition.setPrimary(primary);
+                    registry.registerBeanDefinition(hotKeyDetectorBeanName, hotKeyDetectorBeanDefinition);
+                }
+
+                // Create a RedisMirror copying the templates' writes to the target source.
+                String mirrorBeanName = beanName.replace(suffix, RedisMirror.class.getSimpleName());
+                RedisSourceProperties.Mirror mirror = source.getMirror();
+                if (StringUtils.hasText(mirror.getTarget())) {
+                    Assert.isTrue(!mirror.getTarget().equals(name), "source key: " + name + ", mirror target must be another source");
+                    BeanDefinition mirrorBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(RedisMirror.class, () -> {
+                        String targetBeanName = connectionFactoryBeanNames.get(mirror.getTarget());
+                        Assert.state(targetBeanName != null, "source key: " + name + ", unknown mirror target: " + mirror.getTarget());
+                        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("redis-mirror-");
+                        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+                        RedisMirror redisMirror = new RedisMirror(name, mirror.getTarget(),
+                                beanFactory.getBean(targetBeanName, RedisConnectionFactory.class), mirror, executor);
+                        if (ClassUtils.isPresent(RedisDataClassNames.METER_REGISTRY_TYPE, beanFactory.getBeanClassLoader())) {
+                            RedisMirrorMetrics.bindTo(beanFactory, redisMirror);
+                        }
+                        return redisMirror;
+                    }).getBeanDefinition();
+
+                    mirrorBeanDefinition.setPrimary(primary);
+                    registry.registerBeanDefinition(mirrorBeanName, mirrorBeanDefinition);
+                }
+
                 // Create a corresponding RedisTemplate based on the RedisConnectionFactory bean.
                 BeanDefinition redisTemplateBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(RedisTemplate.class, () -> {
-                    RedisConnectionFactory factory = beanFactory.getBean(beanName, RedisConnectionFactory.class);
+                    RedisConnectionFactory factory = getTemplateConnectionFactory(beanFactory, connectionFactoryBeanName, hotKeyDetectorBeanName, mirrorBeanName, source);
                     RedisTemplate<Object, Object> template = new RedisTemplate<>();
                     template.setConnectionFactory(factory);
+                    if (compression.isEnabled()) {
+                        RedisSerializer<Object> serializer = compressing(RedisSerializer.java(beanFactory.getBeanClassLoader()), compression);
+                        template.setValueSerializer(serializer);
+                        template.setHashValueSerializer(serializer);
+                    }
                     return template;
                 }).getBeanDefinition();
 
@@ -67,16 +156,169 @@ public class RedisTemplateRegistryPostProcessor implements BeanDefinitionRegistr
 
                 // Create a corresponding StringRedisTemplate based on the RedisConnectionFactory bean.
                 BeanDefinition stringRedisTemplateBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(StringRedisTemplate.class, () -> {
-                    RedisConnectionFactory factory = beanFactory.getBean(beanName, RedisConnectionFactory.class);
-                    return new StringRedisTemplate(factory);
+                    RedisConnectionFactory factory = getTemplateConnectionFactory(beanFactory, connectionFactoryBeanName, hotKeyDetectorBeanName, mirrorBeanName, source);
+                    StringRedisTemplate template = new StringRedisTemplate(factory);
+                    if (compression.isEnabled()) {
+                        RedisSerializer<String> serializer = compressing(RedisSerializer.string(), compression);
+                        template.setValueSerializer(serializer);
+                        template.setHashValueSerializer(serializer);
+                    }
+                    return template;
                 }).getBeanDefinition();
 
                 String stringRedisTemplateBeanName = beanName.replace(suffix, StringRedisTemplate.class.getSimpleName());
-                stringRedisTemplateBeanDefinition.setPrimary(primary);
+                stringRedisTemplateBeanDefinition.setPrimary(primary && !routingPrimary);
                 registry.registerBeanDefinition(stringRedisTemplateBeanName, stringRedisTemplateBeanDefinition);
+
+                // Create a RedisPipelineExecutor over the StringRedisTemplate.
+                BeanDefinition pipelineExecutorBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(RedisPipelineExecutor.class, () -> {
+                    StringRedisTemplate template = beanFactory.getBean(stringRedisTemplateBeanName, StringRedisTemplate.class);
+                    return new RedisPipelineExecutor<>(template, source.getPipelining().getBatchSize());
+                }).getBeanDefinition();
+
+                pipelineExecutorBeanDefinition.setPrimary(primary);
+                registry.registerBeanDefinition(beanName.replace(suffix, RedisPipelineExecutor.class.getSimpleName()), pipelineExecutorBeanDefinition);
+
+                // Create a RedisMultiKeyExecutor over the StringRedisTemplate.
+                BeanDefinition multiKeyExecutorBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(RedisMultiKeyExecutor.class, () -> {
+                    StringRedisTemplate template = beanFactory.getBean(stringRedisTemplateBeanName, StringRedisTemplate.class);
+                    return new RedisMultiKeyExecutor<>(template, source.getPipelining().getBatchSize());
+                }).getBeanDefinition();
+
+                multiKeyExecutorBeanDefinition.setPrimary(primary);
+                registry.registerBeanDefinition(beanName.replace(suffix, RedisMultiKeyExecutor.class.getSimpleName()), multiKeyExecutorBeanDefinition);
+
+                // Create a RedisScriptRegistry over the StringRedisTemplate.
+                if (source.getScripts().isEnabled()) {
+                    BeanDefinition scriptRegistryBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(RedisScriptRegistry.class, () -> {
+                        StringRedisTemplate template = beanFactory.getBean(stringRedisTemplateBeanName, StringRedisTemplate.class);
+                        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("redis-script-");
+                        executor.setVirtualThreads(Threading.VIRTUAL.isActive(environment));
+                        return new RedisScriptRegistry(name, template, getScripts(beanFactory, source.getScripts()),
+                                source.getScripts().isPreload(), executor);
+                    }).getBeanDefinition();
+
+                    scriptRegistryBeanDefinition.setPrimary(primary);
+                    registry.registerBeanDefinition(beanName.replace(suffix, RedisScriptRegistry.class.getSimpleName()), scriptRegistryBeanDefinition);
+                }
+            }
+
+            // Create a MultiSourceRedisLock over the connection factories of the lock sources.
+            RedisMultiSourcesProperties.Lock lock = properties.getLock();
+            if (!lock.getSources().isEmpty()) {
+                BeanDefinition lockBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(MultiSourceRedisLock.class, () -> {
+                    Map<String, StringRedisTemplate> templates = new LinkedHashMap<>();
+                    for (String name : lock.getSources()) {
+                        String connectionFactoryBeanName = connectionFactoryBeanNames.get(name);
+                        Assert.state(connectionFactoryBeanName != null, "Unknown Redis lock source: " + name);
+                        templates.put(name, new StringRedisTemplate(beanFactory.getBean(connectionFactoryBeanName, RedisConnectionFactory.class)));
+                    }
+                    MultiSourceRedisLock redisLock = new MultiSourceRedisLock(templates, lock.getPoolSize(),
+                            Threading.VIRTUAL.isActive(environment));
+                    redisLock.setDriftFactor(lock.getDriftFactor());
+                    redisLock.setTimeout(lock.getTimeout());
+                    redisLock.setRetryDelay(lock.getRetryDelay());
+                    return redisLock;
+                }).getBeanDefinition();
+
+                registry.registerBeanDefinition(StringUtils.uncapitalize(MultiSourceRedisLock.class.getSimpleName()), lockBeanDefinition);
+            }
+
+            // Create a PrefixRoutingRedisTemplate over the connection factories of all sources.
+            if (routing.isEnabled()) {
+                String defaultSource = StringUtils.hasText(routing.getDefaultSource()) ? routing.getDefaultSource() : properties.getPrimaryKey();
+                BeanDefinition routingTemplateBeanDefinition = BeanDefinitionBuilder.genericBeanDefinition(PrefixRoutingRedisTemplate.class, () -> {
+                    Map<String, RedisConnectionFactory> factories = new LinkedHashMap<>();
+                    Map<String, CompressingRedisSerializer<byte[]>> valueSerializers = new LinkedHashMap<>();
+                    connectionFactoryBeanNames.forEach((name, beanName) -> {
+                        factories.put(name, beanFactory.getBean(beanName, RedisConnectionFactory.class));
+                        RedisSourceProperties.Compression compression = sources.getOrDefault(name, new RedisSourceProperties()).getCompression();
+                        if (compression.isEnabled()) {
+                            valueSerializers.put(name, compressing(RedisSerializer.byteArray(), compression));
+                        }
+                    });
+                    return new PrefixRoutingRedisTemplate(new PrefixRoutingRedisConnectionFactory(factories, routing.getRoutes(),
+                            defaultSource, valueSerializers));
+                }).getBeanDefinition();
+
+                routingTemplateBeanDefinition.setPrimary(routingPrimary);
+                registry.registerBeanDefinition(StringUtils.uncapitalize(PrefixRoutingRedisTemplate.class.getSimpleName()), routingTemplateBeanDefinition);
             }
         }
 
     }
 
+    /**
+     * Resolve the connection factory of a source's templates, mirroring commands to the target source and reading
+     * hot keys through the local cache when enabled.
+     * @param beanFactory bean factory
+     * @param beanName connection factory bean name
+     * @param hotKeyDetectorBeanName hot-key detector bean name
+     * @param mirrorBeanName mirror bean name
+     * @param source source properties
+     * @return connection factory
+     */
+    private RedisConnectionFactory getTemplateConnectionFactory(ConfigurableListableBeanFactory beanFactory, String beanName,
+                                                                String hotKeyDetectorBeanName, String mirrorBeanName,
+                                                                RedisSourceProperties source) {
+        RedisConnectionFactory factory = beanFactory.getBean(beanName, RedisConnectionFactory.class);
+        if (StringUtils.hasText(source.getMirror().getTarget())) {
+            factory = new MirroringRedisConnectionFactory(factory, beanFactory.getBean(mirrorBeanName, RedisMirror.class));
+        }
+        if (source.getHotKeys().isEnabled()) {
+            return new HotKeyCachingRedisConnectionFactory(factory, beanFactory.getBean(hotKeyDetectorBeanName, RedisHotKeyDetector.class));
+        }
+        return factory;
+    }
+
+    /**
+     * Collect the Lua scripts of a source from its script locations and the {@link RedisScript} beans.
+     * @param beanFactory bean factory
+     * @param scripts script properties
+     * @return script bodies keyed by name
+     */
+    private Map<String, String> getScripts(ConfigurableListableBeanFactory beanFactory, RedisSourceProperties.Scripts scripts) {
+        Map<String, String> bodies = new LinkedHashMap<>();
+        ResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(beanFactory.getBeanClassLoader());
+        try {
+            for (String location : scripts.getLocations()) {
+                for (Resource resource : resolver.getResources(location)) {
+                    String filename = resource.getFilename();
+                    if (resource.isReadable() && filename != null) {
+                        bodies.put(StringUtils.stripFilenameExtension(filename), resource.getContentAsString(StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        beanFactory.getBeansOfType(RedisScript.class).forEach((scriptBeanName, script) -> bodies.put(scriptBeanName, script.getScriptAsString()));
+        return bodies;
+    }
+
+    /**
+     * Wrap a serializer so values above the source's threshold are compressed.
+     * @param serializer value serializer
+     * @param compression compression properties
+     * @return serializer
+     */
+    private <T> CompressingRedisSerializer<T> compressing(RedisSerializer<T> serializer, RedisSourceProperties.Compression compression) {
+        return new CompressingRedisSerializer<>(serializer, (int) compression.getThreshold().toBytes(), compression.getLevel());
+    }
+
+    /**
+     * Bind the multi-source Redis properties.
+     * @return properties
+     */
+    private RedisMultiSourcesProperties getProperties() {
+        ConfigurationProperties annotation = RedisMultiSourcesProperties.class.getAnnotation(ConfigurationProperties.class);
+        return Binder.get(environment).bind(annotation.prefix(), RedisMultiSourcesProperties.class)
+                .orElseGet(RedisMultiSourcesProperties::new);
+    }
+
+    @Override
+    public void setEnvironment(@NonNull Environment environment) {
+        this.environment = environment;
+    }
+
 }
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisSentinelConnection;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.util.Assert;
+
+import java.util.List;
+
+/**
+ * {@link RedisConnectionFactory} that stripes connections across several {@link LettuceConnectionFactory} instances,
+ * each holding its own shared native connection. The stripe is selected from the calling thread without locking,
+ * so concurrent callers spread over several TCP connections instead of queueing on one.
+ * <p>
+ * The first stripe is the {@code <sourceName>LettuceConnectionFactory} bean, whose lifecycle is managed by the
+ * container; this factory initializes, starts, stops and destroys the other stripes.
+ *
+ * @author ChildrenGreens
+ */
+public class StripedLettuceConnectionFactory implements RedisConnectionFactory, InitializingBean, DisposableBean, SmartLifecycle {
+
+    private final LettuceConnectionFactory[] stripes;
+
+    public StripedLettuceConnectionFactory(List<LettuceConnectionFactory> stripes) {
+        Assert.notEmpty(stripes, "Stripes must not be empty");
+        this.stripes = stripes.toArray(new LettuceConnectionFactory[0]);
+    }
+
+    /**
+     * Select the stripe of the current thread.
+     * @return connection factory
+     */
+    @SuppressWarnings("deprecation")
+    LettuceConnectionFactory currentStripe() {
+        return stripes[(int) Math.floorMod(Thread.currentThread().getId(), (long) stripes.length)];
+    }
+
+    public List<LettuceConnectionFactory> getStripes() {
+        return List.of(stripes);
+    }
+
+    @Override
+    public boolean getConvertPipelineAndTxResults() {
+        return stripes[0].getConvertPipelineAndTxResults();
+    }
+
+    @Override
+    public @NonNull RedisConnection getConnection() {
+        return currentStripe().getConnection();
+    }
+
+    @Override
+    public @NonNull RedisClusterConnection getClusterConnection() {
+        return currentStripe().getClusterConnection();
+    }
+
+    @Override
+    public @NonNull RedisSentinelConnection getSentinelConnection() {
+        return currentStripe().getSentinelConnection();
+    }
+
+    @Override
+    public @Nullable DataAccessException translateExceptionIfPossible(@NonNull RuntimeException ex) {
+        return stripes[0].translateExceptionIfPossible(ex);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (int i = 1; i < stripes.length; i++) {
+            stripes[i].afterPropertiesSet();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        for (int i = 1; i < stripes.length; i++) {
+            stripes[i].destroy();
+        }
+    }
+
+    @Override
+    public void start() {
+        for (int i = 1; i < stripes.length; i++) {
+            stripes[i].start();
+        }
+    }
+
+    @Override
+    public void stop() {
+        for (int i = 1; i < stripes.length; i++) {
+            stripes[i].stop();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        for (int i = 1; i < stripes.length; i++) {
+            if (!stripes[i].isRunning()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return stripes[0].isAutoStartup();
+    }
+
+    @Override
+    public int getPhase() {
+        return stripes[0].getPhase();
+    }
+}
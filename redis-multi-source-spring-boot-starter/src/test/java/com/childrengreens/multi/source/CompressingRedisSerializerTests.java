@@ -0,0 +1,101 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests for {@link CompressingRedisSerializer}.
+ */
+class CompressingRedisSerializerTests {
+
+    private final CompressingRedisSerializer<String> serializer = new CompressingRedisSerializer<>(RedisSerializer.string(), 64, 1);
+
+    private final String json = "{\"items\":[" + String.join(",", IntStream.range(0, 200)
+            .mapToObj((i) -> "{\"id\":" + i + ",\"name\":\"item-" + i + "\",\"enabled\":true}").toList()) + "]}";
+
+    @Test
+    void compressesValuesAboveThreshold() {
+        byte[] bytes = serializer.serialize(json);
+
+        assertThat(CompressingRedisSerializer.isCompressed(bytes)).isTrue();
+        assertThat(bytes.length).isLessThan(json.length() / 4);
+        assertThat(serializer.deserialize(bytes)).isEqualTo(json);
+    }
+
+    @Test
+    void keepsValuesBelowThresholdAsIs() {
+        byte[] bytes = serializer.serialize("small");
+
+        assertThat(bytes).isEqualTo("small".getBytes(StandardCharsets.UTF_8));
+        assertThat(serializer.deserialize(bytes)).isEqualTo("small");
+    }
+
+    @Test
+    void readsValuesWrittenWithoutCompression() {
+        byte[] legacy = json.getBytes(StandardCharsets.UTF_8);
+
+        assertThat(serializer.deserialize(legacy)).isEqualTo(json);
+    }
+
+    @Test
+    void storesIncompressibleValuesAsIs() {
+        CompressingRedisSerializer<byte[]> bytesSerializer = new CompressingRedisSerializer<>(RedisSerializer.byteArray(), 64, 1);
+        byte[] random = new byte[4096];
+        new Random(42).nextBytes(random);
+
+        assertThat(bytesSerializer.serialize(random)).isEqualTo(random);
+    }
+
+    @Test
+    void reusesPooledDeflatersAcrossValues() {
+        List<String> values = IntStream.range(0, 50).mapToObj((i) -> json.repeat(1 + i % 3)).toList();
+
+        values.parallelStream().forEach((value) -> assertThat(serializer.deserialize(serializer.serialize(value))).isEqualTo(value));
+    }
+
+    @Test
+    void failsOnCorruptCompressedValues() {
+        byte[] bytes = serializer.serialize(json);
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length / 2);
+
+        assertThatExceptionOfType(SerializationException.class).isThrownBy(() -> serializer.deserialize(truncated));
+    }
+
+    @Test
+    void rejectsImplausibleUncompressedLengthsBeforeAllocating() {
+        byte[] huge = serializer.serialize(json);
+        huge[CompressingRedisSerializer.MAGIC.length + 1] = 0x7F;
+        byte[] inflated = Arrays.copyOf(serializer.serialize(json), CompressingRedisSerializer.HEADER_LENGTH + 8);
+        inflated[CompressingRedisSerializer.MAGIC.length + 2] = 0x10;
+
+        assertThatExceptionOfType(SerializationException.class).isThrownBy(() -> serializer.deserialize(huge))
+                .withMessageContaining("cannot inflate");
+        assertThatExceptionOfType(SerializationException.class).isThrownBy(() -> serializer.deserialize(inflated))
+                .withMessageContaining("cannot inflate");
+    }
+}
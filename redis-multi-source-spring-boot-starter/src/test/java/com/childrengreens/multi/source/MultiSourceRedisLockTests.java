@@ -0,0 +1,240 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link MultiSourceRedisLock}.
+ */
+class MultiSourceRedisLockTests {
+
+    @Test
+    void requiresOddNumberOfSources() {
+        Map<String, RedisOperations<String, String>> sources = Map.of("a", source(new ConcurrentHashMap<>()), "b", source(new ConcurrentHashMap<>()));
+        assertThatIllegalArgumentException().isThrownBy(() -> new MultiSourceRedisLock(sources, new SimpleAsyncTaskExecutor()));
+    }
+
+    @Test
+    void acquiresOnMajorityAndReleasesEverywhere() {
+        Map<String, String> a = new ConcurrentHashMap<>();
+        Map<String, String> b = new ConcurrentHashMap<>();
+        MultiSourceRedisLock lock = lock(source(a), source(b), failing());
+
+        Optional<MultiSourceRedisLock.Lease> lease = lock.tryLock("order:1", Duration.ofSeconds(10));
+
+        assertThat(lease).isPresent();
+        assertThat(lease.get().isValid()).isTrue();
+        assertThat(a).containsEntry("order:1", lease.get().getToken());
+        assertThat(b).containsEntry("order:1", lease.get().getToken());
+        assertThat(lock.tryLock("order:1", Duration.ofSeconds(10))).isEmpty();
+
+        lease.get().close();
+        assertThat(a).isEmpty();
+        assertThat(b).isEmpty();
+        assertThat(lock.tryLock("order:1", Duration.ofSeconds(10))).isPresent();
+    }
+
+    @Test
+    void releasesPartialLockWithoutMajority() {
+        Map<String, String> a = new ConcurrentHashMap<>();
+        Map<String, String> b = new ConcurrentHashMap<>(Map.of("order:1", "other"));
+        Map<String, String> c = new ConcurrentHashMap<>(Map.of("order:1", "other"));
+        MultiSourceRedisLock lock = lock(source(a), source(b), source(c));
+
+        assertThat(lock.tryLock("order:1", Duration.ofSeconds(10))).isEmpty();
+        assertThat(a).isEmpty();
+        assertThat(b).containsEntry("order:1", "other");
+    }
+
+    @Test
+    void subtractsClockDriftFromValidity() {
+        MultiSourceRedisLock lock = lock(source(new ConcurrentHashMap<>()), source(new ConcurrentHashMap<>()), source(new ConcurrentHashMap<>()));
+        lock.setDriftFactor(0.1);
+
+        MultiSourceRedisLock.Lease lease = lock.tryLock("order:1", Duration.ofSeconds(1)).orElseThrow();
+        assertThat(lease.getRemaining()).isLessThanOrEqualTo(Duration.ofMillis(898)).isPositive();
+        assertThat(lock.tryLock("order:2", Duration.ofMillis(2))).isEmpty();
+    }
+
+    @Test
+    void countsSlowSourcesAsFailed() {
+        Map<String, String> a = new ConcurrentHashMap<>();
+        RedisOperations<String, String> slow = mock();
+        given(slow.execute(any(RedisScript.class), anyList(), any(Object[].class))).willAnswer((call) -> {
+            Thread.sleep(1000);
+            return 1L;
+        });
+        MultiSourceRedisLock lock = lock(source(a), slow, failing());
+
+        long start = System.nanoTime();
+        assertThat(lock.tryLock("order:1", Duration.ofSeconds(10))).isEmpty();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(900));
+        assertThat(a).isEmpty();
+    }
+
+    @Test
+    void releasesLockGrantedAfterTimeout() {
+        Map<String, String> a = new ConcurrentHashMap<>();
+        Map<String, String> b = new ConcurrentHashMap<>();
+        RedisOperations<String, String> slow = source(b, Duration.ofMillis(300));
+        MultiSourceRedisLock lock = lock(source(a), slow, failing());
+
+        assertThat(lock.tryLock("order:1", Duration.ofSeconds(10))).isEmpty();
+        verify(slow, timeout(2000).times(3)).execute(any(RedisScript.class), anyList(), any(Object[].class));
+        assertThat(a).isEmpty();
+        assertThat(b).isEmpty();
+    }
+
+    @Test
+    void startsTimeoutWhenCommandIsIssued() {
+        Map<String, RedisOperations<String, String>> sources = new LinkedHashMap<>();
+        sources.put("a", source(new ConcurrentHashMap<>(), Duration.ofMillis(40)));
+        sources.put("b", source(new ConcurrentHashMap<>(), Duration.ofMillis(40)));
+        sources.put("c", source(new ConcurrentHashMap<>(), Duration.ofMillis(40)));
+        MultiSourceRedisLock lock = new MultiSourceRedisLock(sources, 1, false);
+        lock.setTimeout(Duration.ofMillis(100));
+
+        assertThat(lock.tryLock("order:1", Duration.ofSeconds(10))).isPresent();
+        lock.destroy();
+    }
+
+    @Test
+    void waitsForLockAsynchronously() {
+        Map<String, String> a = new ConcurrentHashMap<>();
+        MultiSourceRedisLock lock = lock(source(a), source(new ConcurrentHashMap<>()), source(new ConcurrentHashMap<>()));
+        MultiSourceRedisLock.Lease first = lock.tryLock("order:1", Duration.ofSeconds(10)).orElseThrow();
+
+        CompletableFuture<Optional<MultiSourceRedisLock.Lease>> waiting = lock.lockAsync("order:1", Duration.ofSeconds(10), Duration.ofSeconds(5));
+        assertThat(waiting).isNotDone();
+        first.unlock();
+
+        assertThat(waiting.join()).isPresent().get()
+                .satisfies((lease) -> assertThat(a).containsEntry("order:1", lease.getToken()));
+        assertThat(lock.lock("order:1", Duration.ofSeconds(10), Duration.ofMillis(100))).isEmpty();
+    }
+
+    @Test
+    void issuesCommandsFromOwnBoundedPool() {
+        Map<String, String> a = new ConcurrentHashMap<>();
+        Map<String, RedisOperations<String, String>> sources = new LinkedHashMap<>();
+        sources.put("a", source(a));
+        sources.put("b", source(new ConcurrentHashMap<>()));
+        sources.put("c", source(new ConcurrentHashMap<>()));
+        MultiSourceRedisLock lock = new MultiSourceRedisLock(sources, 1, false);
+        lock.setTimeout(Duration.ofSeconds(1));
+
+        assertThat(lock.tryLock("order:1", Duration.ofSeconds(10))).isPresent();
+        assertThat(a).containsKey("order:1");
+
+        lock.destroy();
+        assertThatExceptionOfType(RejectedExecutionException.class).isThrownBy(() -> lock.tryLock("order:2", Duration.ofSeconds(10)));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void locksFromVirtualThreads() throws Exception {
+        MultiSourceRedisLock lock = lock(source(new ConcurrentHashMap<>()), source(new ConcurrentHashMap<>()), source(new ConcurrentHashMap<>()));
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor();
+        executor.setVirtualThreads(true);
+
+        int[] counter = {0};
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            futures.add(executor.submit(() -> {
+                try (MultiSourceRedisLock.Lease ignored = lock.lock("counter", Duration.ofSeconds(10), Duration.ofSeconds(10)).orElseThrow()) {
+                    counter[0]++;
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        assertThat(counter[0]).isEqualTo(20);
+    }
+
+    private MultiSourceRedisLock lock(RedisOperations<String, String> a, RedisOperations<String, String> b, RedisOperations<String, String> c) {
+        Map<String, RedisOperations<String, String>> sources = new LinkedHashMap<>();
+        sources.put("a", a);
+        sources.put("b", b);
+        sources.put("c", c);
+        MultiSourceRedisLock lock = new MultiSourceRedisLock(sources, Executors.newCachedThreadPool());
+        lock.setTimeout(Duration.ofMillis(200));
+        lock.setRetryDelay(Duration.ofMillis(10));
+        return lock;
+    }
+
+    /**
+     * A source running the lock scripts against a map.
+     */
+    private RedisOperations<String, String> source(Map<String, String> store) {
+        return source(store, Duration.ZERO);
+    }
+
+    /**
+     * A source running the lock scripts against a map, granting locks after a delay.
+     */
+    @SuppressWarnings("unchecked")
+    private RedisOperations<String, String> source(Map<String, String> store, Duration delay) {
+        RedisOperations<String, String> operations = mock();
+        given(operations.execute(any(RedisScript.class), anyList(), any(Object[].class))).willAnswer((call) -> {
+            Object[] raw = call.getRawArguments();
+            String key = ((List<String>) raw[1]).get(0);
+            Object[] args = (Object[]) raw[2];
+            if (raw[0] == MultiSourceRedisLock.ACQUIRE_SCRIPT) {
+                Thread.sleep(delay.toMillis());
+                return store.putIfAbsent(key, (String) args[0]) == null ? 1L : 0L;
+            }
+            return store.remove(key, args[0]) ? 1L : 0L;
+        });
+        return operations;
+    }
+
+    private RedisOperations<String, String> failing() {
+        RedisOperations<String, String> operations = mock();
+        given(operations.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+                .willThrow(new RedisConnectionFailureException("down"));
+        return operations;
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisSetCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Tests for {@link PrefixRoutingRedisConnectionFactory} and {@link PrefixRoutingRedisTemplate}.
+ */
+class PrefixRoutingRedisConnectionFactoryTests {
+
+    private final Map<String, Map<String, String>> stores = new LinkedHashMap<>();
+
+    private final Map<String, RedisConnection> connections = new LinkedHashMap<>();
+
+    private final Map<String, RedisConnectionFactory> sources = new LinkedHashMap<>();
+
+    private final Map<String, String> routes = new LinkedHashMap<>();
+
+    private PrefixRoutingRedisConnectionFactory connectionFactory;
+
+    @BeforeEach
+    void setUp() {
+        for (String name : List.of("cn", "hk", "us")) {
+            sources.put(name, connectionFactory(name));
+        }
+        routes.put("session:*", "hk");
+        routes.put("feed:*", "us");
+        routes.put("feed:cn:*", "cn");
+        this.connectionFactory = new PrefixRoutingRedisConnectionFactory(sources, routes, "cn");
+    }
+
+    @Test
+    void routesByLongestPrefix() {
+        assertThat(connectionFactory.getSource(bytes("session:42"))).isEqualTo("hk");
+        assertThat(connectionFactory.getSource(bytes("feed:42"))).isEqualTo("us");
+        assertThat(connectionFactory.getSource(bytes("feed:cn:42"))).isEqualTo("cn");
+        assertThat(connectionFactory.getSource(bytes("feed"))).isEqualTo("cn");
+        assertThat(connectionFactory.getSource(bytes("user:42"))).isEqualTo("cn");
+    }
+
+    @Test
+    void routesTemplateCommandsToTheSourceOfTheKey() {
+        PrefixRoutingRedisTemplate template = new PrefixRoutingRedisTemplate(connectionFactory);
+        template.afterPropertiesSet();
+
+        template.opsForValue().set("session:1", "s1");
+        template.opsForValue().set("feed:1", "f1");
+
+        assertThat(stores.get("hk")).containsOnlyKeys("session:1");
+        assertThat(stores.get("us")).containsOnlyKeys("feed:1");
+        assertThat(template.opsForValue().get("session:1")).isEqualTo("s1");
+        assertThat(template.getSource("feed:1")).isEqualTo("us");
+    }
+
+    @Test
+    void splitsMultiKeyCommandsPerSource() {
+        PrefixRoutingRedisTemplate template = new PrefixRoutingRedisTemplate(connectionFactory);
+        template.afterPropertiesSet();
+        Map<String, String> entries = new LinkedHashMap<>();
+        entries.put("session:1", "s1");
+        entries.put("feed:1", "f1");
+        entries.put("user:1", "u1");
+
+        template.opsForValue().multiSet(entries);
+        assertThat(stores.get("hk")).containsOnlyKeys("session:1");
+        assertThat(stores.get("us")).containsOnlyKeys("feed:1");
+        assertThat(stores.get("cn")).containsOnlyKeys("user:1");
+
+        assertThat(template.opsForValue().multiGet(List.of("user:1", "feed:1", "missing", "session:1")))
+                .containsExactly("u1", "f1", null, "s1");
+        assertThat(template.delete(List.of("session:1", "feed:1", "missing"))).isEqualTo(2);
+        assertThat(stores.get("hk")).isEmpty();
+        assertThat(stores.get("us")).isEmpty();
+    }
+
+    @Test
+    void rejectsMultiKeyCommandsSpanningSources() {
+        RedisConnection connection = connectionFactory.getConnection();
+
+        connection.keyCommands().rename(bytes("session:1"), bytes("session:2"));
+        verify(connections.get("hk").keyCommands()).rename(any(), any());
+        assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+                .isThrownBy(() -> connection.keyCommands().rename(bytes("session:1"), bytes("feed:1")))
+                .withMessageContaining("hk").withMessageContaining("us");
+        assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+                .isThrownBy(() -> connection.setCommands().sUnionStore(bytes("session:all"), bytes("session:1"), bytes("user:1")));
+        assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+                .isThrownBy(() -> connection.scriptingCommands().eval(bytes("return 1"), ReturnType.INTEGER, 2,
+                        bytes("session:1"), bytes("feed:1"), bytes("arg")));
+    }
+
+    @Test
+    void compressesValuesWithTheSettingsOfTheirSource() {
+        PrefixRoutingRedisTemplate template = new PrefixRoutingRedisTemplate(new PrefixRoutingRedisConnectionFactory(sources, routes, "cn",
+                Map.of("hk", new CompressingRedisSerializer<>(RedisSerializer.byteArray(), 0, 1))));
+        template.afterPropertiesSet();
+        String value = "value ".repeat(100);
+
+        template.opsForValue().set("session:1", value);
+        template.opsForValue().set("feed:1", value);
+        template.opsForValue().multiSet(Map.of("session:2", value, "feed:2", value));
+
+        assertThat(CompressingRedisSerializer.isCompressed(bytes(stores.get("hk").get("session:1")))).isTrue();
+        assertThat(CompressingRedisSerializer.isCompressed(bytes(stores.get("hk").get("session:2")))).isTrue();
+        assertThat(stores.get("us")).containsEntry("feed:1", value).containsEntry("feed:2", value);
+        assertThat(template.opsForValue().get("session:1")).isEqualTo(value);
+        assertThat(template.opsForValue().get("session:2")).isEqualTo(value);
+        assertThat(template.opsForValue().get("feed:1")).isEqualTo(value);
+    }
+
+    @Test
+    void servesCommandInterfacesFromTheConnection() {
+        RedisConnection connection = connectionFactory.getConnection();
+
+        assertThat(connection.stringCommands()).isSameAs(connection);
+        assertThat(connection.keyCommands()).isSameAs(connection);
+        connection.stringCommands().get(bytes("session:1"));
+        verify(connections.get("hk").stringCommands()).get(any());
+    }
+
+    @Test
+    void closesTheConnectionsOfEverySourceUsed() {
+        RedisConnection connection = connectionFactory.getConnection();
+        connection.stringCommands().get(bytes("session:1"));
+        connection.stringCommands().get(bytes("feed:1"));
+        connection.close();
+
+        assertThat(connection.isClosed()).isTrue();
+        verify(connections.get("hk")).close();
+        verify(connections.get("us")).close();
+    }
+
+    @Test
+    void rejectsPipelinesAndUnknownSources() {
+        assertThatExceptionOfType(InvalidDataAccessApiUsageException.class)
+                .isThrownBy(() -> connectionFactory.getConnection().openPipeline());
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new PrefixRoutingRedisConnectionFactory(Map.of("cn", mock(RedisConnectionFactory.class)),
+                        Map.of("session:*", "hk"), "cn"));
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new PrefixRoutingRedisConnectionFactory(Map.of("cn", mock(RedisConnectionFactory.class)),
+                        Map.of("session:*:id", "cn"), "cn"));
+    }
+
+    private RedisConnectionFactory connectionFactory(String name) {
+        Map<String, String> store = new LinkedHashMap<>();
+        stores.put(name, store);
+
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        given(stringCommands.get(any())).willAnswer((call) -> bytes(store.get(string(call.getArgument(0)))));
+        given(stringCommands.set(any(), any())).willAnswer((call) -> store.put(string(call.getArgument(0)), string(call.getArgument(1))) == null);
+        given(stringCommands.mGet(any(byte[][].class))).willAnswer((call) -> {
+            List<byte[]> values = new ArrayList<>();
+            for (byte[] key : (byte[][]) call.getRawArguments()[0]) {
+                values.add(bytes(store.get(string(key))));
+            }
+            return values;
+        });
+        given(stringCommands.mSet(any())).willAnswer((call) -> {
+            Map<byte[], byte[]> tuples = call.getArgument(0);
+            tuples.forEach((key, value) -> store.put(string(key), string(value)));
+            return true;
+        });
+        RedisKeyCommands keyCommands = mock(RedisKeyCommands.class);
+        given(keyCommands.del(any(byte[][].class))).willAnswer((call) -> Arrays.stream((byte[][]) call.getRawArguments()[0])
+                .filter((key) -> store.remove(string(key)) != null).count());
+
+        RedisConnection connection = mock(RedisConnection.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        given(connection.stringCommands()).willReturn(stringCommands);
+        given(connection.keyCommands()).willReturn(keyCommands);
+        given(connection.setCommands()).willReturn(mock(RedisSetCommands.class));
+        given(connection.scriptingCommands()).willReturn(mock(RedisScriptingCommands.class));
+        connections.put(name, connection);
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        given(factory.getConnection()).willReturn(connection);
+        return factory;
+    }
+
+    // ISO-8859-1 keeps compressed values intact in the string stores
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.ISO_8859_1) : null;
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.ISO_8859_1);
+    }
+}
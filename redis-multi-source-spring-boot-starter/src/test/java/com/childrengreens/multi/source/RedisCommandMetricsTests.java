@@ -0,0 +1,123 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.lettuce.core.protocol.CommandType;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.util.Timeout;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisStringCommands;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RedisCommandMetrics} and {@link InstrumentedRedisConnectionFactory}.
+ */
+class RedisCommandMetricsTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void recordsLettuceCommandLatencyPerSourceAndCommand() {
+        RedisCommandMetrics.LettuceCommandLatencyRecorder recorder = new RedisCommandMetrics.LettuceCommandLatencyRecorder(registry, "us", true);
+        InetSocketAddress address = new InetSocketAddress("localhost", 6379);
+
+        recorder.recordCommandLatency(address, address, CommandType.HGETALL, 1_000, 2_000_000);
+        recorder.recordCommandLatency(address, address, CommandType.HGETALL, 1_000, 4_000_000);
+        recorder.recordCommandLatency(address, address, CommandType.GET, 1_000, 1_000_000);
+
+        Timer hgetall = registry.get(RedisCommandMetrics.METER_NAME).tag("source", "us").tag("command", "HGETALL").timer();
+        assertThat(hgetall.count()).isEqualTo(2);
+        assertThat(hgetall.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(6);
+        assertThat(registry.get(RedisCommandMetrics.METER_NAME).tag("command", "GET").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void destroyingInstrumentedClientResourcesLeavesBaseResourcesRunning() {
+        ClientResources base = DefaultClientResources.create();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", registry);
+        try {
+            RedisCommandMetrics.InstrumentedClientResources instrumented = RedisCommandMetrics.instrument(base, beanFactory, "us",
+                    new RedisSourceProperties.Metrics());
+            assertThat(instrumented.getClientResources()).isNotSameAs(base);
+            assertThat(instrumented.getClientResources().commandLatencyRecorder())
+                    .isInstanceOf(RedisCommandMetrics.LettuceCommandLatencyRecorder.class);
+            assertThat(instrumented.getClientResources().eventExecutorGroup()).isSameAs(base.eventExecutorGroup());
+            assertThat(instrumented.getClientResources().timer()).isSameAs(base.timer());
+
+            instrumented.destroy();
+
+            assertThat(base.eventExecutorGroup().isShuttingDown()).isFalse();
+            Timeout timeout = base.timer().newTimeout((ignored) -> {
+            }, 1, TimeUnit.HOURS);
+            timeout.cancel();
+        } finally {
+            base.shutdown();
+        }
+    }
+
+    @Test
+    void timesCommandsIssuedThroughInstrumentedConnections() {
+        RedisConnectionFactory delegate = mock(RedisConnectionFactory.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        byte[] key = "key".getBytes();
+        given(delegate.getConnection()).willReturn(connection);
+        given(connection.stringCommands()).willReturn(stringCommands);
+        given(stringCommands.get(key)).willReturn("value".getBytes());
+
+        RedisConnectionFactory factory = new InstrumentedRedisConnectionFactory(delegate,
+                new RedisCommandMetrics.MethodCommandRecorder(registry, "cn", false));
+        RedisConnection instrumented = factory.getConnection();
+
+        assertThat(instrumented.stringCommands()).isSameAs(instrumented.stringCommands());
+        assertThat(instrumented.stringCommands().get(key)).isEqualTo("value".getBytes());
+        instrumented.close();
+
+        assertThat(registry.get(RedisCommandMetrics.METER_NAME).tag("source", "cn").tag("command", "GET").timer().count()).isEqualTo(1);
+        assertThat(registry.find(RedisCommandMetrics.METER_NAME).tag("command", "CLOSE").timer()).isNull();
+        verify(connection).close();
+    }
+
+    @Test
+    void skipsPipelinedCommands() {
+        RedisConnectionFactory delegate = mock(RedisConnectionFactory.class);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        given(delegate.getConnection()).willReturn(connection);
+        given(connection.stringCommands()).willReturn(stringCommands);
+        given(connection.isPipelined()).willReturn(true);
+
+        RedisConnectionFactory factory = new InstrumentedRedisConnectionFactory(delegate,
+                new RedisCommandMetrics.MethodCommandRecorder(registry, "cn", false));
+        factory.getConnection().stringCommands().get("key".getBytes());
+
+        assertThat(registry.find(RedisCommandMetrics.METER_NAME).timers()).isEmpty();
+    }
+}
@@ -15,6 +15,12 @@
  */
 package com.childrengreens.multi.source;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.cluster.ClusterClientOptions;
+import io.lettuce.core.cluster.ClusterTopologyRefreshOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.condition.EnabledForJreRange;
@@ -22,12 +28,18 @@ import org.junit.jupiter.api.condition.JRE;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.data.redis.autoconfigure.DataRedisAutoConfiguration;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceConnection;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.util.ClassUtils;
 import org.springframework.core.task.SimpleAsyncTaskExecutor;
 
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -84,6 +96,124 @@ class RedisConnectionMultiSourcesRegistrarTests {
                 });
     }
 
+    @Test
+    void appliesPipeliningFlushPolicyPerSource() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.multi-sources.redis.primary-key=alpha",
+                        "spring.multi-sources.redis.sources.alpha.host=localhost",
+                        "spring.multi-sources.redis.sources.alpha.pipelining.flush-policy=flush-on-close",
+                        "spring.multi-sources.redis.sources.beta.host=localhost"
+                )
+                .run((context) -> {
+                    LettuceConnectionFactory alpha = context.getBean("alphaLettuceConnectionFactory", LettuceConnectionFactory.class);
+                    LettuceConnectionFactory beta = context.getBean("betaLettuceConnectionFactory", LettuceConnectionFactory.class);
+                    assertThat(resolveField(alpha, "pipeliningFlushPolicy"))
+                            .isSameAs(LettuceConnection.PipeliningFlushPolicy.flushOnClose());
+                    assertThat(resolveField(beta, "pipeliningFlushPolicy"))
+                            .isSameAs(LettuceConnection.PipeliningFlushPolicy.flushEachCommand());
+                });
+    }
+
+    @Test
+    void stripesLettuceConnectionsWhenConnectionsConfigured() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.multi-sources.redis.primary-key=alpha",
+                        "spring.multi-sources.redis.sources.alpha.host=localhost",
+                        "spring.multi-sources.redis.sources.alpha.connections=3",
+                        "spring.multi-sources.redis.sources.beta.host=localhost"
+                )
+                .run((context) -> {
+                    assertThat(context.getBean("alphaLettuceConnectionFactory"))
+                            .isInstanceOf(LettuceConnectionFactory.class)
+                            .isInstanceOf(ReactiveRedisConnectionFactory.class);
+                    assertThat(context.getBean("betaLettuceConnectionFactory"))
+                            .isInstanceOf(LettuceConnectionFactory.class);
+                    assertThat(context).doesNotHaveBean("betaStripedLettuceConnectionFactory");
+                    assertThat(context.getBean(RedisConnectionFactory.class))
+                            .isSameAs(context.getBean("alphaLettuceConnectionFactory"));
+
+                    StripedLettuceConnectionFactory striped = context.getBean("alphaStripedLettuceConnectionFactory", StripedLettuceConnectionFactory.class);
+                    assertThat(striped.getStripes()).hasSize(3).doesNotHaveDuplicates()
+                            .first().isSameAs(context.getBean("alphaLettuceConnectionFactory"));
+                    assertThat(context.getBean("alphaStringRedisTemplate", StringRedisTemplate.class).getConnectionFactory())
+                            .isSameAs(striped);
+                    assertThat(striped.isRunning()).isTrue();
+                    assertThat(striped.currentStripe()).isSameAs(striped.currentStripe());
+                });
+    }
+
+    @Test
+    void appliesReadFromPerSource() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.multi-sources.redis.primary-key=alpha",
+                        "spring.multi-sources.redis.sources.alpha.host=localhost",
+                        "spring.multi-sources.redis.sources.alpha.lettuce.read-from=replica-preferred",
+                        "spring.multi-sources.redis.sources.alpha.connections=2",
+                        "spring.multi-sources.redis.sources.beta.host=localhost",
+                        "spring.multi-sources.redis.sources.beta.lettuce.read-from=lowest-latency",
+                        "spring.multi-sources.redis.sources.gamma.host=localhost",
+                        "spring.multi-sources.redis.sources.gamma.lettuce.read-from=regex:.*:638[0-9]"
+                )
+                .run((context) -> {
+                    StripedLettuceConnectionFactory alpha = context.getBean("alphaStripedLettuceConnectionFactory", StripedLettuceConnectionFactory.class);
+                    LettuceConnectionFactory beta = context.getBean("betaLettuceConnectionFactory", LettuceConnectionFactory.class);
+                    LettuceConnectionFactory gamma = context.getBean("gammaLettuceConnectionFactory", LettuceConnectionFactory.class);
+                    assertThat(alpha.getStripes()).allSatisfy((stripe) ->
+                            assertThat(stripe.getClientConfiguration().getReadFrom()).contains(ReadFrom.REPLICA_PREFERRED));
+                    assertThat(beta.getClientConfiguration().getReadFrom()).contains(ReadFrom.LOWEST_LATENCY);
+                    assertThat(gamma.getClientConfiguration().getReadFrom()).hasValueSatisfying((readFrom) ->
+                            assertThat(readFrom.getClass().getSimpleName()).isEqualTo("ReadFromRegex"));
+                });
+    }
+
+    @Test
+    void appliesClusterTopologyRefreshPerSource() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.multi-sources.redis.primary-key=alpha",
+                        "spring.multi-sources.redis.sources.alpha.cluster.nodes=localhost:7000,localhost:7001",
+                        "spring.multi-sources.redis.sources.alpha.lettuce.cluster.refresh.adaptive=true",
+                        "spring.multi-sources.redis.sources.alpha.lettuce.cluster.refresh.period=30s",
+                        "spring.multi-sources.redis.sources.beta.cluster.nodes=localhost:7100",
+                        "spring.multi-sources.redis.sources.beta.lettuce.cluster.refresh.adaptive=false"
+                )
+                .run((context) -> {
+                    ClusterTopologyRefreshOptions alpha = topologyRefreshOptions(
+                            context.getBean("alphaLettuceConnectionFactory", LettuceConnectionFactory.class));
+                    ClusterTopologyRefreshOptions beta = topologyRefreshOptions(
+                            context.getBean("betaLettuceConnectionFactory", LettuceConnectionFactory.class));
+                    assertThat(alpha.getAdaptiveRefreshTriggers()).isNotEmpty();
+                    assertThat(alpha.isPeriodicRefreshEnabled()).isTrue();
+                    assertThat(alpha.getRefreshPeriod()).isEqualTo(Duration.ofSeconds(30));
+                    assertThat(beta.getAdaptiveRefreshTriggers()).isEmpty();
+                    assertThat(beta.isPeriodicRefreshEnabled()).isFalse();
+                });
+    }
+
+    @Test
+    void registersPoolManagerForPooledSources() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.multi-sources.redis.primary-key=alpha",
+                        "spring.multi-sources.redis.sources.alpha.host=localhost",
+                        "spring.multi-sources.redis.sources.alpha.lettuce.pool.enabled=true",
+                        "spring.multi-sources.redis.sources.alpha.pooling.adaptive.enabled=true",
+                        "spring.multi-sources.redis.sources.beta.host=localhost",
+                        "spring.multi-sources.redis.sources.beta.lettuce.pool.enabled=false"
+                )
+                .run((context) -> {
+                    assertThat(context).hasBean("alphaRedisPoolManager");
+                    assertThat(context).doesNotHaveBean("betaRedisPoolManager");
+
+                    RedisPoolManager poolManager = context.getBean("alphaRedisPoolManager", RedisPoolManager.class);
+                    assertThat(poolManager.isRunning()).isTrue();
+                    assertThat(poolManager.getStatistics().active()).isZero();
+                });
+    }
+
     @Test
     @EnabledForJreRange(min = JRE.JAVA_21)
     void usesVirtualThreadExecutorWhenEnabled() {
@@ -104,6 +234,61 @@ class RedisConnectionMultiSourcesRegistrarTests {
                 });
     }
 
+    @Test
+    void recordsCommandLatencyWhenMetricsEnabled() {
+        AtomicReference<ClientResources> instrumented = new AtomicReference<>();
+        this.contextRunner
+                .withBean(SimpleMeterRegistry.class)
+                .withPropertyValues(
+                        "spring.multi-sources.redis.primary-key=alpha",
+                        "spring.multi-sources.redis.sources.alpha.host=localhost",
+                        "spring.multi-sources.redis.sources.alpha.metrics.enabled=true",
+                        "spring.multi-sources.redis.sources.beta.host=localhost"
+                )
+                .run((context) -> {
+                    LettuceConnectionFactory alpha = context.getBean("alphaLettuceConnectionFactory", LettuceConnectionFactory.class);
+                    LettuceConnectionFactory beta = context.getBean("betaLettuceConnectionFactory", LettuceConnectionFactory.class);
+                    assertThat(alpha.getClientResources().commandLatencyRecorder())
+                            .isInstanceOf(RedisCommandMetrics.LettuceCommandLatencyRecorder.class);
+                    assertThat(beta.getClientResources().commandLatencyRecorder())
+                            .isNotInstanceOf(RedisCommandMetrics.LettuceCommandLatencyRecorder.class);
+                    assertThat(context.getBean("alphaInstrumentedClientResources", RedisCommandMetrics.InstrumentedClientResources.class)
+                            .getClientResources()).isSameAs(alpha.getClientResources());
+                    instrumented.set(alpha.getClientResources());
+                });
+        assertThat(resolveField(instrumented.get(), "shutdownCalled")).isEqualTo(true);
+    }
+
+    @Test
+    void instrumentsJedisConnectionFactoryWhenMetricsEnabled() {
+        Assumptions.assumeTrue(ClassUtils.isPresent(RedisDataClassNames.JEDIS_TYPE, getClass().getClassLoader()),
+                "Jedis not on classpath");
+
+        this.contextRunner
+                .withBean(SimpleMeterRegistry.class)
+                .withPropertyValues(
+                        "spring.multi-sources.redis.primary-key=alpha",
+                        "spring.multi-sources.redis.sources.alpha.host=localhost",
+                        "spring.multi-sources.redis.sources.alpha.client-type=jedis",
+                        "spring.multi-sources.redis.sources.alpha.metrics.enabled=true"
+                )
+                .run((context) -> {
+                    JedisConnectionFactory jedis = context.getBean("alphaJedisConnectionFactory", JedisConnectionFactory.class);
+                    assertThat(context.getBean(JedisConnectionFactory.class)).isSameAs(jedis);
+                    InstrumentedRedisConnectionFactory factory = context.getBean("alphaInstrumentedRedisConnectionFactory", InstrumentedRedisConnectionFactory.class);
+                    assertThat(factory.getDelegate()).isSameAs(jedis);
+                    assertThat(context.getBean(RedisConnectionFactory.class)).isSameAs(jedis);
+                    assertThat(context.getBean("alphaStringRedisTemplate", StringRedisTemplate.class).getConnectionFactory())
+                            .isSameAs(factory);
+                });
+    }
+
+    private ClusterTopologyRefreshOptions topologyRefreshOptions(LettuceConnectionFactory factory) {
+        ClientOptions clientOptions = factory.getClientConfiguration().getClientOptions().orElseThrow();
+        assertThat(clientOptions).isInstanceOf(ClusterClientOptions.class);
+        return ((ClusterClientOptions) clientOptions).getTopologyRefreshOptions();
+    }
+
     private Object resolveField(Object target, String fieldName) {
         try {
             var field = target.getClass().getDeclaredField(fieldName);
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisKeyCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Tests for {@link RedisHotKeyDetector} and {@link HotKeyCachingRedisConnectionFactory}.
+ */
+class RedisHotKeyDetectorTests {
+
+    @Test
+    void detectsKeysAboveThreshold() {
+        RedisHotKeyDetector detector = new RedisHotKeyDetector("cn", hotKeys(1.0, 100, 2));
+
+        for (int i = 0; i < 99; i++) {
+            assertThat(detector.record(bytes("flash:sale"))).isFalse();
+        }
+        assertThat(detector.record(bytes("flash:sale"))).isTrue();
+        for (int i = 0; i < 500; i++) {
+            detector.record(bytes("flash:banner"));
+            detector.record(bytes("cold:" + i));
+        }
+        for (int i = 0; i < 150; i++) {
+            detector.record(bytes("flash:stock"));
+        }
+
+        assertThat(detector.getHotKeys()).extracting(RedisHotKeyDetector.HotKey::key)
+                .containsExactly("flash:banner", "flash:stock");
+        assertThat(detector.getHotKeys().get(0).estimate()).isGreaterThanOrEqualTo(500);
+    }
+
+    @Test
+    void scalesSampledCounts() {
+        RedisHotKeyDetector detector = new RedisHotKeyDetector("cn", hotKeys(0.5, 1000, 16));
+
+        boolean hot = false;
+        for (int i = 0; i < 4000 && !hot; i++) {
+            hot = detector.record(bytes("flash:sale"));
+        }
+        assertThat(hot).isTrue();
+        assertThat(detector.getHotKeys()).singleElement()
+                .satisfies((hotKey) -> assertThat(hotKey.estimate()).isBetween(1000L, 1010L));
+    }
+
+    @Test
+    void servesHotKeysFromLocalCacheUntilWritten() {
+        AtomicInteger reads = new AtomicInteger();
+        byte[][] value = {bytes("v1")};
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        given(stringCommands.get(any())).willAnswer((call) -> {
+            reads.incrementAndGet();
+            return value[0];
+        });
+        given(stringCommands.set(any(), any())).willAnswer((call) -> {
+            value[0] = call.getArgument(1);
+            return true;
+        });
+        RedisConnection connection = mock(RedisConnection.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        given(connection.stringCommands()).willReturn(stringCommands);
+        given(connection.isPipelined()).willReturn(false);
+        given(connection.isQueueing()).willReturn(false);
+        RedisConnectionFactory delegate = mock(RedisConnectionFactory.class);
+        given(delegate.getConnection()).willReturn(connection);
+
+        RedisHotKeyDetector detector = new RedisHotKeyDetector("cn", hotKeys(1.0, 10, 16));
+        StringRedisTemplate template = new StringRedisTemplate(new HotKeyCachingRedisConnectionFactory(delegate, detector));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(template.opsForValue().get("flash:sale")).isEqualTo("v1");
+        }
+        assertThat(reads).hasValue(10);
+        assertThat(detector.getCacheHits()).isEqualTo(90);
+
+        template.opsForValue().set("flash:sale", "v2");
+        assertThat(detector.getCacheSize()).isZero();
+        assertThat(template.opsForValue().get("flash:sale")).isEqualTo("v2");
+        assertThat(reads).hasValue(11);
+    }
+
+    @Test
+    void doesNotCacheValuesReadWhileTheKeyIsEvicted() {
+        RedisHotKeyDetector detector = new RedisHotKeyDetector("cn", hotKeys(1.0, 1, 16));
+        byte[] key = bytes("flash:sale");
+
+        long version = detector.getVersion(key);
+        detector.evict(key);
+        detector.cache(key, bytes("stale"), version);
+        assertThat(detector.getCached(key)).isNull();
+
+        version = detector.getVersion(key);
+        detector.clear();
+        detector.cache(key, bytes("stale"), version);
+        assertThat(detector.getCached(key)).isNull();
+
+        detector.cache(key, bytes("fresh"), detector.getVersion(key));
+        assertThat(detector.getCached(key)).isEqualTo(bytes("fresh"));
+    }
+
+    @Test
+    void evictsWrittenKeysOnlyAndClearsOnScripts() {
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        given(stringCommands.get(any())).willAnswer((call) -> call.getArgument(0));
+        RedisConnection connection = mock(RedisConnection.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        given(connection.stringCommands()).willReturn(stringCommands);
+        given(connection.keyCommands()).willReturn(mock(RedisKeyCommands.class));
+        given(connection.hashCommands()).willReturn(mock(RedisHashCommands.class));
+        given(connection.scriptingCommands()).willReturn(mock(RedisScriptingCommands.class));
+        given(connection.isPipelined()).willReturn(false);
+        given(connection.isQueueing()).willReturn(false);
+        RedisConnectionFactory delegate = mock(RedisConnectionFactory.class);
+        given(delegate.getConnection()).willReturn(connection);
+
+        RedisHotKeyDetector detector = new RedisHotKeyDetector("cn", hotKeys(1.0, 1, 16));
+        RedisConnection caching = new HotKeyCachingRedisConnectionFactory(delegate, detector).getConnection();
+        caching.stringCommands().get(bytes("a"));
+        caching.stringCommands().get(bytes("b"));
+        assertThat(detector.getCacheSize()).isEqualTo(2);
+
+        // values and the arguments of reads are not keys written by the command
+        caching.stringCommands().set(bytes("c"), bytes("a"));
+        caching.keyCommands().exists(bytes("a"));
+        caching.hashCommands().hGet(bytes("b"), bytes("a"));
+        assertThat(detector.getCacheSize()).isEqualTo(2);
+
+        // RENAME a b changes both keys
+        caching.keyCommands().rename(bytes("a"), bytes("b"));
+        assertThat(detector.getCacheSize()).isZero();
+
+        caching.stringCommands().get(bytes("a"));
+        caching.scriptingCommands().eval(bytes("return 1"), ReturnType.INTEGER, 0);
+        assertThat(detector.getCacheSize()).isZero();
+    }
+
+    private RedisSourceProperties.HotKeys hotKeys(double sampleRate, long threshold, int topK) {
+        RedisSourceProperties.HotKeys hotKeys = new RedisSourceProperties.HotKeys();
+        hotKeys.setEnabled(true);
+        hotKeys.setSampleRate(sampleRate);
+        hotKeys.setThreshold(threshold);
+        hotKeys.setTopK(topK);
+        hotKeys.setWindow(Duration.ofMinutes(1));
+        hotKeys.setCacheTtl(Duration.ofMinutes(1));
+        return hotKeys;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
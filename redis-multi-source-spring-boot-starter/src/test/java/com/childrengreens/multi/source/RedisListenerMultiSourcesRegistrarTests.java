@@ -0,0 +1,287 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.data.redis.autoconfigure.DataRedisAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.stream.MapRecord;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.listener.adapter.MessageListenerAdapter;
+import org.springframework.data.redis.stream.StreamMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests for {@link RedisListenerMultiSourcesRegistrar}, {@link RedisListenerAnnotationBeanPostProcessor} and
+ * {@link RedisStreamListenerAnnotationBeanPostProcessor}.
+ */
+class RedisListenerMultiSourcesRegistrarTests {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(
+                    DataRedisAutoConfiguration.class,
+                    RedisMultiSourcesAutoConfiguration.class
+            ))
+            .withPropertyValues(
+                    "spring.multi-sources.redis.primary-key=alpha",
+                    "spring.multi-sources.redis.sources.alpha.host=localhost",
+                    "spring.multi-sources.redis.sources.alpha.listener.auto-startup=false",
+                    "spring.multi-sources.redis.sources.beta.host=localhost",
+                    "spring.multi-sources.redis.sources.beta.listener.auto-startup=false",
+                    "spring.multi-sources.redis.sources.alpha.streams.auto-startup=false",
+                    "spring.multi-sources.redis.sources.beta.streams.auto-startup=false"
+            );
+
+    @Test
+    void registersListenerContainerPerSource() {
+        this.contextRunner.run((context) -> {
+            assertThat(context.getBeansOfType(RedisMessageListenerContainer.class))
+                    .containsOnlyKeys("alphaRedisMessageListenerContainer", "betaRedisMessageListenerContainer");
+            RedisMessageListenerContainer beta = context.getBean("betaRedisMessageListenerContainer", RedisMessageListenerContainer.class);
+            assertThat(beta.getConnectionFactory()).isSameAs(context.getBean("betaLettuceConnectionFactory"));
+            assertThat(beta.isAutoStartup()).isFalse();
+            assertThat(context.getBean(RedisMessageListenerContainer.class))
+                    .isSameAs(context.getBean("alphaRedisMessageListenerContainer"));
+        });
+    }
+
+    @Test
+    void skipsListenerContainerWhenDisabled() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.redis.sources.beta.listener.enabled=false")
+                .run((context) -> assertThat(context.getBeansOfType(RedisMessageListenerContainer.class))
+                        .containsOnlyKeys("alphaRedisMessageListenerContainer"));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void usesVirtualThreadsWhenEnabled() {
+        this.contextRunner
+                .withPropertyValues("spring.threads.virtual.enabled=true")
+                .run((context) -> {
+                    RedisMessageListenerContainer container = context.getBean("betaRedisMessageListenerContainer", RedisMessageListenerContainer.class);
+                    Object executor = resolveField(container, "taskExecutor");
+                    assertThat(executor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+                    assertThat(resolveField(executor, "virtualThreadDelegate")).isNotNull();
+                    assertThat(resolveField(container, "subscriptionExecutor")).isInstanceOf(SimpleAsyncTaskExecutor.class);
+                });
+    }
+
+    @Test
+    void subscribesConfiguredListeners() {
+        this.contextRunner
+                .withUserConfiguration(ListenerConfiguration.class)
+                .withPropertyValues(
+                        "spring.multi-sources.redis.sources.beta.listener.subscriptions.ordersListener.channels=orders,payments",
+                        "spring.multi-sources.redis.sources.beta.listener.subscriptions.ordersListener.patterns=audit.*"
+                )
+                .run((context) -> {
+                    RedisMessageListenerContainer beta = context.getBean("betaRedisMessageListenerContainer", RedisMessageListenerContainer.class);
+                    Map<Object, Set<Object>> listenerTopics = listenerTopics(beta);
+                    assertThat(listenerTopics).containsOnlyKeys(context.getBean("ordersListener"));
+                    assertThat(listenerTopics.get(context.getBean("ordersListener")))
+                            .containsExactlyInAnyOrder(ChannelTopic.of("orders"), ChannelTopic.of("payments"), PatternTopic.of("audit.*"));
+                });
+    }
+
+    @Test
+    void subscribesAnnotatedMethodsOnTheirSource() {
+        this.contextRunner
+                .withUserConfiguration(AnnotatedListenerConfiguration.class)
+                .withPropertyValues("app.channel=news")
+                .run((context) -> {
+                    Map<Object, Set<Object>> betaTopics = listenerTopics(context.getBean("betaRedisMessageListenerContainer"));
+                    assertThat(betaTopics).hasSize(1);
+                    assertThat(betaTopics.keySet().iterator().next()).isInstanceOf(MessageListenerAdapter.class);
+                    assertThat(betaTopics.values().iterator().next())
+                            .containsExactlyInAnyOrder(ChannelTopic.of("news"), PatternTopic.of("news.*"));
+
+                    Map<Object, Set<Object>> alphaTopics = listenerTopics(context.getBean("alphaRedisMessageListenerContainer"));
+                    assertThat(alphaTopics).hasSize(1);
+                    assertThat(alphaTopics.values().iterator().next()).containsExactly(ChannelTopic.of("alerts"));
+                });
+    }
+
+    @Test
+    void failsForUnknownSource() {
+        this.contextRunner
+                .withUserConfiguration(UnknownSourceListenerConfiguration.class)
+                .run((context) -> assertThat(context).hasFailed());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Object, Set<Object>> listenerTopics(Object container) {
+        return (Map<Object, Set<Object>>) resolveField(container, "listenerTopics");
+    }
+
+    @Test
+    void registersNoStreamContainerByDefault() {
+        this.contextRunner.run((context) -> {
+            assertThat(context).doesNotHaveBean(StreamMessageListenerContainer.class);
+            assertThat(context).doesNotHaveBean(RedisStreamAcknowledger.class);
+        });
+    }
+
+    @Test
+    void registersStreamContainerPerSource() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.multi-sources.redis.sources.alpha.streams.enabled=true",
+                        "spring.multi-sources.redis.sources.beta.streams.enabled=true",
+                        "spring.multi-sources.redis.sources.beta.streams.batch-size=500",
+                        "spring.multi-sources.redis.sources.beta.streams.poll-timeout=5s"
+                )
+                .run((context) -> {
+                    assertThat(context.getBeansOfType(StreamMessageListenerContainer.class))
+                            .containsOnlyKeys("alphaStreamMessageListenerContainer", "betaStreamMessageListenerContainer");
+                    assertThat(context.getBeansOfType(RedisStreamAcknowledger.class))
+                            .containsOnlyKeys("alphaRedisStreamAcknowledger", "betaRedisStreamAcknowledger");
+
+                    StreamMessageListenerContainer<?, ?> beta = context.getBean("betaStreamMessageListenerContainer", StreamMessageListenerContainer.class);
+                    assertThat(beta.isAutoStartup()).isFalse();
+                    StreamMessageListenerContainer.StreamMessageListenerContainerOptions<?, ?> options =
+                            (StreamMessageListenerContainer.StreamMessageListenerContainerOptions<?, ?>) resolveField(beta, "containerOptions");
+                    assertThat(options.getBatchSize()).hasValue(500);
+                    assertThat(options.getPollTimeout()).isEqualTo(Duration.ofSeconds(5));
+                    assertThat(context.getBean(StreamMessageListenerContainer.class))
+                            .isSameAs(context.getBean("alphaStreamMessageListenerContainer"));
+                });
+    }
+
+    @Test
+    void subscribesAnnotatedStreamListeners() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.multi-sources.redis.sources.alpha.streams.enabled=true",
+                        "spring.multi-sources.redis.sources.beta.streams.enabled=true"
+                )
+                .withUserConfiguration(StreamListenerConfiguration.class)
+                .run((context) -> {
+                    assertThat((List<?>) resolveField(context.getBean("betaStreamMessageListenerContainer"), "subscriptions")).hasSize(1);
+                    assertThat((List<?>) resolveField(context.getBean("alphaStreamMessageListenerContainer"), "subscriptions")).isEmpty();
+                });
+    }
+
+    @Test
+    void rejectsStreamListenerWithoutRecordParameter() {
+        this.contextRunner
+                .withUserConfiguration(InvalidStreamListenerConfiguration.class)
+                .run((context) -> assertThat(context).hasFailed());
+    }
+
+    private Object resolveField(Object target, String fieldName) {
+        try {
+            var field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            return field.get(target);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to resolve field '" + fieldName + "' from " + target, ex);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class ListenerConfiguration {
+
+        @Bean
+        MessageListener ordersListener() {
+            return (message, pattern) -> {
+            };
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class AnnotatedListenerConfiguration {
+
+        @Bean
+        Listeners listeners() {
+            return new Listeners();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class UnknownSourceListenerConfiguration {
+
+        @Bean
+        UnknownSourceListener unknownSourceListener() {
+            return new UnknownSourceListener();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class StreamListenerConfiguration {
+
+        @Bean
+        StreamListeners streamListeners() {
+            return new StreamListeners();
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class InvalidStreamListenerConfiguration {
+
+        @Bean
+        InvalidStreamListener invalidStreamListener() {
+            return new InvalidStreamListener();
+        }
+    }
+
+    static class StreamListeners {
+
+        @RedisStreamListener(source = "beta", stream = "orders", group = "billing", createGroup = false)
+        void onOrder(MapRecord<String, String, String> record) {
+        }
+    }
+
+    static class InvalidStreamListener {
+
+        @RedisStreamListener(source = "beta", stream = "orders", group = "billing", createGroup = false)
+        void onOrder(String record) {
+        }
+    }
+
+    static class Listeners {
+
+        @RedisListener(source = "beta", channel = "${app.channel}", pattern = "${app.channel}.*")
+        public void onNews(String message, String channel) {
+        }
+
+        @RedisListener(channel = "alerts")
+        public void onAlert(String message) {
+        }
+    }
+
+    static class UnknownSourceListener {
+
+        @RedisListener(source = "gamma", channel = "news")
+        public void onNews(String message) {
+        }
+    }
+}
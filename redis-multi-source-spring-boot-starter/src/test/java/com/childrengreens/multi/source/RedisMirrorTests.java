@@ -0,0 +1,238 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.connection.RedisListCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DigestUtils;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Tests for {@link RedisMirror} and {@link MirroringRedisConnectionFactory}.
+ */
+class RedisMirrorTests {
+
+    @Test
+    void classifiesDataCommands() throws Exception {
+        Method get = RedisStringCommands.class.getMethod("get", byte[].class);
+        Method set = RedisStringCommands.class.getMethod("set", byte[].class, byte[].class);
+
+        assertThat(RedisMirror.command(get)).isEqualTo(new RedisMirror.Command(RedisMirror.Kind.READ, get));
+        assertThat(RedisMirror.command(set)).isEqualTo(new RedisMirror.Command(RedisMirror.Kind.WRITE, set));
+        assertThat(RedisMirror.command(RedisConnection.class.getMethod("set", byte[].class, byte[].class)))
+                .isEqualTo(new RedisMirror.Command(RedisMirror.Kind.WRITE, set));
+        assertThat(RedisMirror.command(RedisConnection.class.getMethod("ttl", byte[].class)).kind()).isEqualTo(RedisMirror.Kind.IGNORED);
+        assertThat(RedisMirror.command(ReflectionUtils.findMethod(RedisListCommands.class, "bLPop", int.class, byte[][].class)).kind())
+                .isEqualTo(RedisMirror.Kind.IGNORED);
+        assertThat(RedisMirror.command(RedisConnection.class.getMethod("close")).kind()).isEqualTo(RedisMirror.Kind.IGNORED);
+    }
+
+    @Test
+    void classifiesScriptsAndRawCommandsAsWrites() throws Exception {
+        Method eval = RedisScriptingCommands.class.getMethod("eval", byte[].class, ReturnType.class, int.class, byte[][].class);
+
+        assertThat(RedisMirror.command(RedisConnection.class.getMethod("eval", byte[].class, ReturnType.class, int.class, byte[][].class)))
+                .isEqualTo(new RedisMirror.Command(RedisMirror.Kind.WRITE, eval));
+        assertThat(RedisMirror.command(RedisConnection.class.getMethod("evalSha", String.class, ReturnType.class, int.class, byte[][].class))
+                .kind()).isEqualTo(RedisMirror.Kind.WRITE);
+        assertThat(RedisMirror.command(RedisConnection.class.getMethod("scriptLoad", byte[].class)).kind()).isEqualTo(RedisMirror.Kind.WRITE);
+        assertThat(RedisMirror.command(RedisConnection.class.getMethod("scriptFlush")).kind()).isEqualTo(RedisMirror.Kind.IGNORED);
+        assertThat(RedisMirror.command(RedisConnection.class.getMethod("execute", String.class, byte[][].class)))
+                .isEqualTo(new RedisMirror.Command(RedisMirror.Kind.WRITE, RedisMirror.EXECUTE));
+    }
+
+    @Test
+    void copiesEvalShaOfKnownScriptAsEval() {
+        RedisScriptingCommands targetScripts = mock(RedisScriptingCommands.class);
+        RedisConnection connection = connection(mock(RedisStringCommands.class));
+        given(connection.scriptingCommands()).willReturn(targetScripts);
+        RedisConnectionFactory target = mock(RedisConnectionFactory.class);
+        given(target.getConnection()).willReturn(connection);
+        RedisMirror mirror = new RedisMirror("alpha", "beta", target, mirrorProperties(10, 10, 0), new SimpleAsyncTaskExecutor());
+        String script = "return redis.call('INCR', KEYS[1])";
+        String sha = DigestUtils.sha1DigestAsHex(script);
+        Method eval = ReflectionUtils.findMethod(RedisScriptingCommands.class, "eval", byte[].class, ReturnType.class,
+                int.class, byte[][].class);
+        Method evalSha = ReflectionUtils.findMethod(RedisScriptingCommands.class, "evalSha", String.class, ReturnType.class,
+                int.class, byte[][].class);
+
+        mirror.write(evalSha, new Object[]{sha, ReturnType.INTEGER, 1, new byte[][]{bytes("counter")}});
+        mirror.write(eval, new Object[]{bytes(script), ReturnType.INTEGER, 1, new byte[][]{bytes("counter")}});
+        mirror.write(evalSha, new Object[]{sha, ReturnType.INTEGER, 1, new byte[][]{bytes("counter")}});
+        mirror.start();
+        try {
+            await().atMost(Duration.ofSeconds(5)).until(() -> mirror.getCopied() == 3);
+        } finally {
+            mirror.stop();
+        }
+
+        verify(targetScripts).evalSha(sha, ReturnType.INTEGER, 1, bytes("counter"));
+        verify(targetScripts, times(2)).eval(bytes(script), ReturnType.INTEGER, 1, bytes("counter"));
+    }
+
+    @Test
+    void copiesTransactionWritesOnlyOnExec() {
+        RedisStringCommands sourceCommands = mock(RedisStringCommands.class);
+        RedisConnection source = connection(sourceCommands);
+        given(source.isQueueing()).willReturn(true);
+        given(source.exec()).willReturn(List.of(true));
+        RedisConnectionFactory sourceFactory = mock(RedisConnectionFactory.class);
+        given(sourceFactory.getConnection()).willReturn(source);
+        RedisMirror mirror = new RedisMirror("alpha", "beta", mock(RedisConnectionFactory.class), mirrorProperties(10, 10, 0),
+                new SimpleAsyncTaskExecutor());
+        RedisConnection connection = new MirroringRedisConnectionFactory(sourceFactory, mirror).getConnection();
+
+        connection.multi();
+        connection.stringCommands().set(bytes("a"), bytes("1"));
+        assertThat(mirror.getQueueSize()).isZero();
+        connection.discard();
+        assertThat(mirror.getQueueSize()).isZero();
+
+        connection.multi();
+        connection.stringCommands().set(bytes("b"), bytes("2"));
+        connection.exec();
+        assertThat(mirror.getQueueSize()).isEqualTo(1);
+
+        given(source.exec()).willReturn(null);
+        connection.multi();
+        connection.stringCommands().set(bytes("c"), bytes("3"));
+        connection.exec();
+        assertThat(mirror.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    void copiesWritesAndComparesShadowReads() {
+        RedisStringCommands sourceCommands = mock(RedisStringCommands.class);
+        given(sourceCommands.set(any(), any())).willReturn(true);
+        given(sourceCommands.get(any())).willReturn(bytes("v1"));
+        RedisStringCommands targetCommands = mock(RedisStringCommands.class);
+        given(targetCommands.get(any())).willReturn(bytes("v1"), bytes("stale"));
+        RedisConnectionFactory target = connectionFactory(targetCommands);
+
+        RedisMirror mirror = new RedisMirror("alpha", "beta", target, mirrorProperties(10, 2, 1.0), new SimpleAsyncTaskExecutor());
+        StringRedisTemplate template = new StringRedisTemplate(new MirroringRedisConnectionFactory(connectionFactory(sourceCommands), mirror));
+        mirror.start();
+        try {
+            template.opsForValue().set("order:1", "v1");
+            template.opsForValue().set("order:2", "v2");
+            template.opsForValue().set("order:3", "v3");
+            verify(targetCommands, timeout(5000)).set(bytes("order:3"), bytes("v3"));
+            verify(targetCommands).set(bytes("order:1"), bytes("v1"));
+            await().atMost(Duration.ofSeconds(5)).until(() -> mirror.getCopied() == 3);
+
+            assertThat(template.opsForValue().get("order:1")).isEqualTo("v1");
+            await().atMost(Duration.ofSeconds(5)).until(() -> mirror.getCompared() == 1);
+            assertThat(template.opsForValue().get("order:1")).isEqualTo("v1");
+            await().atMost(Duration.ofSeconds(5)).until(() -> mirror.getCompared() == 2);
+            assertThat(mirror.getMismatches()).isEqualTo(1);
+        } finally {
+            mirror.stop();
+        }
+    }
+
+    @Test
+    void dropsWritesWhenQueueIsFull() {
+        RedisMirror mirror = new RedisMirror("alpha", "beta", mock(RedisConnectionFactory.class), mirrorProperties(1, 1, 0),
+                new SimpleAsyncTaskExecutor());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        RedisMirrorMetrics.bindTo(registry, mirror);
+        Method set = ReflectionUtils.findMethod(RedisStringCommands.class, "set", byte[].class, byte[].class);
+
+        assertThat(mirror.write(set, new Object[]{bytes("a"), bytes("1")})).isTrue();
+        assertThat(mirror.write(set, new Object[]{bytes("b"), bytes("2")})).isFalse();
+
+        assertThat(registry.get("redis.mirror.queue.size").tags("source", "alpha", "target", "beta").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("redis.mirror.writes").tags("result", "dropped").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void pipelinesWritesInBatches() {
+        RedisStringCommands targetCommands = mock(RedisStringCommands.class);
+        RedisConnection connection = connection(targetCommands);
+        RedisConnectionFactory target = mock(RedisConnectionFactory.class);
+        given(target.getConnection()).willReturn(connection);
+        RedisMirror mirror = new RedisMirror("alpha", "beta", target, mirrorProperties(10, 2, 0), new SimpleAsyncTaskExecutor());
+        Method setEx = ReflectionUtils.findMethod(RedisStringCommands.class, "set", byte[].class, byte[].class,
+                Expiration.class, RedisStringCommands.SetOption.class);
+
+        for (int i = 0; i < 5; i++) {
+            mirror.write(setEx, new Object[]{bytes("k" + i), bytes("v"), Expiration.seconds(60), RedisStringCommands.SetOption.upsert()});
+        }
+        mirror.start();
+        try {
+            await().atMost(Duration.ofSeconds(5)).until(() -> mirror.getCopied() == 5);
+        } finally {
+            mirror.stop();
+        }
+
+        verify(connection, times(3)).openPipeline();
+        verify(connection, times(3)).closePipeline();
+        verify(targetCommands).set(bytes("k4"), bytes("v"), Expiration.seconds(60), RedisStringCommands.SetOption.upsert());
+        assertThat(mirror.getQueueSize()).isZero();
+    }
+
+    private RedisConnectionFactory connectionFactory(RedisStringCommands commands) {
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        given(factory.getConnection()).willAnswer((call) -> connection(commands));
+        return factory;
+    }
+
+    private RedisConnection connection(RedisStringCommands commands) {
+        RedisConnection connection = mock(RedisConnection.class, withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        given(connection.stringCommands()).willReturn(commands);
+        given(connection.isPipelined()).willReturn(false);
+        given(connection.isQueueing()).willReturn(false);
+        return connection;
+    }
+
+    private RedisSourceProperties.Mirror mirrorProperties(int queueCapacity, int batchSize, double shadowReadRate) {
+        RedisSourceProperties.Mirror mirror = new RedisSourceProperties.Mirror();
+        mirror.setTarget("beta");
+        mirror.setQueueCapacity(queueCapacity);
+        mirror.setBatchSize(batchSize);
+        mirror.setShadowReadRate(shadowReadRate);
+        return mirror;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.lettuce.core.KeyValue;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.cluster.SlotHash;
+import io.lettuce.core.cluster.api.async.RedisAdvancedClusterAsyncCommands;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisClusterNode;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link RedisMultiKeyExecutor}.
+ */
+class RedisMultiKeyExecutorTests {
+
+    private final Map<String, String> store = new LinkedHashMap<>();
+
+    private final Map<String, List<Integer>> commandSizes = new LinkedHashMap<>();
+
+    private RedisClusterAsyncCommands<byte[], byte[]> nodeA;
+
+    private RedisClusterAsyncCommands<byte[], byte[]> nodeB;
+
+    private RedisMultiKeyExecutor<String, String> executor;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        // node a serves slots 0-8191, node b serves 8192-16383
+        List<RedisClusterNode> nodes = List.of(node("a", 7000, 0, 8191), node("b", 7001, 8192, SlotHash.SLOT_COUNT - 1));
+
+        RedisAdvancedClusterAsyncCommands<byte[], byte[]> cluster = mock(RedisAdvancedClusterAsyncCommands.class);
+        this.nodeA = nodeCommands("a");
+        this.nodeB = nodeCommands("b");
+        given(cluster.getConnection("a")).willReturn(nodeA);
+        given(cluster.getConnection("b")).willReturn(nodeB);
+
+        RedisClusterConnection connection = mock(RedisClusterConnection.class);
+        given(connection.getNativeConnection()).willReturn(cluster);
+        given(connection.clusterGetNodes()).willReturn(nodes);
+        RedisConnectionFactory connectionFactory = mock(RedisConnectionFactory.class);
+        given(connectionFactory.getConnection()).willReturn(connection);
+        given(connectionFactory.getClusterConnection()).willReturn(connection);
+
+        this.executor = new RedisMultiKeyExecutor<>(new StringRedisTemplate(connectionFactory), 2);
+    }
+
+    @Test
+    void getsValuesInInputOrderWithOneCommandPerSlotBatch() {
+        List<String> keys = List.of("{user:1}:name", "{user:2}:name", "{user:1}:mail", "{user:1}:age", "missing");
+        keys.stream().filter((key) -> !key.equals("missing")).forEach((key) -> store.put(key, "v-" + key));
+
+        List<String> values = executor.mget(keys);
+
+        assertThat(values).containsExactly("v-{user:1}:name", "v-{user:2}:name", "v-{user:1}:mail", "v-{user:1}:age", null);
+        // three keys of slot {user:1} are split by the batch size of 2
+        int commands = commandSizes.values().stream().mapToInt(List::size).sum();
+        assertThat(commands).isEqualTo(4);
+        assertThat(commandSizes.values()).allSatisfy((sizes) -> assertThat(sizes).allMatch((size) -> size <= 2));
+    }
+
+    @Test
+    void setsAndDeletesAcrossNodes() {
+        Map<String, String> entries = new LinkedHashMap<>();
+        IntStream.range(0, 20).forEach((i) -> entries.put("key:" + i, "value:" + i));
+
+        executor.mset(entries);
+        assertThat(store).isEqualTo(entries);
+        assertThat(commandSizes).containsKeys("a", "b");
+
+        List<String> keys = new ArrayList<>(entries.keySet());
+        keys.add("missing");
+        assertThat(executor.del(keys.subList(0, 10))).isEqualTo(10);
+        assertThat(executor.unlink(keys)).isEqualTo(10);
+        assertThat(store).isEmpty();
+    }
+
+    @Test
+    void propagatesNodeFailures() {
+        RedisFuture<List<KeyValue<byte[], byte[]>>> failed = redisFuture(CompletableFuture.failedFuture(new IllegalStateException("node down")));
+        given(nodeB.mget(any(byte[][].class))).willReturn(failed);
+        List<String> keys = IntStream.range(0, 20).mapToObj((i) -> "key:" + i).toList();
+
+        assertThatExceptionOfType(RedisSystemException.class)
+                .isThrownBy(() -> executor.mget(keys))
+                .withMessageContaining("node down");
+    }
+
+    private RedisClusterNode node(String nodeId, int port, int from, int to) {
+        return RedisClusterNode.newRedisClusterNode()
+                .withId(nodeId)
+                .listeningAt("localhost", port)
+                .promotedAs(RedisClusterNode.NodeType.MASTER)
+                .serving(new RedisClusterNode.SlotRange(from, to))
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisClusterAsyncCommands<byte[], byte[]> nodeCommands(String nodeId) {
+        RedisClusterAsyncCommands<byte[], byte[]> commands = mock(RedisClusterAsyncCommands.class);
+        given(commands.mget(any(byte[][].class))).willAnswer((call) -> {
+            byte[][] keys = (byte[][]) call.getRawArguments()[0];
+            record(nodeId, keys);
+            List<KeyValue<byte[], byte[]>> values = Arrays.stream(keys)
+                    .map((key) -> KeyValue.fromNullable(key, bytes(store.get(string(key)))))
+                    .toList();
+            return redisFuture(CompletableFuture.completedFuture(values));
+        });
+        given(commands.mset(any())).willAnswer((call) -> {
+            Map<byte[], byte[]> tuples = call.getArgument(0);
+            record(nodeId, tuples.keySet().toArray(new byte[0][]));
+            tuples.forEach((key, value) -> store.put(string(key), string(value)));
+            return redisFuture(CompletableFuture.completedFuture("OK"));
+        });
+        given(commands.del(any(byte[][].class))).willAnswer((call) -> remove(nodeId, (byte[][]) call.getRawArguments()[0]));
+        given(commands.unlink(any(byte[][].class))).willAnswer((call) -> remove(nodeId, (byte[][]) call.getRawArguments()[0]));
+        return commands;
+    }
+
+    private RedisFuture<Long> remove(String nodeId, byte[][] keys) {
+        record(nodeId, keys);
+        long removed = Arrays.stream(keys).filter((key) -> store.remove(string(key)) != null).count();
+        return redisFuture(CompletableFuture.completedFuture(removed));
+    }
+
+    private void record(String nodeId, byte[][] keys) {
+        int slot = SlotHash.getSlot(keys[0]);
+        assertThat(Arrays.stream(keys).mapToInt(SlotHash::getSlot)).containsOnly(slot);
+        commandSizes.computeIfAbsent(nodeId, (id) -> new ArrayList<>()).add(keys.length);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RedisFuture<T> redisFuture(CompletableFuture<T> future) {
+        RedisFuture<T> redisFuture = mock(RedisFuture.class);
+        given(redisFuture.toCompletableFuture()).willReturn(future);
+        return redisFuture;
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -22,6 +22,7 @@ import org.springframework.boot.test.context.runner.ApplicationContextRunner;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -61,5 +62,143 @@ class RedisMultiSourcesAutoConfigurationTests {
                     .containsKeys("alphaStringRedisTemplate", "betaStringRedisTemplate");
         });
     }
+
+    @Test
+    void registersPipelineExecutorPerSource() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.redis.sources.beta.pipelining.batch-size=50")
+                .run((context) -> {
+                    assertThat(context.getBeansOfType(RedisPipelineExecutor.class))
+                            .containsKeys("alphaRedisPipelineExecutor", "betaRedisPipelineExecutor");
+
+                    RedisPipelineExecutor<?, ?> alpha = context.getBean("alphaRedisPipelineExecutor", RedisPipelineExecutor.class);
+                    RedisPipelineExecutor<?, ?> beta = context.getBean("betaRedisPipelineExecutor", RedisPipelineExecutor.class);
+                    assertThat(alpha.getBatchSize()).isEqualTo(1000);
+                    assertThat(beta.getBatchSize()).isEqualTo(50);
+                    assertThat(beta.getOperations()).isSameAs(context.getBean("betaStringRedisTemplate"));
+                });
+    }
+
+    @Test
+    void registersMultiKeyExecutorPerSource() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.redis.sources.beta.pipelining.batch-size=50")
+                .run((context) -> {
+                    assertThat(context.getBeansOfType(RedisMultiKeyExecutor.class))
+                            .containsKeys("alphaRedisMultiKeyExecutor", "betaRedisMultiKeyExecutor");
+
+                    RedisMultiKeyExecutor<?, ?> beta = context.getBean("betaRedisMultiKeyExecutor", RedisMultiKeyExecutor.class);
+                    assertThat(beta.getBatchSize()).isEqualTo(50);
+                    assertThat(beta.getOperations()).isSameAs(context.getBean("betaStringRedisTemplate"));
+                });
+    }
+
+    @Test
+    void registersPrefixRoutingTemplateWhenEnabled() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.multi-sources.redis.routing.enabled=true",
+                        "spring.multi-sources.redis.routing.primary=true",
+                        "spring.multi-sources.redis.routing.routes.[session*]=beta"
+                )
+                .run((context) -> {
+                    PrefixRoutingRedisTemplate template = context.getBean("prefixRoutingRedisTemplate", PrefixRoutingRedisTemplate.class);
+                    assertThat(context.getBean(StringRedisTemplate.class)).isSameAs(template);
+                    assertThat(template.getSource("session:1")).isEqualTo("beta");
+                    assertThat(template.getSource("user:1")).isEqualTo("alpha");
+                });
+        this.contextRunner.run((context) -> assertThat(context).doesNotHaveBean(PrefixRoutingRedisTemplate.class));
+    }
+
+    @Test
+    void registersMultiSourceLockOverLockSources() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.redis.lock.sources=beta",
+                        "spring.multi-sources.redis.lock.drift-factor=0.02")
+                .run((context) -> {
+                    MultiSourceRedisLock lock = context.getBean("multiSourceRedisLock", MultiSourceRedisLock.class);
+                    assertThat(lock.getSourceNames()).containsExactly("beta");
+                    assertThat(lock.getQuorum()).isEqualTo(1);
+                    assertThat(lock.getDriftFactor()).isEqualTo(0.02);
+                });
+        this.contextRunner.run((context) -> assertThat(context).doesNotHaveBean(MultiSourceRedisLock.class));
+    }
+
+    @Test
+    void mirrorsSourceToTarget() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.redis.sources.alpha.mirror.target=beta",
+                        "spring.multi-sources.redis.sources.alpha.mirror.shadow-read-rate=0.01")
+                .run((context) -> {
+                    assertThat(context).hasBean("alphaRedisMirror");
+                    assertThat(context).doesNotHaveBean("betaRedisMirror");
+
+                    RedisMirror mirror = context.getBean("alphaRedisMirror", RedisMirror.class);
+                    assertThat(mirror.getTargetName()).isEqualTo("beta");
+                    assertThat(mirror.isRunning()).isTrue();
+                    assertThat(context.getBean("alphaStringRedisTemplate", StringRedisTemplate.class).getConnectionFactory())
+                            .isInstanceOfSatisfying(MirroringRedisConnectionFactory.class,
+                                    (factory) -> assertThat(factory.getMirror()).isSameAs(mirror));
+                    assertThat(context.getBean("betaStringRedisTemplate", StringRedisTemplate.class).getConnectionFactory())
+                            .isSameAs(context.getBean("betaLettuceConnectionFactory"));
+                });
+    }
+
+    @Test
+    void cachesHotKeysOfEnabledSources() {
+        this.contextRunner
+                .withPropertyValues("spring.multi-sources.redis.sources.beta.hot-keys.enabled=true")
+                .run((context) -> {
+                    assertThat(context).hasBean("betaRedisHotKeyDetector");
+                    assertThat(context).doesNotHaveBean("alphaRedisHotKeyDetector");
+
+                    StringRedisTemplate beta = context.getBean("betaStringRedisTemplate", StringRedisTemplate.class);
+                    assertThat(beta.getConnectionFactory()).isInstanceOfSatisfying(HotKeyCachingRedisConnectionFactory.class,
+                            (factory) -> assertThat(factory.getDetector()).isSameAs(context.getBean("betaRedisHotKeyDetector")));
+                    assertThat(context.getBean("betaRedisTemplate", RedisTemplate.class).getConnectionFactory())
+                            .isInstanceOf(HotKeyCachingRedisConnectionFactory.class);
+                    assertThat(context.getBean("alphaStringRedisTemplate", StringRedisTemplate.class).getConnectionFactory())
+                            .isSameAs(context.getBean("alphaLettuceConnectionFactory"));
+                });
+    }
+
+    @Test
+    void registersScriptRegistryPerSource() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.multi-sources.redis.sources.alpha.scripts.preload=false",
+                        "spring.multi-sources.redis.sources.beta.scripts.preload=false"
+                )
+                .withBean("releaseLock", RedisScript.class, () -> RedisScript.of("return redis.call('DEL', KEYS[1])", Long.class))
+                .run((context) -> {
+                    assertThat(context.getBeansOfType(RedisScriptRegistry.class))
+                            .containsKeys("alphaRedisScriptRegistry", "betaRedisScriptRegistry");
+                    RedisScriptRegistry beta = context.getBean("betaRedisScriptRegistry", RedisScriptRegistry.class);
+                    assertThat(beta.getScriptNames()).containsExactlyInAnyOrder("incr-if-exists", "releaseLock");
+                    assertThat(beta.getScript("releaseLock", Long.class).getSha1())
+                            .isEqualTo(context.getBean("releaseLock", RedisScript.class).getSha1());
+                });
+    }
+
+    @Test
+    void compressesTemplateValuesWhenEnabled() {
+        this.contextRunner
+                .withPropertyValues(
+                        "spring.multi-sources.redis.sources.beta.compression.enabled=true",
+                        "spring.multi-sources.redis.sources.beta.compression.threshold=512B"
+                )
+                .run((context) -> {
+                    StringRedisTemplate beta = context.getBean("betaStringRedisTemplate", StringRedisTemplate.class);
+                    assertThat(beta.getValueSerializer()).isInstanceOfSatisfying(CompressingRedisSerializer.class,
+                            (serializer) -> assertThat(serializer.getThreshold()).isEqualTo(512));
+                    assertThat(beta.getHashValueSerializer()).isInstanceOf(CompressingRedisSerializer.class);
+                    assertThat(beta.getKeySerializer()).isNotInstanceOf(CompressingRedisSerializer.class);
+                    assertThat(context.getBean("betaRedisTemplate", RedisTemplate.class).getValueSerializer())
+                            .isInstanceOf(CompressingRedisSerializer.class);
+
+                    assertThat(context.getBean("alphaStringRedisTemplate", StringRedisTemplate.class).getValueSerializer())
+                            .isNotInstanceOf(CompressingRedisSerializer.class);
+                });
+    }
 }
 
@@ -23,6 +23,9 @@ import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.data.redis.autoconfigure.DataRedisConnectionDetails;
 import org.springframework.boot.data.redis.autoconfigure.DataRedisProperties;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
 import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.Constructor;
@@ -53,6 +56,7 @@ class RedisMultiSourcesRuntimeHintsTests {
                 .onMethodInvocation(resolveMethod(RedisDataClassNames.LETTUCE_CONNECTION_CONFIGURATION,
                         "createConnectionFactory", ObjectProvider.class, ObjectProvider.class, ClientResources.class)))
                 .accepts(hints);
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(RedisConnection.class)).accepts(hints);
     }
 
     @Test
@@ -71,9 +75,25 @@ class RedisMultiSourcesRuntimeHintsTests {
                     .onMethodInvocation(resolveMethod(RedisDataClassNames.JEDIS_CONNECTION_CONFIGURATION,
                             "createJedisConnectionFactory", ObjectProvider.class)))
                     .accepts(hints);
+
+            assertThat(RuntimeHintsPredicates.proxies().forInterfaces(RedisConnection.class)).accepts(hints);
+            assertThat(RuntimeHintsPredicates.proxies().forInterfaces(RedisStringCommands.class)).accepts(hints);
         }
     }
 
+    @Test
+    void registersReflectionHintsForPoolFields() {
+        RuntimeHints hints = new RuntimeHints();
+        new RedisMultiSourcesRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onFieldAccess(LettuceConnectionFactory.class, "connectionProvider"))
+                .accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection()
+                .onFieldAccess(resolveClass(RedisDataClassNames.LETTUCE_POOLING_CONNECTION_PROVIDER), "pools"))
+                .accepts(hints);
+    }
+
     @Test
     void failsWhenRequiredClassesMissing() {
         ClassLoader missingClasses = new ClassLoader(getClass().getClassLoader()) {
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link RedisPipelineExecutor}.
+ */
+class RedisPipelineExecutorTests {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void splitsItemsIntoBoundedPipelines() {
+        RedisOperations<String, String> operations = mock(RedisOperations.class);
+        List<Integer> batchSizes = new ArrayList<>();
+        given(operations.executePipelined(any(SessionCallback.class))).willAnswer((invocation) -> {
+            List<String> issued = new ArrayList<>();
+            RedisOperations<String, String> session = mock(RedisOperations.class);
+            given(session.hasKey(any())).willAnswer((call) -> issued.add(call.getArgument(0)));
+            invocation.<SessionCallback<?>>getArgument(0).execute(session);
+            batchSizes.add(issued.size());
+            return new ArrayList<Object>(issued);
+        });
+
+        RedisPipelineExecutor<String, String> executor = new RedisPipelineExecutor<>(operations, 4);
+        List<String> keys = IntStream.range(0, 10).mapToObj((i) -> "key:" + i).toList();
+        List<Object> results = executor.execute(keys, RedisOperations::hasKey);
+
+        assertThat(batchSizes).containsExactly(4, 4, 2);
+        assertThat(results).containsExactlyElementsOf(keys);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectsNonPositiveBatchSize() {
+        assertThatIllegalArgumentException()
+                .isThrownBy(() -> new RedisPipelineExecutor<>(mock(RedisOperations.class), 0));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.commons.pool2.BasePooledObjectFactory;
+import org.apache.commons.pool2.PooledObject;
+import org.apache.commons.pool2.impl.DefaultPooledObject;
+import org.apache.commons.pool2.impl.GenericObjectPool;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.data.redis.autoconfigure.DataRedisProperties;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link RedisPoolManager}.
+ */
+class RedisPoolManagerTests {
+
+    @Test
+    void growsMaxActiveWhenCallersWait() throws Exception {
+        RedisPoolManager manager = createManager(4, 8);
+        GenericObjectPool<Object> objectPool = createObjectPool(4);
+        List<Object> borrowed = borrow(objectPool, 4);
+
+        CompletableFuture<Object> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return objectPool.borrowObject();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        await().atMost(Duration.ofSeconds(5)).until(() -> objectPool.getNumWaiters() == 1);
+
+        manager.adjust(objectPool);
+
+        assertThat(objectPool.getMaxTotal()).isEqualTo(6);
+        assertThat(objectPool.getMaxIdle()).isEqualTo(6);
+        borrowed.forEach(objectPool::returnObject);
+        objectPool.returnObject(waiter.get());
+    }
+
+    @Test
+    void neverGrowsBeyondAdaptiveMaxActive() throws Exception {
+        RedisPoolManager manager = createManager(4, 5);
+        GenericObjectPool<Object> objectPool = createObjectPool(4);
+        List<Object> borrowed = borrow(objectPool, 4);
+
+        CompletableFuture<Object> waiter = CompletableFuture.supplyAsync(() -> {
+            try {
+                return objectPool.borrowObject();
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+        await().atMost(Duration.ofSeconds(5)).until(() -> objectPool.getNumWaiters() == 1);
+
+        manager.adjust(objectPool);
+        manager.adjust(objectPool);
+
+        assertThat(objectPool.getMaxTotal()).isEqualTo(5);
+        borrowed.forEach(objectPool::returnObject);
+        objectPool.returnObject(waiter.get());
+    }
+
+    @Test
+    void shrinksIdlePoolBackToConfiguredMaxActive() {
+        RedisPoolManager manager = createManager(4, 16);
+        GenericObjectPool<Object> objectPool = createObjectPool(10);
+
+        manager.adjust(objectPool);
+        assertThat(objectPool.getMaxTotal()).isEqualTo(8);
+
+        manager.adjust(objectPool);
+        manager.adjust(objectPool);
+        manager.adjust(objectPool);
+        assertThat(objectPool.getMaxTotal()).isEqualTo(4);
+        assertThat(objectPool.getMaxIdle()).isEqualTo(4);
+    }
+
+    @Test
+    void exportsPoolGaugesTaggedWithSource() {
+        RedisPoolManager manager = createManager(4, 8);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        RedisPoolMetrics.bindTo(registry, manager);
+
+        assertThat(registry.get("redis.pool.active").tag("source", "alpha").gauge().value()).isZero();
+        assertThat(registry.get("redis.pool.max.active").tag("source", "alpha").gauge()).isNotNull();
+        assertThat(registry.get("redis.pool.borrow.wait.mean").tag("source", "alpha").gauge()).isNotNull();
+    }
+
+    private RedisPoolManager createManager(int maxActive, int adaptiveMaxActive) {
+        DataRedisProperties.Pool pool = new DataRedisProperties.Pool();
+        pool.setMaxActive(maxActive);
+        RedisSourceProperties.Pooling pooling = new RedisSourceProperties.Pooling();
+        pooling.getAdaptive().setEnabled(true);
+        pooling.getAdaptive().setMaxActive(adaptiveMaxActive);
+        return new RedisPoolManager("alpha", mock(RedisConnectionFactory.class), pool, pooling, false);
+    }
+
+    private GenericObjectPool<Object> createObjectPool(int maxTotal) {
+        GenericObjectPool<Object> objectPool = new GenericObjectPool<>(new BasePooledObjectFactory<>() {
+            @Override
+            public Object create() {
+                return new Object();
+            }
+
+            @Override
+            public PooledObject<Object> wrap(Object obj) {
+                return new DefaultPooledObject<>(obj);
+            }
+        });
+        objectPool.setMaxTotal(maxTotal);
+        objectPool.setMaxIdle(maxTotal);
+        return objectPool;
+    }
+
+    private List<Object> borrow(GenericObjectPool<Object> objectPool, int count) throws Exception {
+        List<Object> borrowed = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            borrowed.add(objectPool.borrowObject());
+        }
+        return borrowed;
+    }
+}
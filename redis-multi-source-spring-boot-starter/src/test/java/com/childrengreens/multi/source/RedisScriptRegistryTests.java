@@ -0,0 +1,124 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RedisScriptRegistry}.
+ */
+class RedisScriptRegistryTests {
+
+    private static final String INCR = "return redis.call('INCRBY', KEYS[1], ARGV[1])";
+
+    private static final String PING = "return redis.call('PING')";
+
+    @SuppressWarnings("unchecked")
+    private final RedisOperations<String, String> operations = mock(RedisOperations.class);
+
+    private final Map<String, String> scripts = new LinkedHashMap<>(Map.of("incr", INCR));
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void executesScriptsBySha() {
+        RedisScriptRegistry registry = new RedisScriptRegistry("cn", operations, scripts, false, new SyncTaskExecutor());
+        given(operations.execute(any(RedisScript.class), eq(List.of("counter")), eq("2"))).willReturn(3L);
+
+        assertThat(registry.execute("incr", Long.class, List.of("counter"), "2")).isEqualTo(3L);
+
+        RedisScript<Long> script = registry.getScript("incr", Long.class);
+        assertThat(script).isSameAs(registry.getScript("incr", Long.class));
+        assertThat(script.getSha1()).isEqualTo(RedisScript.of(INCR).getSha1());
+        assertThat(script.getResultType()).isEqualTo(Long.class);
+        assertThat(registry.getScript("incr", null).getResultType()).isNull();
+    }
+
+    @Test
+    void rejectsUnknownScripts() {
+        RedisScriptRegistry registry = new RedisScriptRegistry("cn", operations, scripts, false, new SyncTaskExecutor());
+
+        assertThatIllegalArgumentException().isThrownBy(() -> registry.getScript("missing", Long.class))
+                .withMessageContaining("missing");
+    }
+
+    @Test
+    void preloadsScriptsInOnePipelineOnStart() {
+        scripts.put("ping", PING);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+        given(connection.scriptingCommands()).willReturn(scriptingCommands);
+        givenExecuteWith(connection);
+
+        RedisScriptRegistry registry = new RedisScriptRegistry("cn", operations, scripts, true, new SyncTaskExecutor());
+        registry.start();
+
+        var order = inOrder(connection, scriptingCommands);
+        order.verify(connection).openPipeline();
+        order.verify(scriptingCommands).scriptLoad(INCR.getBytes(StandardCharsets.UTF_8));
+        order.verify(scriptingCommands).scriptLoad(PING.getBytes(StandardCharsets.UTF_8));
+        order.verify(connection).closePipeline();
+        assertThat(registry.isRunning()).isTrue();
+    }
+
+    @Test
+    void loadsScriptsWithoutPipelineOnClusters() {
+        RedisClusterConnection connection = mock(RedisClusterConnection.class);
+        RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+        given(connection.scriptingCommands()).willReturn(scriptingCommands);
+        givenExecuteWith(connection);
+
+        new RedisScriptRegistry("us", operations, scripts, true, new SyncTaskExecutor()).load();
+
+        verify(scriptingCommands).scriptLoad(INCR.getBytes(StandardCharsets.UTF_8));
+        verify(connection, never()).openPipeline();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void skipsPreloadWhenDisabled() {
+        new RedisScriptRegistry("cn", operations, scripts, false, new SyncTaskExecutor()).start();
+
+        verify(operations, never()).execute(any(RedisCallback.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenExecuteWith(RedisConnection connection) {
+        given(operations.execute(any(RedisCallback.class)))
+                .willAnswer((invocation) -> invocation.<RedisCallback<Object>>getArgument(0).doInRedis(connection));
+    }
+}
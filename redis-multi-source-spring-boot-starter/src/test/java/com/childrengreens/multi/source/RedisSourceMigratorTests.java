@@ -0,0 +1,212 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import io.lettuce.core.KeyScanCursor;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RestoreArgs;
+import io.lettuce.core.ScanArgs;
+import io.lettuce.core.ScanCursor;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalStateException;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests for {@link RedisSourceMigrator}.
+ */
+class RedisSourceMigratorTests {
+
+    private final Map<String, String> sourceStore = new LinkedHashMap<>();
+
+    private final Map<String, String> targetStore = new LinkedHashMap<>();
+
+    private final List<String> scannedCursors = new ArrayList<>();
+
+    @Test
+    void copiesKeysInBatchesAndCheckpointsRestoredCursors() {
+        seed();
+        List<RedisSourceMigrator.Checkpoint> saved = new ArrayList<>();
+        RedisSourceMigrator.CheckpointStore memory = RedisSourceMigrator.CheckpointStore.inMemory();
+        RedisSourceMigrator migrator = migrator();
+        migrator.setCheckpointStore(new RecordingCheckpointStore(memory, saved));
+
+        RedisSourceMigrator.Result result = migrator.migrate("tenant:*");
+
+        assertThat(result).isEqualTo(new RedisSourceMigrator.Result(5, 0, true));
+        assertThat(targetStore).isEqualTo(sourceStore);
+        assertThat(scannedCursors).containsExactly("0", "1", "2");
+        assertThat(saved).extracting(RedisSourceMigrator.Checkpoint::cursor).containsExactly("1", "2", "0");
+        assertThat(saved.get(1).migrated()).isEqualTo(4);
+        assertThat(saved.get(2).isNodeCompleted()).isTrue();
+        assertThat(saved.get(2).migrated()).isEqualTo(5);
+        assertThat(memory.load("tenant:*")).isNull();
+    }
+
+    @Test
+    void resumesFromCheckpoint() {
+        seed();
+        RedisSourceMigrator migrator = migrator();
+        migrator.getCheckpointStore().save("tenant:*", new RedisSourceMigrator.Checkpoint("", "2", 4, 0));
+
+        RedisSourceMigrator.Result result = migrator.migrate("tenant:*");
+
+        assertThat(result).isEqualTo(new RedisSourceMigrator.Result(5, 0, true));
+        assertThat(scannedCursors).containsExactly("2");
+        assertThat(targetStore).containsOnlyKeys("tenant:4");
+    }
+
+    @Test
+    void skipsCompletedNodeOnResume() {
+        seed();
+        RedisSourceMigrator migrator = migrator();
+        migrator.getCheckpointStore().save("tenant:*", new RedisSourceMigrator.Checkpoint("", "0", 5, 0));
+
+        RedisSourceMigrator.Result result = migrator.migrate("tenant:*");
+
+        assertThat(result).isEqualTo(new RedisSourceMigrator.Result(5, 0, true));
+        assertThat(scannedCursors).isEmpty();
+        assertThat(targetStore).isEmpty();
+    }
+
+    @Test
+    void skipsKeysExistingOnTarget() {
+        seed();
+        targetStore.put("tenant:0", "existing");
+
+        RedisSourceMigrator.Result result = migrator().migrate("tenant:*");
+
+        assertThat(result).isEqualTo(new RedisSourceMigrator.Result(4, 1, true));
+        assertThat(targetStore).containsEntry("tenant:0", "existing");
+    }
+
+    @Test
+    void rejectsNonLettuceConnections() {
+        RedisConnection connection = mock(RedisConnection.class);
+        given(connection.getNativeConnection()).willReturn(new Object());
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        given(factory.getConnection()).willReturn(connection);
+
+        assertThatIllegalStateException()
+                .isThrownBy(() -> new RedisSourceMigrator(factory, factory).migrate("tenant:*"))
+                .withMessageContaining("Lettuce");
+    }
+
+    private void seed() {
+        for (int i = 0; i < 5; i++) {
+            sourceStore.put("tenant:" + i, "value:" + i);
+        }
+    }
+
+    private RedisSourceMigrator migrator() {
+        RedisSourceMigrator migrator = new RedisSourceMigrator(connectionFactory(sourceCommands()), connectionFactory(targetCommands()));
+        migrator.setBatchSize(2);
+        migrator.setRateLimit(1000);
+        return migrator;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisClusterAsyncCommands<byte[], byte[]> sourceCommands() {
+        RedisClusterAsyncCommands<byte[], byte[]> commands = mock(RedisClusterAsyncCommands.class);
+        // pages of two keys, the cursor is the index of the next page
+        given(commands.scan(any(ScanCursor.class), any(ScanArgs.class))).willAnswer((call) -> {
+            String cursor = call.<ScanCursor>getArgument(0).getCursor();
+            scannedCursors.add(cursor);
+            List<String> keys = new ArrayList<>(sourceStore.keySet());
+            int from = Integer.parseInt(cursor) * 2;
+            int to = Math.min(from + 2, keys.size());
+            KeyScanCursor<byte[]> scan = new KeyScanCursor<>();
+            keys.subList(from, to).forEach((key) -> scan.getKeys().add(bytes(key)));
+            scan.setCursor(to == keys.size() ? "0" : String.valueOf(Integer.parseInt(cursor) + 1));
+            scan.setFinished(to == keys.size());
+            return redisFuture(CompletableFuture.completedFuture(scan));
+        });
+        given(commands.dump(any())).willAnswer((call) -> redisFuture(CompletableFuture.completedFuture(bytes(sourceStore.get(string(call.getArgument(0)))))));
+        given(commands.pttl(any())).willAnswer((call) -> redisFuture(CompletableFuture.completedFuture(-1L)));
+        return commands;
+    }
+
+    @SuppressWarnings("unchecked")
+    private RedisClusterAsyncCommands<byte[], byte[]> targetCommands() {
+        RedisClusterAsyncCommands<byte[], byte[]> commands = mock(RedisClusterAsyncCommands.class);
+        given(commands.restore(any(), any(byte[].class), any(RestoreArgs.class))).willAnswer((call) -> {
+            String key = string(call.getArgument(0));
+            if (targetStore.containsKey(key)) {
+                return redisFuture(CompletableFuture.failedFuture(new RedisCommandExecutionException("BUSYKEY Target key name already exists.")));
+            }
+            targetStore.put(key, string(call.getArgument(1)));
+            return redisFuture(CompletableFuture.completedFuture("OK"));
+        });
+        return commands;
+    }
+
+    private RedisConnectionFactory connectionFactory(RedisClusterAsyncCommands<byte[], byte[]> commands) {
+        RedisConnection connection = mock(RedisConnection.class);
+        given(connection.getNativeConnection()).willReturn(commands);
+        RedisConnectionFactory factory = mock(RedisConnectionFactory.class);
+        given(factory.getConnection()).willReturn(connection);
+        return factory;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> RedisFuture<T> redisFuture(CompletableFuture<T> future) {
+        RedisFuture<T> redisFuture = mock(RedisFuture.class);
+        given(redisFuture.toCompletableFuture()).willReturn(future);
+        return redisFuture;
+    }
+
+    private static byte[] bytes(String value) {
+        return value != null ? value.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String string(byte[] value) {
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private record RecordingCheckpointStore(RedisSourceMigrator.CheckpointStore delegate,
+                                            List<RedisSourceMigrator.Checkpoint> saved) implements RedisSourceMigrator.CheckpointStore {
+
+        @Override
+        public RedisSourceMigrator.Checkpoint load(String migrationId) {
+            return delegate.load(migrationId);
+        }
+
+        @Override
+        public void save(String migrationId, RedisSourceMigrator.Checkpoint checkpoint) {
+            saved.add(checkpoint);
+            delegate.save(migrationId, checkpoint);
+        }
+
+        @Override
+        public void remove(String migrationId) {
+            delegate.remove(migrationId);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2025 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.childrengreens.multi.source;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.stream.RecordId;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StreamOperations;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests for {@link RedisStreamAcknowledger}.
+ */
+class RedisStreamAcknowledgerTests {
+
+    private final List<String> acknowledged = new CopyOnWriteArrayList<>();
+
+    private final List<Integer> pipelines = new CopyOnWriteArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private final RedisOperations<String, String> operations = mock(RedisOperations.class);
+
+    @SuppressWarnings("unchecked")
+    RedisStreamAcknowledgerTests() {
+        given(operations.executePipelined(any(SessionCallback.class))).willAnswer((invocation) -> {
+            RedisOperations<String, String> session = mock(RedisOperations.class);
+            StreamOperations<String, Object, Object> streamOperations = mock(StreamOperations.class);
+            given(session.opsForStream()).willReturn(streamOperations);
+            int before = acknowledged.size();
+            given(streamOperations.acknowledge(anyString(), anyString(), any(RecordId[].class))).willAnswer((call) -> {
+                RecordId[] ids = (RecordId[]) call.getRawArguments()[2];
+                acknowledged.add(call.getArgument(0) + "/" + call.getArgument(1) + "=" + Arrays.toString(ids));
+                return (long) ids.length;
+            });
+            invocation.<SessionCallback<?>>getArgument(0).execute(session);
+            pipelines.add(acknowledged.size() - before);
+            return List.of();
+        });
+    }
+
+    @Test
+    void acknowledgesOncePerStreamAndGroupInOnePipeline() {
+        RedisStreamAcknowledger acknowledger = new RedisStreamAcknowledger("alpha", operations, 3, Duration.ofMinutes(1), false);
+
+        acknowledger.acknowledge("orders", "billing", RecordId.of("1-0"));
+        acknowledger.acknowledge("payments", "billing", RecordId.of("2-0"));
+        verify(operations, never()).executePipelined(any(SessionCallback.class));
+
+        acknowledger.acknowledge("orders", "billing", RecordId.of("3-0"));
+        assertThat(pipelines).containsExactly(2);
+        assertThat(acknowledged).containsExactly("orders/billing=[1-0, 3-0]", "payments/billing=[2-0]");
+    }
+
+    @Test
+    void flushesPendingRecordsOnStop() {
+        RedisStreamAcknowledger acknowledger = new RedisStreamAcknowledger("alpha", operations, 100, Duration.ofMinutes(1), false);
+        acknowledger.start();
+        acknowledger.acknowledge("orders", "billing", RecordId.of("1-0"));
+
+        acknowledger.stop();
+
+        assertThat(acknowledger.isRunning()).isFalse();
+        assertThat(acknowledged).containsExactly("orders/billing=[1-0]");
+    }
+
+    @Test
+    void flushesPendingRecordsOnInterval() {
+        RedisStreamAcknowledger acknowledger = new RedisStreamAcknowledger("alpha", operations, 100, Duration.ofMillis(20), false);
+        acknowledger.start();
+        try {
+            acknowledger.acknowledge("orders", "billing", RecordId.of("1-0"));
+            await().atMost(Duration.ofSeconds(5))
+                    .untilAsserted(() -> assertThat(acknowledged).containsExactly("orders/billing=[1-0]"));
+        } finally {
+            acknowledger.stop();
+        }
+    }
+}